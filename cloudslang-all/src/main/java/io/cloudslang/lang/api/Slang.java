@@ -61,6 +61,12 @@ public interface Slang {
 	 */
 	Long compileAndRun(SlangSource source, Set<SlangSource> dependencies, Map<String, ? extends Serializable> runInputs, Set<SystemProperty> systemProperties);
 
+    /**
+     * Cancel a running flow or operation
+     * @param executionId the execution ID in score
+     */
+    void cancel(Long executionId);
+
     /**
      * Subscribe to events of score or CloudSlang
      * @param eventListener listener for the events
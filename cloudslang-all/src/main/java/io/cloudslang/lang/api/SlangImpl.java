@@ -111,6 +111,11 @@ public class SlangImpl implements Slang {
 		return run(compilationArtifact, runInputs, systemProperties);
 	}
 
+    @Override
+    public void cancel(Long executionId) {
+        score.cancelExecution(executionId);
+    }
+
     @Override
     public void subscribeOnEvents(ScoreEventListener eventListener, Set<String> eventTypes) {
         eventBus.subscribe(eventListener, eventTypes);
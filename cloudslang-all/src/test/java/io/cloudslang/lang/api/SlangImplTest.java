@@ -200,6 +200,12 @@ public class SlangImplTest {
         Mockito.verify(mockSlang).compileAndRun(tempFile, new HashSet<SlangSource>(), new HashMap<String, Serializable>(), new HashSet<SystemProperty>());
     }
 
+    @Test
+    public void testCancel() {
+        slang.cancel(1L);
+        Mockito.verify(score).cancelExecution(1L);
+    }
+
     // tests for subscribeOnEvents() method
 
     @Test
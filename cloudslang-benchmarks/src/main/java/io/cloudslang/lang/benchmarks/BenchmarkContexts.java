@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contexts of the benchmarks: variables var_0 .. var_(size - 1) bound to string values
+ */
+public class BenchmarkContexts {
+
+    public static final String VARIABLE_PREFIX = "var_";
+
+    private BenchmarkContexts() {
+    }
+
+    public static Map<String, Value> createContext(int size) {
+        Map<String, Value> context = new HashMap<>(size);
+        for (int index = 0; index < Math.max(size, 3); index++) {
+            context.put(VARIABLE_PREFIX + index, ValueFactory.create("value_of_variable_" + index));
+        }
+        return context;
+    }
+}
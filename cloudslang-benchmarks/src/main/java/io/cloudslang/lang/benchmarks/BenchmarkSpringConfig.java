@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.runtime.configuration.SlangRuntimeSpringConfig;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The runtime beans, and the encryption beans of the entities that sensitive values need
+ */
+@Configuration
+@Import({SlangRuntimeSpringConfig.class, SlangCompilerSpringConfig.class})
+@ComponentScan("io.cloudslang.lang.entities")
+public class BenchmarkSpringConfig {
+}
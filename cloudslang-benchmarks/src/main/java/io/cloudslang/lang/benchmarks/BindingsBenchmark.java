@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.InputsBinding;
+import io.cloudslang.lang.runtime.bindings.OutputsBinding;
+import io.cloudslang.lang.runtime.bindings.ResultsBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of the inputs, outputs and result of an executable, each with the given number of expressions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingsBenchmark {
+
+    private static final int EXPRESSIONS = 10;
+
+    @Param({"10", "100", "1000"})
+    public int contextSize;
+
+    @Param({"VARIABLE", "OPERATIONS", "FUNCTIONS"})
+    public ExpressionComplexity complexity;
+
+    private InputsBinding inputsBinding;
+    private OutputsBinding outputsBinding;
+    private ResultsBinding resultsBinding;
+
+    private Map<String, Value> context;
+    private Map<String, Value> returnContext;
+    private Set<SystemProperty> systemProperties;
+    private List<Input> inputs;
+    private List<Output> outputs;
+    private List<Result> results;
+
+    @Setup
+    public void setUp(SpringBenchmarkState springState) {
+        inputsBinding = springState.getBean(InputsBinding.class);
+        outputsBinding = springState.getBean(OutputsBinding.class);
+        resultsBinding = springState.getBean(ResultsBinding.class);
+
+        context = BenchmarkContexts.createContext(contextSize);
+        returnContext = new HashMap<>();
+        systemProperties = Collections.emptySet();
+
+        inputs = new ArrayList<>();
+        outputs = new ArrayList<>();
+        results = new ArrayList<>();
+        for (int index = 0; index < EXPRESSIONS; index++) {
+            inputs.add(new Input.InputBuilder("input_" + index, complexity.getExpression())
+                    .withFunctionDependencies(complexity.getFunctionDependencies())
+                    .build());
+            outputs.add(new Output("output_" + index, ValueFactory.create(complexity.getExpression()),
+                    complexity.getFunctionDependencies(), new HashSet<String>()));
+        }
+        // all the results but the last one are evaluated to false
+        for (int index = 0; index < EXPRESSIONS - 1; index++) {
+            String expression = "${" + complexity.getScript() + " == 'no_match_" + index + "'}";
+            results.add(new Result(ScoreLangConstants.FAILURE_RESULT + "_" + index, ValueFactory.create(expression),
+                    complexity.getFunctionDependencies(), new HashSet<String>()));
+        }
+        results.add(new Result(ScoreLangConstants.SUCCESS_RESULT, null));
+    }
+
+    @Benchmark
+    public Map<String, Value> bindInputs() {
+        return inputsBinding.bindInputs(inputs, context, systemProperties);
+    }
+
+    @Benchmark
+    public Map<String, Value> bindOutputs() {
+        return outputsBinding.bindOutputs(context, returnContext, systemProperties, outputs);
+    }
+
+    @Benchmark
+    public String resolveResult() {
+        return resultsBinding.resolveResult(context, returnContext, systemProperties, results, null);
+    }
+}
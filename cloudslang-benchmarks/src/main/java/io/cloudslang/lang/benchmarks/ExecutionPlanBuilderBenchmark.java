@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Step;
+import io.cloudslang.lang.compiler.modeller.model.Workflow;
+import io.cloudslang.lang.compiler.scorecompiler.ExecutionPlanBuilder;
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.Argument;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.score.api.ExecutionPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the execution plan of a flow whose steps form one navigation chain of the given length.
+ * The score divided by the number of steps is the cost per step, which should not grow with the length of the chain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionPlanBuilderBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int numberOfSteps;
+
+    private ExecutionPlanBuilder executionPlanBuilder;
+    private Flow flow;
+
+    @Setup
+    public void setUp(SpringBenchmarkState springState) {
+        executionPlanBuilder = springState.getBean(ExecutionPlanBuilder.class);
+
+        LinkedList<Step> steps = new LinkedList<>();
+        for (int index = 0; index < numberOfSteps; index++) {
+            String nextStepName = index + 1 < numberOfSteps ? "step_" + (index + 1) : ScoreLangConstants.SUCCESS_RESULT;
+            List<Map<String, String>> navigationStrings = new ArrayList<>();
+            navigationStrings.add(Collections.singletonMap(ScoreLangConstants.SUCCESS_RESULT, nextStepName));
+            navigationStrings.add(Collections.singletonMap(ScoreLangConstants.FAILURE_RESULT, ScoreLangConstants.FAILURE_RESULT));
+            steps.add(new Step("step_" + index, new HashMap<String, Serializable>(), new HashMap<String, Serializable>(),
+                    new ArrayList<Argument>(), navigationStrings, "user.ops.op", false));
+        }
+        List<Result> results = new ArrayList<>();
+        results.add(new Result(ScoreLangConstants.SUCCESS_RESULT, null));
+        results.add(new Result(ScoreLangConstants.FAILURE_RESULT, null));
+        flow = new Flow(new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), new Workflow(steps),
+                "user.flows", "chain", new ArrayList<Input>(), new ArrayList<Output>(), results,
+                Collections.singleton("user.ops.op"), new HashSet<String>());
+    }
+
+    @Benchmark
+    public ExecutionPlan createFlowExecutionPlan() {
+        return executionPlanBuilder.createFlowExecutionPlan(flow);
+    }
+
+}
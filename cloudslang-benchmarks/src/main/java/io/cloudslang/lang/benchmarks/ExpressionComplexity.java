@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Expressions over the variables of a benchmark context (see BenchmarkContexts), from a plain variable
+ * reference to an expression calling a function and several Python operations.
+ * The expressions evaluate to a string.
+ */
+public enum ExpressionComplexity {
+
+    VARIABLE("${var_0}", Collections.<ScriptFunction>emptySet()),
+    OPERATIONS("${var_0 + '_' + var_1.upper() + str(len(var_2))}", Collections.<ScriptFunction>emptySet()),
+    FUNCTIONS("${get('missing', var_0) + '_'.join([var_1, var_2[::-1], str(int(len(var_0)) * 2)])}",
+            EnumSet.of(ScriptFunction.GET));
+
+    private final String expression;
+    private final Set<ScriptFunction> functionDependencies;
+
+    ExpressionComplexity(String expression, Set<ScriptFunction> functionDependencies) {
+        this.expression = expression;
+        this.functionDependencies = functionDependencies;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the expression without the ${ } wrapper, as ScriptEvaluator gets it
+     */
+    public String getScript() {
+        return expression.substring(2, expression.length() - 1);
+    }
+
+    public Set<ScriptFunction> getFunctionDependencies() {
+        return functionDependencies;
+    }
+}
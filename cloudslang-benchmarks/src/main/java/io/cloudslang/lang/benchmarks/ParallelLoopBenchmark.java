@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.ParallelLoopStatement;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.env.Context;
+import io.cloudslang.lang.runtime.env.RunEnvironment;
+import io.cloudslang.lang.runtime.steps.ParallelLoopExecutionData;
+import io.cloudslang.score.lang.ExecutionRuntimeServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the branches of a parallel loop: binding of the loop expression and the branch environments
+ * and contexts created from the flow context
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelLoopBenchmark {
+
+    private static final String ITEMS_VARIABLE = "items";
+    private static final String REF_ID = "ref";
+
+    @Param({"10", "100", "1000"})
+    public int contextSize;
+
+    @Param({"10", "100"})
+    public int branches;
+
+    @Param({"VARIABLE", "OPERATIONS"})
+    public String loopExpression;
+
+    private ParallelLoopExecutionData parallelLoopExecutionData;
+    private ParallelLoopStatement parallelLoopStatement;
+    private Map<String, Value> variables;
+    private Map<String, Long> runningPlans;
+    private Map<String, Long> beginSteps;
+
+    @Setup
+    public void setUp(SpringBenchmarkState springState) {
+        parallelLoopExecutionData = springState.getBean(ParallelLoopExecutionData.class);
+        String expression = "VARIABLE".equals(loopExpression) ?
+                ITEMS_VARIABLE : "[item + '_' + var_0 for item in " + ITEMS_VARIABLE + " if item]";
+        parallelLoopStatement = new ParallelLoopStatement("item", expression);
+
+        variables = BenchmarkContexts.createContext(contextSize);
+        ArrayList<String> items = new ArrayList<>(branches);
+        for (int index = 0; index < branches; index++) {
+            items.add("item_" + index);
+        }
+        variables.put(ITEMS_VARIABLE, ValueFactory.create(items));
+
+        runningPlans = new HashMap<>();
+        runningPlans.put(REF_ID, 1L);
+        beginSteps = new HashMap<>();
+        beginSteps.put(REF_ID, 0L);
+    }
+
+    @Benchmark
+    public ExecutionRuntimeServices addBranches() {
+        RunEnvironment runEnv = new RunEnvironment();
+        runEnv.getStack().pushContext(new Context(new HashMap<>(variables)));
+        ExecutionRuntimeServices executionRuntimeServices = new ExecutionRuntimeServices();
+        executionRuntimeServices.setSubFlowsData(runningPlans, beginSteps);
+        parallelLoopExecutionData.addBranches(parallelLoopStatement, runEnv, executionRuntimeServices, "step",
+                1L, 2L, 3L, REF_ID);
+        return executionRuntimeServices;
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.PyObjectValueProxyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the calls that a Python expression makes on a context variable: on the plain PyObject,
+ * through a proxy with the previous reflective handler and through a proxy of PyObjectValueProxyFactory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PyObjectValueProxyBenchmark {
+
+    @Param({"string", "integer"})
+    public String type;
+
+    private Serializable content;
+    private PyObject plain;
+    private PyObject reflectiveProxy;
+    private PyObject proxy;
+    private PyObjectValue proxyValue;
+    private PyObject other;
+
+    @Setup
+    public void setUp() {
+        content = "string".equals(type) ? "benchmark_value" : 42;
+        plain = Py.java2py(content);
+        reflectiveProxy = (PyObject) ReflectivePyObjectValueMethodHandler.createProxy(content, false);
+        proxyValue = PyObjectValueProxyFactory.create(content, false);
+        proxy = (PyObject) proxyValue;
+        other = Py.java2py(content);
+    }
+
+    @Benchmark
+    public PyObjectValue create() {
+        return PyObjectValueProxyFactory.create(content, false);
+    }
+
+    @Benchmark
+    public PyObject addPlain() {
+        return plain._add(other);
+    }
+
+    @Benchmark
+    public PyObject addReflectiveProxy() {
+        return reflectiveProxy._add(other);
+    }
+
+    @Benchmark
+    public PyObject addProxy() {
+        return proxy._add(other);
+    }
+
+    @Benchmark
+    public PyObject equalsPlain() {
+        return plain.__eq__(other);
+    }
+
+    @Benchmark
+    public PyObject equalsReflectiveProxy() {
+        return reflectiveProxy.__eq__(other);
+    }
+
+    @Benchmark
+    public PyObject equalsProxy() {
+        return proxy.__eq__(other);
+    }
+
+    @Benchmark
+    public PyObject strPlain() {
+        return plain.__str__();
+    }
+
+    @Benchmark
+    public PyObject strReflectiveProxy() {
+        return reflectiveProxy.__str__();
+    }
+
+    @Benchmark
+    public PyObject strProxy() {
+        return proxy.__str__();
+    }
+
+    @Benchmark
+    public Serializable valueGet() {
+        return proxyValue.get();
+    }
+}
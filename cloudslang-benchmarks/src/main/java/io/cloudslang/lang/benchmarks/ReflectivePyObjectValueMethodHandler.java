@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.PyObjectValueProxyFactory;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.Proxy;
+import javassist.util.proxy.ProxyObject;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+
+/**
+ * The previous PyObjectValue method handler, which resolves the target method and calls it by reflection
+ * on every call. Kept as the baseline of the proxy benchmark.
+ */
+class ReflectivePyObjectValueMethodHandler implements MethodHandler, Serializable {
+
+    private static final String ACCESSED_GETTER_METHOD = "isAccessed";
+
+    private Value value;
+    private PyObject pyObject;
+    private boolean accessed;
+
+    private ReflectivePyObjectValueMethodHandler(Serializable content, boolean sensitive) {
+        this.value = ValueFactory.create(content, sensitive);
+        this.pyObject = Py.java2py(content);
+    }
+
+    /**
+     * Creates a proxy of the same generated class as PyObjectValueProxyFactory does, with the reflective handler
+     */
+    static PyObjectValue createProxy(Serializable content, boolean sensitive) {
+        PyObjectValue pyObjectValue = PyObjectValueProxyFactory.create(content, sensitive);
+        ((Proxy) pyObjectValue).setHandler(new ReflectivePyObjectValueMethodHandler(content, sensitive));
+        return pyObjectValue;
+    }
+
+    @Override
+    public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
+        if (thisMethod.getName().equals(ACCESSED_GETTER_METHOD)) {
+            return accessed;
+        } else if (Value.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
+            Method valueMethod = value.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+            return valueMethod.invoke(value, args);
+        } else if (PyObject.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
+            Method pyObjectMethod = pyObject.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+            if (!thisMethod.getName().equals("toString")) {
+                accessed = true;
+            }
+            return pyObjectMethod.invoke(pyObject, getPyObjectArgs(args));
+        } else {
+            throw new RuntimeException("Failed to invoke PyObjectValue method. Implementing class not found");
+        }
+    }
+
+    private Object[] getPyObjectArgs(Object[] args) {
+        Object[] pyObjectArgs = new Object[args.length];
+        for (int index = 0; index < args.length; index++) {
+            if (args[index] instanceof PyObjectValue) {
+                MethodHandler handler = ((ProxyObject) args[index]).getHandler();
+                if (handler instanceof ReflectivePyObjectValueMethodHandler) {
+                    ((ReflectivePyObjectValueMethodHandler) handler).accessed = true;
+                    pyObjectArgs[index] = ((ReflectivePyObjectValueMethodHandler) handler).pyObject;
+                } else {
+                    pyObjectArgs[index] = args[index];
+                }
+            } else {
+                pyObjectArgs[index] = args[index];
+            }
+        }
+        return pyObjectArgs;
+    }
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a single expression by ScriptEvaluator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptEvaluatorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int contextSize;
+
+    @Param({"VARIABLE", "OPERATIONS", "FUNCTIONS"})
+    public ExpressionComplexity complexity;
+
+    private ScriptEvaluator scriptEvaluator;
+    private Map<String, Value> context;
+
+    @Setup
+    public void setUp(SpringBenchmarkState springState) {
+        scriptEvaluator = springState.getBean(ScriptEvaluator.class);
+        context = BenchmarkContexts.createContext(contextSize);
+    }
+
+    @Benchmark
+    public Value evalExpr() {
+        return scriptEvaluator.evalExpr(complexity.getScript(), context, Collections.<SystemProperty>emptySet(),
+                complexity.getFunctionDependencies());
+    }
+}
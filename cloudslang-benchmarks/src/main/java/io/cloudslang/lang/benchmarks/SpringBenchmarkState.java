@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Spring context with the runtime beans, shared by the benchmark threads of a trial
+ */
+@State(Scope.Benchmark)
+public class SpringBenchmarkState {
+
+    private AnnotationConfigApplicationContext applicationContext;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        applicationContext = new AnnotationConfigApplicationContext(BenchmarkSpringConfig.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        applicationContext.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return applicationContext.getBean(type);
+    }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.benchmarks;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.apache.commons.lang.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation and re-wrapping of simple and sensitive values, and the serialization round trip of a value
+ * as done when the execution context is persisted between steps.
+ * The content is a list of the given number of strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuesBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int contentSize;
+
+    @Param({"false", "true"})
+    public boolean sensitive;
+
+    private Serializable content;
+    private Value value;
+
+    @Setup
+    public void setUp(SpringBenchmarkState springState) {
+        ArrayList<String> list = new ArrayList<>(contentSize);
+        for (int index = 0; index < contentSize; index++) {
+            list.add("item_" + index);
+        }
+        content = list;
+        value = ValueFactory.create(content, sensitive);
+    }
+
+    @Benchmark
+    public Value create() {
+        return ValueFactory.create(content, sensitive);
+    }
+
+    @Benchmark
+    public Value rewrap() {
+        return ValueFactory.create(value);
+    }
+
+    @Benchmark
+    public Serializable get() {
+        return value.get();
+    }
+
+    @Benchmark
+    public Serializable serializationRoundTrip() {
+        Value deserialized = (Value) SerializationUtils.clone(value);
+        return deserialized.get();
+    }
+}
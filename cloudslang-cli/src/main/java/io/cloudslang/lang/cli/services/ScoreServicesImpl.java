@@ -80,12 +80,15 @@ public class ScoreServicesImpl implements ScoreServices{
 
         Long executionId = trigger(compilationArtifact, inputs, systemProperties);
 
-        while(!scoreEventListener.isFlowFinished()){
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException ignore) {}
+        try {
+            scoreEventListener.awaitFlowFinished();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for execution: " + executionId + " to finish", e);
+        } finally {
+            slang.unSubscribeOnEvents(scoreEventListener);
+            flushConsole(scoreEventListener);
         }
-        slang.unSubscribeOnEvents(scoreEventListener);
 
         String errorMessageFlowExecution = scoreEventListener.getErrorMessage();
         if (StringUtils.isNotEmpty(errorMessageFlowExecution)) {
@@ -99,4 +102,12 @@ public class ScoreServicesImpl implements ScoreServices{
 
         return executionId;
     }
+
+    private void flushConsole(SyncTriggerEventListener scoreEventListener) {
+        try {
+            scoreEventListener.flushConsole();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
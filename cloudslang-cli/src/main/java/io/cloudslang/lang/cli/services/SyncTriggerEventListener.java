@@ -19,6 +19,7 @@ import io.cloudslang.score.events.ScoreEvent;
 import io.cloudslang.score.events.ScoreEventListener;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.log4j.Logger;
 import org.fusesource.jansi.Ansi;
 import org.fusesource.jansi.AnsiConsole;
 
@@ -26,7 +27,12 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.fusesource.jansi.Ansi.ansi;
@@ -34,6 +40,10 @@ import static org.fusesource.jansi.Ansi.ansi;
 /**
  * Date: 2/26/2015
  *
+ * Events are handled on the event dispatching threads without locking, the console output is handed to a
+ * dedicated printer thread so a slow terminal never holds back the execution. The lines of an event are
+ * handed over together, so they are not interleaved with the lines of events of other branches.
+ *
  * @author lesant
  */
 public class SyncTriggerEventListener implements ScoreEventListener{
@@ -47,15 +57,47 @@ public class SyncTriggerEventListener implements ScoreEventListener{
     public static final String OPERATION_OUTPUTS = "Operation outputs:";
     public static final String FINISHED_WITH_RESULT = " finished with result: ";
 
-    private AtomicBoolean flowFinished = new AtomicBoolean(false);
-    private AtomicReference<String> errorMessage = new AtomicReference<>("");
-    private boolean isDebugMode = false;
+    private static final long PRINTER_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final Logger logger = Logger.getLogger(SyncTriggerEventListener.class);
+
+    private final CountDownLatch flowFinished = new CountDownLatch(1);
+    private final AtomicReference<String> errorMessage = new AtomicReference<>("");
+    private final ExecutorService printer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cslang-console-printer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private volatile boolean isDebugMode = false;
 
     public void setIsDebugMode(boolean isDebugMode){
         this.isDebugMode = isDebugMode;
     }
+
     public boolean isFlowFinished() {
-        return flowFinished.get();
+        return flowFinished.getCount() == 0;
+    }
+
+    /**
+     * Blocks until a finish or failure event of the flow arrives
+     */
+    public void awaitFlowFinished() throws InterruptedException {
+        flowFinished.await();
+    }
+
+    /**
+     * Prints the output handed to the printer thread so far and stops it, output of later events is dropped
+     */
+    public void flushConsole() throws InterruptedException {
+        printer.shutdown();
+        if (!printer.awaitTermination(PRINTER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("Console output was not printed within " + PRINTER_SHUTDOWN_TIMEOUT_SECONDS +
+                    " seconds, the rest of it is dropped");
+            printer.shutdownNow();
+        }
     }
 
     public String getErrorMessage() {
@@ -63,19 +105,20 @@ public class SyncTriggerEventListener implements ScoreEventListener{
     }
 
     @Override
-    public synchronized void onEvent(ScoreEvent scoreEvent) throws InterruptedException {
+    public void onEvent(ScoreEvent scoreEvent) throws InterruptedException {
         @SuppressWarnings("unchecked") Map<String,Serializable> data = (Map<String,Serializable>)scoreEvent.getData();
+        Ansi output = ansi();
         switch (scoreEvent.getEventType()){
             case EventConstants.SCORE_FINISHED_EVENT :
-                flowFinished.set(true);
+                flowFinished.countDown();
                 break;
             case EventConstants.SCORE_ERROR_EVENT :
                 errorMessage.set(SCORE_ERROR_EVENT_MSG + data.get(EventConstants.SCORE_ERROR_LOG_MSG) + " , " +
                         data.get(EventConstants.SCORE_ERROR_MSG));
                 break;
             case EventConstants.SCORE_FAILURE_EVENT :
-                printWithColor(Ansi.Color.RED,FLOW_FINISHED_WITH_FAILURE_MSG);
-                flowFinished.set(true);
+                printWithColor(output, Ansi.Color.RED,FLOW_FINISHED_WITH_FAILURE_MSG);
+                flowFinished.countDown();
                 break;
             case ScoreLangConstants.SLANG_EXECUTION_EXCEPTION:
                 errorMessage.set(SLANG_STEP_ERROR_MSG + data.get(LanguageEventData.EXCEPTION));
@@ -87,7 +130,7 @@ public class SyncTriggerEventListener implements ScoreEventListener{
                     String path = eventData.getPath();
                     int matches = StringUtils.countMatches(path, ExecutionPath.PATH_SEPARATOR);
                     String prefix = StringUtils.repeat(STEP_PATH_PREFIX, matches);
-                    printWithColor(Ansi.Color.YELLOW, prefix + stepName);
+                    printWithColor(output, Ansi.Color.YELLOW, prefix + stepName);
                 }
                 break;
             case ScoreLangConstants.EVENT_OUTPUT_END:
@@ -100,7 +143,7 @@ public class SyncTriggerEventListener implements ScoreEventListener{
                         String prefix = StringUtils.repeat(STEP_PATH_PREFIX, matches);
 
                         for (String key : stepOutputs.keySet()) {
-                            printWithColor(Ansi.Color.WHITE, prefix + key + " = " + stepOutputs.get(key));
+                            printWithColor(output, Ansi.Color.WHITE, prefix + key + " = " + stepOutputs.get(key));
                         }
                     }
                 }
@@ -111,18 +154,19 @@ public class SyncTriggerEventListener implements ScoreEventListener{
                         && data.get(LanguageEventData.PATH).equals(EXEC_START_PATH)) {
                     Map<String, Serializable> outputs = extractNotEmptyOutputs(data);
                     if (outputs.size() > 0) {
-                        printForOperationOrFlow(data, Ansi.Color.WHITE, "\n" + OPERATION_OUTPUTS, "\n" + FLOW_OUTPUTS);
+                        printForOperationOrFlow(output, data, Ansi.Color.WHITE, "\n" + OPERATION_OUTPUTS, "\n" + FLOW_OUTPUTS);
                         for (String key : outputs.keySet()) {
-                            printWithColor(Ansi.Color.WHITE, "- " + key + " = " + outputs.get(key));
+                            printWithColor(output, Ansi.Color.WHITE, "- " + key + " = " + outputs.get(key));
                         }
                     }
                 }
                 break;
             case ScoreLangConstants.EVENT_EXECUTION_FINISHED :
-                flowFinished.set(true);
-                printFinishEvent(data);
+                printFinishEvent(output, data);
+                flowFinished.countDown();
                 break;
         }
+        print(output);
     }
 
     public static Map<String, Serializable> extractNotEmptyOutputs(Map<String, Serializable> data) {
@@ -145,25 +189,43 @@ public class SyncTriggerEventListener implements ScoreEventListener{
     }
 
 
-    private void printFinishEvent(Map<String, Serializable> data) {
+    private void printFinishEvent(Ansi output, Map<String, Serializable> data) {
         String flowResult = (String)data.get(LanguageEventData.RESULT);
         String flowName = (String)data.get(LanguageEventData.STEP_NAME);
-        printForOperationOrFlow(data, Ansi.Color.CYAN, "Operation: " + flowName + FINISHED_WITH_RESULT + flowResult,
+        printForOperationOrFlow(output, data, Ansi.Color.CYAN, "Operation: " + flowName + FINISHED_WITH_RESULT + flowResult,
                 "Flow: " + flowName + FINISHED_WITH_RESULT + flowResult);
     }
 
-    private void printForOperationOrFlow(Map<String, Serializable> data, Ansi.Color color, String operationMessage, String flowMessage) {
+    private void printForOperationOrFlow(Ansi output, Map<String, Serializable> data, Ansi.Color color, String operationMessage, String flowMessage) {
         if (ExecutableType.OPERATION.equals(data.get(ScoreLangConstants.EXECUTABLE_TYPE))) {
-            printWithColor(color, operationMessage);
+            printWithColor(output, color, operationMessage);
         } else {
-            printWithColor(color, flowMessage);
+            printWithColor(output, color, flowMessage);
         }
     }
 
-    private void printWithColor(Ansi.Color color, String msg){
-        AnsiConsole.out().print(ansi().fg(color).a(msg).newline());
-        AnsiConsole.out().print(ansi().fg(Ansi.Color.WHITE));
+    private void printWithColor(Ansi output, Ansi.Color color, String msg){
+        output.fg(color).a(msg).newline().fg(Ansi.Color.WHITE);
+    }
 
+    /**
+     * Hands the lines of an event to the printer thread, as a single task
+     */
+    private void print(final Ansi output) {
+        final String lines = output.toString();
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            printer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    AnsiConsole.out().print(lines);
+                }
+            });
+        } catch (RejectedExecutionException ignore) {
+            // the console was already flushed and handed back to the shell
+        }
     }
 }
 
@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.cloudslang.lang.cli.utils;
+
+import io.cloudslang.lang.compiler.Extension;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the slang files of a classpath by the fully qualified names of the executables they should contain.
+ * It follows the convention the build tool verifies: a file is named after its executable, and the path of its
+ * directory ends with the namespace of the executable. Only the file names are read, not the files.
+ */
+public class ClasspathIndex {
+
+    // files by the name of the executable they should contain
+    private final Map<String, List<File>> filesByName = new HashMap<>();
+
+    public ClasspathIndex(Collection<File> slangFiles) {
+        for (File slangFile : slangFiles) {
+            String name = Extension.removeExtension(slangFile.getName());
+            List<File> files = filesByName.get(name);
+            if (files == null) {
+                files = new ArrayList<>();
+                filesByName.put(name, files);
+            }
+            files.add(slangFile);
+        }
+    }
+
+    /**
+     * @param executableId the namespace and name of an executable, e.g. io.cloudslang.base.print.print_text
+     * @return the files that should contain the executable by their name and path, usually a single one
+     */
+    public List<File> getCandidateFiles(String executableId) {
+        int indexOfName = executableId.lastIndexOf('.');
+        if (indexOfName < 0) {
+            return Collections.emptyList();
+        }
+        List<File> files = filesByName.get(executableId.substring(indexOfName + 1));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        // the same comparison as the namespace validation of the build tool
+        String namespacePath = executableId.substring(0, indexOfName).replace('.', File.separatorChar).toLowerCase();
+        List<File> candidateFiles = new ArrayList<>();
+        for (File file : files) {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null && directory.getPath().toLowerCase().endsWith(namespacePath)) {
+                candidateFiles.add(file);
+            }
+        }
+        return candidateFiles;
+    }
+
+}
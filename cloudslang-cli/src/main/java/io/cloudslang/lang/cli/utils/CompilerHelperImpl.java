@@ -14,6 +14,7 @@ import io.cloudslang.lang.compiler.Extension;
 import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SystemProperty;
@@ -25,6 +26,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,12 +57,14 @@ public class CompilerHelperImpl implements CompilerHelper{
     @Autowired
     private Slang slang;
     @Autowired
-    private Yaml yaml;
+    private SlangCompiler slangCompiler;
+    // Yaml is not thread safe, every inputs file is loaded with a new instance
+    @Autowired
+    private ObjectFactory<Yaml> yamlFactory;
 
     @Override
 	public CompilationArtifact compile(String filePath, List<String> dependencies) throws IOException {
         Validate.notNull(filePath, "File path can not be null");
-        Set<SlangSource> depsSources = new HashSet<>();
         File file = new File(filePath);
         Validate.isTrue(file.isFile(), "File: " + file.getName() + " was not found");
         Extension.validateSlangFileExtension(file.getName());
@@ -79,21 +83,67 @@ public class CompilerHelperImpl implements CompilerHelper{
                 dependencies.add(file.getParent());
             }
         }
+        List<File> dependenciesFiles = new ArrayList<>();
         for (String dependency:dependencies) {
-            Collection<File> dependenciesFiles = listSlangFiles(new File(dependency), true);
-            for (File dependencyCandidate : dependenciesFiles) {
-                SlangSource source = SlangSource.fromFile(dependencyCandidate);
-                depsSources.add(source);
-            }
+            dependenciesFiles.addAll(listSlangFiles(new File(dependency), true));
         }
         try {
-            return slang.compile(SlangSource.fromFile(file), depsSources);
+            SlangSource source = SlangSource.fromFile(file);
+            Set<SlangSource> depsSources = loadDependencies(source, new ClasspathIndex(dependenciesFiles));
+            if (depsSources == null) {
+                depsSources = new HashSet<>();
+                for (File dependencyCandidate : dependenciesFiles) {
+                    depsSources.add(SlangSource.fromFile(dependencyCandidate));
+                }
+            }
+            return slang.compile(source, depsSources);
         } catch (Exception e) {
             logger.error("Failed compilation for file : "+file.getName() + " ,Exception is : " + e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Loads the sources of the transitive dependencies of the source, finding every dependency by its name and
+     * namespace in the index, so only the files the source actually uses are read and modelled.
+     *
+     * @return the sources of the dependencies, or null if a dependency is not where its namespace says
+     */
+    private Set<SlangSource> loadDependencies(SlangSource source, ClasspathIndex classpathIndex) {
+        Executable executable = slangCompiler.preCompile(source);
+        Map<String, SlangSource> sourcesById = new HashMap<>();
+        sourcesById.put(executable.getId(), source);
+        Set<SlangSource> dependenciesSources = new HashSet<>();
+        Deque<Executable> executablesToVisit = new ArrayDeque<>();
+        executablesToVisit.push(executable);
+        while (!executablesToVisit.isEmpty()) {
+            for (String dependencyId : executablesToVisit.pop().getExecutableDependencies()) {
+                SlangSource dependencySource = sourcesById.get(dependencyId);
+                if (dependencySource == null) {
+                    Executable dependency = null;
+                    for (File candidateFile : classpathIndex.getCandidateFiles(dependencyId)) {
+                        SlangSource candidateSource = SlangSource.fromFile(candidateFile);
+                        Executable candidate = slangCompiler.preCompile(candidateSource);
+                        if (dependencyId.equals(candidate.getId())) {
+                            dependencySource = candidateSource;
+                            dependency = candidate;
+                            break;
+                        }
+                    }
+                    if (dependency == null) {
+                        logger.info("Dependency: " + dependencyId + " was not found by its namespace, " +
+                                "loading all the files of the dependencies");
+                        return null;
+                    }
+                    sourcesById.put(dependencyId, dependencySource);
+                    executablesToVisit.push(dependency);
+                }
+                dependenciesSources.add(dependencySource);
+            }
+        }
+        return dependenciesSources;
+    }
+
     @Override
     public Set<SystemProperty> loadSystemProperties(List<String> systemPropertyFiles) {
         String propertiesRelativePath = CONFIG_DIR + File.separator + SP_DIR;
@@ -123,7 +173,7 @@ public class CompilerHelperImpl implements CompilerHelper{
                 Boolean emptyContent = true;
                 if (StringUtils.isNotEmpty(inputsFileContent)) {
                     @SuppressWarnings("unchecked") Map<String, ? extends Serializable> inputFileYamlContent =
-                            (Map<String, ? extends Serializable>) yaml.load(inputsFileContent);
+                            (Map<String, ? extends Serializable>) yamlFactory.getObject().load(inputsFileContent);
                     if (MapUtils.isNotEmpty(inputFileYamlContent)) {
                         emptyContent = false;
                         populateResultMap(result, inputFileYamlContent, inputFile);
@@ -11,6 +11,8 @@
 package io.cloudslang.lang.cli.services;
 
 import io.cloudslang.lang.runtime.events.LanguageEventData;
+import io.cloudslang.score.events.EventConstants;
+import io.cloudslang.score.events.ScoreEvent;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.junit.Assert;
@@ -131,6 +133,18 @@ public class SyncTriggerEventListenerTest {
         Assert.assertTrue("outputs different than expected", MapUtils.isEmpty(actualFilteredOutputs));
     }
 
+    @Test(timeout = 5000)
+    public void testFailureEventFinishesFlow() throws InterruptedException {
+        SyncTriggerEventListener listener = new SyncTriggerEventListener();
+        Assert.assertFalse("flow finished before any event", listener.isFlowFinished());
+
+        listener.onEvent(new ScoreEvent(EventConstants.SCORE_FAILURE_EVENT, new HashMap<>()));
+
+        listener.awaitFlowFinished();
+        listener.flushConsole();
+        Assert.assertTrue("flow not finished after failure event", listener.isFlowFinished());
+    }
+
     @Configuration
     static class Config {
 
@@ -12,7 +12,10 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import io.cloudslang.lang.api.Slang;
+import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
 import io.cloudslang.lang.entities.SystemProperty;
 import java.io.File;
 
@@ -43,6 +46,7 @@ import java.io.Serializable;
 import java.net.URI;
 import java.util.*;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -56,6 +60,8 @@ public class CompilerHelperTest {
     private CompilerHelper compilerHelper;
     @Autowired
     private Slang slang;
+    @Autowired
+    private SlangCompiler slangCompiler;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
@@ -71,7 +77,10 @@ public class CompilerHelperTest {
 
     @Before
     public void resetMocks() {
-        Mockito.reset(slang);
+        Mockito.reset(slang, slangCompiler);
+        // the flows of the test resources call user.ops.test_op, which is not in a user/ops directory
+        when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(
+                createModel("user.ops", "basic_flow", "user.ops.test_op"));
     }
 
     @Test
@@ -107,6 +116,45 @@ public class CompilerHelperTest {
                 Sets.newHashSet(SlangSource.fromFile(flow2FilePath)));
     }
 
+    @Test
+    public void testOnlyTransitiveDependenciesAreLoaded() throws Exception {
+        URI parentFlow = getClass().getResource("/namespaces/user/flows/parent_flow.sl").toURI();
+        URI childFlow = getClass().getResource("/namespaces/user/flows/child_flow.sl").toURI();
+        URI printOp = getClass().getResource("/namespaces/user/ops/print_op.sl").toURI();
+        URI folderPath = getClass().getResource("/namespaces/").toURI();
+        mockPreCompile(parentFlow, createModel("user.flows", "parent_flow", "user.flows.child_flow", "user.ops.print_op"));
+        mockPreCompile(childFlow, createModel("user.flows", "child_flow", "user.ops.print_op"));
+        mockPreCompile(printOp, createModel("user.ops", "print_op"));
+
+        compilerHelper.compile(parentFlow.getPath(), Lists.newArrayList(folderPath.getPath()));
+
+        Mockito.verify(slang).compile(
+                SlangSource.fromFile(parentFlow),
+                Sets.newHashSet(SlangSource.fromFile(childFlow), SlangSource.fromFile(printOp))
+        );
+        Mockito.verify(slangCompiler, never()).preCompile(
+                SlangSource.fromFile(getClass().getResource("/namespaces/user/ops/unused_op.sl").toURI()));
+    }
+
+    @Test
+    public void testAllDependenciesAreLoadedWhenNamespaceDoesNotMatchPath() throws Exception {
+        URI parentFlow = getClass().getResource("/namespaces/user/flows/parent_flow.sl").toURI();
+        URI childFlow = getClass().getResource("/namespaces/user/flows/child_flow.sl").toURI();
+        URI printOp = getClass().getResource("/namespaces/user/ops/print_op.sl").toURI();
+        URI unusedOp = getClass().getResource("/namespaces/user/ops/unused_op.sl").toURI();
+        URI folderPath = getClass().getResource("/namespaces/").toURI();
+        mockPreCompile(parentFlow, createModel("user.flows", "parent_flow", "user.flows.child_flow"));
+        mockPreCompile(childFlow, createModel("user.flows", "child_flow", "other.ops.print_op"));
+
+        compilerHelper.compile(parentFlow.getPath(), Lists.newArrayList(folderPath.getPath()));
+
+        Mockito.verify(slang).compile(
+                SlangSource.fromFile(parentFlow),
+                Sets.newHashSet(SlangSource.fromFile(parentFlow), SlangSource.fromFile(childFlow),
+                        SlangSource.fromFile(printOp), SlangSource.fromFile(unusedOp))
+        );
+    }
+
     @Test
     public void testCompileMixedSlangFiles() throws Exception {
         URI flowFilePath = getClass().getResource("/flow.sl").toURI();
@@ -259,6 +307,15 @@ public class CompilerHelperTest {
         Assert.assertEquals(2, result.size());
     }
 
+    private void mockPreCompile(URI sourceUri, Executable executable) {
+        when(slangCompiler.preCompile(eq(SlangSource.fromFile(sourceUri)))).thenReturn(executable);
+    }
+
+    private Executable createModel(String namespace, String name, String... dependencies) {
+        return new Flow(null, null, null, namespace, name, null, null, null,
+                Sets.newHashSet(dependencies), new HashSet<String>());
+    }
+
     @Configuration
     static class Config {
 
@@ -267,6 +324,11 @@ public class CompilerHelperTest {
             return mock(Slang.class);
         }
 
+        @Bean
+        public SlangCompiler slangCompiler() {
+            return mock(SlangCompiler.class);
+        }
+
         @Bean
         public CompilerHelper compilerHelper() {
             return new CompilerHelperImpl();
@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.cloudslang.lang.compiler;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * The version of the compiler, with the time it was built, so every build of the compiler has another version
+ */
+public final class CompilerVersion {
+
+    public static final String VERSION_RESOURCE = "cloudslang-compiler.properties";
+
+    private static final Logger logger = Logger.getLogger(CompilerVersion.class);
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final String VERSION = load();
+
+    private CompilerVersion() {
+    }
+
+    public static String get() {
+        return VERSION;
+    }
+
+    /**
+     * @return false if the version was not read from a filtered resource, e.g. on the classpath of an IDE,
+     * so it does not tell the builds of the compiler apart
+     */
+    public static boolean isKnown(String version) {
+        return !version.contains(UNKNOWN) && !version.contains("${");
+    }
+
+    private static String load() {
+        Properties properties = new Properties();
+        InputStream inputStream = CompilerVersion.class.getClassLoader().getResourceAsStream(VERSION_RESOURCE);
+        if (inputStream != null) {
+            try {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                logger.debug("Failed reading the compiler version", e);
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+        return properties.getProperty("compiler.version", UNKNOWN) + "-" +
+                properties.getProperty("compiler.build.timestamp", UNKNOWN);
+    }
+
+}
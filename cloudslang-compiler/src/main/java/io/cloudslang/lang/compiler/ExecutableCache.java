@@ -0,0 +1,187 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.cloudslang.lang.compiler;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import io.cloudslang.lang.entities.bindings.InOutParam;
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On-disk cache of the models of slang sources, so unchanged sources are not parsed and modelled again
+ * by later compilations, also in later processes.
+ * An entry is the serialized model of a source, keyed by a hash of the name, extension and content of the source,
+ * so a changed source never finds it. The entries are kept in a directory of the compiler version, which is marked
+ * as used by the first entry a process reads or writes. The first entry written evicts the directories of the other
+ * versions that were not used for a week, so processes of other versions that run at the same time keep their entries.
+ * The models that hold sensitive values are not cached, so these values are never written to the disk.
+ * The directory is configured by the {@link SlangSystemPropertyConstant#CSLANG_COMPILATION_CACHE_DIR} system property,
+ * no directory disables caching. Caching is also disabled when the version of the compiler is not known.
+ */
+@Component
+public class ExecutableCache {
+
+    private static final Logger logger = Logger.getLogger(ExecutableCache.class);
+
+    private static final String ENTRY_SUFFIX = ".ser";
+
+    static final long OTHER_VERSION_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final File cacheDirectory;
+    private final File versionDirectory;
+    private final AtomicBoolean versionDirectoryUsed = new AtomicBoolean();
+    private final AtomicBoolean otherVersionsEvicted = new AtomicBoolean();
+
+    public ExecutableCache() {
+        this(getConfiguredDirectory(), CompilerVersion.get());
+    }
+
+    /**
+     * @param cacheDirectory  the directory of the entries, or null to disable caching
+     * @param compilerVersion the version of the compiler that creates the models
+     */
+    public ExecutableCache(File cacheDirectory, String compilerVersion) {
+        if (cacheDirectory != null && !CompilerVersion.isKnown(compilerVersion)) {
+            logger.debug("The compiler version is not known: " + compilerVersion + ", the models are not cached");
+            cacheDirectory = null;
+        }
+        this.cacheDirectory = cacheDirectory;
+        this.versionDirectory = cacheDirectory == null ? null :
+                new File(cacheDirectory, Hashing.sha256().hashString(compilerVersion, Charsets.UTF_8).toString());
+    }
+
+    public boolean isEnabled() {
+        return cacheDirectory != null;
+    }
+
+    /**
+     * @param source the slang source
+     * @return the cached model of the source, or null if it is not cached or its entry cannot be read
+     */
+    public Executable get(SlangSource source) {
+        if (!isEnabled()) {
+            return null;
+        }
+        File entry = getEntry(source);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(entry))) {
+            Executable executable = (Executable) SerializationUtils.deserialize(inputStream);
+            markVersionDirectoryUsed();
+            return executable;
+        } catch (IOException | SerializationException | ClassCastException e) {
+            logger.debug("Failed reading the cached model of source: " + source.getFileName() + ", it will be compiled", e);
+            FileUtils.deleteQuietly(entry);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the model of the source. Failing to write the entry only means the source is compiled again next time.
+     *
+     * @param source     the slang source
+     * @param executable the model of the source, without errors
+     */
+    public void put(SlangSource source, Executable executable) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (hasSensitiveValues(executable)) {
+            logger.debug("The model of source: " + source.getFileName() + " has sensitive values, it is not cached");
+            return;
+        }
+        if (otherVersionsEvicted.compareAndSet(false, true)) {
+            evictOtherVersions();
+        }
+        File entry = getEntry(source);
+        try {
+            AtomicFileUtils.serialize(executable, entry);
+            markVersionDirectoryUsed();
+        } catch (IOException | SerializationException e) {
+            logger.debug("Failed caching the model of source: " + source.getFileName(), e);
+        }
+    }
+
+    /**
+     * @return true if an input or an output of the executable holds a sensitive value
+     */
+    static boolean hasSensitiveValues(Executable executable) {
+        List<InOutParam> params = new ArrayList<>();
+        if (executable.getInputs() != null) {
+            params.addAll(executable.getInputs());
+        }
+        if (executable.getOutputs() != null) {
+            params.addAll(executable.getOutputs());
+        }
+        for (InOutParam param : params) {
+            if (param.getValue() != null && param.getValue().isSensitive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markVersionDirectoryUsed() {
+        if (versionDirectoryUsed.compareAndSet(false, true)) {
+            if (!versionDirectory.setLastModified(System.currentTimeMillis())) {
+                logger.debug("Failed marking the cached models as used: " + versionDirectory);
+            }
+        }
+    }
+
+    private void evictOtherVersions() {
+        File[] files = cacheDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long minLastModified = System.currentTimeMillis() - OTHER_VERSION_MAX_AGE_MILLIS;
+        for (File file : files) {
+            if (!file.equals(versionDirectory) && file.lastModified() < minLastModified) {
+                logger.debug("Evicting the cached models of another compiler version: " + file);
+                FileUtils.deleteQuietly(file);
+            }
+        }
+    }
+
+    private File getEntry(SlangSource source) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(String.valueOf(source.getFileName()), Charsets.UTF_8)
+                .putChar('\0')
+                .putString(String.valueOf(source.getFileExtension()), Charsets.UTF_8)
+                .putChar('\0')
+                .putString(source.getSource(), Charsets.UTF_8);
+        return new File(versionDirectory, hasher.hash().toString() + ENTRY_SUFFIX);
+    }
+
+    private static File getConfiguredDirectory() {
+        String directory = System.getProperty(SlangSystemPropertyConstant.CSLANG_COMPILATION_CACHE_DIR.getValue());
+        return StringUtils.isBlank(directory) ? null : new File(directory.trim());
+    }
+
+}
@@ -8,6 +8,9 @@
  */
 package io.cloudslang.lang.compiler;
 
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
@@ -19,6 +22,7 @@ import io.cloudslang.lang.entities.SystemProperty;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,6 +58,12 @@ public class SlangCompilerImpl implements SlangCompiler {
     @Autowired
     private ScoreCompiler scoreCompiler;
 
+    @Autowired
+    private ExecutableCache executableCache;
+
+    // the models of the path of the last compilation, reused by the next compilations with the same path
+    private volatile PrecompiledPath lastPath;
+
     @Override
     public CompilationArtifact compile(SlangSource source, Set<SlangSource> path) {
 
@@ -62,14 +72,55 @@ public class SlangCompilerImpl implements SlangCompiler {
         //we transform also all of the files in the given path to model objects
         Set<Executable> pathExecutables = new HashSet<>();
         if (CollectionUtils.isNotEmpty(path)) {
-            for (SlangSource pathSource : path) {
-                pathExecutables.add(preCompile(pathSource));
-            }
+            pathExecutables = preCompilePath(path);
         }
 
         return scoreCompiler.compile(executable, pathExecutables);
     }
 
+    private Set<Executable> preCompilePath(Set<SlangSource> path) {
+        HashCode fingerprint = getFingerprint(path);
+        PrecompiledPath precompiledPath = lastPath;
+        if (precompiledPath != null && precompiledPath.fingerprint.equals(fingerprint)) {
+            return precompiledPath.executables;
+        }
+        Set<Executable> executables = new HashSet<>();
+        List<SlangSource> sourcesToParse = new ArrayList<>();
+        for (SlangSource pathSource : path) {
+            Executable cachedExecutable = executableCache.get(pathSource);
+            if (cachedExecutable == null) {
+                sourcesToParse.add(pathSource);
+            } else {
+                executables.add(cachedExecutable);
+            }
+        }
+        // the sources are parsed in parallel, and then modelled
+        List<ParsedSlang> parsedSlangs = yamlParser.parseAll(sourcesToParse);
+        for (int index = 0; index < sourcesToParse.size(); index++) {
+            ExecutableModellingResult result = createModel(sourcesToParse.get(index), parsedSlangs.get(index));
+            if (result.getErrors().size() > 0) {
+                throw result.getErrors().get(0);
+            }
+            executables.add(result.getExecutable());
+        }
+        precompiledPath = new PrecompiledPath(fingerprint, Collections.unmodifiableSet(executables));
+        lastPath = precompiledPath;
+        return precompiledPath.executables;
+    }
+
+    // a hash of the names and contents of the sources, in any order, so the sources of the last path are not kept
+    private HashCode getFingerprint(Set<SlangSource> path) {
+        List<HashCode> sourceHashes = new ArrayList<>(path.size());
+        for (SlangSource source : path) {
+            sourceHashes.add(Hashing.murmur3_128().newHasher()
+                    .putString(String.valueOf(source.getFileName()), Charsets.UTF_8)
+                    .putChar('\0')
+                    .putString(source.getSource(), Charsets.UTF_8)
+                    .hash());
+        }
+        return Hashing.combineUnordered(sourceHashes);
+    }
+
     @Override
     public Executable preCompile(SlangSource source) {
         ExecutableModellingResult result = preCompileSource(source);
@@ -83,14 +134,27 @@ public class SlangCompilerImpl implements SlangCompiler {
     public ExecutableModellingResult preCompileSource(SlangSource source) {
         Validate.notNull(source, "You must supply a source to compile");
 
+        // an unchanged source that was compiled without errors is not parsed again
+        Executable cachedExecutable = executableCache.get(source);
+        if (cachedExecutable != null) {
+            return new ExecutableModellingResult(cachedExecutable, new ArrayList<RuntimeException>());
+        }
+
         //first thing we parse the yaml file into java maps
         ParsedSlang parsedSlang = yamlParser.parse(source);
 
+        return createModel(source, parsedSlang);
+    }
+
+    private ExecutableModellingResult createModel(SlangSource source, ParsedSlang parsedSlang) {
         // Then we transform the parsed Slang source to a Slang model
         ExecutableModellingResult result = slangModeller.createModel(parsedSlang);
         if (result.getExecutable().getNamespace() == null || result.getExecutable().getNamespace().length() == 0) {
             result.getErrors().add(new IllegalArgumentException("Operation/Flow " + result.getExecutable().getName() + " must have a namespace"));
         }
+        if (result.getErrors().isEmpty()) {
+            executableCache.put(source, result.getExecutable());
+        }
         return result;
     }
 
@@ -248,4 +312,14 @@ public class SlangCompilerImpl implements SlangCompiler {
         return convertedMap;
     }
 
+    private static class PrecompiledPath {
+
+        private final HashCode fingerprint;
+        private final Set<Executable> executables;
+
+        PrecompiledPath(HashCode fingerprint, Set<Executable> executables) {
+            this.fingerprint = fingerprint;
+            this.executables = executables;
+        }
+    }
 }
@@ -42,8 +42,10 @@ public interface SlangTextualKeys {
     String FOR_KEY = "for";
     String BREAK_KEY = "break";
     String PUBLISH_KEY = "publish";
+    String ACCUMULATE_KEY = "accumulate";
     String NAVIGATION_KEY = "navigate";
     String PARALLEL_LOOP_KEY = "parallel_loop";
+    String MAX_PARALLELISM_KEY = "max_parallelism";
 
     //inputs
     String VALUE_KEY = "value";
@@ -16,9 +16,11 @@ package io.cloudslang.lang.compiler.configuration;
 
 import io.cloudslang.lang.entities.encryption.DummyEncryptor;
 import io.cloudslang.lang.entities.utils.ApplicationContextProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.introspector.BeanAccess;
 
@@ -26,7 +28,9 @@ import org.yaml.snakeyaml.introspector.BeanAccess;
 @ComponentScan("io.cloudslang.lang.compiler")
 public class SlangCompilerSpringConfig {
 
+    // Yaml is not thread safe, every bean that uses it gets its own instance
     @Bean
+    @Scope(BeanDefinition.SCOPE_PROTOTYPE)
     public Yaml yaml() {
         Yaml yaml = new Yaml();
         yaml.setBeanAccess(BeanAccess.FIELD);
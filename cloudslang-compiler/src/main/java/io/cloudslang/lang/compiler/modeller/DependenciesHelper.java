@@ -12,10 +12,10 @@ package io.cloudslang.lang.compiler.modeller;
 /*
  * Created by orius123 on 05/11/14.
  */
-import ch.lambdaj.Lambda;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Step;
+import io.cloudslang.lang.compiler.modeller.transformers.AccumulateTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.PublishTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.Transformer;
 import io.cloudslang.lang.entities.bindings.InOutParam;
@@ -30,16 +30,15 @@ import org.springframework.stereotype.Component;
 import java.io.Serializable;
 import java.util.*;
 
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static org.hamcrest.Matchers.equalTo;
-
 @Component
 public class DependenciesHelper {
 
     @Autowired
     private PublishTransformer publishTransformer;
 
+    @Autowired
+    private AccumulateTransformer accumulateTransformer;
+
     /**
      * recursive matches executables with their references
      *
@@ -48,27 +47,43 @@ public class DependenciesHelper {
      */
     public Map<String, Executable> matchReferences(Executable executable, Collection<Executable> availableDependencies) {
         Validate.isTrue(executable.getType().equals(SlangTextualKeys.FLOW_TYPE), "Executable: \'" + executable.getId() + "\' is not a flow, therefore it has no references");
-        Map<String, Executable> resolvedDependencies = new HashMap<>();
-        return fetchFlowReferences(executable, availableDependencies, resolvedDependencies);
+        return fetchFlowReferences(executable, indexById(availableDependencies));
     }
 
-    private Map<String, Executable> fetchFlowReferences(Executable executable,
-                                                                Collection<Executable> availableDependencies,
-                                                                Map<String, Executable> resolvedDependencies) {
-        for (String refId : executable.getExecutableDependencies()) {
-            //if it is already in the references we do nothing
-            if (resolvedDependencies.get(refId) == null) {
-                Executable matchingRef = Lambda.selectFirst(availableDependencies, having(on(Executable.class).getId(), equalTo(refId)));
-                if (matchingRef == null) {
-                    throw new RuntimeException("Reference: \'" + refId + "\' in executable: \'"
-                            + executable.getName() + "\', wasn't found in path");
-                }
+    // the first executable with an id wins, as the references were matched to the first one in the path
+    private Map<String, Executable> indexById(Collection<Executable> executables) {
+        Map<String, Executable> executablesById = new HashMap<>(executables.size() * 2);
+        for (Executable executable : executables) {
+            String id = executable.getId();
+            if (!executablesById.containsKey(id)) {
+                executablesById.put(id, executable);
+            }
+        }
+        return executablesById;
+    }
+
+    private Map<String, Executable> fetchFlowReferences(Executable executable, Map<String, Executable> availableDependencies) {
+        Map<String, Executable> resolvedDependencies = new HashMap<>();
+        // flows whose references still need to be fetched
+        Deque<Executable> flows = new ArrayDeque<>();
+        flows.push(executable);
+        while (!flows.isEmpty()) {
+            Executable flow = flows.pop();
+            for (String refId : flow.getExecutableDependencies()) {
+                //if it is already in the references we do nothing
+                if (resolvedDependencies.get(refId) == null) {
+                    Executable matchingRef = availableDependencies.get(refId);
+                    if (matchingRef == null) {
+                        throw new RuntimeException("Reference: \'" + refId + "\' in executable: \'"
+                                + flow.getName() + "\', wasn't found in path");
+                    }
 
-                //first we put the reference on the map
-                resolvedDependencies.put(matchingRef.getId(), matchingRef);
-                if (matchingRef.getType().equals(SlangTextualKeys.FLOW_TYPE)) {
-                    //if it is a flow  we recursively
-                    resolvedDependencies.putAll(fetchFlowReferences(matchingRef, availableDependencies, resolvedDependencies));
+                    //first we put the reference on the map
+                    resolvedDependencies.put(matchingRef.getId(), matchingRef);
+                    if (matchingRef.getType().equals(SlangTextualKeys.FLOW_TYPE)) {
+                        //if it is a flow we fetch its references as well
+                        flows.push(matchingRef);
+                    }
                 }
             }
         }
@@ -110,6 +125,7 @@ public class DependenciesHelper {
         Set<String> result = new HashSet<>();
         List<Transformer> relevantTransformers = new ArrayList<>();
         relevantTransformers.add(publishTransformer);
+        relevantTransformers.add(accumulateTransformer);
 
         result.addAll(getSystemPropertiesFromInOutParam(step.getArguments()));
         result.addAll(
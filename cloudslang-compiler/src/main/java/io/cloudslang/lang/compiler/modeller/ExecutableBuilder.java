@@ -55,6 +55,7 @@ import static ch.lambdaj.Lambda.having;
 import static ch.lambdaj.Lambda.on;
 import static org.hamcrest.Matchers.equalTo;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.FOR_KEY;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.MAX_PARALLELISM_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.NAVIGATION_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.ON_FAILURE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.PARALLEL_LOOP_KEY;
@@ -98,7 +99,8 @@ public class ExecutableBuilder {
     private List<String> stepAdditionalKeyWords = Arrays.asList(ScoreLangConstants.LOOP_KEY, SlangTextualKeys.DO_KEY, SlangTextualKeys.NAVIGATION_KEY);
     private List<String> parallelLoopValidKeywords = Arrays.asList(
             SlangTextualKeys.DO_KEY,
-            SlangTextualKeys.FOR_KEY
+            SlangTextualKeys.FOR_KEY,
+            SlangTextualKeys.MAX_PARALLELISM_KEY
     );
 
     @PostConstruct
@@ -191,6 +193,7 @@ public class ExecutableBuilder {
                 ActionModellingResult actionModellingResult = compileAction(actionRawData);
                 errors.addAll(actionModellingResult.getErrors());
                 Action action = actionModellingResult.getAction();
+                errors.addAll(validateOperationResults(results, execName));
                 executableDependencies = new HashSet<>();
                 try {
                     systemPropertyDependencies = dependenciesHelper.getSystemPropertiesForOperation(inputs, outputs, results);
@@ -377,7 +380,15 @@ public class ExecutableBuilder {
                                 )
                         );
 
-                        parallelLoopRawData.put(PARALLEL_LOOP_KEY, parallelLoopRawData.remove(FOR_KEY));
+                        if (parallelLoopRawData.containsKey(MAX_PARALLELISM_KEY)) {
+                            // the parallel loop transformer reads both the for statement and the max parallelism
+                            Map<String, Object> parallelLoopStatementRawData = new HashMap<>();
+                            parallelLoopStatementRawData.put(FOR_KEY, parallelLoopRawData.remove(FOR_KEY));
+                            parallelLoopStatementRawData.put(MAX_PARALLELISM_KEY, parallelLoopRawData.remove(MAX_PARALLELISM_KEY));
+                            parallelLoopRawData.put(PARALLEL_LOOP_KEY, parallelLoopStatementRawData);
+                        } else {
+                            parallelLoopRawData.put(PARALLEL_LOOP_KEY, parallelLoopRawData.remove(FOR_KEY));
+                        }
                         stepRawDataValue.putAll(parallelLoopRawData);
                     }
                 }
@@ -446,6 +457,12 @@ public class ExecutableBuilder {
 
         replaceOnFailureReference(postStepData, onFailureStepName, stepName);
 
+        boolean parallelLoop = preStepData.containsKey(SlangTextualKeys.PARALLEL_LOOP_KEY);
+        if (!parallelLoop && CollectionUtils.isNotEmpty((List) postStepData.get(SlangTextualKeys.ACCUMULATE_KEY))) {
+            errors.add(new RuntimeException("Step: \'" + stepName + "\' has an \'" + SlangTextualKeys.ACCUMULATE_KEY +
+                    "\' section, which is supported only for a \'" + SlangTextualKeys.PARALLEL_LOOP_KEY + "\'"));
+        }
+
         @SuppressWarnings("unchecked")
         List<Argument> arguments = (List<Argument>) preStepData.get(SlangTextualKeys.DO_KEY);
 
@@ -473,7 +490,7 @@ public class ExecutableBuilder {
                 arguments,
                 navigationStrings,
                 refId,
-                preStepData.containsKey(SlangTextualKeys.PARALLEL_LOOP_KEY));
+                parallelLoop);
         return new StepModellingResult(step, errors);
     }
 
@@ -587,6 +604,31 @@ public class ExecutableBuilder {
         return errors;
     }
 
+    /**
+     * The result values are checked here so the runtime can rely on the expressions extracted at compile time
+     */
+    private List<RuntimeException> validateOperationResults(List<Result> results, String operationName) {
+        List<RuntimeException> errors = new ArrayList<>();
+        if (results == null) {
+            return errors;
+        }
+        for (Result result : results) {
+            Serializable rawValue = result.getValue() == null ? null : result.getValue().get();
+            if (rawValue != null && !(rawValue instanceof Boolean) && !result.getExpression().isExpression()) {
+                errors.add(
+                        new RuntimeException(
+                                "Operation: '" + operationName + "' syntax is illegal. Error compiling result: '" +
+                                        result.getName() + "'. Value: '" + rawValue + "' is not valid." +
+                                        " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
+                                        " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER +
+                                        " or a boolean value."
+                        )
+                );
+            }
+        }
+        return errors;
+    }
+
     private List<Step> getUnreachableSteps(Deque<Step> steps, Deque<Step> onFailureSteps) {
         List<Step> unreachableSteps = new ArrayList<>();
         if (steps.size() > 0) {
@@ -20,7 +20,9 @@ import java.util.Set;
 /*
  * Created by orius123 on 05/11/14.
  */
-public abstract class Executable {
+public abstract class Executable implements Serializable {
+
+    private static final long serialVersionUID = -5368365131923579908L;
 
     protected final Map<String, Serializable> preExecActionData;
     protected final Map<String, Serializable> postExecActionData;
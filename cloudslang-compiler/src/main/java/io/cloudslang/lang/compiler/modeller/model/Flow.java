@@ -23,6 +23,8 @@ import java.util.Set;
  */
 public class Flow extends Executable {
 
+    private static final long serialVersionUID = 4353277032674952737L;
+
     private final Workflow workflow;
 
     public Flow(Map<String, Serializable> preOpActionData,
@@ -94,12 +94,12 @@ public abstract class AbstractInputsTransformer extends InOutTransformer {
             boolean required,
             boolean privateInput) {
         Accumulator dependencyAccumulator = extractFunctionData(value);
-        return new Input.InputBuilder(name, value, sensitive)
+        return compileExpression(new Input.InputBuilder(name, value, sensitive)
                 .withRequired(required)
                 .withPrivateInput(privateInput)
                 .withFunctionDependencies(dependencyAccumulator.getFunctionDependencies())
                 .withSystemPropertyDependencies(dependencyAccumulator.getSystemPropertyDependencies())
-                .build();
+                .build());
     }
 
 }
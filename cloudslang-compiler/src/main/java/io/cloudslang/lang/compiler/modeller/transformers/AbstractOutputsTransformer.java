@@ -89,12 +89,12 @@ public class AbstractOutputsTransformer  extends InOutTransformer {
 
     private Output createOutput(String outputName, Serializable outputExpression, boolean sensitive){
         Accumulator accumulator = extractFunctionData(outputExpression);
-        return new Output(
+        return compileExpression(new Output(
                 outputName,
                 ValueFactory.create(outputExpression, sensitive),
                 accumulator.getFunctionDependencies(),
                 accumulator.getSystemPropertyDependencies()
-        );
+        ));
     }
 
     private Output createRefOutput(String rawOutput) {
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.entities.bindings.Output;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transforms the accumulate section of a parallel loop step: values folded over the branches one
+ * branch at a time, in the order of the split items, instead of publishing over the list of all the branches.
+ * The branches of a wave are folded when the whole wave finished, whatever order they finished in.
+ */
+@Component
+public class AccumulateTransformer extends AbstractOutputsTransformer implements Transformer<List<Object>, List<Output>> {
+
+    @Override
+    public List<Output> transform(List<Object> rawData) {
+        return super.transform(rawData);
+    }
+
+    @Override
+    public List<Scope> getScopes() {
+        return Collections.singletonList(Scope.AFTER_STEP);
+    }
+
+    @Override
+    public String keyToTransform() {
+        return null;
+    }
+
+}
@@ -76,12 +76,12 @@ public class DoTransformer extends InOutTransformer implements Transformer<Map<S
             Serializable entryValue = entry.getValue();
             // - some_input: some_expression
             Accumulator accumulator = extractFunctionData(entryValue);
-            return new Argument(
+            return compileExpression(new Argument(
                     entry.getKey(),
                     ValueFactory.create(entryValue),
                     accumulator.getFunctionDependencies(),
                     accumulator.getSystemPropertyDependencies()
-            );
+            ));
         }
         throw new RuntimeException("Could not transform step argument: " + rawArgument);
     }
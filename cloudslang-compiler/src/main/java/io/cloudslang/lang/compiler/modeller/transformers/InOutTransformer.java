@@ -11,9 +11,12 @@
  */
 package io.cloudslang.lang.compiler.modeller.transformers;
 
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.InOutParam;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import org.apache.commons.collections4.CollectionUtils;
+import org.python.core.PyException;
 
 import java.io.Serializable;
 import java.util.HashSet;
@@ -27,6 +30,11 @@ public abstract class InOutTransformer {
 
     protected Accumulator extractFunctionData(Serializable value) {
         String expression = ExpressionUtils.extractExpression(value);
+        if (expression == null && isMalformedExpression(value)) {
+            throw new RuntimeException("The expression: '" + value + "' is not valid." +
+                    " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
+                    " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
+        }
         Set<String> systemPropertyDependencies = new HashSet<>();
         Set<ScriptFunction> functionDependencies = new HashSet<>();
         if (expression != null) {
@@ -46,6 +54,28 @@ public abstract class InOutTransformer {
         return new Accumulator(functionDependencies, systemPropertyDependencies);
     }
 
+    /**
+     * Compiles the expression of the param with Jython, so an expression that is not valid Python
+     * fails the compilation. The compiled code is kept with the param and used by the runtime.
+     */
+    protected <T extends InOutParam> T compileExpression(T param) {
+        try {
+            param.getExpression().getCode();
+        } catch (PyException e) {
+            throw new RuntimeException("The expression: '" + param.getExpression().getExpression() + "' of: '" +
+                    param.getName() + "' is not valid: " + e.value, e);
+        }
+        return param;
+    }
+
+    /**
+     * A value that starts like an expression but is not one would otherwise be used as a literal at runtime
+     */
+    private boolean isMalformedExpression(Serializable value) {
+        return value instanceof String &&
+                ((String) value).trim().startsWith(ScoreLangConstants.EXPRESSION_START_DELIMITER);
+    }
+
     protected static class Accumulator {
 
         private final Set<ScriptFunction> functionDependencies;
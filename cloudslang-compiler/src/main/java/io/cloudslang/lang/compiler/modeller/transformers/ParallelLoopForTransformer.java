@@ -13,6 +13,8 @@ import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.entities.ParallelLoopStatement;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 /**
@@ -21,11 +23,40 @@ import org.springframework.stereotype.Component;
  * @author Bonczidai Levente
  */
 @Component
-public class ParallelLoopForTransformer extends AbstractForTransformer implements Transformer<String, ParallelLoopStatement> {
+public class ParallelLoopForTransformer extends AbstractForTransformer implements Transformer<Object, ParallelLoopStatement> {
 
+    /**
+     * @param rawData the for statement, or a map of the for statement and the max parallelism
+     */
     @Override
-    public ParallelLoopStatement transform(String rawData) {
-        return (ParallelLoopStatement) transformToLoopStatement(rawData, true);
+    public ParallelLoopStatement transform(Object rawData) {
+        if (rawData instanceof Map) {
+            Map rawDataMap = (Map) rawData;
+            ParallelLoopStatement statement = (ParallelLoopStatement) transformToLoopStatement((String) rawDataMap.get(SlangTextualKeys.FOR_KEY), true);
+            if (statement == null) {
+                return null;
+            }
+            Integer maxParallelism = transformMaxParallelism(rawDataMap.get(SlangTextualKeys.MAX_PARALLELISM_KEY));
+            return new ParallelLoopStatement(statement.getVarName(), statement.getExpression(), maxParallelism);
+        }
+        return (ParallelLoopStatement) transformToLoopStatement((String) rawData, true);
+    }
+
+    private Integer transformMaxParallelism(Object rawMaxParallelism) {
+        Integer maxParallelism = null;
+        if (rawMaxParallelism instanceof Integer) {
+            maxParallelism = (Integer) rawMaxParallelism;
+        } else if (rawMaxParallelism instanceof String && StringUtils.isNumeric(((String) rawMaxParallelism).trim())) {
+            try {
+                maxParallelism = Integer.valueOf(((String) rawMaxParallelism).trim());
+            } catch (NumberFormatException e) {
+                // too large for an integer, reported as not a positive integer
+            }
+        }
+        if (maxParallelism == null || maxParallelism < 1) {
+            throw new RuntimeException("'" + SlangTextualKeys.MAX_PARALLELISM_KEY + "' should be a positive integer, but instead it is: " + rawMaxParallelism);
+        }
+        return maxParallelism;
     }
 
     @Override
@@ -68,12 +68,12 @@ public class ResultsTransformer extends InOutTransformer implements Transformer<
 
     private Result createExpressionResult(String resultName, Serializable resultValue) {
         Accumulator accumulator = extractFunctionData(resultValue);
-        return new Result(
+        return compileExpression(new Result(
                 resultName,
                 ValueFactory.create(resultValue),
                 accumulator.getFunctionDependencies(),
                 accumulator.getSystemPropertyDependencies()
-        );
+        ));
     }
 }
 
@@ -18,24 +18,123 @@ import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
 import io.cloudslang.lang.compiler.parser.utils.ParserExceptionHandler;
 import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Component
 public class YamlParser {
 
     @Autowired
-    private Yaml yaml;
+    private ObjectFactory<Yaml> yamlFactory;
     @Autowired
     private ParserExceptionHandler parserExceptionHandler;
 
+    // Yaml is not thread safe, so every thread parses with its own instance,
+    // which also keeps the bean properties of ParsedSlang it introspected
+    private final ThreadLocal<Yaml> yaml = new ThreadLocal<Yaml>() {
+        @Override
+        protected Yaml initialValue() {
+            return yamlFactory.getObject();
+        }
+    };
+
+    // parses the sources of parseAll, its threads live as long as the bean so their Yaml instances are reused
+    private final ExecutorService parsers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory() {
+                private final AtomicInteger threadNumber = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "slang-yaml-parser-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * Parses the sources in parallel, on as many threads as there are processors.
+     * Once the bean is destroyed the sources are parsed in the calling thread.
+     *
+     * @param sources the sources to parse
+     * @return the parsed sources, in the iteration order of the sources
+     * @throws RuntimeException the error of the first source, in that order, that could not be parsed
+     */
+    public List<ParsedSlang> parseAll(Collection<SlangSource> sources) {
+        List<SlangSource> sourceList = new ArrayList<>(sources);
+        List<ParsedSlang> parsedSlangs = new ArrayList<>(sourceList.size());
+        if (sourceList.size() <= 1 || Runtime.getRuntime().availableProcessors() <= 1 || parsers.isShutdown()) {
+            for (SlangSource source : sourceList) {
+                parsedSlangs.add(parse(source));
+            }
+            return parsedSlangs;
+        }
+
+        List<Future<ParsedSlang>> futures = new ArrayList<>(sourceList.size());
+        try {
+            for (final SlangSource source : sourceList) {
+                futures.add(parsers.submit(new Callable<ParsedSlang>() {
+                    @Override
+                    public ParsedSlang call() {
+                        return parse(source);
+                    }
+                }));
+            }
+            for (Future<ParsedSlang> future : futures) {
+                parsedSlangs.add(getResult(future));
+            }
+            return parsedSlangs;
+        } finally {
+            // sources left after a failure are not parsed
+            for (Future<ParsedSlang> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        parsers.shutdownNow();
+    }
+
+    private ParsedSlang getResult(Future<ParsedSlang> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the sources to be parsed", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
     public ParsedSlang parse(SlangSource source) {
 
         Validate.notEmpty(source.getSource(), "Source " + source.getFileName() + " cannot be empty");
 
         try {
-            ParsedSlang parsedSlang = yaml.loadAs(source.getSource(), ParsedSlang.class);
+            ParsedSlang parsedSlang = yaml.get().loadAs(source.getSource(), ParsedSlang.class);
             if(parsedSlang == null) {
                 throw new RuntimeException("Source " + source.getFileName() + " does not contain YAML content");
             }
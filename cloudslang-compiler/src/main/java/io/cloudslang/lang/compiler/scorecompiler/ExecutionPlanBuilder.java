@@ -10,7 +10,6 @@
 
 package io.cloudslang.lang.compiler.scorecompiler;
 
-import ch.lambdaj.Lambda;
 import io.cloudslang.lang.compiler.modeller.model.Flow;
 import io.cloudslang.lang.compiler.modeller.model.Operation;
 import io.cloudslang.lang.compiler.modeller.model.Step;
@@ -23,16 +22,14 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static org.hamcrest.Matchers.equalTo;
-
 /*
  * Created by orius123 on 11/11/14.
  */
@@ -89,27 +86,81 @@ public class ExecutionPlanBuilder {
             throw new RuntimeException("Flow: " + compiledFlow.getName() + " has no steps");
         }
 
-        List<ExecutionStep> stepExecutionSteps = buildStepExecutionSteps(steps.getFirst(), stepReferences, steps, compiledFlow);
+        List<ExecutionStep> stepExecutionSteps = buildStepExecutionSteps(stepReferences, steps, compiledFlow);
         executionPlan.addSteps(stepExecutionSteps);
 
         return executionPlan;
     }
 
+    /**
+     * Creates the execution steps of the steps that are reachable from the first step.
+     * The steps get their ids in the order they are reached, depth first, and every step is followed by the steps
+     * that are first reached from its navigations. The traversal uses a work-list, so the depth of the navigation
+     * chains is not limited by the stack, and the navigation targets are found in a name-indexed table.
+     */
     private List<ExecutionStep> buildStepExecutionSteps(
-            Step step,
             Map<String, Long> stepReferences, Deque<Step> steps,
             Flow compiledFlow) {
 
+        Map<String, Step> stepsByName = new HashMap<>();
+        for (Step step : steps) {
+            if (!stepsByName.containsKey(step.getName())) {
+                stepsByName.put(step.getName(), step);
+            }
+        }
+
         List<ExecutionStep> stepExecutionSteps = new ArrayList<>();
+        Deque<StepInProgress> stepsInProgress = new ArrayDeque<>();
+        long nextId = FLOW_START_STEP_ID + 1;
+        StepInProgress stepInProgress = new StepInProgress(steps.getFirst(), nextId);
+        nextId = beginStep(stepInProgress, stepReferences, stepExecutionSteps, compiledFlow);
+        stepsInProgress.push(stepInProgress);
+
+        while (!stepsInProgress.isEmpty()) {
+            stepInProgress = stepsInProgress.peek();
+            Step step = stepInProgress.step;
+            String stepName = step.getName();
+            if (stepInProgress.navigations.hasNext()) {
+                Map.Entry<String, String> entry = stepInProgress.navigations.next().entrySet().iterator().next();
+                String nextStepName = entry.getValue();
+                Long nextStepId = stepReferences.get(nextStepName);
+                if (nextStepId == null) {
+                    Step nextStepToCompile = stepsByName.get(nextStepName);
+                    if (nextStepToCompile == null) {
+                        throw new RuntimeException("Failed to compile step: " + stepName + ". The step/result name: " + entry.getValue() + " of navigation: " + entry.getKey() + " -> " + entry.getValue() + " is missing");
+                    }
+                    StepInProgress nextStepInProgress = new StepInProgress(nextStepToCompile, nextId);
+                    nextId = beginStep(nextStepInProgress, stepReferences, stepExecutionSteps, compiledFlow);
+                    stepsInProgress.push(nextStepInProgress);
+                    nextStepId = nextStepInProgress.firstId;
+                }
+                String presetResult = (FLOW_END_STEP_ID == nextStepId) ? nextStepName : null;
+                String navigationKey = entry.getKey();
+                if (!stepInProgress.navigationValues.containsKey(navigationKey)) {
+                    stepInProgress.navigationValues.put(navigationKey, new ResultNavigation(nextStepId, presetResult));
+                }
+            } else {
+                stepsInProgress.pop();
+                endStep(stepInProgress, stepExecutionSteps);
+            }
+        }
+        return stepExecutionSteps;
+    }
 
+    /**
+     * Creates the execution steps that begin the step
+     *
+     * @return the first id after the ids of the step
+     */
+    private long beginStep(StepInProgress stepInProgress, Map<String, Long> stepReferences,
+                           List<ExecutionStep> stepExecutionSteps, Flow compiledFlow) {
+        Step step = stepInProgress.step;
         String stepName = step.getName();
-        Long currentId = getCurrentId(stepReferences, steps);
-        boolean parallelLoop = step.isParallelLoop();
+        long currentId = stepInProgress.firstId;
 
-        //Begin Step
         stepReferences.put(stepName, currentId);
-        if (parallelLoop) {
-            Long joinStepID = currentId + NUMBER_OF_PARALLEL_LOOP_EXECUTION_STEPS + 1;
+        if (step.isParallelLoop()) {
+            long joinStepID = currentId + NUMBER_OF_PARALLEL_LOOP_EXECUTION_STEPS + 1;
             stepExecutionSteps.add(
                     stepFactory.createAddBranchesStep(currentId++, joinStepID, currentId,
                             step.getPreStepActionData(), compiledFlow.getId(), stepName
@@ -117,70 +168,49 @@ public class ExecutionPlanBuilder {
             );
         }
         stepExecutionSteps.add(
-                stepFactory.createBeginStepStep(currentId++, step.getArguments(),
+                stepFactory.createBeginStepStep(currentId, step.getArguments(),
                         step.getPreStepActionData(), step.getRefId(), stepName)
         );
+        return stepInProgress.firstId + NUMBER_OF_STEP_EXECUTION_STEPS +
+                (step.isParallelLoop() ? NUMBER_OF_PARALLEL_LOOP_EXECUTION_STEPS : 0);
+    }
 
-        //End Step
-        Map<String, ResultNavigation> navigationValues = new HashMap<>();
-        for (Map<String, String> map : step.getNavigationStrings()) {
-            Map.Entry<String, String> entry = map.entrySet().iterator().next();
-            String nextStepName = entry.getValue();
-            if (stepReferences.get(nextStepName) == null) {
-                Step nextStepToCompile = Lambda.selectFirst(steps, having(on(Step.class).getName(), equalTo(nextStepName)));
-                if (nextStepToCompile == null) {
-                    throw new RuntimeException("Failed to compile step: " + stepName + ". The step/result name: " + entry.getValue() + " of navigation: " + entry.getKey() + " -> " + entry.getValue() + " is missing");
-                }
-                stepExecutionSteps.addAll(buildStepExecutionSteps(nextStepToCompile, stepReferences, steps, compiledFlow));
-            }
-            long nextStepId = stepReferences.get(nextStepName);
-            String presetResult = (FLOW_END_STEP_ID == nextStepId) ? nextStepName : null;
-            String navigationKey = entry.getKey();
-            if (!navigationValues.containsKey(navigationKey)) {
-                navigationValues.put(navigationKey, new ResultNavigation(nextStepId, presetResult));
-            }
-        }
-        if (parallelLoop) {
+    private void endStep(StepInProgress stepInProgress, List<ExecutionStep> stepExecutionSteps) {
+        Step step = stepInProgress.step;
+        String stepName = step.getName();
+        if (step.isParallelLoop()) {
+            long finishStepId = stepInProgress.firstId + NUMBER_OF_PARALLEL_LOOP_EXECUTION_STEPS;
             stepExecutionSteps.add(
-                    stepFactory.createFinishStepStep(currentId++, step.getPostStepActionData(),
+                    stepFactory.createFinishStepStep(finishStepId, step.getPostStepActionData(),
                             new HashMap<String, ResultNavigation>(), stepName, true)
             );
             stepExecutionSteps.add(
-                    stepFactory.createJoinBranchesStep(currentId, step.getPostStepActionData(),
-                            navigationValues, stepName)
+                    stepFactory.createJoinBranchesStep(finishStepId + 1, stepInProgress.firstId,
+                            step.getPostStepActionData(), stepInProgress.navigationValues, stepName)
             );
         } else {
             stepExecutionSteps.add(
-                    stepFactory.createFinishStepStep(currentId, step.getPostStepActionData(),
-                            navigationValues, stepName, false)
+                    stepFactory.createFinishStepStep(stepInProgress.firstId + 1, step.getPostStepActionData(),
+                            stepInProgress.navigationValues, stepName, false)
             );
         }
-        return stepExecutionSteps;
     }
 
-    private Long getCurrentId(Map<String, Long> stepReferences, Deque<Step> steps) {
-        Long currentID;
-
-        Long max = Lambda.max(stepReferences);
-        Map.Entry maxEntry = Lambda.selectFirst(stepReferences.entrySet(), having(on(Map.Entry.class).getValue(), equalTo(max)));
-        String referenceKey = (String) (maxEntry).getKey();
-        Step step = null;
-        for (Step stepItem : steps) {
-            if (stepItem.getName().equals(referenceKey)) {
-                step = stepItem;
-                break;
-            }
-        }
+    /**
+     * A step whose begin execution steps were created, and whose navigations are being resolved
+     */
+    private static class StepInProgress {
 
-        if (step == null || !step.isParallelLoop()) {
-            // the reference is not a step or is not a parallel loop step
-            currentID = max + NUMBER_OF_STEP_EXECUTION_STEPS;
-        } else {
-            //async step
-            currentID = max + NUMBER_OF_STEP_EXECUTION_STEPS + NUMBER_OF_PARALLEL_LOOP_EXECUTION_STEPS;
-        }
+        private final Step step;
+        private final long firstId;
+        private final Iterator<Map<String, String>> navigations;
+        private final Map<String, ResultNavigation> navigationValues = new HashMap<>();
 
-        return currentID;
+        StepInProgress(Step step, long firstId) {
+            this.step = step;
+            this.firstId = firstId;
+            this.navigations = step.getNavigationStrings().iterator();
+        }
     }
 
 }
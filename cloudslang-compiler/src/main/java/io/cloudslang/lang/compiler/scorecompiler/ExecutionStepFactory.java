@@ -145,14 +145,16 @@ public class ExecutionStepFactory {
         return executionStep;
     }
 
-    public ExecutionStep createJoinBranchesStep(Long index, Map<String, Serializable> postStepData,
+    public ExecutionStep createJoinBranchesStep(Long index, Long addBranchesStepID, Map<String, Serializable> postStepData,
                                                 Map<String, ResultNavigation> navigationValues, String stepName) {
         Validate.notNull(postStepData, "postStepData is null");
         Validate.notNull(navigationValues, "navigationValues is null");
         Map<String, Serializable> actionData = new HashMap<>();
         actionData.put(ScoreLangConstants.STEP_PUBLISH_KEY, postStepData.get(SlangTextualKeys.PUBLISH_KEY));
+        actionData.put(ScoreLangConstants.STEP_ACCUMULATE_KEY, postStepData.get(SlangTextualKeys.ACCUMULATE_KEY));
         actionData.put(ScoreLangConstants.STEP_NAVIGATION_KEY, new HashMap<>(navigationValues));
         actionData.put(ScoreLangConstants.NODE_NAME_KEY, stepName);
+        actionData.put(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY, addBranchesStepID);
 
         return createGeneralStep(index, PARALLEL_LOOP_STEPS_CLASS, "joinBranches", actionData);
     }
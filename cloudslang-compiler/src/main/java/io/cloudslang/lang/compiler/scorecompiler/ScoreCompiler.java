@@ -10,8 +10,10 @@ package io.cloudslang.lang.compiler.scorecompiler;
 
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.score.api.ExecutionPlan;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /*
@@ -36,6 +38,21 @@ public interface ScoreCompiler {
      */
     CompilationArtifact compile(Executable source, Set<Executable> path);
 
+    /**
+     * Compile an {@link io.cloudslang.lang.compiler.modeller.model.Executable} whose references were already resolved
+     * to a {@link io.cloudslang.lang.entities.CompilationArtifact} object, reusing the
+     * {@link io.cloudslang.score.api.ExecutionPlan}s of dependencies that were already compiled.
+     * The references of the source are not matched again against the dependencies
+     * @param source the {@link io.cloudslang.lang.compiler.modeller.model.Executable} source
+     * @param dependencies the direct and indirect dependencies of the source, exactly the
+     *                     {@link io.cloudslang.lang.compiler.modeller.model.Executable}s its references resolve to
+     * @param dependenciesExecutionPlans the {@link io.cloudslang.score.api.ExecutionPlan}s of the compiled dependencies by their ids,
+     *                                   the execution plans of the source dependencies are added to it.
+     *                                   Must be a concurrent map if it is shared by concurrent compilations
+     * @return the compiled {@link io.cloudslang.lang.entities.CompilationArtifact}
+     */
+    CompilationArtifact compile(Executable source, Set<Executable> dependencies, Map<String, ExecutionPlan> dependenciesExecutionPlans);
+
     /**
      * Validate that the given {@Link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
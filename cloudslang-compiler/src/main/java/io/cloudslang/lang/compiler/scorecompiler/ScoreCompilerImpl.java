@@ -8,7 +8,6 @@
  */
 package io.cloudslang.lang.compiler.scorecompiler;
 
-import ch.lambdaj.function.convert.Converter;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.Validator;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
@@ -30,8 +29,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static ch.lambdaj.Lambda.convertMap;
-
 /*
  * Created by stoneo on 2/2/2015.
  */
@@ -49,12 +46,9 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     @Override
     public CompilationArtifact compile(Executable executable, Set<Executable> path) {
-
         Map<String, Executable> filteredDependencies = new HashMap<>();
         //we handle dependencies only if the file has imports
-        boolean hasDependencies = CollectionUtils.isNotEmpty(executable.getExecutableDependencies())
-                && executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
-        if (hasDependencies) {
+        if (hasDependencies(executable)) {
             Validate.notEmpty(path, "Source " + executable.getName() + " has dependencies but no path was given to the compiler");
             Validate.noNullElements(path, "Source " + executable.getName() + " has empty dependencies");
 
@@ -64,24 +58,47 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
             //than we match the references to the actual dependencies
             filteredDependencies = dependenciesHelper.matchReferences(executable, availableExecutables);
+        }
+        return compileWithDependencies(executable, filteredDependencies, new HashMap<String, ExecutionPlan>());
+    }
+
+    @Override
+    public CompilationArtifact compile(Executable executable, Set<Executable> dependencies,
+                                       Map<String, ExecutionPlan> dependenciesExecutionPlans) {
+        Map<String, Executable> dependenciesById = new HashMap<>();
+        if (hasDependencies(executable)) {
+            Validate.notEmpty(dependencies, "Source " + executable.getName() + " has dependencies but no path was given to the compiler");
+            Validate.noNullElements(dependencies, "Source " + executable.getName() + " has empty dependencies");
+            //the references were already resolved, so the dependencies are only indexed
+            for (Executable dependency : dependencies) {
+                dependenciesById.put(dependency.getId(), dependency);
+            }
+        }
+        return compileWithDependencies(executable, dependenciesById, dependenciesExecutionPlans);
+    }
 
+    private boolean hasDependencies(Executable executable) {
+        return CollectionUtils.isNotEmpty(executable.getExecutableDependencies())
+                && executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
+    }
+
+    private CompilationArtifact compileWithDependencies(Executable executable, Map<String, Executable> filteredDependencies,
+                                                        Map<String, ExecutionPlan> dependenciesExecutionPlans) {
+        if (hasDependencies(executable)) {
             List<RuntimeException> errors = validator.validateModelWithDependencies(executable, filteredDependencies);
             if (errors.size() > 0) {
                 throw errors.get(0);
             }
-
         }
 
         //next we create an execution plan for the required executable
         ExecutionPlan executionPlan = compileToExecutionPlan(executable);
 
-        //and also create execution plans for all other dependencies
-        Map<String, ExecutionPlan> dependencies = convertMap(filteredDependencies, new Converter<Executable, ExecutionPlan>() {
-            @Override
-            public ExecutionPlan convert(Executable compiledExecutable) {
-                return compileToExecutionPlan(compiledExecutable);
-            }
-        });
+        //and also create execution plans for all other dependencies, or reuse them if they were already created
+        Map<String, ExecutionPlan> dependencies = new HashMap<>();
+        for (Map.Entry<String, Executable> dependency : filteredDependencies.entrySet()) {
+            dependencies.put(dependency.getKey(), getExecutionPlan(dependency.getValue(), dependenciesExecutionPlans));
+        }
         Collection<Executable> executables = new ArrayList<>(filteredDependencies.values());
         executables.add(executable);
 
@@ -98,6 +115,15 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         return validator.validateModelWithDirectDependencies(slangModel, dependenciesMap);
     }
 
+    private ExecutionPlan getExecutionPlan(Executable dependency, Map<String, ExecutionPlan> dependenciesExecutionPlans) {
+        ExecutionPlan executionPlan = dependenciesExecutionPlans.get(dependency.getId());
+        if (executionPlan == null) {
+            executionPlan = compileToExecutionPlan(dependency);
+            dependenciesExecutionPlans.put(dependency.getId(), executionPlan);
+        }
+        return executionPlan;
+    }
+
     /**
      * Utility method that cast a {@link io.cloudslang.lang.compiler.modeller.model.Executable} to its subtype
      * and create an {@link io.cloudslang.score.api.ExecutionPlan} for it
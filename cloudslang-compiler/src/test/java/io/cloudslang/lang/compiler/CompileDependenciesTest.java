@@ -11,6 +11,8 @@
 package io.cloudslang.lang.compiler;
 
 import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import org.hamcrest.Matchers;
@@ -26,7 +28,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.net.URI;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.containsString;
@@ -45,6 +49,9 @@ public class CompileDependenciesTest {
     @Autowired
     private SlangCompiler compiler;
 
+    @Autowired
+    private ScoreCompiler scoreCompiler;
+
     @Test(expected = RuntimeException.class)
     public void emptyPathButThereAreImports() throws Exception {
         URI flow = getClass().getResource("/basic_flow.yaml").toURI();
@@ -155,4 +162,32 @@ public class CompileDependenciesTest {
         Assert.assertNotNull(executionPlan);
         Assert.assertEquals(3, compilationArtifact.getDependencies().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void dependenciesExecutionPlansAreReused() throws Exception {
+        Executable parentFlow = compiler.preCompile(SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI()));
+        Executable childFlow = compiler.preCompile(SlangSource.fromFile(getClass().getResource("/circular-dependencies/child_flow.yaml").toURI()));
+        Executable operation = compiler.preCompile(SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI()));
+        Set<Executable> parentPath = new HashSet<>();
+        parentPath.add(childFlow);
+        parentPath.add(operation);
+        Set<Executable> childPath = new HashSet<>();
+        childPath.add(operation);
+        Map<String, ExecutionPlan> dependenciesExecutionPlans = new HashMap<>();
+
+        CompilationArtifact parentArtifact = scoreCompiler.compile(parentFlow, parentPath, dependenciesExecutionPlans);
+        CompilationArtifact childArtifact = scoreCompiler.compile(childFlow, childPath, dependenciesExecutionPlans);
+
+        Assert.assertEquals(2, dependenciesExecutionPlans.size());
+        Assert.assertSame(parentArtifact.getDependencies().get(operation.getId()), childArtifact.getDependencies().get(operation.getId()));
+        Assert.assertNotSame("the execution plan of the compiled flow should not be shared",
+                dependenciesExecutionPlans.get(childFlow.getId()), childArtifact.getExecutionPlan());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resolvedDependenciesAreRequiredForAFlowWithImports() throws Exception {
+        Executable parentFlow = compiler.preCompile(SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI()));
+
+        scoreCompiler.compile(parentFlow, new HashSet<Executable>(), new HashMap<String, ExecutionPlan>());
+    }
+}
@@ -80,6 +80,28 @@ public class CompileParallelLoopFlowTest {
         assertTrue(step.isParallelLoop());
     }
 
+    @Test
+    public void testPreCompileParallelLoopFlowMaxParallelism() throws Exception {
+        Step step = getStepsAfterPrecompileFlow("/loops/parallel_loop/parallel_loop_max_parallelism.sl").getFirst();
+
+        verifyParallelLoopStatement(step);
+        ParallelLoopStatement parallelLoopStatement = (ParallelLoopStatement) step.getPreStepActionData()
+                .get(SlangTextualKeys.PARALLEL_LOOP_KEY);
+        assertEquals(Integer.valueOf(3), parallelLoopStatement.getMaxParallelism());
+        assertTrue(step.isParallelLoop());
+    }
+
+    @Test
+    public void testPreCompileParallelLoopFlowInvalidMaxParallelism() throws Exception {
+        URI flow = getClass().getResource("/corrupted/loops/parallel_loop/parallel_loop_invalid_max_parallelism.sl").toURI();
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("For step 'print_values' syntax is illegal.");
+        expectedException.expectMessage("'max_parallelism' should be a positive integer");
+
+        compiler.preCompile(SlangSource.fromFile(flow));
+    }
+
     @Test
     public void testPreCompileParallelLoopFlowPublish() throws Exception {
         Step step = getStepsAfterPrecompileFlow("/loops/parallel_loop/parallel_loop_publish.sl").getFirst();
@@ -298,6 +320,41 @@ public class CompileParallelLoopFlowTest {
         compiler.compile(SlangSource.fromFile(flow), path);
     }
 
+    @Test
+    public void testCompileParallelLoopFlowAccumulate() throws Exception {
+        URI flow = getClass().getResource("/loops/parallel_loop/parallel_loop_accumulate.sl").toURI();
+        URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact artifact = compiler.compile(SlangSource.fromFile(flow), path);
+        assertNotNull("artifact is null", artifact);
+
+        Map<String, ?> joinBranchesActionData = artifact.getExecutionPlan().getStep(5L).getActionData();
+
+        @SuppressWarnings("unchecked") List<Output> actualAccumulateOutputs =
+                (List<Output>) joinBranchesActionData.get(ScoreLangConstants.STEP_ACCUMULATE_KEY);
+        List<Output> expectedAccumulateOutputs = new ArrayList<>();
+        expectedAccumulateOutputs.add(new Output("number_sum", ValueFactory.create("${ (number_sum or 0) + branch_context['number'] }")));
+        assertEquals("accumulate values not as expected", expectedAccumulateOutputs, actualAccumulateOutputs);
+        @SuppressWarnings("unchecked") List<Output> actualPublishOutputs =
+                (List<Output>) joinBranchesActionData.get(ScoreLangConstants.STEP_PUBLISH_KEY);
+        assertEquals(1, actualPublishOutputs.size());
+        assertEquals("number_sum", actualPublishOutputs.get(0).getName());
+    }
+
+    @Test
+    public void testAccumulateWithoutParallelLoopThrowsException() throws Exception {
+        URI flow = getClass().getResource("/corrupted/loops/parallel_loop/accumulate_without_parallel_loop.sl").toURI();
+        URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("Step: 'print_value' has an 'accumulate' section, which is supported only for a 'parallel_loop'");
+
+        compiler.compile(SlangSource.fromFile(flow), path);
+    }
+
     private void verifyPublishValues(Map<String, ?> joinBranchesActionData) {
         assertTrue(joinBranchesActionData.containsKey(ScoreLangConstants.STEP_PUBLISH_KEY));
         @SuppressWarnings("unchecked") List<Output> actualPublishOutputs =
@@ -0,0 +1,205 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.cloudslang.lang.compiler;
+
+import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Step;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SlangCompilerSpringConfig.class)
+public class ExecutableCacheTest {
+
+    private static final String COMPILER_VERSION = "1.0";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Autowired
+    private SlangCompiler compiler;
+
+    private File cacheDirectory;
+    private ExecutableCache executableCache;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = new File(temporaryFolder.getRoot(), "cache");
+        executableCache = new ExecutableCache(cacheDirectory, COMPILER_VERSION);
+    }
+
+    @Test
+    public void testCachedFlowIsEqualToCompiledFlow() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/flow_with_data.yaml").toURI());
+        Flow flow = (Flow) compiler.preCompile(source);
+
+        executableCache.put(source, flow);
+        Flow cachedFlow = (Flow) executableCache.get(source);
+
+        Assert.assertNotSame(flow, cachedFlow);
+        Assert.assertEquals(flow.getId(), cachedFlow.getId());
+        Assert.assertEquals(flow.getInputs(), cachedFlow.getInputs());
+        Assert.assertEquals(flow.getOutputs(), cachedFlow.getOutputs());
+        Assert.assertEquals(flow.getResults(), cachedFlow.getResults());
+        Assert.assertEquals(flow.getExecutableDependencies(), cachedFlow.getExecutableDependencies());
+        Assert.assertEquals(flow.getPreExecActionData(), cachedFlow.getPreExecActionData());
+        Assert.assertEquals(flow.getWorkflow().getSteps().size(), cachedFlow.getWorkflow().getSteps().size());
+        Iterator<Step> cachedSteps = cachedFlow.getWorkflow().getSteps().iterator();
+        for (Step step : flow.getWorkflow().getSteps()) {
+            Step cachedStep = cachedSteps.next();
+            Assert.assertEquals(step.getName(), cachedStep.getName());
+            Assert.assertEquals(step.getArguments(), cachedStep.getArguments());
+            Assert.assertEquals(step.getNavigationStrings(), cachedStep.getNavigationStrings());
+            Assert.assertEquals(step.getRefId(), cachedStep.getRefId());
+        }
+    }
+
+    @Test
+    public void testEveryValidModelCanBeCached() throws Exception {
+        File resources = new File(getClass().getResource("/").toURI());
+        List<String> cachedNames = new ArrayList<>();
+        for (File file : FileUtils.listFiles(resources, new String[]{"sl", "yaml"}, true)) {
+            SlangSource source = SlangSource.fromFile(file);
+            ExecutableModellingResult result;
+            try {
+                result = compiler.preCompileSource(source);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (result.getErrors().isEmpty() && !ExecutableCache.hasSensitiveValues(result.getExecutable())) {
+                executableCache.put(source, result.getExecutable());
+                Executable cachedExecutable = executableCache.get(source);
+                Assert.assertNotNull("model of: " + file + " was not cached", cachedExecutable);
+                Assert.assertEquals(result.getExecutable().getId(), cachedExecutable.getId());
+                cachedNames.add(file.getName());
+            }
+        }
+        Assert.assertTrue(cachedNames.contains("check_Weather.sl"));
+    }
+
+    @Test
+    public void testChangedSourceIsNotFound() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        executableCache.put(source, compiler.preCompile(source));
+
+        SlangSource changedSource = new SlangSource(source.getSource() + "\n", "check_Weather.sl");
+
+        Assert.assertNotNull(executableCache.get(new SlangSource(source.getSource(), "check_Weather.sl")));
+        Assert.assertNull(executableCache.get(changedSource));
+    }
+
+    @Test
+    public void testOtherCompilerVersionDoesNotFindEntry() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        executableCache.put(source, compiler.preCompile(source));
+
+        Assert.assertNull(new ExecutableCache(cacheDirectory, "2.0").get(source));
+    }
+
+    @Test
+    public void testUnreadableEntryIsDeleted() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        executableCache.put(source, compiler.preCompile(source));
+        List<File> entries = listEntries();
+        Assert.assertEquals(1, entries.size());
+        FileUtils.writeStringToFile(entries.get(0), "corrupted");
+
+        Assert.assertNull(executableCache.get(source));
+        Assert.assertFalse(entries.get(0).exists());
+    }
+
+    @Test
+    public void testUnusedEntriesOfOtherCompilerVersionsAreEvicted() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        Executable executable = compiler.preCompile(source);
+        executableCache.put(source, executable);
+        File oldLayoutEntry = new File(cacheDirectory, "entry.ser");
+        FileUtils.writeStringToFile(oldLayoutEntry, "entry");
+        long lastUsed = System.currentTimeMillis() - ExecutableCache.OTHER_VERSION_MAX_AGE_MILLIS - 1000;
+        for (File file : cacheDirectory.listFiles()) {
+            Assert.assertTrue(file.setLastModified(lastUsed));
+        }
+
+        ExecutableCache newVersionCache = new ExecutableCache(cacheDirectory, "2.0");
+        newVersionCache.put(source, executable);
+
+        Assert.assertNull(executableCache.get(source));
+        Assert.assertNotNull(newVersionCache.get(source));
+        Assert.assertFalse(oldLayoutEntry.exists());
+        Assert.assertEquals(1, listEntries().size());
+    }
+
+    @Test
+    public void testRecentlyUsedEntriesOfOtherCompilerVersionsAreKept() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        Executable executable = compiler.preCompile(source);
+        executableCache.put(source, executable);
+
+        ExecutableCache newVersionCache = new ExecutableCache(cacheDirectory, "2.0");
+        newVersionCache.put(source, executable);
+
+        Assert.assertNotNull(executableCache.get(source));
+        Assert.assertNotNull(newVersionCache.get(source));
+        Assert.assertEquals(2, listEntries().size());
+    }
+
+    @Test
+    public void testUnknownCompilerVersionDisablesCache() throws Exception {
+        Assert.assertFalse(new ExecutableCache(cacheDirectory, "unknown-unknown").isEnabled());
+        Assert.assertFalse(new ExecutableCache(cacheDirectory, "${project.version}-${compiler.build.timestamp}").isEnabled());
+        Assert.assertTrue(executableCache.isEnabled());
+    }
+
+    @Test
+    public void testModelWithSensitiveValuesIsNotCached() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/operation_with_data.sl").toURI());
+        Executable executable = compiler.preCompile(source);
+        Assert.assertTrue(ExecutableCache.hasSensitiveValues(executable));
+
+        executableCache.put(source, executable);
+
+        Assert.assertNull(executableCache.get(source));
+        Assert.assertTrue(listEntries().isEmpty());
+    }
+
+    @Test
+    public void testDisabledCacheDoesNothing() throws Exception {
+        SlangSource source = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        ExecutableCache disabledCache = new ExecutableCache(null, COMPILER_VERSION);
+
+        disabledCache.put(source, compiler.preCompile(source));
+
+        Assert.assertFalse(disabledCache.isEnabled());
+        Assert.assertNull(disabledCache.get(source));
+    }
+
+    private List<File> listEntries() {
+        if (!cacheDirectory.isDirectory()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(FileUtils.listFiles(cacheDirectory, new String[]{"ser"}, true));
+    }
+
+}
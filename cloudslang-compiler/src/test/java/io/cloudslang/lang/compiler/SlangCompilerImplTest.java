@@ -13,13 +13,20 @@ package io.cloudslang.lang.compiler;
 
 import com.google.common.collect.Sets;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Operation;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.compiler.parser.YamlParser;
 import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
 import io.cloudslang.lang.compiler.parser.utils.ParserExceptionHandler;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.SystemProperty;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,14 +36,21 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.yaml.snakeyaml.Yaml;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -52,12 +66,29 @@ public class SlangCompilerImplTest {
     private SlangCompiler slangCompiler;
     @Autowired
     private YamlParser yamlParserMock;
+    @Autowired
+    private SlangModeller slangModellerMock;
+    @Autowired
+    private ScoreCompiler scoreCompilerMock;
+    @Autowired
+    private ExecutableCache executableCacheMock;
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
     @Before
     public void setUp() {
         slangSource = new SlangSource("source_content", "source_name");
+        when(yamlParserMock.parseAll(anyCollectionOf(SlangSource.class))).thenAnswer(new Answer<List<ParsedSlang>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<ParsedSlang> answer(InvocationOnMock invocation) throws Throwable {
+                List<ParsedSlang> parsedSlangs = new ArrayList<>();
+                for (SlangSource source : (Collection<SlangSource>) invocation.getArguments()[0]) {
+                    parsedSlangs.add(yamlParserMock.parse(source));
+                }
+                return parsedSlangs;
+            }
+        });
     }
 
     @Test
@@ -105,6 +136,86 @@ public class SlangCompilerImplTest {
         Assert.assertEquals(expectedSystemProperties, actualSystemProperties);
     }
 
+    @Test
+    public void testPathIsPreCompiledOnceForTheSamePath() throws Exception {
+        SlangSource flowSource = new SlangSource("flow_content", "flow_name");
+        SlangSource operationSource = new SlangSource("operation_content", "operation_name");
+        Executable flow = new Flow(null, null, null, "a.b", "flow_name", null, null, null,
+                Sets.newHashSet("a.b.operation_name"), new HashSet<String>());
+        Executable operation = new Operation(null, null, null, "a.b", "operation_name", null, null, null,
+                new HashSet<String>(), new HashSet<String>());
+        mockPreCompile(flowSource, flow);
+        mockPreCompile(operationSource, operation);
+
+        slangCompiler.compile(flowSource, Sets.newHashSet(operationSource));
+        slangCompiler.compile(flowSource, Sets.newHashSet(operationSource));
+
+        verify(yamlParserMock, times(2)).parse(eq(flowSource));
+        verify(yamlParserMock, times(1)).parse(eq(operationSource));
+        verify(yamlParserMock, times(1)).parseAll(eq(Collections.singletonList(operationSource)));
+        verify(scoreCompilerMock, times(2)).compile(eq(flow), eq(Sets.newHashSet(operation)));
+    }
+
+    @Test
+    public void testPathIsPreCompiledAgainWhenASourceChanges() throws Exception {
+        SlangSource flowSource = new SlangSource("changing_flow_content", "changing_flow_name");
+        SlangSource operationSource = new SlangSource("changing_operation_content", "changing_operation_name");
+        SlangSource changedOperationSource = new SlangSource("changed_changing_operation_content", "changing_operation_name");
+        Executable flow = new Flow(null, null, null, "a.b", "changing_flow_name", null, null, null,
+                Sets.newHashSet("a.b.changing_operation_name"), new HashSet<String>());
+        Executable operation = new Operation(null, null, null, "a.b", "changing_operation_name", null, null, null,
+                new HashSet<String>(), new HashSet<String>());
+        mockPreCompile(flowSource, flow);
+        mockPreCompile(operationSource, operation);
+        mockPreCompile(changedOperationSource, operation);
+
+        slangCompiler.compile(flowSource, Sets.newHashSet(operationSource));
+        slangCompiler.compile(flowSource, Sets.newHashSet(changedOperationSource));
+        slangCompiler.compile(flowSource, Sets.newHashSet(new SlangSource("changed_changing_operation_content", "changing_operation_name")));
+
+        verify(yamlParserMock, times(1)).parse(eq(operationSource));
+        verify(yamlParserMock, times(1)).parse(eq(changedOperationSource));
+    }
+
+    @Test
+    public void testCachedSourceIsNotParsed() throws Exception {
+        SlangSource operationSource = new SlangSource("cached_operation_content", "cached_operation_name");
+        Executable operation = new Operation(null, null, null, "a.b", "cached_operation_name", null, null, null,
+                new HashSet<String>(), new HashSet<String>());
+        when(executableCacheMock.get(eq(operationSource))).thenReturn(operation);
+
+        Executable executable = slangCompiler.preCompile(operationSource);
+
+        Assert.assertSame(operation, executable);
+        verify(yamlParserMock, never()).parse(eq(operationSource));
+    }
+
+    @Test
+    public void testModelIsCachedOnlyWithoutErrors() throws Exception {
+        SlangSource validSource = new SlangSource("valid_content", "valid_operation");
+        SlangSource invalidSource = new SlangSource("invalid_content", "invalid_operation");
+        Executable validOperation = new Operation(null, null, null, "a.b", "valid_operation", null, null, null,
+                new HashSet<String>(), new HashSet<String>());
+        Executable invalidOperation = new Operation(null, null, null, null, "invalid_operation", null, null, null,
+                new HashSet<String>(), new HashSet<String>());
+        mockPreCompile(validSource, validOperation);
+        mockPreCompile(invalidSource, invalidOperation);
+
+        slangCompiler.preCompileSource(validSource);
+        ExecutableModellingResult result = slangCompiler.preCompileSource(invalidSource);
+
+        Assert.assertEquals(1, result.getErrors().size());
+        verify(executableCacheMock).put(eq(validSource), eq(validOperation));
+        verify(executableCacheMock, never()).put(eq(invalidSource), any(Executable.class));
+    }
+
+    private void mockPreCompile(SlangSource source, Executable executable) {
+        ParsedSlang parsedSlang = mock(ParsedSlang.class);
+        when(yamlParserMock.parse(eq(source))).thenReturn(parsedSlang);
+        when(slangModellerMock.createModel(parsedSlang))
+                .thenReturn(new ExecutableModellingResult(executable, new ArrayList<RuntimeException>()));
+    }
+
     static class Config {
 
         @Bean
@@ -132,6 +243,11 @@ public class SlangCompilerImplTest {
             return mock(ParserExceptionHandler.class);
         }
 
+        @Bean
+        public ExecutableCache executableCache() {
+            return mock(ExecutableCache.class);
+        }
+
         @Bean
         public SlangCompiler slangCompiler() {
             return new SlangCompilerImpl();
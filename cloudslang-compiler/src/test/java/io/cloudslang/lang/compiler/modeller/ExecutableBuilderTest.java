@@ -3,6 +3,7 @@ package io.cloudslang.lang.compiler.modeller;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.compiler.modeller.transformers.AccumulateTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.PublishTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.Transformer;
 import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
@@ -340,6 +341,11 @@ public class ExecutableBuilderTest {
             return Mockito.mock(PublishTransformer.class);
         }
 
+        @Bean
+        public AccumulateTransformer accumulateTransformer() {
+            return Mockito.mock(AccumulateTransformer.class);
+        }
+
         @Bean
         public TransformersHandler transformersHandler(){
             return Mockito.mock(TransformersHandler.class);
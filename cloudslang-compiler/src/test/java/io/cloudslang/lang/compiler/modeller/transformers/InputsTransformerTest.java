@@ -167,6 +167,32 @@ public class InputsTransformerTest {
         inputTransformer.transform(inputs);
     }
 
+    @Test
+    public void testMalformedExpressionInInput() throws Exception {
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("${ host");
+        exception.expectMessage("is not valid");
+        List inputs = Collections.singletonList(Collections.singletonMap("input_with_malformed_expression", "${ host"));
+        inputTransformer.transform(inputs);
+    }
+
+    @Test
+    public void testInvalidPythonExpressionInInput() throws Exception {
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("x +");
+        exception.expectMessage("input_with_invalid_expression");
+        exception.expectMessage("is not valid");
+        List inputs = Collections.singletonList(Collections.singletonMap("input_with_invalid_expression", "${ x + }"));
+        inputTransformer.transform(inputs);
+    }
+
+    @Test
+    public void testExpressionIsCompiled() throws Exception {
+        @SuppressWarnings("unchecked") List<Input> inputs = inputTransformer.transform(inputsMap);
+        Input input = inputs.get(5);
+        Assert.assertNotNull(input.getExpression().getCode());
+    }
+
     @Test
     public void testIllegalKeyInInput() throws Exception {
         exception.expect(RuntimeException.class);
@@ -9,7 +9,10 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler.modeller.transformers;
 
+import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.entities.ParallelLoopStatement;
+import java.util.HashMap;
+import java.util.Map;
 import junit.framework.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,6 +51,44 @@ public class ParallelLoopTransformerTest {
         Assert.assertEquals("collection", statement.getExpression());
     }
 
+    @Test
+    public void testValidStatementWithMaxParallelism() throws Exception {
+        Map<String, Object> rawData = new HashMap<>();
+        rawData.put(SlangTextualKeys.FOR_KEY, "x in collection");
+        rawData.put(SlangTextualKeys.MAX_PARALLELISM_KEY, 5);
+        ParallelLoopStatement statement = transformer.transform(rawData);
+        Assert.assertEquals("x", statement.getVarName());
+        Assert.assertEquals("collection", statement.getExpression());
+        Assert.assertEquals(Integer.valueOf(5), statement.getMaxParallelism());
+    }
+
+    @Test
+    public void testNoMaxParallelismByDefault() throws Exception {
+        ParallelLoopStatement statement = transformer.transform("x in collection");
+        Assert.assertNull(statement.getMaxParallelism());
+    }
+
+    @Test
+    public void testInvalidMaxParallelism() throws Exception {
+        Map<String, Object> rawData = new HashMap<>();
+        rawData.put(SlangTextualKeys.FOR_KEY, "x in collection");
+        rawData.put(SlangTextualKeys.MAX_PARALLELISM_KEY, "many");
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("max_parallelism");
+        exception.expectMessage("positive integer");
+        transformer.transform(rawData);
+    }
+
+    @Test
+    public void testOversizedMaxParallelism() throws Exception {
+        Map<String, Object> rawData = new HashMap<>();
+        rawData.put(SlangTextualKeys.FOR_KEY, "x in collection");
+        rawData.put(SlangTextualKeys.MAX_PARALLELISM_KEY, "10000000000");
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("'max_parallelism' should be a positive integer, but instead it is: 10000000000");
+        transformer.transform(rawData);
+    }
+
     @Test
     public void testNoVarName() throws Exception {
         exception.expect(RuntimeException.class);
@@ -3,6 +3,9 @@ package io.cloudslang.lang.compiler.parser;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
 import io.cloudslang.lang.compiler.parser.utils.ParserExceptionHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -11,10 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectFactory;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -31,9 +37,22 @@ public class YamlParserTest {
     @Mock
     private Yaml yaml;
 
+    @Mock
+    private ObjectFactory<Yaml> yamlFactory;
+
     @Mock
     private ParserExceptionHandler parserExceptionHandler;
 
+    @Before
+    public void setUp() {
+        Mockito.when(yamlFactory.getObject()).thenReturn(yaml);
+    }
+
+    @After
+    public void tearDown() {
+        yamlParser.destroy();
+    }
+
     @Test
     public void throwExceptionWhenFileIsNotValid() throws Exception {
         Mockito.when(yaml.loadAs(any(InputStream.class), eq(ParsedSlang.class))).thenThrow(IOException.class);
@@ -48,4 +67,87 @@ public class YamlParserTest {
         exception.expectMessage("empty");
         yamlParser.parse(new SlangSource("", null));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void eachThreadParsesWithItsOwnYaml() throws Exception {
+        Mockito.when(yaml.loadAs(any(String.class), eq(ParsedSlang.class))).thenReturn(new ParsedSlang());
+        final SlangSource source = new SlangSource("a", "b");
+        yamlParser.parse(source);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                yamlParser.parse(source);
+            }
+        });
+        thread.start();
+        thread.join();
+        yamlParser.parse(source);
+        Mockito.verify(yamlFactory, Mockito.times(2)).getObject();
+    }
+
+    @Test
+    public void parseAllKeepsTheOrderOfTheSources() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            String content = "content_" + index;
+            Mockito.when(yaml.loadAs(eq(content), eq(ParsedSlang.class))).thenReturn(new ParsedSlang());
+            sources.add(new SlangSource(content, "source_" + index));
+        }
+
+        List<ParsedSlang> parsedSlangs = yamlParser.parseAll(sources);
+
+        Assert.assertEquals(sources.size(), parsedSlangs.size());
+        for (int index = 0; index < sources.size(); index++) {
+            Assert.assertEquals("source_" + index, parsedSlangs.get(index).getName());
+        }
+    }
+
+    @Test
+    public void parseAllReportsTheErrorOfTheFirstInvalidSource() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            String content = "content_" + index;
+            if (index % 5 == 3) {
+                Mockito.when(yaml.loadAs(eq(content), eq(ParsedSlang.class))).thenThrow(new RuntimeException("invalid"));
+            } else {
+                Mockito.when(yaml.loadAs(eq(content), eq(ParsedSlang.class))).thenReturn(new ParsedSlang());
+            }
+            sources.add(new SlangSource(content, "source_" + index));
+        }
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("source_3.");
+        yamlParser.parseAll(sources);
+    }
+
+    @Test
+    public void parseAllReusesTheParserThreads() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            String content = "content_" + index;
+            Mockito.when(yaml.loadAs(eq(content), eq(ParsedSlang.class))).thenReturn(new ParsedSlang());
+            sources.add(new SlangSource(content, "source_" + index));
+        }
+
+        yamlParser.parseAll(sources);
+        yamlParser.parseAll(sources);
+
+        Mockito.verify(yamlFactory, Mockito.atMost(Runtime.getRuntime().availableProcessors())).getObject();
+    }
+
+    @Test
+    public void parseAllAfterDestroyParsesInTheCallingThread() throws Exception {
+        List<SlangSource> sources = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            String content = "content_" + index;
+            Mockito.when(yaml.loadAs(eq(content), eq(ParsedSlang.class))).thenReturn(new ParsedSlang());
+            sources.add(new SlangSource(content, "source_" + index));
+        }
+
+        yamlParser.destroy();
+        List<ParsedSlang> parsedSlangs = yamlParser.parseAll(sources);
+
+        Assert.assertEquals(sources.size(), parsedSlangs.size());
+        Mockito.verify(yamlFactory, Mockito.times(1)).getObject();
+    }
+}
@@ -31,7 +31,9 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 import java.io.Serializable;
 import java.util.*;
@@ -149,10 +151,10 @@ public class ExecutionPlanBuilderTest {
         when(stepFactory.createAddBranchesStep(eq(stepId), eq(nextStepID), eq(branchBeginStepID), eq(preStepActionData), eq(refId), eq(name))).thenReturn(new ExecutionStep(stepId));
     }
 
-    private void mockJoinBranchesStep(Long stepId, Step step) {
+    private void mockJoinBranchesStep(Long stepId, Long addBranchesStepId, Step step) {
         Map<String, Serializable> postStepActionData = step.getPostStepActionData();
         String stepName = step.getName();
-        when(stepFactory.createJoinBranchesStep(eq(stepId), eq(postStepActionData), anyMapOf(String.class, ResultNavigation.class), eq(stepName))).thenReturn(new ExecutionStep(stepId));
+        when(stepFactory.createJoinBranchesStep(eq(stepId), eq(addBranchesStepId), eq(postStepActionData), anyMapOf(String.class, ResultNavigation.class), eq(stepName))).thenReturn(new ExecutionStep(stepId));
     }
 
     @Test
@@ -233,7 +235,7 @@ public class ExecutionPlanBuilderTest {
         mockAddBranchesStep(2L, 5L, 3L, step, compiledFlow);
         mockBeginStep(3L, step);
         mockFinishParallelLoopStep(4L, step);
-        mockJoinBranchesStep(5L, step);
+        mockJoinBranchesStep(5L, 2L, step);
         ExecutionPlan executionPlan = executionPlanBuilder.createFlowExecutionPlan(compiledFlow);
 
         verify(stepFactory).createAddBranchesStep(
@@ -245,7 +247,7 @@ public class ExecutionPlanBuilderTest {
                 eq(step.getName()));
         verify(stepFactory).createBeginStepStep(eq(3L), anyListOf(Argument.class), eq(step.getPreStepActionData()), eq(step.getRefId()), eq(step.getName()));
         verify(stepFactory).createFinishStepStep(eq(4L), eq(step.getPostStepActionData()), anyMapOf(String.class, ResultNavigation.class), eq(step.getName()), eq(step.isParallelLoop()));
-        verify(stepFactory).createJoinBranchesStep(eq(5L), eq(step.getPostStepActionData()), anyMapOf(String.class, ResultNavigation.class), eq(step.getName()));
+        verify(stepFactory).createJoinBranchesStep(eq(5L), eq(2L), eq(step.getPostStepActionData()), anyMapOf(String.class, ResultNavigation.class), eq(step.getName()));
 
         assertEquals("different number of execution steps than expected", 6, executionPlan.getSteps().size());
         assertEquals("flow name is different than expected", flowName, executionPlan.getName());
@@ -319,4 +321,68 @@ public class ExecutionPlanBuilderTest {
         exception.expectMessage(flowName);
         executionPlanBuilder.createFlowExecutionPlan(compiledFlow);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void createFlowWithLongNavigationChain() throws Exception {
+        int numberOfSteps = 10000;
+        Deque<Step> steps = new LinkedList<>();
+        for (int index = 0; index < numberOfSteps; index++) {
+            String nextStepName = index + 1 < numberOfSteps ? "step" + (index + 1) : ScoreLangConstants.SUCCESS_RESULT;
+            List<Map<String, String>> navigationStrings = new ArrayList<>();
+            navigationStrings.add(Collections.singletonMap(ScoreLangConstants.SUCCESS_RESULT, nextStepName));
+            navigationStrings.add(Collections.singletonMap(ScoreLangConstants.FAILURE_RESULT, ScoreLangConstants.FAILURE_RESULT));
+            steps.add(createSimpleCompiledStep("step" + index, index % 3 == 0, navigationStrings));
+        }
+        Flow compiledFlow = new Flow(new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), new Workflow(steps),
+                "user.flows", "flowName", new ArrayList<Input>(), new ArrayList<Output>(), defaultFlowResults(), null,
+                systemPropertyDependencies);
+
+        mockStartStep(compiledFlow);
+        mockEndStep(0L, compiledFlow, ExecutableType.FLOW);
+        final Map<String, Map<String, ResultNavigation>> navigations = new HashMap<>();
+        Answer<ExecutionStep> executionStepAnswer = new Answer<ExecutionStep>() {
+            @Override
+            public ExecutionStep answer(InvocationOnMock invocation) throws Throwable {
+                return new ExecutionStep((Long) invocation.getArguments()[0]);
+            }
+        };
+        when(stepFactory.createAddBranchesStep(anyLong(), anyLong(), anyLong(), anyMapOf(String.class, Serializable.class),
+                anyString(), anyString())).thenAnswer(executionStepAnswer);
+        when(stepFactory.createBeginStepStep(anyLong(), anyListOf(Argument.class), anyMapOf(String.class, Serializable.class),
+                anyString(), anyString())).thenAnswer(executionStepAnswer);
+        when(stepFactory.createFinishStepStep(anyLong(), anyMapOf(String.class, Serializable.class),
+                anyMapOf(String.class, ResultNavigation.class), anyString(), eq(false))).thenAnswer(new Answer<ExecutionStep>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public ExecutionStep answer(InvocationOnMock invocation) throws Throwable {
+                navigations.put((String) invocation.getArguments()[3], (Map<String, ResultNavigation>) invocation.getArguments()[2]);
+                return new ExecutionStep((Long) invocation.getArguments()[0]);
+            }
+        });
+        when(stepFactory.createFinishStepStep(anyLong(), anyMapOf(String.class, Serializable.class),
+                anyMapOf(String.class, ResultNavigation.class), anyString(), eq(true))).thenAnswer(executionStepAnswer);
+        when(stepFactory.createJoinBranchesStep(anyLong(), anyLong(), anyMapOf(String.class, Serializable.class),
+                anyMapOf(String.class, ResultNavigation.class), anyString())).thenAnswer(new Answer<ExecutionStep>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public ExecutionStep answer(InvocationOnMock invocation) throws Throwable {
+                navigations.put((String) invocation.getArguments()[4], (Map<String, ResultNavigation>) invocation.getArguments()[3]);
+                return new ExecutionStep((Long) invocation.getArguments()[0]);
+            }
+        });
+
+        ExecutionPlan executionPlan = executionPlanBuilder.createFlowExecutionPlan(compiledFlow);
+
+        long expectedStepId = 2L;
+        for (int index = 0; index < numberOfSteps; index++) {
+            boolean parallelLoop = index % 3 == 0;
+            long nextStepId = expectedStepId + (parallelLoop ? 4 : 2);
+            Map<String, ResultNavigation> stepNavigations = navigations.get("step" + index);
+            assertEquals(index + 1 < numberOfSteps ? nextStepId : 0L,
+                    stepNavigations.get(ScoreLangConstants.SUCCESS_RESULT).getNextStepId());
+            assertEquals(0L, stepNavigations.get(ScoreLangConstants.FAILURE_RESULT).getNextStepId());
+            expectedStepId = nextStepId;
+        }
+        assertEquals("different number of execution steps than expected", expectedStepId, executionPlan.getSteps().size());
+    }
+}
@@ -201,6 +201,7 @@ public class ExecutionStepFactoryTest {
         postStepData.put(SlangTextualKeys.PUBLISH_KEY, new ArrayList<>());
 
         ExecutionStep executionStep = factory.createJoinBranchesStep(
+                3L,
                 0L,
                 postStepData,
                 new HashMap<String, ResultNavigation>(),
@@ -210,6 +211,7 @@ public class ExecutionStepFactoryTest {
         Assert.assertTrue(actionData.containsKey(ScoreLangConstants.STEP_PUBLISH_KEY));
         Assert.assertTrue(actionData.containsKey(ScoreLangConstants.STEP_NAVIGATION_KEY));
         Assert.assertTrue(actionData.containsKey(ScoreLangConstants.NODE_NAME_KEY));
+        Assert.assertEquals(0L, actionData.get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
     }
 
 }
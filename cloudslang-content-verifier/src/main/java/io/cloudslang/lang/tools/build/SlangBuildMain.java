@@ -27,6 +27,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -47,6 +48,7 @@ public class SlangBuildMain {
 
     private static final String CONTENT_DIR =  File.separator + "content";
     private static final String TEST_DIR = File.separator + "test";
+    private static final String TEST_FINGERPRINTS_FILE = ".cslang" + File.separator + "test-fingerprints.ser";
     public static final String DEFAULT_TESTS = "default";
 
     private final static Logger log = Logger.getLogger(SlangBuildMain.class);
@@ -73,6 +75,12 @@ public class SlangBuildMain {
         String testsPath = StringUtils.defaultIfEmpty(appArgs.getTestRoot(), projectPath + TEST_DIR);
         List<String> testSuites = parseTestSuites(appArgs);
         Boolean shouldPrintCoverageData = parseCoverageArg(appArgs);
+        int threads = parseThreadsArg(appArgs);
+        int testThreads = parseTestThreadsArg(appArgs);
+        long testTimeout = parseTestTimeoutArg(appArgs);
+        File testFingerprintsFile = BooleanUtils.isTrue(appArgs.shouldRunIncrementalTests()) ?
+                new File(projectPath, TEST_FINGERPRINTS_FILE) : null;
+        boolean runAllTests = BooleanUtils.isTrue(appArgs.shouldRunAllTests());
 
         log.info("");
         log.info("------------------------------------------------------------");
@@ -80,6 +88,15 @@ public class SlangBuildMain {
         log.info("Content root is at: " + contentPath);
         log.info("Test root is at: " + testsPath);
         log.info("Active test suites are: " + Arrays.toString(testSuites.toArray()));
+        log.info("Compiling with " + threads + " thread(s)");
+        log.info("Running " + testThreads + " test flow(s) at a time");
+        if (testTimeout > 0) {
+            log.info("Test flows time out after " + testTimeout + " second(s)");
+        }
+        if (testFingerprintsFile != null) {
+            log.info("Running " + (runAllTests ? "all the tests" : "only the tests affected by changes") +
+                    ", test fingerprints are kept in: " + testFingerprintsFile);
+        }
 
         log.info("");
         log.info("Loading...");
@@ -91,7 +108,8 @@ public class SlangBuildMain {
         registerEventHandlers(slang);
 
         try {
-            SlangBuildResults buildResults = slangBuilder.buildSlangContent(projectPath, contentPath, testsPath, testSuites);
+            SlangBuildResults buildResults = slangBuilder.buildSlangContent(projectPath, contentPath, testsPath, testSuites, threads,
+                    testThreads, testTimeout, testFingerprintsFile, runAllTests);
             RunTestsResults runTestsResults = buildResults.getRunTestsResults();
             Map<String, TestRun> skippedTests = runTestsResults.getSkippedTests();
 
@@ -161,6 +179,33 @@ public class SlangBuildMain {
         return shouldOutputCoverageData;
     }
 
+    private static int parseThreadsArg(ApplicationArgs appArgs) {
+        Integer threads = appArgs.getThreads();
+        if (threads == null) {
+            return 1;
+        }
+        Validate.isTrue(threads > 0, "Number of threads must be positive, but was: " + threads);
+        return threads;
+    }
+
+    private static int parseTestThreadsArg(ApplicationArgs appArgs) {
+        Integer testThreads = appArgs.getTestThreads();
+        if (testThreads == null) {
+            return 1;
+        }
+        Validate.isTrue(testThreads > 0, "Number of test threads must be positive, but was: " + testThreads);
+        return testThreads;
+    }
+
+    private static long parseTestTimeoutArg(ApplicationArgs appArgs) {
+        Long testTimeout = appArgs.getTestTimeout();
+        if (testTimeout == null) {
+            return 0;
+        }
+        Validate.isTrue(testTimeout >= 0, "Test timeout must not be negative, but was: " + testTimeout);
+        return testTimeout;
+    }
+
     private static void printBuildSuccessSummary(String contentPath, SlangBuildResults buildResults, RunTestsResults runTestsResults) {
         log.info("");
         log.info("------------------------------------------------------------");
@@ -9,10 +9,17 @@
  */
 package io.cloudslang.lang.tools.build;
 
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import io.cloudslang.lang.compiler.CompilerVersion;
+import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Operation;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.tools.build.tester.RunTestsResults;
 import io.cloudslang.lang.tools.build.tester.SlangTestRunner;
+import io.cloudslang.lang.tools.build.tester.TestFingerprints;
+import io.cloudslang.lang.tools.build.tester.TestRun;
 import io.cloudslang.lang.tools.build.tester.parse.SlangTestCase;
 import io.cloudslang.lang.tools.build.verifier.SlangContentVerifier;
 import org.apache.commons.io.FilenameUtils;
@@ -22,6 +29,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 
 /*
@@ -41,7 +50,46 @@ public class SlangBuilder {
 
     private final static Logger log = Logger.getLogger(SlangBuilder.class);
 
+    private static final String MISSING_FILE_HASH = "missing";
+    // executable names cannot contain a colon, so these keys never clash with them
+    private static final String COMPILER_VERSION_KEY = "version:compiler";
+    private static final String ACTION_DEPENDENCIES_KEY_PREFIX = "dependencies:";
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+    private static final String PINNED_VERSION_SEPARATOR = "==";
+
     public SlangBuildResults buildSlangContent(String projectPath, String contentPath, String testsPath, List<String> testSuits){
+        return buildSlangContent(projectPath, contentPath, testsPath, testSuits, 1);
+    }
+
+    /**
+     * @param threads the number of slang files that are pre-compiled and compiled concurrently
+     */
+    public SlangBuildResults buildSlangContent(String projectPath, String contentPath, String testsPath, List<String> testSuits,
+                                               int threads){
+        return buildSlangContent(projectPath, contentPath, testsPath, testSuits, threads, 1, 0);
+    }
+
+    /**
+     * @param threads            the number of slang files that are pre-compiled and compiled concurrently
+     * @param testThreads        the number of test flows that run concurrently
+     * @param testTimeoutSeconds the time a test flow may run before its test case fails, a non positive value means no limit
+     */
+    public SlangBuildResults buildSlangContent(String projectPath, String contentPath, String testsPath, List<String> testSuits,
+                                               int threads, int testThreads, long testTimeoutSeconds){
+        return buildSlangContent(projectPath, contentPath, testsPath, testSuits, threads, testThreads, testTimeoutSeconds,
+                null, false);
+    }
+
+    /**
+     * @param testFingerprintsFile if not null, only the test cases that did not pass before with the same dependencies run,
+     *                             and the fingerprints of the test cases are kept in this file for the next build
+     * @param forceAllTests        whether all the test cases run even if they are not affected by changes,
+     *                             their fingerprints are still kept
+     * @see #buildSlangContent(String, String, String, List, int, int, long)
+     */
+    public SlangBuildResults buildSlangContent(String projectPath, String contentPath, String testsPath, List<String> testSuits,
+                                               int threads, int testThreads, long testTimeoutSeconds,
+                                               File testFingerprintsFile, boolean forceAllTests){
 
         String projectName = FilenameUtils.getName(projectPath);
         log.info("");
@@ -51,14 +99,17 @@ public class SlangBuilder {
 
         log.info("");
         log.info("--- compiling sources ---");
+        Map<String, File> sourceFiles = new HashMap<>();
         Map<String, Executable> slangModels =
-                slangContentVerifier.createModelsAndValidate(contentPath);
+                slangContentVerifier.createModelsAndValidate(contentPath, threads, sourceFiles);
 
-        Map<String, CompilationArtifact> compiledSources = compileModels(slangModels);
+        Map<String, CompilationArtifact> compiledSources = compileModels(slangModels, threads);
 
         RunTestsResults runTestsResults = new RunTestsResults();
         if (StringUtils.isNotBlank(testsPath) && new File(testsPath).isDirectory()) {
-            runTestsResults = runTests(slangModels, projectPath, testsPath, testSuits);
+            TestFingerprints testFingerprints = testFingerprintsFile == null ? null : TestFingerprints.load(testFingerprintsFile);
+            runTestsResults = runTests(slangModels, sourceFiles, projectPath, testsPath, testSuits, threads,
+                    testThreads, testTimeoutSeconds, testFingerprints, forceAllTests);
         }
 
         return new SlangBuildResults(compiledSources.size(), runTestsResults);
@@ -68,9 +119,9 @@ public class SlangBuilder {
      * Compiles all CloudSlang models
      * @return the number of valid CloudSlang files in the given directory
      */
-    private Map<String, CompilationArtifact> compileModels(Map<String, Executable> slangModels){
+    private Map<String, CompilationArtifact> compileModels(Map<String, Executable> slangModels, int threads){
         Map<String, CompilationArtifact> compiledSlangFiles =
-                slangContentVerifier.compileSlangModels(slangModels);
+                slangContentVerifier.compileSlangModels(slangModels, threads);
 
         if(compiledSlangFiles.size() != slangModels.size()){
             throw new RuntimeException("Some Slang files were not compiled.\n" +
@@ -82,29 +133,180 @@ public class SlangBuilder {
         return compiledSlangFiles;
     }
 
-    private RunTestsResults runTests(Map<String, Executable> contentSlangModels,
-                          String projectPath, String testsPath, List<String> testSuites){
+    private RunTestsResults runTests(Map<String, Executable> contentSlangModels, Map<String, File> contentSourceFiles,
+                          String projectPath, String testsPath, List<String> testSuites, int threads,
+                          int testThreads, long testTimeoutSeconds, TestFingerprints testFingerprints, boolean forceAllTests){
         log.info("");
         log.info("--- compiling tests sources ---");
         // Compile all slang test flows under the test directory
-        Map<String, Executable> testFlowModels = slangContentVerifier.createModelsAndValidate(testsPath);
+        Map<String, File> allSourceFiles = new HashMap<>();
+        Map<String, Executable> testFlowModels = slangContentVerifier.createModelsAndValidate(testsPath, threads, allSourceFiles);
         // Add also all of the slang models of the content in order to allow for compilation of the test flows
         Map<String, Executable> allTestedFlowModels = new HashMap<>(testFlowModels);
         allTestedFlowModels.putAll(contentSlangModels);
+        allSourceFiles.putAll(contentSourceFiles);
 
         // Compiling all the test flows
-        Map<String, CompilationArtifact> compiledFlows = slangContentVerifier.compileSlangModels(allTestedFlowModels);
+        Map<String, CompilationArtifact> compiledFlows = slangContentVerifier.compileSlangModels(allTestedFlowModels, threads);
 
         Set<String> allTestedFlowsFQN = mapExecutablesToFullyQualifiedName(allTestedFlowModels.values());
-        Map<String, SlangTestCase> testCases = slangTestRunner.createTestCases(testsPath, allTestedFlowsFQN);
+        Map<String, File> testCaseSourceFiles = new HashMap<>();
+        Map<String, SlangTestCase> testCases = slangTestRunner.createTestCases(testsPath, allTestedFlowsFQN, testCaseSourceFiles);
         log.info("");
         log.info("--- running tests ---");
         log.info("Found " + testCases.size() + " tests");
-        RunTestsResults runTestsResults = slangTestRunner.runAllTests(projectPath, testCases, compiledFlows, testSuites);
+        RunTestsResults runTestsResults;
+        if (testFingerprints == null) {
+            runTestsResults = slangTestRunner.runAllTests(projectPath, testCases, compiledFlows, testSuites,
+                    testThreads, testTimeoutSeconds);
+        } else {
+            runTestsResults = runAffectedTests(projectPath, testCases, testCaseSourceFiles, compiledFlows, testSuites,
+                    testThreads, testTimeoutSeconds, allTestedFlowModels, allSourceFiles, testFingerprints, forceAllTests);
+        }
         addCoverageDataToRunTestsResults(contentSlangModels, testFlowModels, testCases, runTestsResults);
         return runTestsResults;
     }
 
+    /**
+     * Runs only the test cases that did not pass before with the same fingerprint, unless all the tests are forced to run.
+     * The other test cases are reported as skipped.
+     */
+    private RunTestsResults runAffectedTests(String projectPath, Map<String, SlangTestCase> testCases,
+                                             Map<String, File> testCaseSourceFiles,
+                                             Map<String, CompilationArtifact> compiledFlows, List<String> testSuites,
+                                             int testThreads, long testTimeoutSeconds,
+                                             Map<String, Executable> allTestedFlowModels, Map<String, File> allSourceFiles,
+                                             TestFingerprints testFingerprints, boolean forceAllTests) {
+        Map<String, Map<String, String>> fingerprints = createTestFingerprints(testCases, testCaseSourceFiles,
+                allTestedFlowModels, allSourceFiles, projectPath);
+        Map<String, SlangTestCase> unchangedTestCases = new HashMap<>();
+        Map<String, SlangTestCase> affectedTestCases = new HashMap<>();
+        for (Map.Entry<String, SlangTestCase> testCaseEntry : testCases.entrySet()) {
+            Map<String, String> fingerprint = fingerprints.get(testCaseEntry.getKey());
+            // the test cases out of the active suites are left to the runner, which reports them as such
+            if (!forceAllTests && fingerprint != null && testFingerprints.isUnchanged(testCaseEntry.getKey(), fingerprint) &&
+                    slangTestRunner.isInActiveTestSuites(testCaseEntry.getValue(), testSuites)) {
+                unchangedTestCases.put(testCaseEntry.getKey(), testCaseEntry.getValue());
+            } else {
+                affectedTestCases.put(testCaseEntry.getKey(), testCaseEntry.getValue());
+            }
+        }
+        log.info(affectedTestCases.size() + " tests are affected by changes, " + unchangedTestCases.size() +
+                " tests passed before with the same dependencies and are skipped");
+        RunTestsResults runTestsResults = slangTestRunner.runAllTests(projectPath, affectedTestCases, compiledFlows, testSuites,
+                testThreads, testTimeoutSeconds);
+        for (Map.Entry<String, SlangTestCase> unchangedTestCase : unchangedTestCases.entrySet()) {
+            String message = "Skipping test: " + unchangedTestCase.getKey() +
+                    " because it passed before and none of its dependencies changed";
+            runTestsResults.addSkippedTest(unchangedTestCase.getKey(), new TestRun(unchangedTestCase.getValue(), message));
+        }
+        testFingerprints.update(runTestsResults, fingerprints);
+        testFingerprints.save();
+        return runTestsResults;
+    }
+
+    /**
+     * The fingerprint of a test case maps the test flow and its transitive dependencies to the content hashes of their
+     * files, and also holds the content hashes of the test case file and of the system properties file,
+     * the version of the compiler and the dependencies of the java and python actions the test flow uses
+     */
+    private Map<String, Map<String, String>> createTestFingerprints(Map<String, SlangTestCase> testCases,
+                                                                     Map<String, File> testCaseSourceFiles,
+                                                                     Map<String, Executable> allTestedFlowModels,
+                                                                     Map<String, File> allSourceFiles, String projectPath) {
+        Map<String, Map<String, String>> fingerprints = new HashMap<>();
+        Map<File, String> fileHashes = new HashMap<>();
+        for (Map.Entry<String, SlangTestCase> testCaseEntry : testCases.entrySet()) {
+            SlangTestCase testCase = testCaseEntry.getValue();
+            if (testCase == null) {
+                continue;
+            }
+            Map<String, String> fingerprint = new HashMap<>();
+            fingerprint.put(COMPILER_VERSION_KEY, CompilerVersion.get());
+            addFileToFingerprint(fingerprint, testCaseSourceFiles.get(testCaseEntry.getKey()), fileHashes);
+            String systemPropertiesFile = slangTestRunner.getSystemPropertiesFilePath(testCase, projectPath);
+            if (systemPropertiesFile != null) {
+                addFileToFingerprint(fingerprint, new File(systemPropertiesFile), fileHashes);
+            }
+            String testFlowPath = testCase.getTestFlowPath();
+            if (testFlowPath != null) {
+                Set<String> dependencies = new HashSet<>();
+                dependencies.add(testFlowPath);
+                Executable testFlowModel = allTestedFlowModels.get(testFlowPath);
+                if (testFlowModel != null) {
+                    addAllDependenciesToCoveredContent(dependencies, testFlowModel.getExecutableDependencies(), allTestedFlowModels);
+                }
+                for (String dependency : dependencies) {
+                    fingerprint.put(dependency, hashFile(allSourceFiles.get(dependency), fileHashes));
+                    addActionDependenciesToFingerprint(fingerprint, allTestedFlowModels.get(dependency));
+                }
+            }
+            fingerprints.put(testCaseEntry.getKey(), fingerprint);
+        }
+        return fingerprints;
+    }
+
+    private void addFileToFingerprint(Map<String, String> fingerprint, File file, Map<File, String> fileHashes) {
+        if (file != null) {
+            // executable names cannot contain a colon, so files never clash with them
+            fingerprint.put("file:" + file.getAbsolutePath(), hashFile(file, fileHashes));
+        }
+    }
+
+    /**
+     * The gav of a java action and the dependencies of a python action are resolved when the test runs,
+     * so a new version of them changes the fingerprint even if no source file changed.
+     * A SNAPSHOT gav or a python dependency without a pinned version may resolve to new content under the same name,
+     * so it changes the fingerprint in every build
+     */
+    private void addActionDependenciesToFingerprint(Map<String, String> fingerprint, Executable executable) {
+        if (!(executable instanceof Operation)) {
+            return;
+        }
+        Map<String, Serializable> actionData = ((Operation) executable).getAction().getActionData();
+        Set<String> actionDependencies = new TreeSet<>();
+        boolean changing = false;
+        Serializable javaActionData = actionData.get(SlangTextualKeys.JAVA_ACTION_KEY);
+        if (javaActionData instanceof Map) {
+            Object gav = ((Map) javaActionData).get(SlangTextualKeys.JAVA_ACTION_GAV_KEY);
+            if (gav != null) {
+                actionDependencies.add(gav.toString());
+                changing |= gav.toString().endsWith(SNAPSHOT_SUFFIX);
+            }
+        }
+        Serializable pythonActionData = actionData.get(SlangTextualKeys.PYTHON_ACTION_KEY);
+        if (pythonActionData instanceof Map) {
+            Object pythonDependencies = ((Map) pythonActionData).get(SlangTextualKeys.PYTHON_ACTION_DEPENDENCIES_KEY);
+            if (pythonDependencies instanceof Collection) {
+                for (Object pythonDependency : (Collection) pythonDependencies) {
+                    actionDependencies.add(String.valueOf(pythonDependency));
+                    changing |= !String.valueOf(pythonDependency).contains(PINNED_VERSION_SEPARATOR);
+                }
+            }
+        }
+        if (changing) {
+            fingerprint.put(ACTION_DEPENDENCIES_KEY_PREFIX + executable.getId(), UUID.randomUUID().toString());
+        } else if (!actionDependencies.isEmpty()) {
+            fingerprint.put(ACTION_DEPENDENCIES_KEY_PREFIX + executable.getId(), StringUtils.join(actionDependencies, ","));
+        }
+    }
+
+    private String hashFile(File file, Map<File, String> fileHashes) {
+        if (file == null || !file.isFile()) {
+            return MISSING_FILE_HASH;
+        }
+        String hash = fileHashes.get(file);
+        if (hash == null) {
+            try {
+                hash = Files.hash(file, Hashing.sha256()).toString();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed reading file: \'" + file.getAbsolutePath() + "\'", e);
+            }
+            fileHashes.put(file, hash);
+        }
+        return hash;
+    }
+
     private Set<String> mapExecutablesToFullyQualifiedName(Collection<Executable> executables) {
         Set<String> fullyQualifiedNames = new HashSet<>();
         for (Executable executable : executables) {
@@ -44,6 +44,26 @@ public class ApplicationArgs {
             description = "Whether or not test coverage data should be outputted")
     public boolean coverage = false;
 
+    @Parameter(names = {"--threads", "-th"},
+            description = "Number of threads used to compile the slang files")
+    public Integer threads = 1;
+
+    @Parameter(names = {"--test-threads", "-tth"},
+            description = "Number of test flows that run concurrently")
+    public Integer testThreads = 1;
+
+    @Parameter(names = {"--test-timeout", "-tto"},
+            description = "Number of seconds a test flow may run before the test case fails, 0 for no limit")
+    public Long testTimeout = 0L;
+
+    @Parameter(names = {"--incremental-tests", "-it"},
+            description = "Whether only the tests affected by changes since they last passed should run, the state is kept under .cslang in the project root")
+    public boolean incrementalTests = false;
+
+    @Parameter(names = {"--run-all-tests", "-rat"},
+            description = "Whether all the tests should run, also in incremental mode")
+    public boolean runAllTests = false;
+
     @Parameter(names = {"--help", "-h"}, help = true,
             description = "Display help information")
     private boolean help;
@@ -75,6 +95,26 @@ public class ApplicationArgs {
         return coverage;
     }
 
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public Integer getTestThreads() {
+        return testThreads;
+    }
+
+    public Long getTestTimeout() {
+        return testTimeout;
+    }
+
+    public Boolean shouldRunIncrementalTests() {
+        return incrementalTests;
+    }
+
+    public Boolean shouldRunAllTests() {
+        return runAllTests;
+    }
+
     public boolean isHelp() {
         return help;
     }
@@ -31,12 +31,19 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by stoneo on 3/15/2015.
@@ -60,6 +67,14 @@ public class SlangTestRunner {
     private final String UNAVAILABLE_NAME = "N/A";
 
     public Map<String, SlangTestCase> createTestCases(String testPath, Set<String> allAvailableExecutables) {
+        return createTestCases(testPath, allAvailableExecutables, null);
+    }
+
+    /**
+     * @param testCaseSourceFiles if not null, the file of every test case is added to it by the name of the test case
+     */
+    public Map<String, SlangTestCase> createTestCases(String testPath, Set<String> allAvailableExecutables,
+                                                      Map<String, File> testCaseSourceFiles) {
         Validate.notEmpty(testPath, "You must specify a path for tests");
         File testPathDir = new File(testPath);
         Validate.isTrue(testPathDir.isDirectory(),
@@ -99,6 +114,9 @@ public class SlangTestRunner {
                     testCasesWithMissingReference.add(currentTestCase);
                 }
                 testCases.put(currentTestCaseName, currentTestCase);
+                if (testCaseSourceFiles != null) {
+                    testCaseSourceFiles.put(currentTestCaseName, testCaseFile);
+                }
             }
         }
         printTestCasesWithMissingReference(testCasesWithMissingReference);
@@ -115,36 +133,124 @@ public class SlangTestRunner {
      */
     public RunTestsResults runAllTests(String projectPath, Map<String, SlangTestCase> testCases,
                             Map<String, CompilationArtifact> compiledFlows, List<String> testSuites) {
+        return runAllTests(projectPath, testCases, compiledFlows, testSuites, 1, 0);
+    }
+
+    /**
+     * @return true if the test case is in one of the active test suites, a test case without suites is in the default one
+     */
+    public boolean isInActiveTestSuites(SlangTestCase testCase, List<String> testSuites) {
+        return (CollectionUtils.isEmpty(testCase.getTestSuites()) && testSuites.contains(SlangBuildMain.DEFAULT_TESTS)) ||
+                CollectionUtils.containsAny(testSuites, testCase.getTestSuites());
+    }
+
+    /**
+     * @param threads            the number of test flows that run concurrently
+     * @param testTimeoutSeconds the time a test flow may run before its test case fails, a non positive value means no limit
+     * @return RunTestsResults containing maps of passed, failed & skipped tests
+     */
+    public RunTestsResults runAllTests(String projectPath, Map<String, SlangTestCase> testCases,
+                            Map<String, CompilationArtifact> compiledFlows, List<String> testSuites,
+                            int threads, long testTimeoutSeconds) {
 
         RunTestsResults runTestsResults = new RunTestsResults();
         if(MapUtils.isEmpty(testCases)){
             return runTestsResults;
         }
+        List<SlangTestCase> activeTestCases = new ArrayList<>();
         for (Map.Entry<String, SlangTestCase> testCaseEntry : testCases.entrySet()) {
             SlangTestCase testCase = testCaseEntry.getValue();
             if (testCase == null) {
                 runTestsResults.addFailedTest(UNAVAILABLE_NAME, new TestRun(testCase, "Test case cannot be null"));
                 continue;
             }
-            if ((CollectionUtils.isEmpty(testCase.getTestSuites()) && testSuites.contains(SlangBuildMain.DEFAULT_TESTS)) ||
-                    CollectionUtils.containsAny(testSuites, testCase.getTestSuites())) {
-                log.info("Running test: " + testCaseEntry.getKey() + " - " + testCase.getDescription());
-                try {
-                    CompilationArtifact compiledTestFlow = getCompiledTestFlow(compiledFlows, testCase);
-                    runTest(testCase, compiledTestFlow, projectPath);
-                    runTestsResults.addPassedTest(testCase.getName(), new TestRun(testCase, null));
-                } catch (RuntimeException e) {
-                    runTestsResults.addFailedTest(testCase.getName(), new TestRun(testCase, e.getMessage()));
-                }
+            if (isInActiveTestSuites(testCase, testSuites)) {
+                activeTestCases.add(testCase);
             } else {
                 String message = "Skipping test: " + testCaseEntry.getKey() + " because it is not in active test suites";
                 log.info(message);
                 runTestsResults.addSkippedTest(testCase.getName(), new TestRun(testCase, message));
             }
         }
+
+        if (threads <= 1 || activeTestCases.size() <= 1) {
+            for (SlangTestCase testCase : activeTestCases) {
+                addTestRun(runTestsResults, testCase,
+                        runTestCase(testCase, compiledFlows, projectPath, null, testTimeoutSeconds));
+            }
+        } else {
+            runTestCasesInParallel(runTestsResults, activeTestCases, compiledFlows, projectPath, threads, testTimeoutSeconds);
+        }
         return runTestsResults;
     }
 
+    /**
+     * Runs up to the given number of test flows at a time. The events of all the test flows are received by a single
+     * dispatcher, and the results are added in the order of the test cases regardless of the order in which they finish.
+     */
+    private void runTestCasesInParallel(RunTestsResults runTestsResults, List<SlangTestCase> testCases,
+                                        final Map<String, CompilationArtifact> compiledFlows, final String projectPath,
+                                        int threads, final long testTimeoutSeconds) {
+        final TestCasesEventDispatcher eventDispatcher = new TestCasesEventDispatcher();
+        slang.subscribeOnEvents(eventDispatcher, createListenerEventTypesSet());
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, testCases.size()));
+        try {
+            List<Future<RuntimeException>> futures = new ArrayList<>(testCases.size());
+            for (final SlangTestCase testCase : testCases) {
+                futures.add(executorService.submit(new Callable<RuntimeException>() {
+                    @Override
+                    public RuntimeException call() {
+                        return runTestCase(testCase, compiledFlows, projectPath, eventDispatcher, testTimeoutSeconds);
+                    }
+                }));
+            }
+            for (int index = 0; index < testCases.size(); index++) {
+                addTestRun(runTestsResults, testCases.get(index), getTestCaseFailure(futures.get(index)));
+            }
+        } finally {
+            executorService.shutdownNow();
+            slang.unSubscribeOnEvents(eventDispatcher);
+        }
+    }
+
+    private RuntimeException getTestCaseFailure(Future<RuntimeException> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the test cases to finish", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private void addTestRun(RunTestsResults runTestsResults, SlangTestCase testCase, RuntimeException failure) {
+        if (failure == null) {
+            runTestsResults.addPassedTest(testCase.getName(), new TestRun(testCase, null));
+        } else {
+            runTestsResults.addFailedTest(testCase.getName(), new TestRun(testCase, failure.getMessage()));
+        }
+    }
+
+    /**
+     * @return the reason the test case failed, or null if it passed
+     */
+    private RuntimeException runTestCase(SlangTestCase testCase, Map<String, CompilationArtifact> compiledFlows,
+                                         String projectPath, TestCasesEventDispatcher eventDispatcher, long testTimeoutSeconds) {
+        log.info("Running test: " + testCase.getName() + " - " + testCase.getDescription());
+        try {
+            CompilationArtifact compiledTestFlow = getCompiledTestFlow(compiledFlows, testCase);
+            runTest(testCase, compiledTestFlow, projectPath, eventDispatcher, testTimeoutSeconds);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
     private void printTestCasesWithMissingReference(Set<SlangTestCase> testCasesWithMissingReference) {
         int testCasesWithMissingReferenceSize = testCasesWithMissingReference.size();
         if (testCasesWithMissingReferenceSize > 0) {
@@ -173,23 +279,34 @@ public class SlangTestRunner {
         return compiledTestFlow;
     }
 
-    private void runTest(SlangTestCase testCase, CompilationArtifact compiledTestFlow, String projectPath) {
+    private void runTest(SlangTestCase testCase, CompilationArtifact compiledTestFlow, String projectPath,
+                         TestCasesEventDispatcher eventDispatcher, long testTimeoutSeconds) {
 
         Map<String, Serializable> convertedInputs = getTestCaseInputsMap(testCase);
         Set<SystemProperty> systemProperties = getTestSystemProperties(testCase, projectPath);
 
-        trigger(testCase, compiledTestFlow, convertedInputs, systemProperties);
+        trigger(testCase, compiledTestFlow, convertedInputs, systemProperties, eventDispatcher, testTimeoutSeconds);
     }
 
     private Set<SystemProperty> getTestSystemProperties(SlangTestCase testCase, String projectPath) {
-        String systemPropertiesFile = testCase.getSystemPropertiesFile();
-        if(StringUtils.isEmpty(systemPropertiesFile)){
+        String systemPropertiesFile = getSystemPropertiesFilePath(testCase, projectPath);
+        if(systemPropertiesFile == null){
             return new HashSet<>();
         }
-        systemPropertiesFile = StringUtils.replace(systemPropertiesFile, PROJECT_PATH_TOKEN, projectPath);
         return parser.parseProperties(systemPropertiesFile);
     }
 
+    /**
+     * @return the path of the system properties file of the test case, or null if it has none
+     */
+    public String getSystemPropertiesFilePath(SlangTestCase testCase, String projectPath) {
+        String systemPropertiesFile = testCase.getSystemPropertiesFile();
+        if(StringUtils.isEmpty(systemPropertiesFile)){
+            return null;
+        }
+        return StringUtils.replace(systemPropertiesFile, PROJECT_PATH_TOKEN, projectPath);
+    }
+
     private Map<String, Serializable> getTestCaseInputsMap(SlangTestCase testCase) {
         List<Input> inputs = testCase.getInputs();
         Map<String, Serializable> convertedInputs = new HashMap<>();
@@ -234,6 +351,16 @@ public class SlangTestRunner {
     public Long trigger(SlangTestCase testCase, CompilationArtifact compilationArtifact,
                         Map<String, ? extends Serializable> inputs,
                         Set<SystemProperty> systemProperties) {
+        return trigger(testCase, compilationArtifact, inputs, systemProperties, null, 0);
+    }
+
+    /**
+     * Triggers the flow and waits for it to finish. Without an event dispatcher the flow gets a listener of its own,
+     * meaning only one flow can run at a time.
+     */
+    private Long trigger(SlangTestCase testCase, CompilationArtifact compilationArtifact,
+                         Map<String, ? extends Serializable> inputs, Set<SystemProperty> systemProperties,
+                         TestCasesEventDispatcher eventDispatcher, long testTimeoutSeconds) {
 
         String testCaseName = testCase.getName();
         String result = testCase.getResult();
@@ -241,16 +368,27 @@ public class SlangTestRunner {
         String flowName = testCase.getTestFlowPath();
 
         TriggerTestCaseEventListener testsEventListener = new TriggerTestCaseEventListener();
-        slang.subscribeOnEvents(testsEventListener, createListenerEventTypesSet());
-
-        Long executionId = slang.run(compilationArtifact, inputs, systemProperties);
-
-        while (!testsEventListener.isFlowFinished()) {
+        Long executionId;
+        if (eventDispatcher == null) {
+            slang.subscribeOnEvents(testsEventListener, createListenerEventTypesSet());
             try {
-                Thread.sleep(200);
-            } catch (InterruptedException ignore) {}
+                executionId = slang.run(compilationArtifact, inputs, systemProperties);
+                waitForFlowToFinish(testCase, executionId, testsEventListener, testTimeoutSeconds);
+            } finally {
+                slang.unSubscribeOnEvents(testsEventListener);
+            }
+        } else {
+            executionId = slang.run(compilationArtifact, inputs, systemProperties);
+            try {
+                eventDispatcher.register(executionId, testsEventListener);
+                waitForFlowToFinish(testCase, executionId, testsEventListener, testTimeoutSeconds);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while running test: " + testCaseName, e);
+            } finally {
+                eventDispatcher.unregister(executionId);
+            }
         }
-        slang.unSubscribeOnEvents(testsEventListener);
 
         String errorMessageFlowExecution = testsEventListener.getErrorMessage();
 
@@ -299,6 +437,31 @@ public class SlangTestRunner {
         return executionId;
     }
 
+    /**
+     * A flow that does not finish in time is canceled, so it does not keep running with the next test cases
+     */
+    private void waitForFlowToFinish(SlangTestCase testCase, Long executionId, TriggerTestCaseEventListener testsEventListener,
+                                     long testTimeoutSeconds) {
+        boolean flowFinished;
+        try {
+            flowFinished = testsEventListener.awaitFlowFinished(testTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running test: " + testCase.getName(), e);
+        }
+        if (!flowFinished) {
+            String message = TEST_CASE_FAILED + testCase.getName() + " - " + testCase.getDescription() + "\n\tFlow " +
+                    testCase.getTestFlowPath() + " did not finish within " + testTimeoutSeconds + " seconds";
+            log.error(message);
+            try {
+                slang.cancel(executionId);
+            } catch (RuntimeException e) {
+                log.error("Failed to cancel execution " + executionId + " of test: " + testCase.getName(), e);
+            }
+            throw new RuntimeException(message);
+        }
+    }
+
     private boolean outputsAreEqual(Serializable outputValue, Serializable executionOutputValue) {
         return executionOutputValue == outputValue ||
                     StringUtils.equals(executionOutputValue.toString(), outputValue.toString());
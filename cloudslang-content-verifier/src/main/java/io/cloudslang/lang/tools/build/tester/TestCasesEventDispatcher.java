@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ */
+package io.cloudslang.lang.tools.build.tester;
+
+import io.cloudslang.lang.runtime.events.LanguageEventData;
+import io.cloudslang.score.api.execution.ExecutionParametersConsts;
+import io.cloudslang.score.events.EventConstants;
+import io.cloudslang.score.events.ScoreEvent;
+import io.cloudslang.score.events.ScoreEventListener;
+import io.cloudslang.score.lang.ExecutionRuntimeServices;
+import org.apache.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes the events of test flows that run concurrently to the listener of the test case of each execution.
+ * The events of an execution that arrive before its listener is registered are kept and replayed on registration.
+ * The events of an execution that was unregistered, e.g. after its test case timed out, are dropped.
+ * An event that does not name its execution is given only to an execution it can belong to,
+ * otherwise it is dropped and the test cases that wait for their flows time out.
+ */
+public class TestCasesEventDispatcher implements ScoreEventListener {
+
+    private final Map<Long, TriggerTestCaseEventListener> listeners = new HashMap<>();
+
+    private final Map<Long, List<ScoreEvent>> pendingEvents = new HashMap<>();
+
+    private final Set<Long> unregisteredExecutions = new HashSet<>();
+
+    private static final Logger logger = Logger.getLogger(TestCasesEventDispatcher.class);
+
+    public synchronized void register(Long executionId, TriggerTestCaseEventListener listener) throws InterruptedException {
+        listeners.put(executionId, listener);
+        List<ScoreEvent> events = pendingEvents.remove(executionId);
+        if (events != null) {
+            for (ScoreEvent event : events) {
+                listener.onEvent(event);
+            }
+        }
+    }
+
+    public synchronized void unregister(Long executionId) {
+        listeners.remove(executionId);
+        pendingEvents.remove(executionId);
+        unregisteredExecutions.add(executionId);
+    }
+
+    @Override
+    public synchronized void onEvent(ScoreEvent scoreEvent) throws InterruptedException {
+        @SuppressWarnings("unchecked") Map<String, Serializable> data = (Map<String, Serializable>) scoreEvent.getData();
+        Long executionId = getExecutionId(data);
+        if (executionId == null) {
+            dispatchToOnlyExecution(scoreEvent);
+        } else {
+            dispatch(executionId, scoreEvent);
+        }
+    }
+
+    private void dispatch(Long executionId, ScoreEvent scoreEvent) throws InterruptedException {
+        TriggerTestCaseEventListener listener = listeners.get(executionId);
+        if (listener != null) {
+            listener.onEvent(scoreEvent);
+        } else if (!unregisteredExecutions.contains(executionId)) {
+            List<ScoreEvent> events = pendingEvents.get(executionId);
+            if (events == null) {
+                events = new ArrayList<>();
+                pendingEvents.put(executionId, events);
+            }
+            events.add(scoreEvent);
+        }
+    }
+
+    /**
+     * An event that does not name its execution, e.g. an error event without a system context, can be routed
+     * only when a single execution is running. Otherwise it is dropped rather than failing the test cases
+     * of other executions, and the test case of its execution times out.
+     */
+    private void dispatchToOnlyExecution(ScoreEvent scoreEvent) throws InterruptedException {
+        Set<Long> executionIds = new HashSet<>(listeners.keySet());
+        executionIds.addAll(pendingEvents.keySet());
+        if (executionIds.size() == 1) {
+            dispatch(executionIds.iterator().next(), scoreEvent);
+        } else {
+            logger.warn("Dropped event " + scoreEvent.getEventType() + " of an unknown execution: " + scoreEvent.getData());
+        }
+    }
+
+    /**
+     * The language events carry the execution id under their own key, the score finished and failure events
+     * under the execution id context key, and the score error event only in its system context,
+     * which is a copy of the system context map of the execution.
+     */
+    private Long getExecutionId(Map<String, Serializable> data) {
+        if (data == null) {
+            return null;
+        }
+        Serializable executionId = data.get(LanguageEventData.EXECUTION_ID);
+        if (executionId == null) {
+            executionId = data.get(EventConstants.EXECUTION_ID_CONTEXT);
+        }
+        Serializable systemContext = data.get(ExecutionParametersConsts.SYSTEM_CONTEXT);
+        if (executionId == null && systemContext instanceof ExecutionRuntimeServices) {
+            executionId = ((ExecutionRuntimeServices) systemContext).getExecutionId();
+        }
+        if (executionId == null && systemContext instanceof Map) {
+            executionId = (Serializable) ((Map) systemContext).get(EventConstants.EXECUTION_ID_CONTEXT);
+        }
+        return executionId instanceof Long ? (Long) executionId : null;
+    }
+}
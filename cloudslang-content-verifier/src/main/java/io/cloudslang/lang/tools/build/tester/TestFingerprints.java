@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ */
+package io.cloudslang.lang.tools.build.tester;
+
+import io.cloudslang.lang.entities.utils.AtomicFileUtils;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fingerprints of the test cases that passed in previous builds, persisted in a state file.
+ * The fingerprint of a test case holds the content hashes of all the files its run depends on: the test case file,
+ * the test flow and its transitive dependencies, and the system properties file. It also holds the compiler version
+ * and the dependencies of the java and python actions, which are resolved when the test runs.
+ * A test case whose fingerprint did not change since it passed does not have to run again.
+ * Failed test cases are not kept, so they run again in the next build.
+ */
+public class TestFingerprints {
+
+    private final static Logger log = Logger.getLogger(TestFingerprints.class);
+
+    private final File stateFile;
+
+    private final HashMap<String, HashMap<String, String>> passedTests;
+
+    private TestFingerprints(File stateFile, HashMap<String, HashMap<String, String>> passedTests) {
+        this.stateFile = stateFile;
+        this.passedTests = passedTests;
+    }
+
+    /**
+     * @param stateFile the file of the fingerprints, a missing or unreadable file means no test case passed before
+     */
+    public static TestFingerprints load(File stateFile) {
+        HashMap<String, HashMap<String, String>> passedTests = new HashMap<>();
+        if (stateFile.isFile()) {
+            try (InputStream inputStream = new BufferedInputStream(new FileInputStream(stateFile))) {
+                passedTests = SerializationUtils.deserialize(inputStream);
+            } catch (IOException | SerializationException | ClassCastException e) {
+                log.warn("Failed reading the test fingerprints from: " + stateFile + ", all the tests will run");
+            }
+        }
+        return new TestFingerprints(stateFile, passedTests);
+    }
+
+    /**
+     * @return true if the test case passed before with the same fingerprint
+     */
+    public boolean isUnchanged(String testCaseName, Map<String, String> fingerprint) {
+        Map<String, String> previousFingerprint = passedTests.get(testCaseName);
+        return previousFingerprint != null && previousFingerprint.equals(fingerprint);
+    }
+
+    /**
+     * Keeps the fingerprints of the test cases that passed and drops the ones of the test cases that failed
+     *
+     * @param runTestsResults the results of the test cases that ran
+     * @param fingerprints    the current fingerprints of the test cases by their names
+     */
+    public void update(RunTestsResults runTestsResults, Map<String, Map<String, String>> fingerprints) {
+        for (String testCaseName : runTestsResults.getPassedTests().keySet()) {
+            Map<String, String> fingerprint = fingerprints.get(testCaseName);
+            if (fingerprint != null) {
+                passedTests.put(testCaseName, new HashMap<>(fingerprint));
+            }
+        }
+        for (String testCaseName : runTestsResults.getFailedTests().keySet()) {
+            passedTests.remove(testCaseName);
+        }
+    }
+
+    /**
+     * Writes the fingerprints to the state file. Failing to write it only means the tests run again in the next build.
+     */
+    public void save() {
+        try {
+            AtomicFileUtils.serialize(passedTests, stateFile);
+        } catch (IOException | SerializationException e) {
+            log.warn("Failed writing the test fingerprints to: " + stateFile + ", all the tests will run in the next build");
+        }
+    }
+}
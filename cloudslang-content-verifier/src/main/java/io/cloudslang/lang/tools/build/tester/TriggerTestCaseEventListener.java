@@ -28,7 +28,8 @@ import org.apache.commons.collections4.MapUtils;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -41,7 +42,7 @@ public class TriggerTestCaseEventListener implements ScoreEventListener {
     public static final String EXEC_START_PATH = "0";
 
 
-    private AtomicBoolean flowFinished = new AtomicBoolean(false);
+    private final CountDownLatch flowFinished = new CountDownLatch(1);
     private AtomicReference<String> errorMessage = new AtomicReference<>("");
     private String result;
     private Map<String, Serializable> outputs = new HashMap<>();
@@ -55,7 +56,22 @@ public class TriggerTestCaseEventListener implements ScoreEventListener {
     }
 
     public boolean isFlowFinished() {
-        return flowFinished.get();
+        return flowFinished.getCount() == 0;
+    }
+
+    /**
+     * Waits until the flow finishes, either successfully or with an error
+     *
+     * @param timeout the maximum time to wait, a non positive timeout waits without a limit
+     * @param unit    the unit of the timeout
+     * @return true if the flow finished, false if the timeout elapsed before
+     */
+    public boolean awaitFlowFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        if (timeout <= 0) {
+            flowFinished.await();
+            return true;
+        }
+        return flowFinished.await(timeout, unit);
     }
 
     public String getErrorMessage() {
@@ -72,12 +88,12 @@ public class TriggerTestCaseEventListener implements ScoreEventListener {
             case EventConstants.SCORE_ERROR_EVENT :
             case EventConstants.SCORE_FAILURE_EVENT :
                 errorMessage.set(data.get(EventConstants.SCORE_ERROR_LOG_MSG) + " , " + data.get(EventConstants.SCORE_ERROR_MSG));
-                flowFinished.set(true);
+                flowFinished.countDown();
                 break;
             case ScoreLangConstants.EVENT_EXECUTION_FINISHED :
                 eventData = (LanguageEventData) data;
                 result = eventData.getResult();
-                flowFinished.set(true);
+                flowFinished.countDown();
                 break;
             case ScoreLangConstants.EVENT_OUTPUT_END:
                 eventData = (LanguageEventData) data;
@@ -0,0 +1,212 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ */
+package io.cloudslang.lang.tools.build.verifier;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Dependency graph of the slang models of a build.
+ *
+ * Flows that call each other form a cycle, and are grouped into one node of the graph, so the nodes form a DAG.
+ * The nodes are sorted so that every node comes after its dependencies, and the transitive dependencies of a node
+ * are computed once, from the ones of its direct dependencies.
+ * Building the graph fails with a {@link MissingDependencyException} on a missing dependency.
+ */
+public class DependencyGraph {
+
+    private final Map<String, Executable> slangModels;
+
+    // unique names of the models, every model after its dependencies unless they are in the same cycle
+    private final List<String> sortedNames;
+
+    private final Map<String, Set<Executable>> transitiveDependencies;
+
+    private final List<Set<String>> cycles;
+
+    /**
+     * @param slangModels the slang models by their unique names
+     */
+    public DependencyGraph(Map<String, Executable> slangModels) {
+        this.slangModels = slangModels;
+        this.sortedNames = new ArrayList<>(slangModels.size());
+        this.transitiveDependencies = new HashMap<>(slangModels.size());
+        this.cycles = new ArrayList<>();
+        new ComponentsFinder().findComponents();
+    }
+
+    /**
+     * @return the models, every model after its dependencies unless they are in the same cycle
+     */
+    public List<Executable> getSortedModels() {
+        List<Executable> sortedModels = new ArrayList<>(sortedNames.size());
+        for (String name : sortedNames) {
+            sortedModels.add(slangModels.get(name));
+        }
+        return sortedModels;
+    }
+
+    /**
+     * @param name the unique name of a model of the graph
+     * @return the direct and indirect dependencies of the model, including the model itself if it is in a cycle
+     */
+    public Set<Executable> getDependenciesRecursively(String name) {
+        Set<Executable> dependencies = transitiveDependencies.get(name);
+        if (dependencies == null) {
+            throw new IllegalArgumentException("Slang model: \'" + name + "\' is not part of the dependency graph");
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return the unique names of the models of every cycle of the graph
+     */
+    public List<Set<String>> getCycles() {
+        return Collections.unmodifiableList(cycles);
+    }
+
+    private Set<String> getDependencyNames(String name) {
+        // sorted, so the order of the result does not depend on the order of the sets
+        Set<String> dependencyNames = new TreeSet<>(slangModels.get(name).getExecutableDependencies());
+        for (String dependencyName : dependencyNames) {
+            if (!slangModels.containsKey(dependencyName)) {
+                throw new MissingDependencyException(slangModels.get(name), dependencyName);
+            }
+        }
+        return dependencyNames;
+    }
+
+    private void addComponent(Set<String> names) {
+        Set<Executable> dependencies = new HashSet<>();
+        boolean cyclic = names.size() > 1;
+        for (String name : names) {
+            for (String dependencyName : slangModels.get(name).getExecutableDependencies()) {
+                if (names.contains(dependencyName)) {
+                    cyclic = true;
+                } else {
+                    dependencies.add(slangModels.get(dependencyName));
+                    dependencies.addAll(transitiveDependencies.get(dependencyName));
+                }
+            }
+        }
+        if (cyclic) {
+            for (String name : names) {
+                dependencies.add(slangModels.get(name));
+            }
+            cycles.add(Collections.unmodifiableSet(names));
+        }
+        Set<Executable> unmodifiableDependencies = Collections.unmodifiableSet(dependencies);
+        for (String name : names) {
+            sortedNames.add(name);
+            transitiveDependencies.put(name, unmodifiableDependencies);
+        }
+    }
+
+    /**
+     * Thrown when a model depends on a model that is not part of the graph
+     */
+    public static class MissingDependencyException extends RuntimeException {
+
+        private final Executable slangModel;
+
+        MissingDependencyException(Executable slangModel, String dependencyName) {
+            super("Failed compiling slang source: " + slangModel.getNamespace() + "." +
+                    slangModel.getName() + ". Missing dependency: " + dependencyName);
+            this.slangModel = slangModel;
+        }
+
+        /**
+         * @return the model whose dependency is missing
+         */
+        public Executable getSlangModel() {
+            return slangModel;
+        }
+    }
+
+    /**
+     * Tarjan's strongly connected components algorithm, with an explicit stack instead of recursion.
+     * A component is found after all the components it depends on.
+     */
+    private class ComponentsFinder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final Map<String, Integer> lowLinks = new HashMap<>();
+        private final Deque<String> componentStack = new ArrayDeque<>();
+        private final Set<String> namesInComponentStack = new HashSet<>();
+
+        // the models that are being visited, from the root down
+        private final Deque<String> path = new ArrayDeque<>();
+        private final Deque<Iterator<String>> pendingDependencies = new ArrayDeque<>();
+
+        void findComponents() {
+            for (String root : new TreeMap<>(slangModels).keySet()) {
+                if (!indexes.containsKey(root)) {
+                    visit(root);
+                    while (!path.isEmpty()) {
+                        step();
+                    }
+                }
+            }
+        }
+
+        private void visit(String name) {
+            int index = indexes.size();
+            indexes.put(name, index);
+            lowLinks.put(name, index);
+            componentStack.push(name);
+            namesInComponentStack.add(name);
+            path.push(name);
+            pendingDependencies.push(getDependencyNames(name).iterator());
+        }
+
+        private void step() {
+            String name = path.peek();
+            Iterator<String> dependencies = pendingDependencies.peek();
+            if (dependencies.hasNext()) {
+                String dependencyName = dependencies.next();
+                if (!indexes.containsKey(dependencyName)) {
+                    visit(dependencyName);
+                } else if (namesInComponentStack.contains(dependencyName)) {
+                    lowLinks.put(name, Math.min(lowLinks.get(name), indexes.get(dependencyName)));
+                }
+                return;
+            }
+            path.pop();
+            pendingDependencies.pop();
+            if (!path.isEmpty()) {
+                String parent = path.peek();
+                lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(name)));
+            }
+            if (lowLinks.get(name).equals(indexes.get(name))) {
+                Set<String> component = new TreeSet<>();
+                String member;
+                do {
+                    member = componentStack.pop();
+                    namesInComponentStack.remove(member);
+                    component.add(member);
+                } while (!member.equals(name));
+                addComponent(component);
+            }
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.score.api.ExecutionPlan;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
@@ -23,6 +24,12 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,27 +48,52 @@ public class SlangContentVerifier {
     private ScoreCompiler scoreCompiler;
 
     public Map<String, Executable> createModelsAndValidate(String directoryPath) {
+        return createModelsAndValidate(directoryPath, 1);
+    }
+
+    /**
+     * Pre-compiles and validates all the slang files under the directory.
+     * The files are handled in the order of their paths, so when more than one file is invalid
+     * the error of the first one is reported, no matter how many threads are used.
+     *
+     * @param directoryPath the directory of the slang files
+     * @param threads the number of files that are handled concurrently
+     * @return the slang models by their fully qualified names
+     */
+    public Map<String, Executable> createModelsAndValidate(String directoryPath, int threads) {
+        return createModelsAndValidate(directoryPath, threads, null);
+    }
+
+    /**
+     * @param sourceFiles if not null, the slang file of every model is added to it by the fully qualified name of the model
+     * @see #createModelsAndValidate(String, int)
+     */
+    public Map<String, Executable> createModelsAndValidate(String directoryPath, int threads, Map<String, File> sourceFiles) {
         Validate.notEmpty(directoryPath, "You must specify a path");
         Validate.isTrue(new File(directoryPath).isDirectory(), "Directory path argument \'" + directoryPath + "\' does not lead to a directory");
         Map<String, Executable> slangModels = new HashMap<>();
-        Collection<File> slangFiles = listSlangFiles(new File(directoryPath), true);
+        List<File> slangFiles = listSlangFiles(new File(directoryPath), true);
         log.info("Start compiling all slang files under: " + directoryPath);
         log.info(slangFiles.size() + " .sl files were found");
         log.info("");
         int ignoredExecutables = 0;
-        for(File slangFile: slangFiles){
-            Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() + "\' must lead to a file");
-            Executable sourceModel;
-            try {
-                sourceModel = slangCompiler.preCompile(SlangSource.fromFile(slangFile));
-            } catch (Exception e) {
-                String errorMessage = "Failed creating Slang models for file: \'" + slangFile.getAbsoluteFile() + "\'.\n" + e.getMessage();
-                log.error(errorMessage);
-                throw new RuntimeException(errorMessage, e);
-            }
+        List<Callable<Executable>> tasks = new ArrayList<>();
+        for(final File slangFile: slangFiles){
+            tasks.add(new Callable<Executable>() {
+                @Override
+                public Executable call() {
+                    return createModelAndValidate(slangFile);
+                }
+            });
+        }
+        List<Executable> sourceModels = invokeAllInOrder(tasks, threads);
+        for (int index = 0; index < sourceModels.size(); index++) {
+            Executable sourceModel = sourceModels.get(index);
             if (sourceModel != null) {
-                staticSlangFileValidation(slangFile, sourceModel);
                 slangModels.put(getUniqueName(sourceModel), sourceModel);
+                if (sourceFiles != null) {
+                    sourceFiles.put(getUniqueName(sourceModel), slangFiles.get(index));
+                }
             }
         }
         int numberOfExecutables = slangFiles.size() - ignoredExecutables;
@@ -72,43 +104,144 @@ public class SlangContentVerifier {
         return slangModels;
     }
 
+    private Executable createModelAndValidate(File slangFile) {
+        Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() + "\' must lead to a file");
+        Executable sourceModel;
+        try {
+            sourceModel = slangCompiler.preCompile(SlangSource.fromFile(slangFile));
+        } catch (Exception e) {
+            String errorMessage = "Failed creating Slang models for file: \'" + slangFile.getAbsoluteFile() + "\'.\n" + e.getMessage();
+            log.error(errorMessage);
+            throw new RuntimeException(errorMessage, e);
+        }
+        if (sourceModel != null) {
+            staticSlangFileValidation(slangFile, sourceModel);
+        }
+        return sourceModel;
+    }
+
     public Map<String, CompilationArtifact> compileSlangModels(Map<String, Executable> slangModels) {
+        return compileSlangModels(slangModels, 1);
+    }
+
+    /**
+     * Compiles all the slang models with their dependencies.
+     * The transitive dependencies of the models are computed once, by a {@link DependencyGraph}, and the execution plans
+     * of the dependencies are shared by all the compilation artifacts.
+     * The models are compiled after their dependencies (unless they are in the same cycle), in a fixed order, so when more than one model fails to compile
+     * the error of the first one is reported, no matter how many threads are used.
+     *
+     * @param slangModels the slang models by their fully qualified names
+     * @param threads the number of models that are compiled concurrently
+     * @return the compilation artifacts by their fully qualified names
+     */
+    public Map<String, CompilationArtifact> compileSlangModels(Map<String, Executable> slangModels, int threads) {
         Map<String, CompilationArtifact> compiledArtifacts = new HashMap<>();
-        for(Map.Entry<String, Executable> slangModelEntry : slangModels.entrySet()) {
-            Executable slangModel = slangModelEntry.getValue();
-            try {
-                Set<Executable> dependenciesModels = getModelDependenciesRecursively(slangModels, slangModel);
-                CompilationArtifact compiledSource = compiledArtifacts.get(getUniqueName(slangModel));
-                if (compiledSource == null) {
-                    compiledSource = scoreCompiler.compile(slangModel, dependenciesModels);
-                    if(compiledSource != null) {
-                        log.info("Compiled: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\' successfully");
-                        compiledArtifacts.put(getUniqueName(slangModel), compiledSource);
-                    } else {
-                        log.error("Failed to compile source: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\'");
-                    }
+        final DependencyGraph dependencyGraph;
+        try {
+            dependencyGraph = new DependencyGraph(slangModels);
+        } catch (DependencyGraph.MissingDependencyException e) {
+            throw compilationError(e.getSlangModel(), e);
+        }
+        for (Set<String> cycle : dependencyGraph.getCycles()) {
+            log.debug("Found circular dependencies between: " + cycle);
+        }
+        final Map<String, ExecutionPlan> dependenciesExecutionPlans = new ConcurrentHashMap<>();
+        List<Callable<CompilationArtifact>> tasks = new ArrayList<>();
+        final List<Executable> sortedModels = dependencyGraph.getSortedModels();
+        for (final Executable slangModel : sortedModels) {
+            tasks.add(new Callable<CompilationArtifact>() {
+                @Override
+                public CompilationArtifact call() {
+                    return compileSlangModel(dependencyGraph, slangModel, dependenciesExecutionPlans);
                 }
-            } catch (Exception e) {
-                String errorMessage = "Failed compiling Slang source: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\'.\n" + e.getMessage();
-                log.error(errorMessage);
-                throw new RuntimeException(errorMessage, e);
+            });
+        }
+        List<CompilationArtifact> compiledSources = invokeAllInOrder(tasks, threads);
+        for (int index = 0; index < sortedModels.size(); index++) {
+            CompilationArtifact compiledSource = compiledSources.get(index);
+            if (compiledSource != null) {
+                compiledArtifacts.put(getUniqueName(sortedModels.get(index)), compiledSource);
             }
         }
         return compiledArtifacts;
     }
 
-    private Set<Executable> getModelDependenciesRecursively(Map<String, Executable> slangModels, Executable slangModel) {
-        Set<Executable> dependenciesModels = new HashSet<>();
-        for (String dependencyName : slangModel.getExecutableDependencies()) {
-            Executable dependency = slangModels.get(dependencyName);
-            if(dependency == null){
-                throw new RuntimeException("Failed compiling slang source: " + slangModel.getNamespace() + "." +
-                        slangModel.getName() + ". Missing dependency: " + dependencyName);
+    private CompilationArtifact compileSlangModel(DependencyGraph dependencyGraph, Executable slangModel,
+                                                  Map<String, ExecutionPlan> dependenciesExecutionPlans) {
+        try {
+            Set<Executable> dependenciesModels = dependencyGraph.getDependenciesRecursively(getUniqueName(slangModel));
+            CompilationArtifact compiledSource = scoreCompiler.compile(slangModel, dependenciesModels, dependenciesExecutionPlans);
+            if(compiledSource != null) {
+                log.info("Compiled: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\' successfully");
+            } else {
+                log.error("Failed to compile source: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\'");
+            }
+            return compiledSource;
+        } catch (Exception e) {
+            throw compilationError(slangModel, e);
+        }
+    }
+
+    private RuntimeException compilationError(Executable slangModel, Exception e) {
+        String errorMessage = "Failed compiling Slang source: \'" + slangModel.getNamespace() + "." + slangModel.getName() + "\'.\n" + e.getMessage();
+        log.error(errorMessage);
+        return new RuntimeException(errorMessage, e);
+    }
+
+    /**
+     * Runs the tasks, concurrently if more than one thread is requested, and returns their results in the order of the tasks.
+     * If tasks fail, the exception of the first failed task in that order is thrown and the tasks that did not start yet are cancelled.
+     */
+    private <T> List<T> invokeAllInOrder(List<Callable<T>> tasks, int threads) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (threads <= 1 || tasks.size() <= 1) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executorService.submit(task));
+            }
+            for (Future<T> future : futures) {
+                results.add(getResult(future));
+            }
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the Slang files to be compiled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
             }
-            dependenciesModels.add(dependency);
-            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency));
+            throw new RuntimeException(cause);
         }
-        return dependenciesModels;
     }
 
     private void staticSlangFileValidation(File slangFile, Executable executable){
@@ -152,14 +285,16 @@ public class SlangContentVerifier {
     }
 
     // e.g. exclude .prop.sl from .sl set
-    private Collection<File> listSlangFiles(File directory, boolean recursive) {
+    // sorted by path, so the files are handled in the same order on every file system
+    private List<File> listSlangFiles(File directory, boolean recursive) {
         Collection<File> dependenciesFiles = FileUtils.listFiles(directory, Extension.getSlangFileExtensionValues(), recursive);
-        Collection<File> result = new ArrayList<>();
+        List<File> result = new ArrayList<>();
         for (File file : dependenciesFiles) {
             if (Extension.SL.equals(Extension.findExtension(file.getName()))) {
                 result.add(file);
             }
         }
+        Collections.sort(result);
         return result;
     }
 
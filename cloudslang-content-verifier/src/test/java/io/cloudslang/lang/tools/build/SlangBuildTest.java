@@ -11,8 +11,11 @@ package io.cloudslang.lang.tools.build;
 import io.cloudslang.lang.api.Slang;
 import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.modeller.model.Action;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Operation;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.bindings.Input;
@@ -23,20 +26,28 @@ import io.cloudslang.lang.tools.build.tester.parse.SlangTestCase;
 import io.cloudslang.lang.tools.build.tester.parse.TestCasesYamlParser;
 import io.cloudslang.lang.tools.build.verifier.SlangContentVerifier;
 import io.cloudslang.score.api.ExecutionPlan;
+import java.io.File;
+import java.io.Serializable;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import junit.framework.Assert;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,12 +56,15 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.yaml.snakeyaml.Yaml;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 
 /*
@@ -85,6 +99,9 @@ public class SlangBuildTest {
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void resetMocks() {
         Mockito.reset(slangCompiler);
@@ -137,7 +154,7 @@ public class SlangBuildTest {
     public void testCompileValidSlangFileNoDependencies() throws Exception {
         URI resource = getClass().getResource("/no_dependencies").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         Assert.assertEquals("Did not compile all Slang files. Expected to compile: 1, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 1);
@@ -147,7 +164,7 @@ public class SlangBuildTest {
     public void testCompileInvalidSlangFile() throws Exception {
         URI resource = getClass().getResource("/no_dependencies").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenThrow(new RuntimeException());
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenThrow(new RuntimeException());
         exception.expect(RuntimeException.class);
         slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
     }
@@ -156,7 +173,7 @@ public class SlangBuildTest {
     public void testNotAllSlangFilesWereCompiled() throws Exception {
         URI resource = getClass().getResource("/no_dependencies").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenReturn(null);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(null);
         exception.expect(RuntimeException.class);
         exception.expectMessage("1");
         exception.expectMessage("0");
@@ -172,8 +189,9 @@ public class SlangBuildTest {
         flowDependencies.add("dep1");
         Flow newExecutable = new Flow(null, null, null, "no_dependencies", "empty_flow", null, null, null, flowDependencies, systemPropertyDependencies);
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(newExecutable);
-        Mockito.when(scoreCompiler.compile(newExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(newExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         exception.expect(RuntimeException.class);
+        exception.expectMessage("Failed compiling Slang source: 'no_dependencies.empty_flow'");
         exception.expectMessage("dependency");
         exception.expectMessage("dep1");
         slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
@@ -190,14 +208,57 @@ public class SlangBuildTest {
         Mockito.when(slangCompiler.preCompile(new SlangSource("", "dependency"))).thenReturn(dependencyExecutable);
         HashSet<Executable> dependencies = new HashSet<>();
         dependencies.add(dependencyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyFlowExecutable, dependencies)).thenReturn(emptyCompilationArtifact);
-        Mockito.when(scoreCompiler.compile(dependencyExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(emptyFlowExecutable), eq(dependencies), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(dependencyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         // properties file should be ignored
         Assert.assertEquals("Did not compile all Slang files. Expected to compile: 2, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 2);
     }
 
+    @Test
+    public void testCompileValidSlangFilesWithDependenciesInParallel() throws Exception {
+        URI resource = getClass().getResource("/dependencies").toURI();
+        Set<String> flowDependencies = new HashSet<>();
+        flowDependencies.add("dependencies.dependency");
+        Flow emptyFlowExecutable = new Flow(null, null, null, "dependencies", "empty_flow", null, null, null, flowDependencies, systemPropertyDependencies);
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "empty_flow"))).thenReturn(emptyFlowExecutable);
+        Flow dependencyExecutable = new Flow(null, null, null, "dependencies", "dependency", null, null, null, new HashSet<String>(), systemPropertyDependencies);
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "dependency"))).thenReturn(dependencyExecutable);
+        HashSet<Executable> dependencies = new HashSet<>();
+        dependencies.add(dependencyExecutable);
+        Mockito.when(scoreCompiler.compile(eq(emptyFlowExecutable), eq(dependencies), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(dependencyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null, 4);
+        int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
+        Assert.assertEquals("Did not compile all Slang files. Expected to compile: 2, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 2);
+    }
+
+    @Test
+    public void testParallelPreCompileReportsErrorOfFirstFile() throws Exception {
+        URI resource = getClass().getResource("/dependencies").toURI();
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "empty_flow"))).thenThrow(new RuntimeException("empty_flow error"));
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "dependency"))).thenThrow(new RuntimeException("dependency error"));
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("dependency error");
+        slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null, 4);
+    }
+
+    @Test
+    public void testParallelCompileReportsErrorOfFirstModel() throws Exception {
+        URI resource = getClass().getResource("/dependencies").toURI();
+        Flow emptyFlowExecutable = new Flow(null, null, null, "dependencies", "empty_flow", null, null, null, new HashSet<String>(), systemPropertyDependencies);
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "empty_flow"))).thenReturn(emptyFlowExecutable);
+        Flow dependencyExecutable = new Flow(null, null, null, "dependencies", "dependency", null, null, null, new HashSet<String>(), systemPropertyDependencies);
+        Mockito.when(slangCompiler.preCompile(new SlangSource("", "dependency"))).thenReturn(dependencyExecutable);
+        Mockito.when(scoreCompiler.compile(eq(emptyFlowExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenThrow(new RuntimeException("empty_flow error"));
+        Mockito.when(scoreCompiler.compile(eq(dependencyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenThrow(new RuntimeException("dependency error"));
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("dependencies.dependency");
+        exception.expectMessage("dependency error");
+        slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null, 4);
+    }
+
     @Test
     public void testInvalidNamespaceFlow() throws Exception {
         URI resource = getClass().getResource("/no_dependencies").toURI();
@@ -224,7 +285,7 @@ public class SlangBuildTest {
     public void testValidFlowNameAndNamespace() throws Exception {
         URI resource = getClass().getResource("/no_dependencies").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         Assert.assertEquals("Did not compile all Slang files. Expected to compile: 1, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 1);
@@ -235,7 +296,7 @@ public class SlangBuildTest {
         URI resource = getClass().getResource("/no_dependencies-0123456789").toURI();
         Flow executable = new Flow(null, null, null, "no_dependencies-0123456789", "empty_flow", null, null, null, new HashSet<String>(), systemPropertyDependencies);
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(executable);
-        Mockito.when(scoreCompiler.compile(executable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(executable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         Assert.assertEquals("Did not compile all Slang files. Expected to compile: 1, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 1);
@@ -246,7 +307,7 @@ public class SlangBuildTest {
         URI resource = getClass().getResource("/no_dependencies").toURI();
         Flow executable = new Flow(null, null, null, "No_Dependencies", "empty_flow", null, null, null, new HashSet<String>(), systemPropertyDependencies);
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(executable);
-        Mockito.when(scoreCompiler.compile(executable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(executable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         Assert.assertEquals("Did not compile all Slang files. Expected to compile: 1, but compiled: " + numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 1);
@@ -268,10 +329,10 @@ public class SlangBuildTest {
         URI contentResource = getClass().getResource("/no_dependencies").toURI();
         URI testResource = getClass().getResource("/test/valid").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         RunTestsResults runTestsResults = new RunTestsResults();
         runTestsResults.addFailedTest("test1", new TestRun(new SlangTestCase("test1", "", null, null, null, null, null, null, null), "message"));
-        Mockito.when(slangTestRunner.runAllTests(any(String.class), anyMap(), anyMap(), anyList())).thenReturn(runTestsResults);
+        Mockito.when(slangTestRunner.runAllTests(any(String.class), anyMap(), anyMap(), anyList(), anyInt(), anyLong())).thenReturn(runTestsResults);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null);
         int numberOfCompiledSlangFiles = buildResults.getNumberOfCompiledSources();
         RunTestsResults actualRunTestsResults = buildResults.getRunTestsResults();
@@ -284,7 +345,7 @@ public class SlangBuildTest {
         URI contentResource = getClass().getResource("/no_dependencies").toURI();
         URI testResource = getClass().getResource("/test/valid").toURI();
         Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
-        Mockito.when(scoreCompiler.compile(emptyExecutable, new HashSet<Executable>())).thenReturn(emptyCompilationArtifact);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
         RunTestsResults runTestsResults = new RunTestsResults();
         runTestsResults.addFailedTest("test1", new TestRun(new SlangTestCase("test1", "", null, null, null, null, null, null, null), "message"));
         Mockito.when(
@@ -292,7 +353,9 @@ public class SlangBuildTest {
                         any(String.class),
                         anyMapOf(String.class, SlangTestCase.class),
                         anyMapOf(String.class, CompilationArtifact.class),
-                        anyListOf(String.class)
+                        anyListOf(String.class),
+                        anyInt(),
+                        anyLong()
                 )
         ).thenReturn(runTestsResults);
 
@@ -309,7 +372,7 @@ public class SlangBuildTest {
                 ""
         );
         testCases.put("i_don_t_exist", testCaseWithIncorrectFlowPath);
-        Mockito.when(slangTestRunner.createTestCases(anyString(), anySetOf(String.class))).thenReturn(testCases);
+        Mockito.when(slangTestRunner.createTestCases(anyString(), anySetOf(String.class), anyMapOf(String.class, File.class))).thenReturn(testCases);
 
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null);
 
@@ -318,6 +381,160 @@ public class SlangBuildTest {
         Assert.assertEquals(1, buildResults.getRunTestsResults().getUncoveredExecutables().size());
     }
 
+    @Test
+    public void testIncrementalTestsRunOnlyAffectedTests() throws Exception {
+        URI contentResource = getClass().getResource("/no_dependencies").toURI();
+        URI testResource = getClass().getResource("/test/valid").toURI();
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        File testCaseFile = temporaryFolder.newFile("test_cases.yaml");
+        FileUtils.writeStringToFile(testCaseFile, "version: 1");
+        List<String> testsThatRan = mockIncrementalTestRun(testCaseFile, true);
+        File testFingerprintsFile = new File(temporaryFolder.getRoot(), "test-fingerprints.ser");
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertEquals(Collections.singletonList("test1"), testsThatRan);
+
+        testsThatRan.clear();
+        SlangBuildResults buildResults = slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertTrue("Unchanged test case should not run", testsThatRan.isEmpty());
+        Assert.assertTrue(buildResults.getRunTestsResults().getSkippedTests().containsKey("test1"));
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, true);
+        Assert.assertEquals("All test cases should run when forced", Collections.singletonList("test1"), testsThatRan);
+
+        testsThatRan.clear();
+        FileUtils.writeStringToFile(testCaseFile, "version: 2");
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertEquals("Changed test case should run", Collections.singletonList("test1"), testsThatRan);
+    }
+
+    @Test
+    public void testIncrementalTestsLeaveTestsOutOfActiveSuitesToRunner() throws Exception {
+        URI contentResource = getClass().getResource("/no_dependencies").toURI();
+        URI testResource = getClass().getResource("/test/valid").toURI();
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(emptyExecutable);
+        Mockito.when(scoreCompiler.compile(eq(emptyExecutable), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        List<String> testsThatRan = mockIncrementalTestRun(temporaryFolder.newFile("test_cases.yaml"), false);
+        File testFingerprintsFile = new File(temporaryFolder.getRoot(), "test-fingerprints.ser");
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        testsThatRan.clear();
+        SlangBuildResults buildResults = slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+
+        // the runner reports the test cases out of the active suites
+        Assert.assertEquals(Collections.singletonList("test1"), testsThatRan);
+        Assert.assertFalse(buildResults.getRunTestsResults().getSkippedTests().containsKey("test1"));
+    }
+
+    @Test
+    public void testIncrementalTestsRunWhenActionDependencyChanges() throws Exception {
+        URI contentResource = getClass().getResource("/no_dependencies").toURI();
+        URI testResource = getClass().getResource("/test/valid").toURI();
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(createJavaOperation("io.cloudslang:actions:1.0"));
+        Mockito.when(scoreCompiler.compile(any(Executable.class), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        List<String> testsThatRan = mockIncrementalTestRun(temporaryFolder.newFile("test_cases.yaml"), true);
+        File testFingerprintsFile = new File(temporaryFolder.getRoot(), "test-fingerprints.ser");
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        testsThatRan.clear();
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertTrue("Unchanged test case should not run", testsThatRan.isEmpty());
+
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(createJavaOperation("io.cloudslang:actions:2.0"));
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertEquals("Test case should run with the new action dependency", Collections.singletonList("test1"), testsThatRan);
+    }
+
+    @Test
+    public void testIncrementalTestsAlwaysRunWithSnapshotActionDependency() throws Exception {
+        URI contentResource = getClass().getResource("/no_dependencies").toURI();
+        URI testResource = getClass().getResource("/test/valid").toURI();
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(createJavaOperation("io.cloudslang:actions:1.0-SNAPSHOT"));
+        Mockito.when(scoreCompiler.compile(any(Executable.class), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        List<String> testsThatRan = mockIncrementalTestRun(temporaryFolder.newFile("test_cases.yaml"), true);
+        File testFingerprintsFile = new File(temporaryFolder.getRoot(), "test-fingerprints.ser");
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        testsThatRan.clear();
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertEquals("Test case of a SNAPSHOT action dependency should run", Collections.singletonList("test1"), testsThatRan);
+    }
+
+    @Test
+    public void testIncrementalTestsAlwaysRunWithUnpinnedPythonDependency() throws Exception {
+        URI contentResource = getClass().getResource("/no_dependencies").toURI();
+        URI testResource = getClass().getResource("/test/valid").toURI();
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(createPythonOperation("pyyaml==3.11", "requests"));
+        Mockito.when(scoreCompiler.compile(any(Executable.class), eq(new HashSet<Executable>()), anyMapOf(String.class, ExecutionPlan.class))).thenReturn(emptyCompilationArtifact);
+        List<String> testsThatRan = mockIncrementalTestRun(temporaryFolder.newFile("test_cases.yaml"), true);
+        File testFingerprintsFile = new File(temporaryFolder.getRoot(), "test-fingerprints.ser");
+
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        testsThatRan.clear();
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertEquals("Test case of an unpinned python dependency should run", Collections.singletonList("test1"), testsThatRan);
+
+        Mockito.when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(createPythonOperation("pyyaml==3.11"));
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        testsThatRan.clear();
+        slangBuilder.buildSlangContent(contentResource.getPath(), contentResource.getPath(), testResource.getPath(), null, 1, 1, 0, testFingerprintsFile, false);
+        Assert.assertTrue("Test case of pinned python dependencies should not run", testsThatRan.isEmpty());
+    }
+
+    private Operation createPythonOperation(String... dependencies) {
+        HashMap<String, Serializable> pythonActionData = new HashMap<>();
+        pythonActionData.put(SlangTextualKeys.PYTHON_ACTION_SCRIPT_KEY, "pass");
+        pythonActionData.put(SlangTextualKeys.PYTHON_ACTION_DEPENDENCIES_KEY, new ArrayList<>(Arrays.asList(dependencies)));
+        Map<String, Serializable> actionData = new HashMap<>();
+        actionData.put(SlangTextualKeys.PYTHON_ACTION_KEY, pythonActionData);
+        return new Operation(null, null, new Action(actionData), "no_dependencies", "empty_flow", null, null, null,
+                new HashSet<String>(), systemPropertyDependencies);
+    }
+
+    private Operation createJavaOperation(String gav) {
+        HashMap<String, Serializable> javaActionData = new HashMap<>();
+        javaActionData.put(SlangTextualKeys.JAVA_ACTION_CLASS_NAME_KEY, "io.cloudslang.Actions");
+        javaActionData.put(SlangTextualKeys.JAVA_ACTION_METHOD_NAME_KEY, "execute");
+        javaActionData.put(SlangTextualKeys.JAVA_ACTION_GAV_KEY, gav);
+        Map<String, Serializable> actionData = new HashMap<>();
+        actionData.put(SlangTextualKeys.JAVA_ACTION_KEY, javaActionData);
+        return new Operation(null, null, new Action(actionData), "no_dependencies", "empty_flow", null, null, null,
+                new HashSet<String>(), systemPropertyDependencies);
+    }
+
+    /**
+     * Mocks the runner with a single test case of the empty flow, the runner passes every test case it gets
+     *
+     * @return the names of the test cases the runner got, in all the builds
+     */
+    private List<String> mockIncrementalTestRun(final File testCaseFile, boolean inActiveTestSuites) {
+        final SlangTestCase testCase = new SlangTestCase("test1", "no_dependencies.empty_flow", null, null, null, null, null, null, null);
+        Mockito.when(slangTestRunner.createTestCases(anyString(), anySetOf(String.class), anyMapOf(String.class, File.class))).thenAnswer(new Answer<Map<String, SlangTestCase>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<String, SlangTestCase> answer(InvocationOnMock invocation) throws Throwable {
+                ((Map<String, File>) invocation.getArguments()[2]).put("test1", testCaseFile);
+                return Collections.singletonMap("test1", testCase);
+            }
+        });
+        Mockito.when(slangTestRunner.isInActiveTestSuites(any(SlangTestCase.class), anyListOf(String.class))).thenReturn(inActiveTestSuites);
+        final List<String> testsThatRan = new ArrayList<>();
+        Mockito.when(slangTestRunner.runAllTests(anyString(), anyMapOf(String.class, SlangTestCase.class), anyMapOf(String.class, CompilationArtifact.class), anyListOf(String.class), anyInt(), anyLong())).thenAnswer(new Answer<RunTestsResults>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public RunTestsResults answer(InvocationOnMock invocation) throws Throwable {
+                RunTestsResults runTestsResults = new RunTestsResults();
+                for (Map.Entry<String, SlangTestCase> testCaseEntry : ((Map<String, SlangTestCase>) invocation.getArguments()[1]).entrySet()) {
+                    testsThatRan.add(testCaseEntry.getKey());
+                    runTestsResults.addPassedTest(testCaseEntry.getKey(), new TestRun(testCaseEntry.getValue(), null));
+                }
+                return runTestsResults;
+            }
+        });
+        return testsThatRan;
+    }
+
     @Configuration
     static class Config {
 
@@ -4,6 +4,7 @@ import io.cloudslang.lang.api.Slang;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
 import io.cloudslang.lang.tools.build.tester.parse.SlangTestCase;
@@ -35,11 +36,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -462,6 +467,64 @@ public class SlangTestRunnerTest {
         Assert.assertEquals("1 test case should be skipped", 1, runTestsResults.getSkippedTests().size());
     }
 
+    @Test
+    public void runTestCasesInParallel(){
+        Map<String, SlangTestCase> testCases = new HashMap<>();
+        HashMap<String, CompilationArtifact> compiledFlows = new HashMap<>();
+        Map<CompilationArtifact, Long> executionIds = new IdentityHashMap<>();
+        for (int index = 0; index < 6; index++) {
+            String expectedResult = index == 3 ? "FAILURE" : "SUCCESS";
+            SlangTestCase testCase = new SlangTestCase("test" + index, "testFlowPath" + index, "desc", null, "mock", null, null, false, expectedResult);
+            testCases.put(testCase.getName(), testCase);
+            CompilationArtifact compilationArtifact = new CompilationArtifact(new ExecutionPlan(), null, null, null);
+            compiledFlows.put("testFlowPath" + index, compilationArtifact);
+            executionIds.put(compilationArtifact, (long) index);
+        }
+        prepareMockForEventDispatcherWithSuccessResult(executionIds);
+        RunTestsResults runTestsResults = slangTestRunner.runAllTests("path", testCases, compiledFlows, defaultTestSuite, 3, 0);
+        Assert.assertEquals("5 test cases should pass", 5, runTestsResults.getPassedTests().size());
+        Assert.assertEquals("1 test case should fail", 1, runTestsResults.getFailedTests().size());
+        Assert.assertTrue(runTestsResults.getFailedTests().containsKey("test3"));
+        Mockito.verify(slang).unSubscribeOnEvents(any(TestCasesEventDispatcher.class));
+    }
+
+    @Test
+    public void runTestCaseThatTimesOut(){
+        Map<String, SlangTestCase> testCases = new HashMap<>();
+        SlangTestCase testCase = new SlangTestCase("test1", "testFlowPath", "desc", null, "mock", null, null, false, null);
+        testCases.put("test1", testCase);
+        HashMap<String, CompilationArtifact> compiledFlows = new HashMap<>();
+        compiledFlows.put("testFlowPath", new CompilationArtifact(new ExecutionPlan(), null, null, null));
+        RunTestsResults runTestsResults = slangTestRunner.runAllTests("path", testCases, compiledFlows, defaultTestSuite, 1, 1);
+        Map<String, TestRun> failedTests = runTestsResults.getFailedTests();
+        Assert.assertEquals("1 test case should fail", 1, failedTests.size());
+        Assert.assertTrue(failedTests.get("test1").getMessage().contains("did not finish within 1 seconds"));
+        Mockito.verify(slang).cancel(anyLong());
+    }
+
+    private void prepareMockForEventDispatcherWithSuccessResult(final Map<CompilationArtifact, Long> executionIds) {
+        final AtomicReference<ScoreEventListener> dispatcher = new AtomicReference<>();
+        Mockito.doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                dispatcher.set((ScoreEventListener) invocationOnMock.getArguments()[0]);
+                return null;
+            }
+        }).when(slang).subscribeOnEvents(any(ScoreEventListener.class), anySetOf(String.class));
+        Mockito.doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                Long executionId = executionIds.get(invocationOnMock.getArguments()[0]);
+                // the flow finishes before its execution id is returned
+                LanguageEventData data = new LanguageEventData();
+                data.setExecutionId(executionId);
+                data.setResult("SUCCESS");
+                dispatcher.get().onEvent(new ScoreEvent(ScoreLangConstants.EVENT_EXECUTION_FINISHED, data));
+                return executionId;
+            }
+        }).when(slang).run(any(CompilationArtifact.class), anyMapOf(String.class, Serializable.class), anySetOf(SystemProperty.class));
+    }
+
     private void prepareMockForEventListenerWithSuccessResult() {
         Mockito.doAnswer(new Answer() {
             @Override
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ */
+package io.cloudslang.lang.tools.build.tester;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.runtime.events.LanguageEventData;
+import io.cloudslang.score.api.execution.ExecutionParametersConsts;
+import io.cloudslang.score.events.EventConstants;
+import io.cloudslang.score.events.ScoreEvent;
+import io.cloudslang.score.lang.SystemContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+public class TestCasesEventDispatcherTest {
+
+    private final TestCasesEventDispatcher dispatcher = new TestCasesEventDispatcher();
+
+    @Test
+    public void testExecutionFinishedEventIsRouted() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        TriggerTestCaseEventListener otherListener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        dispatcher.register(2L, otherListener);
+
+        dispatcher.onEvent(createExecutionFinishedEvent(1L));
+
+        Assert.assertTrue(listener.isFlowFinished());
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, listener.getResult());
+        Assert.assertFalse(otherListener.isFlowFinished());
+    }
+
+    @Test
+    public void testFailureEventIsRoutedByExecutionIdContext() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        TriggerTestCaseEventListener otherListener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        dispatcher.register(2L, otherListener);
+
+        HashMap<String, Serializable> data = createErrorData();
+        data.put(EventConstants.EXECUTION_ID_CONTEXT, 1L);
+        dispatcher.onEvent(new ScoreEvent(EventConstants.SCORE_FAILURE_EVENT, data));
+
+        Assert.assertTrue(listener.isFlowFinished());
+        Assert.assertTrue(listener.getErrorMessage().contains("failure"));
+        Assert.assertFalse(otherListener.isFlowFinished());
+    }
+
+    @Test
+    public void testErrorEventIsRoutedBySystemContext() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        TriggerTestCaseEventListener otherListener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        dispatcher.register(2L, otherListener);
+
+        SystemContext systemContext = new SystemContext();
+        systemContext.setExecutionId(2L);
+        HashMap<String, Serializable> data = createErrorData();
+        data.put(ExecutionParametersConsts.SYSTEM_CONTEXT, systemContext);
+        dispatcher.onEvent(new ScoreEvent(EventConstants.SCORE_ERROR_EVENT, data));
+
+        Assert.assertFalse(listener.isFlowFinished());
+        Assert.assertTrue(otherListener.isFlowFinished());
+    }
+
+    @Test
+    public void testErrorEventIsRoutedBySystemContextMap() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        TriggerTestCaseEventListener otherListener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        dispatcher.register(2L, otherListener);
+
+        // the worker sends a copy of the system context map
+        HashMap<String, Serializable> systemContext = new HashMap<>();
+        systemContext.put(EventConstants.EXECUTION_ID_CONTEXT, 2L);
+        HashMap<String, Serializable> data = createErrorData();
+        data.put(ExecutionParametersConsts.SYSTEM_CONTEXT, systemContext);
+        dispatcher.onEvent(new ScoreEvent(EventConstants.SCORE_ERROR_EVENT, data));
+
+        Assert.assertFalse(listener.isFlowFinished());
+        Assert.assertTrue(otherListener.isFlowFinished());
+    }
+
+    @Test
+    public void testErrorEventWithoutExecutionIdIsNotGivenToOtherExecutions() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        // an execution whose listener is not registered yet
+        dispatcher.onEvent(new ScoreEvent(ScoreLangConstants.EVENT_INPUT_END, createLanguageEventData(2L)));
+
+        dispatcher.onEvent(new ScoreEvent(EventConstants.SCORE_ERROR_EVENT, createErrorData()));
+
+        Assert.assertFalse(listener.isFlowFinished());
+        TriggerTestCaseEventListener lateListener = new TriggerTestCaseEventListener();
+        dispatcher.register(2L, lateListener);
+        Assert.assertFalse(lateListener.isFlowFinished());
+    }
+
+    @Test
+    public void testErrorEventWithoutExecutionIdFailsTheOnlyExecution() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+
+        dispatcher.onEvent(new ScoreEvent(EventConstants.SCORE_ERROR_EVENT, createErrorData()));
+
+        Assert.assertTrue(listener.isFlowFinished());
+        Assert.assertTrue(listener.getErrorMessage().contains("failure"));
+    }
+
+    @Test
+    public void testEventsBeforeRegistrationAreReplayed() throws Exception {
+        dispatcher.onEvent(createExecutionFinishedEvent(1L));
+
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+
+        Assert.assertTrue(listener.isFlowFinished());
+    }
+
+    @Test
+    public void testEventsAfterUnregistrationAreDropped() throws Exception {
+        TriggerTestCaseEventListener listener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, listener);
+        dispatcher.unregister(1L);
+
+        dispatcher.onEvent(createExecutionFinishedEvent(1L));
+
+        // registering the same id again gets no leftovers of the timed out execution
+        TriggerTestCaseEventListener newListener = new TriggerTestCaseEventListener();
+        dispatcher.register(1L, newListener);
+        Assert.assertFalse(newListener.isFlowFinished());
+    }
+
+    private ScoreEvent createExecutionFinishedEvent(Long executionId) {
+        LanguageEventData data = createLanguageEventData(executionId);
+        data.setResult(ScoreLangConstants.SUCCESS_RESULT);
+        return new ScoreEvent(ScoreLangConstants.EVENT_EXECUTION_FINISHED, data);
+    }
+
+    private LanguageEventData createLanguageEventData(Long executionId) {
+        LanguageEventData data = new LanguageEventData();
+        data.setExecutionId(executionId);
+        return data;
+    }
+
+    private HashMap<String, Serializable> createErrorData() {
+        HashMap<String, Serializable> data = new HashMap<>();
+        data.put(EventConstants.SCORE_ERROR_MSG, "failure");
+        data.put(EventConstants.SCORE_ERROR_LOG_MSG, "log");
+        return data;
+    }
+}
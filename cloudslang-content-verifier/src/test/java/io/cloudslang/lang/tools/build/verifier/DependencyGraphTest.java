@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.cloudslang.lang.tools.build.verifier;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DependencyGraphTest {
+
+    private static final String NAMESPACE = "graph";
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Map<String, Executable> slangModels = new HashMap<>();
+
+    @Test
+    public void testDiamondDependencies() {
+        Executable top = addModel("top", "left", "right");
+        Executable left = addModel("left", "bottom");
+        Executable right = addModel("right", "bottom");
+        Executable bottom = addModel("bottom");
+
+        DependencyGraph dependencyGraph = new DependencyGraph(slangModels);
+
+        Assert.assertEquals(asSet(left, right, bottom), dependencyGraph.getDependenciesRecursively(top.getId()));
+        Assert.assertEquals(asSet(bottom), dependencyGraph.getDependenciesRecursively(left.getId()));
+        Assert.assertEquals(asSet(bottom), dependencyGraph.getDependenciesRecursively(right.getId()));
+        Assert.assertEquals(Collections.<Executable>emptySet(), dependencyGraph.getDependenciesRecursively(bottom.getId()));
+        Assert.assertTrue(dependencyGraph.getCycles().isEmpty());
+    }
+
+    @Test
+    public void testModelsAreSortedAfterTheirDependencies() {
+        addModel("a", "b", "c");
+        addModel("b", "d");
+        addModel("c", "d");
+        addModel("d");
+        addModel("e", "a");
+
+        List<Executable> sortedModels = new DependencyGraph(slangModels).getSortedModels();
+
+        Assert.assertEquals(slangModels.size(), sortedModels.size());
+        for (int index = 0; index < sortedModels.size(); index++) {
+            for (String dependency : sortedModels.get(index).getExecutableDependencies()) {
+                Assert.assertTrue(dependency + " is not before " + sortedModels.get(index).getId(),
+                        sortedModels.subList(0, index).contains(slangModels.get(dependency)));
+            }
+        }
+    }
+
+    @Test
+    public void testCircularDependencies() {
+        Executable parent = addModel("parent", "child", "op");
+        Executable child = addModel("child", "parent");
+        Executable op = addModel("op");
+        Executable caller = addModel("caller", "parent");
+
+        DependencyGraph dependencyGraph = new DependencyGraph(slangModels);
+
+        Assert.assertEquals(asSet(parent, child, op), dependencyGraph.getDependenciesRecursively(parent.getId()));
+        Assert.assertEquals(asSet(parent, child, op), dependencyGraph.getDependenciesRecursively(child.getId()));
+        Assert.assertEquals(asSet(parent, child, op), dependencyGraph.getDependenciesRecursively(caller.getId()));
+        Assert.assertEquals(Collections.<Set<String>>singletonList(new HashSet<>(Arrays.asList(parent.getId(), child.getId()))),
+                dependencyGraph.getCycles());
+        Assert.assertEquals(caller, dependencyGraph.getSortedModels().get(3));
+    }
+
+    @Test
+    public void testSelfDependency() {
+        Executable recursive = addModel("recursive", "recursive");
+
+        DependencyGraph dependencyGraph = new DependencyGraph(slangModels);
+
+        Assert.assertEquals(asSet(recursive), dependencyGraph.getDependenciesRecursively(recursive.getId()));
+        Assert.assertEquals(1, dependencyGraph.getCycles().size());
+    }
+
+    @Test
+    public void testMissingDependency() {
+        addModel("flow", "missing");
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Missing dependency: " + NAMESPACE + ".missing");
+        new DependencyGraph(slangModels);
+    }
+
+    private Executable addModel(String name, String... dependencies) {
+        Set<String> executableDependencies = new HashSet<>();
+        for (String dependency : dependencies) {
+            executableDependencies.add(NAMESPACE + "." + dependency);
+        }
+        Executable executable = new Flow(null, null, null, NAMESPACE, name, null, null, null,
+                executableDependencies, new HashSet<String>());
+        slangModels.put(executable.getId(), executable);
+        return executable;
+    }
+
+    private Set<Executable> asSet(Executable... executables) {
+        return new HashSet<>(Arrays.asList(executables));
+    }
+
+}
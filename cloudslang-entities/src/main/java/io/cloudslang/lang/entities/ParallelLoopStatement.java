@@ -23,13 +23,24 @@ import java.io.Serializable;
  */
 public class ParallelLoopStatement extends LoopStatement implements Serializable {
 
+    private static final long serialVersionUID = -3244145075869833870L;
+
     private final String varName;
 
+    // maximal number of branches running at the same time, null if not limited
+    private final Integer maxParallelism;
+
     public ParallelLoopStatement(String varName, String expression) {
+        this(varName, expression, null);
+    }
+
+    public ParallelLoopStatement(String varName, String expression, Integer maxParallelism) {
         super(expression);
 
         Validate.notBlank(varName, "parallel loop var name cannot be empty");
+        Validate.isTrue(maxParallelism == null || maxParallelism > 0, "parallel loop max parallelism must be a positive number");
         this.varName = varName;
+        this.maxParallelism = maxParallelism;
     }
 
     /**
@@ -38,17 +49,23 @@ public class ParallelLoopStatement extends LoopStatement implements Serializable
     @SuppressWarnings("unused")
     private ParallelLoopStatement() {
         varName = null;
+        maxParallelism = null;
     }
 
     public String getVarName() {
         return varName;
     }
 
+    public Integer getMaxParallelism() {
+        return maxParallelism;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
                 .appendSuper(super.toString())
                 .append("varName", varName)
+                .append("maxParallelism", maxParallelism)
                 .toString();
     }
 
@@ -63,6 +80,7 @@ public class ParallelLoopStatement extends LoopStatement implements Serializable
         return new EqualsBuilder()
                 .appendSuper(super.equals(o))
                 .append(varName, that.varName)
+                .append(maxParallelism, that.maxParallelism)
                 .isEquals();
     }
 
@@ -71,6 +89,7 @@ public class ParallelLoopStatement extends LoopStatement implements Serializable
         return new HashCodeBuilder(17, 37)
                 .appendSuper(super.hashCode())
                 .append(varName)
+                .append(maxParallelism)
                 .toHashCode();
     }
 
@@ -51,6 +51,7 @@ public interface ScoreLangConstants {
     //step scope
     String STEP_INPUTS_KEY = "stepInputs";
     String STEP_PUBLISH_KEY = "stepPublishValues";
+    String STEP_ACCUMULATE_KEY = "stepAccumulateValues";
     String STEP_NAVIGATION_KEY = "stepNavigationValues";
     String REF_ID = "refId";
     String LOOP_KEY = "loop";
@@ -61,6 +62,7 @@ public interface ScoreLangConstants {
     String PARALLEL_LOOP_KEY = "parallelLoop";
     String PARALLEL_LOOP_STATEMENT_KEY = "parallelLoopStatement";
     String BRANCH_BEGIN_STEP_ID_KEY = "branchBeginStep";
+    String ADD_BRANCHES_STEP_ID_KEY = "addBranchesStep";
     String BRANCH_RESULT_KEY = "branch_result";
 
     // Events types
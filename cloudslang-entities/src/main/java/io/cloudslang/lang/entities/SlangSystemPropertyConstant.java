@@ -6,7 +6,10 @@ package io.cloudslang.lang.entities;
  */
 public enum SlangSystemPropertyConstant {
     CSLANG_ENCODING("cslang.encoding"),
-    LOG4J_CONFIGURATION("log4j.configuration");
+    LOG4J_CONFIGURATION("log4j.configuration"),
+    CSLANG_EXPRESSION_CACHE_SIZE("cslang.expression.cache.size"),
+    CSLANG_EXPRESSION_JAVA_EVALUATION("cslang.expression.java.evaluation"),
+    CSLANG_COMPILATION_CACHE_DIR("cslang.compilation.cache.dir");
 
     private final String value;
 
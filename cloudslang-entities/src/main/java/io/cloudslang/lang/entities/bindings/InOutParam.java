@@ -9,6 +9,7 @@
 package io.cloudslang.lang.entities.bindings;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -31,6 +32,7 @@ public abstract class InOutParam implements Serializable {
 	private Value value;
 	private Set<ScriptFunction> functionDependencies;
 	private Set<String> systemPropertyDependencies;
+	private ClassifiedExpression expression;
 
 	public InOutParam(
 			String name,
@@ -41,6 +43,7 @@ public abstract class InOutParam implements Serializable {
 		this.value = value;
 		this.functionDependencies = functionDependencies;
 		this.systemPropertyDependencies = systemPropertyDependencies;
+		this.expression = classify(value);
 	}
 
 	public InOutParam(String name, Value value) {
@@ -65,6 +68,18 @@ public abstract class InOutParam implements Serializable {
 		return value != null && value.isSensitive();
 	}
 
+	/**
+	 * @return the classification of the value, done when the param is created
+	 */
+	@JsonIgnore
+	public ClassifiedExpression getExpression() {
+		if (expression == null) {
+			// deserialized by a library that does not restore it
+			expression = classify(value);
+		}
+		return expression;
+	}
+
 	public Set<ScriptFunction> getFunctionDependencies() {
 		return functionDependencies;
 	}
@@ -73,6 +88,10 @@ public abstract class InOutParam implements Serializable {
 		return systemPropertyDependencies;
 	}
 
+	private static ClassifiedExpression classify(Value value) {
+		return ClassifiedExpression.classify(value == null ? null : value.get());
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringBuilder(this)
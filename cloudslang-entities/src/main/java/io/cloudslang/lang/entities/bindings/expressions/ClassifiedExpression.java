@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.expressions;
+
+import io.cloudslang.lang.entities.utils.ExpressionUtils;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The value of an input, argument, output or result, classified when the model is compiled so the runtime
+ * can resolve the trivial expressions without the script evaluator.
+ *
+ * Only expressions whose Python result is known exactly are classified as trivial:
+ * a variable name, or get() of a variable name with a string, integer, boolean or None default.
+ *
+ * The Jython code of the expression is compiled once and kept with the model. It is not serialized,
+ * a deserialized model compiles it again on first use.
+ */
+public final class ClassifiedExpression implements Serializable {
+
+    private static final long serialVersionUID = 4079362143510371645L;
+
+    private static final ClassifiedExpression LITERAL = new ClassifiedExpression(ExpressionType.LITERAL, null, null, null);
+
+    private static final String IDENTIFIER_REGEX = "[A-Za-z_][A-Za-z0-9_]*";
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile(IDENTIFIER_REGEX);
+    // get('key') or get('key', default)
+    private static final Pattern GET_WITH_DEFAULT_PATTERN =
+            Pattern.compile("get\\(\\s*(['\"])(" + IDENTIFIER_REGEX + ")\\1\\s*(?:,\\s*(.+?)\\s*)?\\)");
+    // printable ascii without quotes and escapes, so the Python string is the same as the Java string
+    private static final Pattern SINGLE_QUOTED_STRING_PATTERN = Pattern.compile("'([\\x20-\\x7E&&[^'\\\\]]*)'");
+    private static final Pattern DOUBLE_QUOTED_STRING_PATTERN = Pattern.compile("\"([\\x20-\\x7E&&[^\"\\\\]]*)\"");
+    // fits a Python int, which is converted to a Java Integer
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("-?(?:0|[1-9][0-9]{0,8})");
+
+    private static final String SCRIPT_FILE_NAME = "<string>";
+
+    private static final String NONE = "None";
+    private static final String TRUE = "True";
+    private static final String FALSE = "False";
+
+    // keywords, constants and the names the script evaluator defines itself
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList(
+            "and", "as", "assert", "break", "class", "continue", "def", "del", "elif", "else", "except", "exec",
+            "finally", "for", "from", "global", "if", "import", "in", "is", "lambda", "not", "or", "pass", "print",
+            "raise", "return", "try", "while", "with", "yield", NONE, TRUE, FALSE,
+            "true", "false", "get", "get_sp", "check_empty", "sys_prop"));
+
+    private final ExpressionType type;
+    private final String expression;
+    private final String variableName;
+    private final Serializable defaultValue;
+    private transient volatile PyCode code;
+
+    private ClassifiedExpression(ExpressionType type, String expression, String variableName, Serializable defaultValue) {
+        this.type = type;
+        this.expression = expression;
+        this.variableName = variableName;
+        this.defaultValue = defaultValue;
+    }
+
+    public static ClassifiedExpression classify(Serializable rawValue) {
+        String expression = ExpressionUtils.extractExpression(rawValue);
+        if (expression == null) {
+            return LITERAL;
+        }
+        if (IDENTIFIER_PATTERN.matcher(expression).matches() && isVariableName(expression)) {
+            return new ClassifiedExpression(ExpressionType.VARIABLE_REFERENCE, expression, expression, null);
+        }
+        Matcher getMatcher = GET_WITH_DEFAULT_PATTERN.matcher(expression);
+        if (getMatcher.matches() && isVariableName(getMatcher.group(2))) {
+            String rawDefault = getMatcher.group(3);
+            if (rawDefault == null) {
+                return new ClassifiedExpression(ExpressionType.GET_WITH_DEFAULT, expression, getMatcher.group(2), null);
+            }
+            Literal literal = parseLiteral(rawDefault);
+            if (literal != null) {
+                return new ClassifiedExpression(ExpressionType.GET_WITH_DEFAULT, expression, getMatcher.group(2), literal.value);
+            }
+        }
+        return new ClassifiedExpression(ExpressionType.GENERAL, expression, null, null);
+    }
+
+    private static boolean isVariableName(String name) {
+        return !RESERVED_NAMES.contains(name) && !(name.startsWith("__") && name.endsWith("__"));
+    }
+
+    private static Literal parseLiteral(String text) {
+        Matcher stringMatcher = SINGLE_QUOTED_STRING_PATTERN.matcher(text);
+        if (stringMatcher.matches()) {
+            return new Literal(stringMatcher.group(1));
+        }
+        stringMatcher = DOUBLE_QUOTED_STRING_PATTERN.matcher(text);
+        if (stringMatcher.matches()) {
+            return new Literal(stringMatcher.group(1));
+        }
+        if (INTEGER_PATTERN.matcher(text).matches()) {
+            return new Literal(Integer.valueOf(text));
+        }
+        switch (text) {
+            case NONE:
+                return new Literal(null);
+            case TRUE:
+                return new Literal(Boolean.TRUE);
+            case FALSE:
+                return new Literal(Boolean.FALSE);
+            default:
+                return null;
+        }
+    }
+
+    public ExpressionType getType() {
+        return type;
+    }
+
+    /**
+     * @return true if the value is an expression, of any type
+     */
+    public boolean isExpression() {
+        return type != ExpressionType.LITERAL;
+    }
+
+    /**
+     * @return the expression without its delimiters, null for a literal
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the Jython code of the expression, null for a literal
+     * @throws org.python.core.PyException if the expression is not valid Python
+     */
+    public PyCode getCode() {
+        if (expression != null && code == null) {
+            code = Py.compile_flags(expression, SCRIPT_FILE_NAME, CompileMode.eval, new CompilerFlags());
+        }
+        return code;
+    }
+
+    /**
+     * @return the referenced variable of a variable reference or a get() expression
+     */
+    public String getVariableName() {
+        return variableName;
+    }
+
+    /**
+     * @return the default value of a get() expression
+     */
+    public Serializable getDefaultValue() {
+        return defaultValue;
+    }
+
+    private static class Literal {
+
+        private final Serializable value;
+
+        private Literal(Serializable value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.expressions;
+
+/**
+ * The kind of the value of an input, argument, output or result, decided when the model is compiled
+ */
+public enum ExpressionType {
+    /**
+     * not an expression, the value is used as is
+     */
+    LITERAL,
+    /**
+     * ${variable}
+     */
+    VARIABLE_REFERENCE,
+    /**
+     * ${get('variable', default_literal)}
+     */
+    GET_WITH_DEFAULT,
+    /**
+     * any other expression, evaluated by the script evaluator
+     */
+    GENERAL
+}
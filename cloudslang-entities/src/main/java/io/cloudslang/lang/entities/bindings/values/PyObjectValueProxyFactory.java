@@ -22,6 +22,9 @@ import org.python.core.PyObject;
 import org.python.core.PyType;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -45,6 +48,11 @@ public class PyObjectValueProxyFactory {
 
     private static ConcurrentMap<String, PyObjectValueProxyClass> proxyClasses = new ConcurrentHashMap<>();
 
+    // PyObject methods of the proxies, as (target, arguments array) -> result handles
+    private static ConcurrentMap<Method, MethodHandle> pyObjectMethodHandles = new ConcurrentHashMap<>();
+
+    private static final MethodType SPREAD_INVOCATION_TYPE = MethodType.genericMethodType(1, true);
+
     public static PyObjectValue create(Serializable content, boolean sensitive) {
         PyObject pyObject = Py.java2py(content);
         try {
@@ -115,9 +123,28 @@ public class PyObjectValueProxyFactory {
         }
     }
 
+    private static MethodHandle getPyObjectMethodHandle(Method method) throws IllegalAccessException {
+        MethodHandle methodHandle = pyObjectMethodHandles.get(method);
+        if (methodHandle == null) {
+            methodHandle = MethodHandles.publicLookup().unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterTypes().length)
+                    .asType(SPREAD_INVOCATION_TYPE);
+            pyObjectMethodHandles.putIfAbsent(method, methodHandle);
+        }
+        return methodHandle;
+    }
+
+    /**
+     * Value methods are called directly on the wrapped value and PyObject methods through a cached method handle
+     * on the wrapped PyObject, so a call does not look up the target method.
+     * The proxy classes extend PyObject classes, so equals, hashCode and toString are PyObject methods.
+     */
     private static class PyObjectValueMethodHandler implements MethodHandler, Serializable {
 
         private static final String ACCESSED_GETTER_METHOD = "isAccessed";
+        private static final String GET_METHOD = "get";
+        private static final String IS_SENSITIVE_METHOD = "isSensitive";
+        private static final String TO_STRING_METHOD = "toString";
 
         protected Value value;
         protected PyObject pyObject;
@@ -131,22 +158,32 @@ public class PyObjectValueProxyFactory {
 
         @Override
         public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
-            if (thisMethod.getName().equals(ACCESSED_GETTER_METHOD)) {
+            String methodName = thisMethod.getName();
+            if (methodName.equals(ACCESSED_GETTER_METHOD)) {
                 return accessed;
             } else if (Value.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
-                Method valueMethod = value.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-                return valueMethod.invoke(value, args);
+                return invokeValueMethod(methodName, args);
             } else if (PyObject.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
-                Method pyObjectMethod = pyObject.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-                if (!thisMethod.getName().equals("toString")) {
+                if (!methodName.equals(TO_STRING_METHOD)) {
                     accessed = true;
                 }
-                return pyObjectMethod.invoke(pyObject, getPyObjectArgs(args));
+                return getPyObjectMethodHandle(thisMethod).invoke(pyObject, getPyObjectArgs(args));
             } else {
                 throw new RuntimeException("Failed to invoke PyObjectValue method. Implementing class not found");
             }
         }
 
+        private Object invokeValueMethod(String methodName, Object[] args) {
+            switch (methodName) {
+                case GET_METHOD:
+                    return value.get();
+                case IS_SENSITIVE_METHOD:
+                    return value.isSensitive();
+                default:
+                    throw new RuntimeException("Failed to invoke PyObjectValue method. Unknown Value method: " + methodName);
+            }
+        }
+
         private Object[] getPyObjectArgs(Object[] args) {
             Object[] pyObjectArgs = new Object[args.length];
             for (int index = 0; index < args.length; index++) {
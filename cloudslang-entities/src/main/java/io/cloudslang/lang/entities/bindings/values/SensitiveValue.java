@@ -27,14 +27,25 @@ import java.io.Serializable;
 /**
  * Sensitive InOutParam value
  *
+ * Only the encrypted content is serialized. The clear content is kept in transient fields once it is
+ * known, so it is decrypted at most once per instance and not on every call to get().
+ * Immutable content (strings and boxed primitives) is kept as is. Any other content is kept in its
+ * serialized form, so every call to get() returns a fresh copy and callers cannot change the cached value.
+ *
  * Created by Ifat Gavish on 19/04/2016
  */
 public class SensitiveValue implements Value {
 
+    private static final long serialVersionUID = 404570850169262643L;
+
     public static final String SENSITIVE_VALUE_MASK = "********";
 
     private String content;
 
+    private transient Serializable decryptedContent;
+    private transient byte[] decryptedBytes;
+    private transient boolean decrypted;
+
     @SuppressWarnings("unused")
     protected SensitiveValue() {
     }
@@ -43,6 +54,17 @@ public class SensitiveValue implements Value {
         byte[] serialized = serialize(content);
         String encoded = Base64.encode(serialized);
         this.content = EncryptionProvider.get().encrypt(encoded.toCharArray());
+        setDecryptedContent(content, serialized);
+    }
+
+    /**
+     * Copies the encrypted content, and the clear content if it was already decrypted, of another sensitive value
+     */
+    protected SensitiveValue(SensitiveValue sensitiveValue) {
+        this.content = sensitiveValue.content;
+        this.decryptedContent = sensitiveValue.decryptedContent;
+        this.decryptedBytes = sensitiveValue.decryptedBytes;
+        this.decrypted = sensitiveValue.decrypted;
     }
 
     public String getContent() {
@@ -51,13 +73,21 @@ public class SensitiveValue implements Value {
 
     protected void setContent(String content) {
         this.content = content;
+        this.decryptedContent = null;
+        this.decryptedBytes = null;
+        this.decrypted = false;
     }
 
     @Override
     public Serializable get() {
-        char[] decrypted = EncryptionProvider.get().decrypt(content);
-        byte[] decoded = Base64.decode(new String(decrypted));
-        return deserialize(decoded);
+        if (!decrypted) {
+            char[] decryptedChars = EncryptionProvider.get().decrypt(content);
+            byte[] decoded = Base64.decode(new String(decryptedChars));
+            Serializable deserialized = deserialize(decoded);
+            setDecryptedContent(deserialized, decoded);
+            return deserialized;
+        }
+        return decryptedBytes == null ? decryptedContent : deserialize(decryptedBytes);
     }
 
     @JsonIgnore
@@ -84,6 +114,17 @@ public class SensitiveValue implements Value {
         return SENSITIVE_VALUE_MASK;
     }
 
+    private void setDecryptedContent(Serializable decryptedContent, byte[] serialized) {
+        if (ValueFactory.isImmutableContent(decryptedContent)) {
+            this.decryptedContent = decryptedContent;
+            this.decryptedBytes = null;
+        } else {
+            this.decryptedContent = null;
+            this.decryptedBytes = serialized;
+        }
+        this.decrypted = true;
+    }
+
     private byte[] serialize(Serializable data) {
         ObjectOutputStream oos = null;
         try {
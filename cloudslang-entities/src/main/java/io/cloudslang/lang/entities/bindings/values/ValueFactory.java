@@ -20,11 +20,17 @@ import java.io.Serializable;
  */
 public abstract class ValueFactory implements Serializable {
 
+    private static final long serialVersionUID = -1296149008731257889L;
+
     public static Value create(Serializable content) {
         return create(content, false);
     }
 
     public static Value create(Serializable serializable, boolean sensitive) {
+        if (serializable instanceof SensitiveValue) {
+            // reuse the encrypted content instead of decrypting and encrypting it again
+            return new SensitiveValue((SensitiveValue) serializable);
+        }
         return serializable != null && serializable instanceof Value ?
                 ValueFactory.createValue(((Value)serializable).get(), ((Value)serializable).isSensitive() || sensitive) :
                 ValueFactory.createValue(serializable, sensitive);
@@ -38,6 +44,16 @@ public abstract class ValueFactory implements Serializable {
         return createPyObjectValue(value == null ? null : value.get(), value != null && value.isSensitive());
     }
 
+    /**
+     * @return true if the content can not be changed: null, strings and boxed primitives
+     */
+    public static boolean isImmutableContent(Serializable content) {
+        return content == null || content instanceof String || content instanceof Boolean ||
+                content instanceof Character || content instanceof Byte || content instanceof Short ||
+                content instanceof Integer || content instanceof Long || content instanceof Float ||
+                content instanceof Double;
+    }
+
     private static Value createValue(Serializable content, boolean sensitive) {
         return sensitive ? new SensitiveValue(content) : new SimpleValue(content);
     }
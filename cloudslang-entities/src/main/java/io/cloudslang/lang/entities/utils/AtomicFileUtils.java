@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files aside and moves them into place, so concurrent readers and interrupted processes
+ * never see a partial file
+ */
+public final class AtomicFileUtils {
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private AtomicFileUtils() {
+    }
+
+    /**
+     * Serializes the object to the file, creating its directory if needed
+     *
+     * @throws IOException            if the file cannot be written, the file is then left as it was
+     * @throws SerializationException if the object cannot be serialized, the file is then left as it was
+     */
+    public static void serialize(Serializable object, File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        File temporaryFile = File.createTempFile(file.getName(), TEMPORARY_SUFFIX, directory);
+        boolean moved = false;
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temporaryFile))) {
+                SerializationUtils.serialize(object, outputStream);
+            }
+            moveIntoPlace(temporaryFile, file);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporaryFile.toPath());
+            }
+        }
+    }
+
+    private static void moveIntoPlace(File temporaryFile, File file) throws IOException {
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.expressions;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.python.core.PyCode;
+import org.python.core.PyException;
+
+import static io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression.classify;
+
+public class ClassifiedExpressionTest {
+
+    @Test
+    public void testLiteral() throws Exception {
+        Assert.assertEquals(ExpressionType.LITERAL, classify("abc").getType());
+        Assert.assertEquals(ExpressionType.LITERAL, classify(5).getType());
+        Assert.assertEquals(ExpressionType.LITERAL, classify(null).getType());
+        Assert.assertFalse(classify("abc").isExpression());
+    }
+
+    @Test
+    public void testVariableReference() throws Exception {
+        ClassifiedExpression expression = classify(" ${ host_name } ");
+        Assert.assertEquals(ExpressionType.VARIABLE_REFERENCE, expression.getType());
+        Assert.assertEquals("host_name", expression.getVariableName());
+        Assert.assertEquals("host_name", expression.getExpression());
+    }
+
+    @Test
+    public void testReservedNamesAreGeneral() throws Exception {
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${None}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${true}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${__name__}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('sys_prop', 'a')}").getType());
+    }
+
+    @Test
+    public void testGetWithDefault() throws Exception {
+        ClassifiedExpression expression = classify("${get('port', '8080')}");
+        Assert.assertEquals(ExpressionType.GET_WITH_DEFAULT, expression.getType());
+        Assert.assertEquals("port", expression.getVariableName());
+        Assert.assertEquals("8080", expression.getDefaultValue());
+
+        Assert.assertEquals(8080, classify("${get(\"port\", 8080)}").getDefaultValue());
+        Assert.assertEquals(Boolean.FALSE, classify("${get('flag', False)}").getDefaultValue());
+        Assert.assertNull(classify("${get('port', None)}").getDefaultValue());
+        Assert.assertEquals(ExpressionType.GET_WITH_DEFAULT, classify("${get('port')}").getType());
+        Assert.assertEquals("a, b)", classify("${get('port', 'a, b)')}").getDefaultValue());
+    }
+
+    @Test
+    public void testGetWithNonLiteralDefaultIsGeneral() throws Exception {
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('port', other_port)}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('port', 'a\\\\n')}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('port', 12345678901)}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('port', 1.5)}").getType());
+        Assert.assertEquals(ExpressionType.GENERAL, classify("${get('port', 'a') + 'b'}").getType());
+    }
+
+    @Test
+    public void testGeneral() throws Exception {
+        ClassifiedExpression expression = classify("${ a + 'b' }");
+        Assert.assertEquals(ExpressionType.GENERAL, expression.getType());
+        Assert.assertEquals("a + 'b'", expression.getExpression());
+        Assert.assertNull(expression.getVariableName());
+    }
+
+    @Test
+    public void testCodeIsCompiledOnce() throws Exception {
+        ClassifiedExpression expression = classify("${ a + 'b' }");
+        PyCode code = expression.getCode();
+        Assert.assertNotNull(code);
+        Assert.assertSame(code, expression.getCode());
+        Assert.assertNull(classify("abc").getCode());
+    }
+
+    @Test
+    public void testCodeIsCompiledAgainAfterDeserialization() throws Exception {
+        ClassifiedExpression expression = classify("${ a + 'b' }");
+        expression.getCode();
+
+        ClassifiedExpression deserialized = SerializationUtils.clone(expression);
+
+        Assert.assertNotNull(deserialized.getCode());
+        Assert.assertNotSame(expression.getCode(), deserialized.getCode());
+    }
+
+    @Test(expected = PyException.class)
+    public void testInvalidPythonIsNotCompiled() throws Exception {
+        classify("${ x + }").getCode();
+    }
+}
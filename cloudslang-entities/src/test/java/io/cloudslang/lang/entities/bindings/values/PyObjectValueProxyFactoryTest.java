@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.python.core.Py;
+import org.python.core.PyException;
+import org.python.core.PyObject;
+import org.python.core.PySystemState;
+
+public class PyObjectValueProxyFactoryTest {
+
+    @BeforeClass
+    public static void initPython() {
+        PySystemState.initialize();
+    }
+
+    @Test
+    public void testValueMethods() {
+        PyObjectValue pyObjectValue = PyObjectValueProxyFactory.create("value", false);
+
+        Assert.assertEquals("value", pyObjectValue.get());
+        Assert.assertFalse(pyObjectValue.isSensitive());
+        Assert.assertFalse(pyObjectValue.isAccessed());
+    }
+
+    @Test
+    public void testPyObjectMethods() {
+        PyObjectValue pyObjectValue = PyObjectValueProxyFactory.create("value", false);
+        PyObject pyObject = (PyObject) pyObjectValue;
+
+        Assert.assertEquals(5, pyObject.__len__());
+        Assert.assertEquals(Py.newString("value_suffix"), pyObject.__add__(Py.newString("_suffix")));
+        Assert.assertTrue(pyObjectValue.isAccessed());
+    }
+
+    @Test
+    public void testToStringDoesNotAccessValue() {
+        PyObjectValue pyObjectValue = PyObjectValueProxyFactory.create(1, false);
+
+        Assert.assertEquals("1", pyObjectValue.toString());
+        Assert.assertFalse(pyObjectValue.isAccessed());
+    }
+
+    @Test
+    public void testObjectMethodsAreCalledOnPyObject() {
+        PyObjectValue pyObjectValue = PyObjectValueProxyFactory.create("value", false);
+
+        Assert.assertEquals(Py.newString("value").hashCode(), pyObjectValue.hashCode());
+        Assert.assertTrue(pyObjectValue.equals(Py.newString("value")));
+        Assert.assertTrue(pyObjectValue.isAccessed());
+    }
+
+    @Test
+    public void testProxyArgumentIsAccessed() {
+        PyObjectValue left = PyObjectValueProxyFactory.create(1, false);
+        PyObjectValue right = PyObjectValueProxyFactory.create(2, false);
+
+        PyObject result = ((PyObject) left)._add((PyObject) right);
+
+        Assert.assertEquals(Py.newInteger(3), result);
+        Assert.assertTrue(left.isAccessed());
+        Assert.assertTrue(right.isAccessed());
+    }
+
+    @Test
+    public void testPythonExceptionIsNotWrapped() {
+        PyObject pyObject = (PyObject) PyObjectValueProxyFactory.create("", false);
+
+        try {
+            pyObject.__getitem__(Py.newInteger(0));
+            Assert.fail("index error expected");
+        } catch (PyException e) {
+            Assert.assertTrue(e.match(Py.IndexError));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import io.cloudslang.lang.entities.encryption.Encryption;
+import io.cloudslang.lang.entities.encryption.EncryptionProvider;
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class SensitiveValueTest {
+
+    private CountingEncryption encryption;
+
+    @Before
+    public void setUp() throws Exception {
+        encryption = new CountingEncryption();
+        setEncryptor(encryption);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        setEncryptor(null);
+    }
+
+    @Test
+    public void testGetDoesNotDecrypt() {
+        Value value = ValueFactory.create("password", true);
+
+        assertEquals("password", value.get());
+        assertEquals("password", value.get());
+        assertEquals(1, encryption.encryptions);
+        assertEquals(0, encryption.decryptions);
+    }
+
+    @Test
+    public void testDeserializedValueIsDecryptedOnce() {
+        Value value = ValueFactory.create("password", true);
+
+        Value deserialized = (Value) SerializationUtils.clone(value);
+
+        assertEquals(value, deserialized);
+        assertEquals("password", deserialized.get());
+        assertEquals("password", deserialized.get());
+        assertEquals(1, encryption.decryptions);
+    }
+
+    @Test
+    public void testRewrappedValueReusesEncryptedContent() {
+        SensitiveValue value = (SensitiveValue) ValueFactory.create("password", true);
+
+        SensitiveValue rewrapped = (SensitiveValue) ValueFactory.create(value, false);
+        SensitiveValue rewrappedAgain = (SensitiveValue) ValueFactory.create(rewrapped);
+
+        assertNotSame(value, rewrappedAgain);
+        assertEquals(value.getContent(), rewrappedAgain.getContent());
+        assertEquals("password", rewrappedAgain.get());
+        assertEquals(1, encryption.encryptions);
+        assertEquals(0, encryption.decryptions);
+    }
+
+    @Test
+    public void testSimpleValueBecomesSensitive() {
+        List<String> content = new ArrayList<>();
+        content.add("password");
+
+        Value value = ValueFactory.create(ValueFactory.create((Serializable) content), true);
+
+        assertTrue(value.isSensitive());
+        assertEquals(content, value.get());
+        assertEquals(1, encryption.encryptions);
+    }
+
+    @Test
+    public void testMutableContentIsNotShared() {
+        ArrayList<String> content = new ArrayList<>();
+        content.add("password");
+        Value value = ValueFactory.create(content, true);
+
+        content.add("changed by the caller");
+        @SuppressWarnings("unchecked")
+        List<String> first = (List<String>) value.get();
+        first.add("changed by the first reader");
+        Value copy = ValueFactory.create(value);
+
+        assertEquals(Collections.singletonList("password"), value.get());
+        assertEquals(Collections.singletonList("password"), copy.get());
+        assertNotSame(value.get(), value.get());
+        assertEquals(0, encryption.decryptions);
+    }
+
+    @Test
+    public void testSerialVersionIsKeptForPersistedValues() {
+        assertEquals(404570850169262643L, ObjectStreamClass.lookup(SensitiveValue.class).getSerialVersionUID());
+    }
+
+    private void setEncryptor(Encryption encryptor) throws Exception {
+        Field field = EncryptionProvider.class.getDeclaredField("encryptor");
+        field.setAccessible(true);
+        field.set(null, new AtomicReference<>(encryptor));
+    }
+
+    static class CountingEncryption implements Encryption {
+
+        private int encryptions;
+        private int decryptions;
+
+        @Override
+        public String encrypt(char[] clearText) {
+            encryptions++;
+            return new StringBuilder(new String(clearText)).reverse().toString();
+        }
+
+        @Override
+        public char[] decrypt(String cypherText) {
+            decryptions++;
+            return new StringBuilder(cypherText).reverse().toString().toCharArray();
+        }
+    }
+}
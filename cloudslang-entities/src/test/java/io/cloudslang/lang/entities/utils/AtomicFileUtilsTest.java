@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+
+public class AtomicFileUtilsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSerializeCreatesDirectoryAndReplacesFile() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "state/file.ser");
+
+        AtomicFileUtils.serialize("first", file);
+        AtomicFileUtils.serialize("second", file);
+
+        Assert.assertEquals("second", deserialize(file));
+        Assert.assertArrayEquals(new String[]{"file.ser"}, file.getParentFile().list());
+    }
+
+    @Test
+    public void testFailedSerializationLeavesFileAsItWas() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "file.ser");
+        AtomicFileUtils.serialize("first", file);
+        ArrayList<Object> notSerializable = new ArrayList<>();
+        notSerializable.add(new Object());
+
+        try {
+            AtomicFileUtils.serialize(notSerializable, file);
+            Assert.fail("Serializing an object that is not serializable should fail");
+        } catch (SerializationException e) {
+            Assert.assertEquals("first", deserialize(file));
+            Assert.assertArrayEquals(new String[]{"file.ser"}, temporaryFolder.getRoot().list());
+        }
+    }
+
+    private Serializable deserialize(File file) throws Exception {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return SerializationUtils.deserialize(inputStream);
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ public interface RuntimeConstants {
 
     // parallel loop
     String BRANCHES_CONTEXT_KEY = "branches_context";
+    String BRANCH_CONTEXT_KEY = "branch_context";
     String SPLIT_ITEM_KEY = "splitItem";
     String BRANCH_RETURN_VALUES_KEY = "branchReturnValues";
     
@@ -13,9 +13,10 @@ package io.cloudslang.lang.runtime.bindings;
 
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Argument;
+import io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression;
 import io.cloudslang.lang.entities.bindings.values.Value;
-import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import io.cloudslang.lang.runtime.env.LayeredScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -40,11 +41,8 @@ public class ArgumentsBinding {
             Set<SystemProperty> systemProperties) {
         Map<String, Value> resultContext = new HashMap<>();
 
-        //we do not want to change original context map
-        Map<String, Value> srcContext = new HashMap<>(context);
-
         for (Argument argument : arguments) {
-            bindArgument(argument, srcContext, systemProperties, resultContext);
+            bindArgument(argument, context, systemProperties, resultContext);
         }
 
         return resultContext;
@@ -62,14 +60,19 @@ public class ArgumentsBinding {
             inputValue = srcContext.get(inputName);
             if (argument.isPrivateArgument()) {
                 Value rawValue = argument.getValue();
-                String expressionToEvaluate = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
-                if (expressionToEvaluate != null) {
-                    //we do not want to change original context map
-                    Map<String, Value> scriptContext = new HashMap<>(srcContext);
-                    scriptContext.put(inputName, inputValue);
-                    //so you can resolve previous arguments already bound
-                    scriptContext.putAll(targetContext);
-                    inputValue = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties, argument.getFunctionDependencies());
+                ClassifiedExpression expression = argument.getExpression();
+                if (expression.isExpression()) {
+                    Value trivialValue = scriptEvaluator.resolveTrivialExpr(expression, targetContext, srcContext);
+                    if (trivialValue == null) {
+                        //so you can resolve previous arguments already bound, without changing the original context map
+                        Map<String, Value> scriptContext = new LayeredScope(srcContext, targetContext);
+                        if (!scriptContext.containsKey(inputName)) {
+                            scriptContext.put(inputName, null);
+                        }
+                        inputValue = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties, argument.getFunctionDependencies());
+                    } else {
+                        inputValue = trivialValue;
+                    }
                 } else {
                     inputValue = rawValue;
                 }
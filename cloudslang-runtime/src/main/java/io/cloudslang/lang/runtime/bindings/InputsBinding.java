@@ -12,10 +12,11 @@ package io.cloudslang.lang.runtime.bindings;
 
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import io.cloudslang.lang.runtime.env.LayeredScope;
 import org.apache.commons.lang.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -42,11 +43,8 @@ public class InputsBinding {
                                          Set<SystemProperty> systemProperties) {
         Map<String, Value> resultContext = new HashMap<>();
 
-        //we do not want to change original context map
-        Map<String, Value> srcContext = new HashMap<>(context);
-
         for (Input input : inputs) {
-            bindInput(input, srcContext, resultContext, systemProperties);
+            bindInput(input, context, resultContext, systemProperties);
         }
 
         return resultContext;
@@ -77,9 +75,6 @@ public class InputsBinding {
                                Set<SystemProperty> systemProperties) {
         Value value = null;
 
-        //we do not want to change original context map
-        Map<String, Value> scriptContext = new HashMap<>(context);
-
         String inputName = input.getName();
         Value valueFromContext = context.get(inputName);
         boolean sensitive = input.getValue() != null && input.getValue().isSensitive() || valueFromContext != null && valueFromContext.isSensitive();
@@ -89,14 +84,14 @@ public class InputsBinding {
 
         if (value == null || value.get() == null) {
             Value rawValue = input.getValue();
-            String expressionToEvaluate = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
-            if (expressionToEvaluate != null) {
-                if (context.containsKey(inputName)) {
-                    scriptContext.put(inputName, valueFromContext);
+            ClassifiedExpression expression = input.getExpression();
+            if (expression.isExpression()) {
+                value = scriptEvaluator.resolveTrivialExpr(expression, targetContext, context);
+                if (value == null) {
+                    //so you can resolve previous inputs already bound, without changing the original context map
+                    Map<String, Value> scriptContext = new LayeredScope(context, targetContext);
+                    value = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties, input.getFunctionDependencies());
                 }
-                //so you can resolve previous inputs already bound
-                scriptContext.putAll(targetContext);
-                value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties, input.getFunctionDependencies());
                 value = ValueFactory.create(value, sensitive);
             } else {
                 value = rawValue;
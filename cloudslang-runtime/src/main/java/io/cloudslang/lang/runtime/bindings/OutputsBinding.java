@@ -14,9 +14,8 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.lang.entities.utils.ExpressionUtils;
-import io.cloudslang.lang.entities.utils.MapUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import io.cloudslang.lang.runtime.env.LayeredScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -43,31 +42,32 @@ public class OutputsBinding {
             List<Output> possibleOutputs) {
 
         Map<String, Value> outputs = new LinkedHashMap<>();
-        Map<String, Value> scriptContext = MapUtils.mergeMaps(initialContext, returnContext);
+        Map<String, Value> scriptContext = new LayeredScope(initialContext, returnContext);
 
         if (possibleOutputs != null) {
-            for (Output output : possibleOutputs) {
-                String outputKey = output.getName();
-                Value rawValue = output.getValue();
-                Value valueToAssign = rawValue;
-                String expressionToEvaluate = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
-                if (expressionToEvaluate != null) {
-                    // initialize with null value if key does not exist
-                    scriptContext.put(outputKey, scriptContext.get(outputKey));
+            // the outputs are evaluated in one batch, each output sees the outputs bound before it
+            try (ScriptEvaluator.ExpressionBatch batch = scriptEvaluator.openBatch(scriptContext, systemProperties)) {
+                for (Output output : possibleOutputs) {
+                    String outputKey = output.getName();
+                    Value rawValue = output.getValue();
+                    Value valueToAssign = rawValue;
+                    if (output.getExpression().isExpression()) {
+                        // initialize with null value if key does not exist
+                        batch.bind(outputKey, scriptContext.get(outputKey));
+                        try {
+                            Value value = batch.evaluate(output);
+                            valueToAssign = ValueFactory.create(value, rawValue != null && rawValue.isSensitive());
+                        } catch (Throwable t) {
+                            throw new RuntimeException("Error binding output: '" + output.getName() + "',\n\tError is: " + t.getMessage(), t);
+                        }
+                    }
                     try {
-                        //evaluate expression
-                        Value value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties, output.getFunctionDependencies());
-                        valueToAssign = ValueFactory.create(value, rawValue != null && rawValue.isSensitive());
-                    } catch (Throwable t) {
-                        throw new RuntimeException("Error binding output: '" + output.getName() + "',\n\tError is: " + t.getMessage(), t);
+                        outputs.put(outputKey, valueToAssign);
+                        batch.bind(outputKey, valueToAssign);
+                    } catch (ClassCastException ex) {
+                        throw new RuntimeException("The output value: " + rawValue + " is not a proper output", ex);
                     }
                 }
-                try {
-                    outputs.put(outputKey, valueToAssign);
-                    scriptContext.put(outputKey, valueToAssign);
-                } catch (ClassCastException ex) {
-                    throw new RuntimeException("The output value: " + rawValue + " is not a proper output", ex);
-                }
             }
         }
         return outputs;
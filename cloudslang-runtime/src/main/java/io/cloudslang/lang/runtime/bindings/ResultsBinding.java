@@ -14,9 +14,8 @@ import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.lang.entities.bindings.values.Value;
-import io.cloudslang.lang.entities.utils.ExpressionUtils;
-import io.cloudslang.lang.entities.utils.MapUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import io.cloudslang.lang.runtime.env.LayeredScope;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -79,54 +78,57 @@ public class ResultsBinding {
 
         // In the case of operation, we resolve the result by searching for the first result with a true expression
         // An empty expression passes as true
-        for(Result result : possibleResults){
-            Serializable rawValue = result.getValue() == null ? null : result.getValue().get();
-            String resultName = result.getName();
+        // The expressions are evaluated in one batch, the results after the first true one are not evaluated
+        Map<String, Value> scriptContext = new LayeredScope(inputs, context);
+        try (ScriptEvaluator.ExpressionBatch batch = scriptEvaluator.openBatch(scriptContext, systemProperties)) {
+            for (Result result : possibleResults) {
+                Serializable rawValue = result.getValue() == null ? null : result.getValue().get();
+                String resultName = result.getName();
 
-            // If the answer has no expression, we treat it as a true expression, and choose it
-            if(rawValue == null) {
-                return resultName;
-            }
-
-            if(Boolean.TRUE.equals(rawValue)) {
-                return resultName;
-            }
-            if (Boolean.FALSE.equals(rawValue)) {
-                continue;
-            }
-
-            if (rawValue instanceof String) {
-                String expression = ExpressionUtils.extractExpression(rawValue);
-                if (expression == null) {
-                    throw new RuntimeException(
-                            "Error resolving the result. The expression: '" + rawValue + "' is not valid." +
-                                    " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
-                                    " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
+                // If the answer has no expression, we treat it as a true expression, and choose it
+                if (rawValue == null) {
+                    return resultName;
                 }
 
-                Map<String, Value> scriptContext = MapUtils.mergeMaps(inputs, context);
+                if (Boolean.TRUE.equals(rawValue)) {
+                    return resultName;
+                }
+                if (Boolean.FALSE.equals(rawValue)) {
+                    continue;
+                }
 
-                try {
-                    Value expressionResult = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties, result.getFunctionDependencies());
-                    Boolean evaluatedResult;
-                    if (expressionResult.get() instanceof Integer) {
-                        evaluatedResult = (Integer) expressionResult.get() != 0;
-                    } else {
-                        evaluatedResult = (Boolean) expressionResult.get();
+                if (rawValue instanceof String) {
+                    // extracted when the result was compiled
+                    String expression = result.getExpression().getExpression();
+                    if (expression == null) {
+                        throw new RuntimeException(
+                                "Error resolving the result. The expression: '" + rawValue + "' is not valid." +
+                                        " Accepted format is: " + ScoreLangConstants.EXPRESSION_START_DELIMITER +
+                                        " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
                     }
-                    if (evaluatedResult == null) {
-                        throw new RuntimeException("Expression of the operation result: " + expression + " cannot be evaluated correctly to true or false value");
-                    }
-                    if (evaluatedResult) {
-                        return resultName;
+
+                    try {
+                        Value expressionResult = batch.evaluate(result);
+                        Boolean evaluatedResult;
+                        if (expressionResult.get() instanceof Integer) {
+                            evaluatedResult = (Integer) expressionResult.get() != 0;
+                        } else {
+                            evaluatedResult = (Boolean) expressionResult.get();
+                        }
+                        if (evaluatedResult == null) {
+                            throw new RuntimeException("Expression of the operation result: " + expression + " cannot be evaluated correctly to true or false value");
+                        }
+                        if (evaluatedResult) {
+                            return resultName;
+                        }
+                    } catch (ClassCastException ex) {
+                        throw new RuntimeException("Error resolving the result. The expression " + expression + " does not return boolean value", ex);
+                    } catch (Throwable t) {
+                        throw new RuntimeException("Error evaluating result: '" + resultName + "',\n\tError is: " + t.getMessage(), t);
                     }
-                } catch (ClassCastException ex) {
-                    throw new RuntimeException("Error resolving the result. The expression " + expression + " does not return boolean value", ex);
-                } catch (Throwable t) {
-                    throw new RuntimeException("Error evaluating result: '" + resultName + "',\n\tError is: " + t.getMessage(), t);
+                } else {
+                    throw new RuntimeException("Error resolving the result. Value: '" + rawValue + "' is not valid.");
                 }
-            } else {
-                throw new RuntimeException("Error resolving the result. Value: '" + rawValue + "' is not valid.");
             }
         }
         throw new RuntimeException("No possible result was resolved");
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import org.python.core.PyCode;
+
+/**
+ * Jython code object of an expression, and its Java form if the expression is in the subset
+ * compiled by {@link JavaExpressionCompiler}
+ */
+public class CompiledExpression {
+
+    private final String expression;
+    private final PyCode expressionCode;
+    private final JavaExpression javaExpression;
+    private final boolean definingVariables;
+
+    public CompiledExpression(String expression, PyCode expressionCode) {
+        this(expression, expressionCode, null);
+    }
+
+    CompiledExpression(String expression, PyCode expressionCode, JavaExpression javaExpression) {
+        this.expression = expression;
+        this.expressionCode = expressionCode;
+        this.javaExpression = javaExpression;
+        // a list comprehension leaks its loop variable
+        this.definingVariables = JavaExpressionCompiler.containsKeyword(expression, "for");
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public PyCode getExpressionCode() {
+        return expressionCode;
+    }
+
+    JavaExpression getJavaExpression() {
+        return javaExpression;
+    }
+
+    /**
+     * @return true if evaluating the expression may define variables in the Python namespace
+     */
+    boolean isDefiningVariables() {
+        return definingVariables;
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled expressions, keyed by expression text.
+ * Size is configured by the {@link SlangSystemPropertyConstant#CSLANG_EXPRESSION_CACHE_SIZE} system property,
+ * a size of zero disables caching.
+ */
+@Component
+public class CompiledExpressionCache {
+
+    public static final int DEFAULT_CACHE_SIZE = 5000;
+
+    private final int maxSize;
+    private final Map<String, CompiledExpression> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public CompiledExpressionCache() {
+        this(Integer.getInteger(SlangSystemPropertyConstant.CSLANG_EXPRESSION_CACHE_SIZE.getValue(), DEFAULT_CACHE_SIZE));
+    }
+
+    public CompiledExpressionCache(final int maxSize) {
+        this.maxSize = Math.max(maxSize, 0);
+        this.cache = new LinkedHashMap<String, CompiledExpression>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+                if (size() > CompiledExpressionCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CompiledExpression get(String expression) {
+        CompiledExpression compiledExpression;
+        synchronized (cache) {
+            compiledExpression = cache.get(expression);
+        }
+        if (compiledExpression == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return compiledExpression;
+    }
+
+    public void put(String expression, CompiledExpression compiledExpression) {
+        if (maxSize == 0) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(expression, compiledExpression);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * An expression compiled by {@link JavaExpressionCompiler}, evaluated directly on the context values.
+ *
+ * The evaluation gives up, and the expression is left to the interpreter, whenever a value is not one of
+ * the types whose Python semantics are reproduced: string, integer and boolean. This includes unknown
+ * variables and operations that raise an error in Python, so the interpreter reports the error.
+ */
+class JavaExpression {
+
+    private final String expression;
+    private final JavaExpressionCompiler.Node root;
+
+    JavaExpression(String expression, JavaExpressionCompiler.Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the value of the expression, sensitive if a sensitive variable was used,
+     * or null if the expression has to be evaluated by the interpreter
+     */
+    Value evaluate(Map<String, ? extends Value> context) {
+        Evaluation evaluation = new Evaluation(context);
+        Serializable result;
+        try {
+            result = root.evaluate(evaluation);
+        } catch (NotSupportedException e) {
+            return null;
+        }
+        return ValueFactory.create(result, evaluation.sensitive);
+    }
+
+    static class Evaluation {
+
+        final Map<String, ? extends Value> context;
+        boolean sensitive;
+
+        Evaluation(Map<String, ? extends Value> context) {
+            this.context = context;
+        }
+    }
+
+    /**
+     * Thrown when a value is not supported, without a stack trace since it only ends the evaluation
+     */
+    static class NotSupportedException extends RuntimeException {
+
+        static final NotSupportedException INSTANCE = new NotSupportedException();
+
+        private NotSupportedException() {
+            super(null, null, false, false);
+        }
+    }
+}
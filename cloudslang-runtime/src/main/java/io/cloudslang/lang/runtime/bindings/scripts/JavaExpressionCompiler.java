@@ -0,0 +1,631 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiles the expressions that use only a safe subset of Python to a tree of Java evaluators.
+ *
+ * The subset is: variables, string literals of printable ascii characters without escapes, integer literals,
+ * True, False and None, the operators or, and, not, ==, !=, &lt;, &gt;, &lt;=, &gt;=, in, not in and +,
+ * parentheses and len().
+ * Chained comparisons are not part of the subset.
+ */
+final class JavaExpressionCompiler {
+
+    private static final String LEN_FUNCTION = "len";
+
+    // keywords, and the names the script evaluator defines itself
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList(
+            "and", "as", "assert", "break", "class", "continue", "def", "del", "elif", "else", "except", "exec",
+            "finally", "for", "from", "global", "if", "import", "in", "is", "lambda", "not", "or", "pass", "print",
+            "raise", "return", "try", "while", "with", "yield", LEN_FUNCTION,
+            "get", "get_sp", "check_empty", "sys_prop"));
+
+    private static final int MAX_INTEGER_DIGITS = 9;
+
+    private JavaExpressionCompiler() {
+    }
+
+    /**
+     * @return the compiled expression, or null if the expression is not in the subset
+     */
+    static JavaExpression compile(String expression) {
+        List<Token> tokens = tokenize(expression);
+        if (tokens == null) {
+            return null;
+        }
+        Parser parser = new Parser(tokens);
+        Node root = parser.parseOr();
+        if (root == null || !parser.isAtEnd()) {
+            return null;
+        }
+        return new JavaExpression(expression, root);
+    }
+
+    /**
+     * Scans any Python expression for a keyword, skipping string literals and comments
+     *
+     * @return true if one of the names of the expression is the keyword
+     */
+    static boolean containsKeyword(String expression, String keyword) {
+        int index = 0;
+        int length = expression.length();
+        while (index < length) {
+            char current = expression.charAt(index);
+            if (isNameChar(current)) {
+                int end = index + 1;
+                while (end < length && isNameChar(expression.charAt(end))) {
+                    end++;
+                }
+                if (keyword.equals(expression.substring(index, end))) {
+                    return true;
+                }
+                index = end;
+            } else if (current == '\'' || current == '"') {
+                index = skipString(expression, index);
+            } else if (current == '#') {
+                while (index < length && expression.charAt(index) != '\n') {
+                    index++;
+                }
+            } else {
+                index++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the index after the string literal that starts at the index, or the length of an unterminated literal
+     */
+    private static int skipString(String expression, int index) {
+        char quote = expression.charAt(index);
+        int length = expression.length();
+        boolean triple = index + 2 < length && expression.charAt(index + 1) == quote &&
+                expression.charAt(index + 2) == quote;
+        int quotes = triple ? 3 : 1;
+        int end = index + quotes;
+        while (end < length) {
+            char current = expression.charAt(end);
+            if (current == '\\') {
+                end += 2;
+            } else if (current == quote &&
+                    (!triple || end + 2 < length && expression.charAt(end + 1) == quote &&
+                            expression.charAt(end + 2) == quote)) {
+                return end + quotes;
+            } else {
+                end++;
+            }
+        }
+        return length;
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int index = 0;
+        int length = expression.length();
+        while (index < length) {
+            char current = expression.charAt(index);
+            if (current == ' ' || current == '\t' || current == '\n' || current == '\r') {
+                index++;
+            } else if (Character.isLetter(current) && current < 128 || current == '_') {
+                int end = index + 1;
+                while (end < length && isNameChar(expression.charAt(end))) {
+                    end++;
+                }
+                tokens.add(new Token(TokenType.NAME, expression.substring(index, end)));
+                index = end;
+            } else if (current >= '0' && current <= '9') {
+                int end = index + 1;
+                while (end < length && isNameChar(expression.charAt(end))) {
+                    end++;
+                }
+                String digits = expression.substring(index, end);
+                // no octal, long or float literals
+                if (!digits.matches("0|[1-9][0-9]*") || digits.length() > MAX_INTEGER_DIGITS ||
+                        end < length && expression.charAt(end) == '.') {
+                    return null;
+                }
+                tokens.add(new Token(TokenType.INTEGER, digits));
+                index = end;
+            } else if (current == '\'' || current == '"') {
+                int end = index + 1;
+                while (end < length && expression.charAt(end) != current) {
+                    char stringChar = expression.charAt(end);
+                    if (stringChar < 0x20 || stringChar > 0x7E || stringChar == '\\') {
+                        return null;
+                    }
+                    end++;
+                }
+                if (end == length) {
+                    return null;
+                }
+                tokens.add(new Token(TokenType.STRING, expression.substring(index + 1, end)));
+                index = end + 1;
+            } else {
+                String operator = matchOperator(expression, index);
+                if (operator == null) {
+                    return null;
+                }
+                tokens.add(new Token(TokenType.OPERATOR, operator));
+                index += operator.length();
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNameChar(char c) {
+        return c < 128 && Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String matchOperator(String expression, int index) {
+        for (String operator : new String[]{"==", "!=", "<=", ">=", "<", ">", "+", "-", "(", ")"}) {
+            if (expression.startsWith(operator, index)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private enum TokenType {
+        NAME, INTEGER, STRING, OPERATOR
+    }
+
+    private static class Token {
+
+        private final TokenType type;
+        private final String text;
+
+        private Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        private boolean is(TokenType type, String text) {
+            return this.type == type && this.text.equals(text);
+        }
+    }
+
+    /**
+     * Recursive descent parser, each method returns null if the tokens are not in the subset
+     */
+    private static class Parser {
+
+        private final List<Token> tokens;
+        private int position;
+
+        private Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean isAtEnd() {
+            return position == tokens.size();
+        }
+
+        private boolean accept(TokenType type, String text) {
+            if (!isAtEnd() && tokens.get(position).is(type, text)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptNotIn() {
+            if (position + 1 < tokens.size() && tokens.get(position).is(TokenType.NAME, "not") &&
+                    tokens.get(position + 1).is(TokenType.NAME, "in")) {
+                position += 2;
+                return true;
+            }
+            return false;
+        }
+
+        // or_test: and_test ('or' and_test)*
+        private Node parseOr() {
+            Node left = parseAnd();
+            while (left != null && accept(TokenType.NAME, "or")) {
+                Node right = parseAnd();
+                left = right == null ? null : new Or(left, right);
+            }
+            return left;
+        }
+
+        // and_test: not_test ('and' not_test)*
+        private Node parseAnd() {
+            Node left = parseNot();
+            while (left != null && accept(TokenType.NAME, "and")) {
+                Node right = parseNot();
+                left = right == null ? null : new And(left, right);
+            }
+            return left;
+        }
+
+        // not_test: 'not' not_test | comparison
+        private Node parseNot() {
+            if (accept(TokenType.NAME, "not")) {
+                Node operand = parseNot();
+                return operand == null ? null : new Not(operand);
+            }
+            return parseComparison();
+        }
+
+        // comparison: arith_expr [comp_op arith_expr]
+        private Node parseComparison() {
+            Node left = parseSum();
+            if (left == null) {
+                return null;
+            }
+            ComparisonOperator operator = parseComparisonOperator();
+            if (operator == null) {
+                return left;
+            }
+            Node right = parseSum();
+            if (right == null || parseComparisonOperator() != null) {
+                return null;
+            }
+            return new Comparison(operator, left, right);
+        }
+
+        private ComparisonOperator parseComparisonOperator() {
+            if (acceptNotIn()) {
+                return ComparisonOperator.NOT_IN;
+            }
+            if (accept(TokenType.NAME, "in")) {
+                return ComparisonOperator.IN;
+            }
+            for (ComparisonOperator operator : ComparisonOperator.values()) {
+                if (operator.symbol != null && accept(TokenType.OPERATOR, operator.symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        // arith_expr: atom ('+' atom)*
+        private Node parseSum() {
+            Node left = parseAtom();
+            while (left != null && accept(TokenType.OPERATOR, "+")) {
+                Node right = parseAtom();
+                left = right == null ? null : new Add(left, right);
+            }
+            return left;
+        }
+
+        private Node parseAtom() {
+            if (isAtEnd()) {
+                return null;
+            }
+            Token token = tokens.get(position++);
+            switch (token.type) {
+                case STRING:
+                    return new Literal(token.text);
+                case INTEGER:
+                    return new Literal(Integer.valueOf(token.text));
+                case OPERATOR:
+                    if (token.text.equals("(")) {
+                        Node inner = parseOr();
+                        return inner != null && accept(TokenType.OPERATOR, ")") ? inner : null;
+                    }
+                    if (token.text.equals("-") && !isAtEnd() && tokens.get(position).type == TokenType.INTEGER) {
+                        // a negative literal, the only unary minus of the subset
+                        return new Literal(-Integer.valueOf(tokens.get(position++).text));
+                    }
+                    return null;
+                case NAME:
+                    return parseName(token.text);
+                default:
+                    return null;
+            }
+        }
+
+        private Node parseName(String name) {
+            switch (name) {
+                case "True":
+                    return new Literal(Boolean.TRUE);
+                case "False":
+                    return new Literal(Boolean.FALSE);
+                case "None":
+                    return new Literal(null);
+                case LEN_FUNCTION:
+                    if (accept(TokenType.OPERATOR, "(")) {
+                        Node argument = parseOr();
+                        return argument != null && accept(TokenType.OPERATOR, ")") ? new Len(argument) : null;
+                    }
+                    return null;
+                default:
+                    if (RESERVED_NAMES.contains(name) || name.startsWith("__") && name.endsWith("__") ||
+                            !isAtEnd() && tokens.get(position).is(TokenType.OPERATOR, "(")) {
+                        return null;
+                    }
+                    return new Variable(name);
+            }
+        }
+    }
+
+    abstract static class Node {
+
+        /**
+         * @return a String, an Integer, a Boolean or null for None
+         * @throws JavaExpression.NotSupportedException if a value or an operation is not supported
+         */
+        abstract Serializable evaluate(JavaExpression.Evaluation evaluation);
+    }
+
+    private static JavaExpression.NotSupportedException notSupported() {
+        return JavaExpression.NotSupportedException.INSTANCE;
+    }
+
+    private static boolean isTrue(Serializable value) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Integer) {
+            return (Integer) value != 0;
+        } else {
+            return !((String) value).isEmpty();
+        }
+    }
+
+    // bool is a subtype of int in Python
+    private static boolean isNumber(Serializable value) {
+        return value instanceof Integer || value instanceof Boolean;
+    }
+
+    private static int toInt(Serializable value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return (Integer) value;
+    }
+
+    private static class Literal extends Node {
+
+        private final Serializable value;
+
+        private Literal(Serializable value) {
+            this.value = value;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            return value;
+        }
+    }
+
+    private static class Variable extends Node {
+
+        private final String name;
+
+        private Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            Value value = evaluation.context.get(name);
+            // an unknown variable raises an error, an empty one is a proxy of None that does not compare as None
+            if (value == null) {
+                throw notSupported();
+            }
+            Serializable content = value.get();
+            if (!(content instanceof String || content instanceof Integer || content instanceof Boolean)) {
+                throw notSupported();
+            }
+            if (value.isSensitive()) {
+                evaluation.sensitive = true;
+            }
+            return content;
+        }
+    }
+
+    private static class Len extends Node {
+
+        private final Node argument;
+
+        private Len(Node argument) {
+            this.argument = argument;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            if (evaluation.context.containsKey(LEN_FUNCTION)) {
+                throw notSupported();
+            }
+            Serializable value = argument.evaluate(evaluation);
+            if (!(value instanceof String)) {
+                throw notSupported();
+            }
+            String string = (String) value;
+            return string.codePointCount(0, string.length());
+        }
+    }
+
+    private static class Not extends Node {
+
+        private final Node operand;
+
+        private Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            return !isTrue(operand.evaluate(evaluation));
+        }
+    }
+
+    // and / or return one of their operands, not a boolean
+    private static class And extends Node {
+
+        private final Node left;
+        private final Node right;
+
+        private And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            Serializable leftValue = left.evaluate(evaluation);
+            return isTrue(leftValue) ? right.evaluate(evaluation) : leftValue;
+        }
+    }
+
+    private static class Or extends Node {
+
+        private final Node left;
+        private final Node right;
+
+        private Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            Serializable leftValue = left.evaluate(evaluation);
+            return isTrue(leftValue) ? leftValue : right.evaluate(evaluation);
+        }
+    }
+
+    private static class Add extends Node {
+
+        private final Node left;
+        private final Node right;
+
+        private Add(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            Serializable leftValue = left.evaluate(evaluation);
+            Serializable rightValue = right.evaluate(evaluation);
+            if (leftValue instanceof String && rightValue instanceof String) {
+                return (String) leftValue + rightValue;
+            }
+            if (isNumber(leftValue) && isNumber(rightValue)) {
+                long sum = (long) toInt(leftValue) + toInt(rightValue);
+                // an overflow gives a Python long
+                if (sum != (int) sum) {
+                    throw notSupported();
+                }
+                return (int) sum;
+            }
+            throw notSupported();
+        }
+    }
+
+    private enum ComparisonOperator {
+        EQUALS("=="), NOT_EQUALS("!="), LESS_OR_EQUAL("<="), GREATER_OR_EQUAL(">="), LESS("<"), GREATER(">"),
+        IN(null), NOT_IN(null);
+
+        private final String symbol;
+
+        ComparisonOperator(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private static class Comparison extends Node {
+
+        private final ComparisonOperator operator;
+        private final Node left;
+        private final Node right;
+
+        private Comparison(ComparisonOperator operator, Node left, Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Serializable evaluate(JavaExpression.Evaluation evaluation) {
+            Serializable leftValue = left.evaluate(evaluation);
+            Serializable rightValue = right.evaluate(evaluation);
+            switch (operator) {
+                case EQUALS:
+                    return isEqual(leftValue, rightValue);
+                case NOT_EQUALS:
+                    return !isEqual(leftValue, rightValue);
+                case IN:
+                    return contains(rightValue, leftValue);
+                case NOT_IN:
+                    return !contains(rightValue, leftValue);
+                default:
+                    int comparison = compare(leftValue, rightValue);
+                    switch (operator) {
+                        case LESS:
+                            return comparison < 0;
+                        case LESS_OR_EQUAL:
+                            return comparison <= 0;
+                        case GREATER:
+                            return comparison > 0;
+                        default:
+                            return comparison >= 0;
+                    }
+            }
+        }
+
+        private static boolean isEqual(Serializable left, Serializable right) {
+            if (left == null || right == null) {
+                return left == right;
+            }
+            if (isNumber(left) && isNumber(right)) {
+                return toInt(left) == toInt(right);
+            }
+            // a string is never equal to a number
+            return left.equals(right);
+        }
+
+        private static boolean contains(Serializable container, Serializable element) {
+            if (container instanceof String && element instanceof String) {
+                return ((String) container).contains((String) element);
+            }
+            throw notSupported();
+        }
+
+        // ordering of different types is arbitrary in Python 2, only strings and numbers are compared
+        private static int compare(Serializable left, Serializable right) {
+            if (isNumber(left) && isNumber(right)) {
+                return Integer.compare(toInt(left), toInt(right));
+            }
+            if (left instanceof String && right instanceof String) {
+                return compareCodePoints((String) left, (String) right);
+            }
+            throw notSupported();
+        }
+
+        private static int compareCodePoints(String left, String right) {
+            int leftIndex = 0;
+            int rightIndex = 0;
+            while (leftIndex < left.length() && rightIndex < right.length()) {
+                int leftCodePoint = left.codePointAt(leftIndex);
+                int rightCodePoint = right.codePointAt(rightIndex);
+                if (leftCodePoint != rightCodePoint) {
+                    return Integer.compare(leftCodePoint, rightCodePoint);
+                }
+                leftIndex += Character.charCount(leftCodePoint);
+                rightIndex += Character.charCount(rightCodePoint);
+            }
+            return Integer.compare(left.length() - leftIndex, right.length() - rightIndex);
+        }
+    }
+}
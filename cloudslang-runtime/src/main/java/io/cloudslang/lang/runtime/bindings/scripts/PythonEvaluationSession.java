@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.python.core.Py;
+import org.python.core.PyObject;
+import org.python.core.PyStringMap;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Python namespace that is reused by the expression evaluations of one thread.
+ *
+ * The helper functions are executed once and kept by the session. The context variables are pushed as
+ * PyObjectValue proxies for a single evaluation or a batch of evaluations. They stay in the namespace
+ * afterwards, so the next evaluation only replaces the variables whose Value instance changed. Values are
+ * not modified once they are in a context, so the same instance is converted to the same proxy.
+ */
+class PythonEvaluationSession {
+
+    private final PyStringMap namespace = new PyStringMap();
+
+    // variables that are used only if there is no context variable with the same name
+    private final Map<String, PyObject> defaults = new HashMap<>();
+
+    private final Map<ScriptFunction, PyObject> functions = new EnumMap<>(ScriptFunction.class);
+
+    // proxies of the sensitive context variables, they remember whether the expression accessed them
+    private final Map<String, PyObjectValue> sensitiveProxies = new HashMap<>();
+
+    // the context variables in the namespace, by the Value instance they were pushed from
+    private final Map<String, Value> pushedValues = new HashMap<>();
+
+    PyStringMap getNamespace() {
+        return namespace;
+    }
+
+    void setDefault(String name, Object value) {
+        PyObject pyObject = Py.java2py(value);
+        defaults.put(name, pyObject);
+        namespace.__setitem__(name, pyObject);
+    }
+
+    /**
+     * Makes the namespace hold the variables of the context, keeping the proxies of the values that were
+     * already pushed by a previous evaluation
+     */
+    void pushContext(Map<String, ? extends Value> context) {
+        for (Iterator<String> iterator = pushedValues.keySet().iterator(); iterator.hasNext(); ) {
+            String name = iterator.next();
+            if (!context.containsKey(name)) {
+                iterator.remove();
+                sensitiveProxies.remove(name);
+                restoreDefault(name);
+            }
+        }
+        for (Map.Entry<String, ? extends Value> entry : context.entrySet()) {
+            Value value = entry.getValue();
+            if (pushedValues.get(entry.getKey()) != value || !pushedValues.containsKey(entry.getKey())) {
+                bind(entry.getKey(), value);
+            }
+        }
+    }
+
+    void bind(String name, Value value) {
+        PyObjectValue proxy = ValueFactory.createPyObjectValue(value);
+        namespace.__setitem__(name, (PyObject) proxy);
+        pushedValues.put(name, value);
+        if (value != null && value.isSensitive()) {
+            sensitiveProxies.put(name, proxy);
+        } else {
+            sensitiveProxies.remove(name);
+        }
+    }
+
+    /**
+     * Puts a variable that hides the context variable with the same name, e.g. a function or the system properties
+     */
+    void define(String name, Object value) {
+        namespace.__setitem__(name, Py.java2py(value));
+    }
+
+    /**
+     * Removes a defined variable, so the context variable or the default with the same name is seen again
+     */
+    void undefine(String name, Map<String, ? extends Value> context) {
+        if (context.containsKey(name)) {
+            bind(name, context.get(name));
+        } else {
+            restoreDefault(name);
+        }
+    }
+
+    private void restoreDefault(String name) {
+        if (defaults.containsKey(name)) {
+            namespace.__setitem__(name, defaults.get(name));
+        } else if (namespace.__finditem__(name) != null) {
+            namespace.__delitem__(name);
+        }
+    }
+
+    boolean isFunctionAdded(ScriptFunction function) {
+        return functions.containsKey(function);
+    }
+
+    /**
+     * Keeps a function whose definition was executed in the namespace, so it can be defined again
+     * without executing its code.
+     */
+    void addFunction(ScriptFunction function, String name) {
+        functions.put(function, namespace.__finditem__(name));
+        undefine(name, Collections.<String, Value>emptyMap());
+    }
+
+    PyObject getFunction(ScriptFunction function) {
+        return functions.get(function);
+    }
+
+    /**
+     * Checks whether the evaluation accessed a sensitive context variable. The accessed variables get new
+     * proxies, so the next evaluation of a batch does not see them as accessed.
+     */
+    boolean renewAccessedSensitiveValues(Map<String, ? extends Value> context) {
+        boolean accessed = false;
+        for (Map.Entry<String, PyObjectValue> entry : sensitiveProxies.entrySet()) {
+            if (entry.getValue().isAccessed()) {
+                accessed = true;
+                PyObjectValue proxy = ValueFactory.createPyObjectValue(context.get(entry.getKey()));
+                entry.setValue(proxy);
+                namespace.__setitem__(entry.getKey(), (PyObject) proxy);
+            }
+        }
+        return accessed;
+    }
+
+    /**
+     * Drops the context variables and whatever the evaluations left in the namespace, keeping only the defaults.
+     * Needed after an evaluation that failed or that defines its own variables.
+     */
+    void clear() {
+        namespace.clear();
+        sensitiveProxies.clear();
+        pushedValues.clear();
+        for (Map.Entry<String, PyObject> entry : defaults.entrySet()) {
+            namespace.__setitem__(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -10,25 +10,38 @@
 
 package io.cloudslang.lang.runtime.bindings.scripts;
 
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
 import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.InOutParam;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression;
+import io.cloudslang.lang.entities.bindings.expressions.ExpressionType;
 import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.runtime.api.python.PythonEvaluationResult;
-import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import java.util.Collection;
 import org.apache.commons.lang3.StringUtils;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
 import org.python.core.Py;
+import org.python.core.PyBoolean;
+import org.python.core.PyCode;
+import org.python.core.PyException;
 import org.python.core.PyObject;
+import org.python.core.PyType;
+import org.python.util.PythonInterpreter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author stoneo
@@ -39,6 +52,9 @@ import java.util.Set;
 public class ScriptEvaluator extends ScriptProcessor {
     private static String LINE_SEPARATOR = System.lineSeparator();
     private static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
+    private static final String GET_FUNCTION_NAME = "get";
+    private static final String GET_SP_FUNCTION_NAME = "get_sp";
+    private static final String CHECK_EMPTY_FUNCTION_NAME = "check_empty";
     private static final String GET_FUNCTION_DEFINITION =
             "def get(key, default_value=None):" + LINE_SEPARATOR +
                     "  value = globals().get(key)" + LINE_SEPARATOR +
@@ -51,58 +67,272 @@ public class ScriptEvaluator extends ScriptProcessor {
             "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
                     "  return default_value if value_to_check is None else value_to_check";
 
-    @Autowired
-    private PythonRuntimeService pythonRuntimeService;
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String SCRIPT_FILE_NAME = "<string>";
+
+    // shared with the other evaluators when the context defines the cache, otherwise the evaluator has its own
+    @Autowired(required = false)
+    private CompiledExpressionCache compiledExpressionCache = new CompiledExpressionCache();
+
+    // expressions of the safe subset are evaluated in Java, unless disabled by the system property
+    private final boolean javaEvaluation;
+
+    // thread local state: every thread evaluates against its own locals
+    private final PythonInterpreter interpreter = PythonInterpreter.threadLocalStateInterpreter(null);
+
+    // the sessions of all the threads, so the context values they keep between evaluations can be released
+    private final Set<PythonEvaluationSession> allSessions =
+            Collections.newSetFromMap(new ConcurrentHashMap<PythonEvaluationSession, Boolean>());
+
+    private final ThreadLocal<PythonEvaluationSession> sessions = new ThreadLocal<PythonEvaluationSession>() {
+        @Override
+        protected PythonEvaluationSession initialValue() {
+            PythonEvaluationSession session = new PythonEvaluationSession();
+            session.setDefault(TRUE, Boolean.TRUE);
+            session.setDefault(FALSE, Boolean.FALSE);
+            allSessions.add(session);
+            return session;
+        }
+    };
+
+    public ScriptEvaluator() {
+        this(Boolean.parseBoolean(System.getProperty(
+                SlangSystemPropertyConstant.CSLANG_EXPRESSION_JAVA_EVALUATION.getValue(), Boolean.TRUE.toString())));
+    }
+
+    public ScriptEvaluator(boolean javaEvaluation) {
+        this.javaEvaluation = javaEvaluation;
+    }
+
+    /**
+     * Clears the sessions of all the threads and closes the interpreter, the evaluator can not be used afterwards
+     */
+    @PreDestroy
+    public void destroy() {
+        for (PythonEvaluationSession session : allSessions) {
+            session.clear();
+        }
+        allSessions.clear();
+        sessions.remove();
+        interpreter.close();
+    }
+
+    Set<PythonEvaluationSession> getSessions() {
+        return Collections.unmodifiableSet(allSessions);
+    }
 
     public Value evalExpr(String expr, Map<String, Value> context, Set<SystemProperty> systemProperties){
         return evalExpr(expr, context, systemProperties, new HashSet<ScriptFunction>());
     }
 
     public Value evalExpr(String expr, Map<String, Value> context, Set<SystemProperty> systemProperties, Set<ScriptFunction> functionDependencies) {
+        return evalExpr(expr, null, context, systemProperties, functionDependencies);
+    }
+
+    /**
+     * Evaluates the expression of a compiled model, using the code compiled with the model if the expression
+     * is not cached yet
+     */
+    public Value evalExpr(ClassifiedExpression expression, Map<String, Value> context, Set<SystemProperty> systemProperties,
+                          Set<ScriptFunction> functionDependencies) {
+        return evalExpr(expression.getExpression(), expression, context, systemProperties, functionDependencies);
+    }
+
+    private Value evalExpr(String expr, ClassifiedExpression expression, Map<String, Value> context,
+                           Set<SystemProperty> systemProperties, Set<ScriptFunction> functionDependencies) {
         try {
-            Map<String, Serializable> pythonContext = createPythonContext(context);
-            boolean systemPropertiesDefined = functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY);
-            if(systemPropertiesDefined) {
-                pythonContext.put(SYSTEM_PROPERTIES_MAP, (Serializable) prepareSystemProperties(systemProperties));
+            CompiledExpression compiledExpression = getCompiledExpression(expr, expression);
+            if (javaEvaluation && compiledExpression.getJavaExpression() != null) {
+                Value value = compiledExpression.getJavaExpression().evaluate(context);
+                if (value != null) {
+                    return value;
+                }
             }
-            PythonEvaluationResult result = pythonRuntimeService.eval(buildAddFunctionsScript(functionDependencies), expr, pythonContext);
-            if(systemPropertiesDefined) {
-                context.remove(SYSTEM_PROPERTIES_MAP);
+            Map<String, Value> pythonSystemProperties =
+                    functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY) ?
+                            prepareSystemProperties(systemProperties) : null;
+            return eval(compiledExpression, context, pythonSystemProperties, functionDependencies);
+        } catch (Exception exception) {
+            throw evaluationError(expr, exception);
+        }
+    }
+
+    /**
+     * Opens a batch that evaluates expressions in order against the same context, pushing the context
+     * to the Python session once instead of once per expression. The values bound by the batch are seen
+     * by the expressions evaluated after them.
+     * The batch belongs to the current thread and has to be closed when the evaluation is done.
+     *
+     * @param context the context of the expressions, the values bound by the batch are put in it
+     */
+    public ExpressionBatch openBatch(Map<String, Value> context, Set<SystemProperty> systemProperties) {
+        return new ExpressionBatch(context, systemProperties);
+    }
+
+    public Value resolveTrivialExpr(ClassifiedExpression expression, Map<String, ? extends Value> context) {
+        return resolveTrivialExpr(expression, Collections.<String, Value>emptyMap(), context);
+    }
+
+    /**
+     * Resolves a variable reference or a get() expression in Java, when the interpreter is known to return
+     * the same value. The variable is looked up in the bound values first and then in the context.
+     *
+     * @return the value of the expression, or null if it has to be evaluated by {@link #evalExpr}
+     */
+    public Value resolveTrivialExpr(ClassifiedExpression expression, Map<String, ? extends Value> boundValues,
+                                    Map<String, ? extends Value> context) {
+        ExpressionType type = expression.getType();
+        if (type != ExpressionType.VARIABLE_REFERENCE && type != ExpressionType.GET_WITH_DEFAULT) {
+            return null;
+        }
+        String variableName = expression.getVariableName();
+        Value value;
+        if (boundValues.containsKey(variableName)) {
+            value = boundValues.get(variableName);
+        } else if (context.containsKey(variableName)) {
+            value = context.get(variableName);
+        } else {
+            // an unknown variable is an error, unless get() falls back to its default
+            return type == ExpressionType.GET_WITH_DEFAULT ? ValueFactory.create(expression.getDefaultValue()) : null;
+        }
+        Serializable content = value == null ? null : value.get();
+        if (content == null ? type == ExpressionType.GET_WITH_DEFAULT : !isConvertedAsIs(content)) {
+            return null;
+        }
+        return ValueFactory.create(content, value != null && value.isSensitive());
+    }
+
+    /**
+     * @return true if the content is the same after its conversion to a Python object and back
+     */
+    private boolean isConvertedAsIs(Serializable content) {
+        return content instanceof String || content instanceof Integer || content instanceof Boolean;
+    }
+
+    /**
+     * @param expression the compiled model of the expression, null if there is none
+     */
+    private CompiledExpression getCompiledExpression(String expr, ClassifiedExpression expression) {
+        CompiledExpression compiledExpression = compiledExpressionCache.get(expr);
+        if (compiledExpression == null) {
+            PyCode expressionCode = expression == null ?
+                    Py.compile_flags(expr, SCRIPT_FILE_NAME, CompileMode.eval, new CompilerFlags()) :
+                    expression.getCode();
+            compiledExpression = new CompiledExpression(expr, expressionCode, JavaExpressionCompiler.compile(expr));
+            compiledExpressionCache.put(expr, compiledExpression);
+        }
+        return compiledExpression;
+    }
+
+    private Value eval(CompiledExpression compiledExpression, Map<String, Value> context,
+                       Map<String, Value> pythonSystemProperties, Set<ScriptFunction> functionDependencies) {
+        PythonEvaluationSession session = sessions.get();
+        interpreter.setLocals(session.getNamespace());
+        boolean clear = true;
+        try {
+            session.pushContext(context);
+            Value value = evalInSession(session, compiledExpression, context, pythonSystemProperties, functionDependencies);
+            // the pushed context is kept for the next evaluation, unless the expression left its own variables
+            clear = compiledExpression.isDefiningVariables();
+            return value;
+        } finally {
+            if (clear) {
+                session.clear();
             }
+        }
+    }
 
-            return ValueFactory.create(result.getEvalResult(), getSensitive(result.getResultContext(), systemPropertiesDefined));
-        } catch (Exception exception) {
-            throw new RuntimeException(
-                    "Error in running script expression: '"
-                            + expr + "',\n\tException is: " + handleExceptionSpecialCases(exception.getMessage()), exception);
+    /**
+     * Evaluates the expression against the context already pushed to the session. The functions and the system
+     * properties are defined only for this expression.
+     */
+    private Value evalInSession(PythonEvaluationSession session, CompiledExpression compiledExpression,
+                                Map<String, Value> context, Map<String, Value> pythonSystemProperties,
+                                Set<ScriptFunction> functionDependencies) {
+        addFunctions(session, functionDependencies);
+        try {
+            if (pythonSystemProperties != null) {
+                session.define(SYSTEM_PROPERTIES_MAP, pythonSystemProperties);
+            }
+            for (ScriptFunction function : functionDependencies) {
+                session.define(getFunctionName(function), session.getFunction(function));
+            }
+            PyObject evalResult = interpreter.eval(compiledExpression.getExpressionCode());
+            Serializable result = resolveJythonObjectToJava(evalResult, compiledExpression.getExpression());
+
+            boolean sensitive = session.renewAccessedSensitiveValues(context);
+            if (pythonSystemProperties != null) {
+                @SuppressWarnings("unchecked")
+                Collection<Serializable> systemPropertyValues = (Collection) pythonSystemProperties.values();
+                sensitive |= checkSensitivity(systemPropertyValues);
+            }
+            return ValueFactory.create(result, sensitive);
+        } finally {
+            if (pythonSystemProperties != null) {
+                session.undefine(SYSTEM_PROPERTIES_MAP, context);
+            }
+            for (ScriptFunction function : functionDependencies) {
+                session.undefine(getFunctionName(function), context);
+            }
         }
     }
 
-    private String buildAddFunctionsScript(Set<ScriptFunction> functionDependencies) {
-        String functions = "";
+    /**
+     * The helper functions are executed once per session, in the session's namespace, so they see its variables.
+     */
+    private void addFunctions(PythonEvaluationSession session, Set<ScriptFunction> functionDependencies) {
         for (ScriptFunction function : functionDependencies) {
-            switch (function) {
-                case GET:
-                    functions += GET_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case GET_SYSTEM_PROPERTY:
-                    functions += GET_SP_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case CHECK_EMPTY:
-                    functions += CHECK_EMPTY_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                default:
-                    throw new RuntimeException("Error adding function to context: '" + function.getValue() + "' is not valid.");
+            if (!session.isFunctionAdded(function)) {
+                interpreter.exec(getFunctionDefinition(function));
+                session.addFunction(function, getFunctionName(function));
+            }
+        }
+    }
+
+    private Serializable resolveJythonObjectToJava(PyObject value, String expr) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PyBoolean) {
+            return ((PyBoolean) value).getBooleanValue();
+        }
+        try {
+            return Py.tojava(value, Serializable.class);
+        } catch (PyException e) {
+            PyObject typeObject = e.type;
+            if (typeObject instanceof PyType && "TypeError".equals(((PyType) typeObject).getName())) {
+                throw new RuntimeException("Evaluation result for a Python expression should be serializable:\n\t" +
+                        "Conversion failed for '" + expr + "' (" + String.valueOf(value) + ").\n", e);
             }
+            throw e;
+        }
+    }
+
+    private String getFunctionDefinition(ScriptFunction function) {
+        switch (function) {
+            case GET:
+                return GET_FUNCTION_DEFINITION;
+            case GET_SYSTEM_PROPERTY:
+                return GET_SP_FUNCTION_DEFINITION;
+            case CHECK_EMPTY:
+                return CHECK_EMPTY_FUNCTION_DEFINITION;
+            default:
+                throw new RuntimeException("Error adding function to context: '" + function.getValue() + "' is not valid.");
         }
-        return functions;
     }
 
-    private String appendDelimiterBetweenFunctions(String text) {
-        return text + LINE_SEPARATOR + LINE_SEPARATOR;
+    private String getFunctionName(ScriptFunction function) {
+        switch (function) {
+            case GET:
+                return GET_FUNCTION_NAME;
+            case GET_SYSTEM_PROPERTY:
+                return GET_SP_FUNCTION_NAME;
+            case CHECK_EMPTY:
+                return CHECK_EMPTY_FUNCTION_NAME;
+            default:
+                throw new RuntimeException("Error adding function to context: '" + function.getValue() + "' is not valid.");
+        }
     }
 
     private Map<String, Value> prepareSystemProperties(Set<SystemProperty> properties) {
@@ -113,6 +343,14 @@ public class ScriptEvaluator extends ScriptProcessor {
         return processedSystemProperties;
     }
 
+    private RuntimeException evaluationError(String expr, Exception exception) {
+        String message = exception instanceof PyException ?
+                ((PyException) exception).value.toString() : exception.getMessage();
+        return new RuntimeException(
+                "Error in running script expression: '"
+                        + expr + "',\n\tException is: " + handleExceptionSpecialCases(message), exception);
+    }
+
     private String handleExceptionSpecialCases(String message) {
         String processedMessage = message;
         if (StringUtils.isNotEmpty(message) && message.contains("get_sp") && message.contains("not defined")) {
@@ -121,20 +359,6 @@ public class ScriptEvaluator extends ScriptProcessor {
         return processedMessage;
     }
 
-    private boolean getSensitive(Map<String, Serializable> executionResultContext, boolean systemPropertiesInContext) {
-        if (systemPropertiesInContext) {
-            Map<String, Serializable> context = new HashMap<>(executionResultContext);
-            PyObject rawSystemProperties = (PyObject) context.remove(SYSTEM_PROPERTIES_MAP);
-            @SuppressWarnings("unchecked")
-            Map<String, Value> systemProperties = Py.tojava(rawSystemProperties, Map.class);
-            @SuppressWarnings("unchecked")
-            Collection<Serializable> systemPropertyValues = (Collection) systemProperties.values();
-            return checkSensitivity(systemPropertyValues) || checkSensitivity(context.values());
-        } else {
-            return (checkSensitivity(executionResultContext.values()));
-        }
-    }
-
     private boolean checkSensitivity(Collection<Serializable> values) {
         for (Serializable value : values) {
             if (value != null && value instanceof PyObjectValue) {
@@ -146,4 +370,102 @@ public class ScriptEvaluator extends ScriptProcessor {
         }
         return false;
     }
+
+    /**
+     * Evaluates the expressions of a step in one Python session: the context is pushed when the first
+     * expression needs the interpreter, and afterwards only the values bound by the batch are pushed.
+     * Every expression is still evaluated with its own functions and its own sensitivity. The context stays
+     * in the session when the batch is closed, and is cleared only if an evaluation failed.
+     */
+    public class ExpressionBatch implements AutoCloseable {
+
+        private final Map<String, Value> context;
+        private final Set<SystemProperty> systemProperties;
+        private final PythonEvaluationSession session = sessions.get();
+        private Map<String, Value> pythonSystemProperties;
+        private boolean pushed;
+
+        private ExpressionBatch(Map<String, Value> context, Set<SystemProperty> systemProperties) {
+            this.context = context;
+            this.systemProperties = systemProperties;
+        }
+
+        /**
+         * Evaluates the expression of the param against the context and the values bound so far.
+         * Trivial expressions and expressions of the safe subset are resolved in Java.
+         */
+        public Value evaluate(InOutParam param) {
+            ClassifiedExpression expression = param.getExpression();
+            Value value = resolveTrivialExpr(expression, context);
+            if (value != null) {
+                return value;
+            }
+            String expr = expression.getExpression();
+            CompiledExpression compiledExpression;
+            try {
+                compiledExpression = getCompiledExpression(expr, expression);
+            } catch (Exception exception) {
+                discard();
+                throw evaluationError(expr, exception);
+            }
+            if (compiledExpression.isDefiningVariables()) {
+                // the variables would stay in the session, so the expression is evaluated on its own
+                close();
+                return evalExpr(expression, context, systemProperties, param.getFunctionDependencies());
+            }
+            try {
+                if (javaEvaluation && compiledExpression.getJavaExpression() != null) {
+                    value = compiledExpression.getJavaExpression().evaluate(context);
+                    if (value != null) {
+                        return value;
+                    }
+                }
+                return evaluateInSession(compiledExpression, param.getFunctionDependencies());
+            } catch (Exception exception) {
+                discard();
+                throw evaluationError(expr, exception);
+            }
+        }
+
+        /**
+         * Binds a value in the context, for the expressions evaluated after it
+         */
+        public void bind(String name, Value value) {
+            context.put(name, value);
+            if (pushed) {
+                session.bind(name, value);
+            }
+        }
+
+        @Override
+        public void close() {
+            pushed = false;
+        }
+
+        private void discard() {
+            if (pushed) {
+                session.clear();
+            }
+            close();
+        }
+
+        private Value evaluateInSession(CompiledExpression compiledExpression, Set<ScriptFunction> functionDependencies) {
+            interpreter.setLocals(session.getNamespace());
+            if (!pushed) {
+                session.pushContext(context);
+                pushed = true;
+            }
+            boolean systemPropertiesDefined = functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY);
+            if (systemPropertiesDefined && pythonSystemProperties == null) {
+                pythonSystemProperties = prepareSystemProperties(systemProperties);
+            }
+            Value value = evalInSession(session, compiledExpression, context,
+                    systemPropertiesDefined ? pythonSystemProperties : null, functionDependencies);
+            if (systemPropertiesDefined && value.isSensitive()) {
+                // fresh proxies, so the next expressions are not seen as accessing them
+                pythonSystemProperties = null;
+            }
+            return value;
+        }
+    }
 }
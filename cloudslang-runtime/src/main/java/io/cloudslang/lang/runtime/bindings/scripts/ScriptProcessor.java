@@ -23,7 +23,10 @@ import java.util.Map;
  */
 public abstract class ScriptProcessor {
 
-    protected Map<String, Serializable> createPythonContext(Map<String, Value> context) {
+    /**
+     * Converts every entry of the context, e.g. of a layered scope, to a Python object
+     */
+    protected Map<String, Serializable> createPythonContext(Map<String, ? extends Value> context) {
         Map<String, Serializable> pythonContext = new HashMap<>();
         for (Map.Entry<String, ? extends Value> entry : context.entrySet()) {
             pythonContext.put(entry.getKey(), ValueFactory.createPyObjectValue(entry.getValue()));
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variables of a parallel branch, on top of the variables it shares with its parent and its sibling branches.
+ * A shared value that can be changed in place is copied the first time the branch reads it, and the branch
+ * keeps reading its copy, so the branch never changes a shared value and copies only the values it reads.
+ */
+class BranchOverlayMap extends OverlayMap<String, Value> {
+
+    // copies of the mutable shared values read by the branch
+    private final Map<String, Value> copies = new HashMap<>();
+
+    BranchOverlayMap(Map<String, Value> base) {
+        super(base);
+    }
+
+    @Override
+    boolean hasChanges() {
+        // a copy may have been changed in place
+        return super.hasChanges() || !copies.isEmpty();
+    }
+
+    @Override
+    Value readBase(String key, Value value) {
+        Value copy = copies.get(key);
+        if (copy == null) {
+            copy = Context.copyIfMutable(value);
+            if (copy != value) {
+                copies.put(key, copy);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public Value put(String key, Value value) {
+        Value previous = super.put(key, value);
+        copies.remove(key);
+        return previous;
+    }
+
+    @Override
+    public Value remove(Object key) {
+        Value previous = super.remove(key);
+        copies.remove(key);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        copies.clear();
+    }
+}
@@ -10,6 +10,8 @@
 package io.cloudslang.lang.runtime.env;
 
 import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
@@ -20,14 +22,55 @@ import java.util.Map;
 
 public class Context implements Serializable{
 
-    private final Map<String, Value> variables;
-    private final Map<String, Value> langVariables;
+    private static final long serialVersionUID = 6380536287300200885L;
+
+    private Map<String, Value> variables;
+    private Map<String, Value> langVariables;
 
     public Context(Map<String, Value> variables) {
         this.variables = variables;
         langVariables = new HashMap<>();
     }
 
+    private Context(Map<String, Value> variables, Map<String, Value> langVariables) {
+        this.variables = variables;
+        this.langVariables = langVariables;
+    }
+
+    /**
+     * Freezes the current variables of this context before parallel branches are created from it.
+     * They are kept aside to be shared by the branches, while the later changes of this context are
+     * kept on top of them, so creating a branch does not copy the variables.
+     * The values are not changed in place by this context while its branches run.
+     */
+    public void shareWithBranches() {
+        variables = new OverlayMap<>(share(variables));
+        langVariables = new OverlayMap<>(share(langVariables));
+    }
+
+    /**
+     * Creates the context of a parallel branch.
+     * The branch keeps only its own changes on top of the current variables of this context,
+     * later changes of this context are not visible to the branch and vice versa.
+     * The variables are copied for each branch, unless they were shared by {@link #shareWithBranches()}.
+     * Only the values that can not be changed are shared, the branch gets its own copy of the others
+     * when it reads them.
+     */
+    public Context createBranchContext() {
+        return new Context(new BranchOverlayMap(share(variables)), new BranchOverlayMap(share(langVariables)));
+    }
+
+    /**
+     * @return the value itself if it can be shared between branches, otherwise a deep copy of it.
+     * Sensitive values can be shared since they hand out a copy of their content.
+     */
+    static Value copyIfMutable(Value value) {
+        if (value == null || value.isSensitive() || ValueFactory.isImmutableContent(value.get())) {
+            return value;
+        }
+        return SerializationUtils.clone(value);
+    }
+
     public Value getVariable(String name) {
         return variables.get(name);
     }
@@ -60,6 +103,14 @@ public class Context implements Serializable{
         return langVariables.remove(key);
     }
 
+    private static Map<String, Value> share(Map<String, Value> map) {
+        if (map instanceof OverlayMap && !((OverlayMap<String, Value>) map).hasChanges()) {
+            return ((OverlayMap<String, Value>) map).getBase();
+        }
+        // snapshot once, the snapshot is only read from now on
+        return Collections.unmodifiableMap(new HashMap<>(map));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
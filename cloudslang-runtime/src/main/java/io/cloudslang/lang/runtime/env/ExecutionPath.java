@@ -9,15 +9,23 @@
  *******************************************************************************/
 package io.cloudslang.lang.runtime.env;
 
-import org.apache.commons.lang3.StringUtils;
-
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
-
-import static org.apache.commons.lang3.StringUtils.join;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
+ * The path strings are cached and maintained incrementally by down(), up() and forward(),
+ * so they are built once per change of the path and not on every call.
+ * The serialized form is the one of the original implementation: the position and a deque of the parent
+ * positions, so paths serialized by either implementation can be read by the other.
+ *
  * @author moradi
  * @since 06/11/2014
  */
@@ -25,37 +33,135 @@ public class ExecutionPath implements Serializable {
 
     public static final String PATH_SEPARATOR = ".";
 
-    private Deque<Integer> parentPositions;
+    private static final long serialVersionUID = 4369019494776498175L;
+
+    private static final String PARENT_POSITIONS_FIELD = "parentPositions";
+    private static final String POSITION_FIELD = "position";
+
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField(PARENT_POSITIONS_FIELD, Deque.class),
+            new ObjectStreamField(POSITION_FIELD, int.class)
+    };
+
+    private static final int INITIAL_DEPTH = 8;
+
+    // positions of the parent levels, from the top level down
+    private transient int[] parentPositions;
+    private transient int depth;
     private int position;
 
+    // derived from the positions, null when not built yet
+    private transient String parentPath;
+    private transient String currentPath;
+
     public ExecutionPath() {
-        parentPositions = new ArrayDeque<>();
+        parentPositions = new int[INITIAL_DEPTH];
+        parentPath = "";
+    }
+
+    public ExecutionPath(ExecutionPath executionPath) {
+        parentPositions = Arrays.copyOf(executionPath.parentPositions, executionPath.parentPositions.length);
+        depth = executionPath.depth;
+        position = executionPath.position;
+        parentPath = executionPath.parentPath;
+        currentPath = executionPath.currentPath;
     }
 
     public void forward() {
         position++;
+        currentPath = null;
+    }
+
+    /**
+     * @param steps number of positions to move forward at the current level
+     */
+    public void forward(int steps) {
+        position += steps;
+        currentPath = null;
     }
 
     public void down() {
-        parentPositions.push(position);
+        String path = getCurrentPath();
+        if (depth == parentPositions.length) {
+            parentPositions = Arrays.copyOf(parentPositions, depth * 2);
+        }
+        parentPositions[depth++] = position;
         position = 0;
+        parentPath = path;
+        currentPath = null;
     }
 
     public void up() {
-        position = parentPositions.pop();
+        if (depth == 0) {
+            throw new NoSuchElementException();
+        }
+        position = parentPositions[--depth];
+        currentPath = parentPath;
+        parentPath = currentPath == null ? null : getPrefix(currentPath);
+    }
+
+    /**
+     * @return the position of the parent level, e.g. the index of a parallel loop branch in the path of the branch
+     */
+    public int getParentPosition() {
+        if (depth == 0) {
+            throw new NoSuchElementException();
+        }
+        return parentPositions[depth - 1];
     }
 
     public String getCurrentPath() {
-        return getCurrentPath(position);
+        if (currentPath == null) {
+            String parents = getParentPath();
+            currentPath = parents.isEmpty() ? String.valueOf(position) : parents + PATH_SEPARATOR + position;
+        }
+        return currentPath;
     }
 
     public String getParentPath() {
-        return join(parentPositions.descendingIterator(), PATH_SEPARATOR);
+        if (parentPath == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int index = 0; index < depth; index++) {
+                if (index > 0) {
+                    builder.append(PATH_SEPARATOR);
+                }
+                builder.append(parentPositions[index]);
+            }
+            parentPath = builder.toString();
+        }
+        return parentPath;
+    }
+
+    private static String getPrefix(String path) {
+        int index = path.lastIndexOf(PATH_SEPARATOR);
+        return index < 0 ? "" : path.substring(0, index);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // the deque of the original implementation has the deepest parent first
+        Deque<Integer> parents = new ArrayDeque<>();
+        for (int index = 0; index < depth; index++) {
+            parents.push(parentPositions[index]);
+        }
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put(PARENT_POSITIONS_FIELD, parents);
+        fields.put(POSITION_FIELD, position);
+        out.writeFields();
     }
 
-    private String getCurrentPath(int position) {
-        String parents = getParentPath();
-        return StringUtils.isEmpty(parents) ? position + "" : parents + PATH_SEPARATOR + position;
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        @SuppressWarnings("unchecked")
+        Deque<Integer> parents = (Deque<Integer>) fields.get(PARENT_POSITIONS_FIELD, null);
+        position = fields.get(POSITION_FIELD, 0);
+        depth = parents == null ? 0 : parents.size();
+        parentPositions = new int[Math.max(depth, INITIAL_DEPTH)];
+        if (parents != null) {
+            int index = 0;
+            for (Iterator<Integer> iterator = parents.descendingIterator(); iterator.hasNext(); ) {
+                parentPositions[index++] = iterator.next();
+            }
+        }
     }
 
 }
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Variables of a binding, looked up in three layers without copying them:
+ * the local overrides first, then the values already bound and then the parent context.
+ *
+ * The parent context and the bound values are read through, and never modified by the scope.
+ * Changes of the bound values are seen by the scope. Values put in the scope are kept as local overrides.
+ * Removal is not supported.
+ */
+public class LayeredScope extends AbstractMap<String, Value> {
+
+    private final Map<String, ? extends Value> parent;
+    private final Map<String, ? extends Value> boundValues;
+    private final Map<String, Value> overrides = new HashMap<>();
+
+    public LayeredScope(Map<String, ? extends Value> parent) {
+        this(parent, null);
+    }
+
+    /**
+     * @param parent      the context of the binding, null for an empty context
+     * @param boundValues the values bound so far, they hide the parent variables with the same name
+     */
+    public LayeredScope(Map<String, ? extends Value> parent, Map<String, ? extends Value> boundValues) {
+        this.parent = emptyIfNull(parent);
+        this.boundValues = emptyIfNull(boundValues);
+    }
+
+    private static Map<String, ? extends Value> emptyIfNull(Map<String, ? extends Value> map) {
+        if (map == null) {
+            return Collections.<String, Value>emptyMap();
+        }
+        return map;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overrides.containsKey(key) || boundValues.containsKey(key) || parent.containsKey(key);
+    }
+
+    @Override
+    public Value get(Object key) {
+        if (overrides.containsKey(key)) {
+            return overrides.get(key);
+        }
+        if (boundValues.containsKey(key)) {
+            return boundValues.get(key);
+        }
+        return parent.get(key);
+    }
+
+    @Override
+    public Value put(String key, Value value) {
+        Value previous = get(key);
+        overrides.put(key, value);
+        return previous;
+    }
+
+    /**
+     * Counts the visible variables, so it costs a pass over all the layers
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        Iterator<Entry<String, Value>> iterator = new LayeredIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return overrides.isEmpty() && boundValues.isEmpty() && parent.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<String, Value>> entrySet() {
+        return new AbstractSet<Entry<String, Value>>() {
+            @Override
+            public Iterator<Entry<String, Value>> iterator() {
+                return new LayeredIterator();
+            }
+
+            @Override
+            public int size() {
+                return LayeredScope.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterates the overrides, then the bound values and then the parent variables, skipping the hidden ones.
+     */
+    private class LayeredIterator implements Iterator<Entry<String, Value>> {
+
+        private final Iterator<? extends Entry<String, ? extends Value>> overridesIterator = overrides.entrySet().iterator();
+        private final Iterator<? extends Entry<String, ? extends Value>> boundValuesIterator = boundValues.entrySet().iterator();
+        private final Iterator<? extends Entry<String, ? extends Value>> parentIterator = parent.entrySet().iterator();
+        private Entry<String, Value> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = findNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Value> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Value> current = next;
+            next = null;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removal from a layered scope is not supported");
+        }
+
+        private Entry<String, Value> findNext() {
+            if (overridesIterator.hasNext()) {
+                return immutableEntry(overridesIterator.next());
+            }
+            while (boundValuesIterator.hasNext()) {
+                Entry<String, ? extends Value> entry = boundValuesIterator.next();
+                if (!overrides.containsKey(entry.getKey())) {
+                    return immutableEntry(entry);
+                }
+            }
+            while (parentIterator.hasNext()) {
+                Entry<String, ? extends Value> entry = parentIterator.next();
+                String key = entry.getKey();
+                if (!overrides.containsKey(key) && !boundValues.containsKey(key)) {
+                    return immutableEntry(entry);
+                }
+            }
+            return null;
+        }
+
+        private Entry<String, Value> immutableEntry(Entry<String, ? extends Value> entry) {
+            return new SimpleImmutableEntry<String, Value>(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map on top of a shared base map that is never modified.
+ * Changes are kept aside as overrides and removed keys, so the cost of creating and changing
+ * the map depends on the changes only and not on the size of the base map.
+ * The map is serialized as a plain HashMap of its entries.
+ */
+class OverlayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private final Map<K, V> base;
+    private final Map<K, V> overrides;
+    private final Set<K> removedKeys;
+    private int size;
+
+    OverlayMap(Map<K, V> base) {
+        this.base = base;
+        this.overrides = new HashMap<>();
+        this.removedKeys = new HashSet<>();
+        this.size = base.size();
+    }
+
+    Map<K, V> getBase() {
+        return base;
+    }
+
+    boolean hasChanges() {
+        return !overrides.isEmpty() || !removedKeys.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overrides.containsKey(key) || isVisibleInBase(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (overrides.containsKey(key)) {
+            return overrides.get(key);
+        }
+        return isVisibleInBase(key) ? readBase((K) key, base.get(key)) : null;
+    }
+
+    /**
+     * Called for every value read from the base map
+     *
+     * @return the value handed out for the base value
+     */
+    V readBase(K key, V value) {
+        return value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        boolean existing = containsKey(key);
+        V previous = get(key);
+        overrides.put(key, value);
+        removedKeys.remove(key);
+        if (!existing) {
+            size++;
+        }
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        V previous = get(key);
+        overrides.remove(key);
+        if (base.containsKey(key)) {
+            removedKeys.add((K) key);
+        }
+        size--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        overrides.clear();
+        removedKeys.addAll(base.keySet());
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new OverlayIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private boolean isVisibleInBase(Object key) {
+        return !removedKeys.contains(key) && base.containsKey(key);
+    }
+
+    protected Object writeReplace() {
+        return new HashMap<>(this);
+    }
+
+    /**
+     * Iterates the overrides first and then the base entries that are neither overridden nor removed.
+     * Removal is supported, the removed base entries are hidden and never removed from the base map.
+     */
+    private class OverlayIterator implements Iterator<Entry<K, V>> {
+
+        private final Iterator<Entry<K, V>> overridesIterator = overrides.entrySet().iterator();
+        private final Iterator<Entry<K, V>> baseIterator = base.entrySet().iterator();
+        private Entry<K, V> nextBaseEntry;
+        private Entry<K, V> current;
+        private boolean currentIsOverride;
+
+        @Override
+        public boolean hasNext() {
+            return overridesIterator.hasNext() || findNextBaseEntry() != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            Entry<K, V> entry;
+            if (overridesIterator.hasNext()) {
+                entry = overridesIterator.next();
+                currentIsOverride = true;
+            } else {
+                entry = findNextBaseEntry();
+                if (entry == null) {
+                    throw new NoSuchElementException();
+                }
+                nextBaseEntry = null;
+                currentIsOverride = false;
+            }
+            V value = currentIsOverride ? entry.getValue() : readBase(entry.getKey(), entry.getValue());
+            current = new SimpleImmutableEntry<>(entry.getKey(), value);
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            K key = current.getKey();
+            if (currentIsOverride) {
+                overridesIterator.remove();
+            }
+            if (base.containsKey(key)) {
+                removedKeys.add(key);
+            }
+            size--;
+            current = null;
+        }
+
+        private Entry<K, V> findNextBaseEntry() {
+            while (nextBaseEntry == null && baseIterator.hasNext()) {
+                Entry<K, V> entry = baseIterator.next();
+                K key = entry.getKey();
+                if (!overrides.containsKey(key) && !removedKeys.contains(key)) {
+                    nextBaseEntry = entry;
+                }
+            }
+            return nextBaseEntry;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.values.Value;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of a parallel loop whose branches run in consecutive waves, kept in the flow context between
+ * the join of a wave and the creation of the next one.
+ * Holds the split items whose branches were not created yet, bound once before the first wave, the position
+ * of the next branch to create and what was joined so far: the result of the loop and the context its
+ * publish values are bound over.
+ */
+public class ParallelLoopCondition implements Serializable {
+
+    public static final String PARALLEL_LOOP_CONDITION_KEY = "parallel.loop.condition";
+
+    private final List<Value> remainingSplitData;
+    private int nextIndex;
+
+    private String parallelLoopResult = ScoreLangConstants.SUCCESS_RESULT;
+    private Map<String, Value> publishContext;
+
+    /**
+     * @param splitData the bound split data of the loop
+     */
+    public ParallelLoopCondition(List<Value> splitData) {
+        remainingSplitData = new ArrayList<>(splitData);
+    }
+
+    public boolean hasMore() {
+        return !remainingSplitData.isEmpty();
+    }
+
+    public int getNextIndex() {
+        return nextIndex;
+    }
+
+    /**
+     * Removes the split items of the next wave from the remaining ones.
+     *
+     * @param maxParallelism maximal size of the wave, null if not limited
+     * @return the split items of the next wave
+     */
+    public List<Value> nextWave(Integer maxParallelism) {
+        int waveSize = maxParallelism == null ?
+                remainingSplitData.size() : Math.min(remainingSplitData.size(), maxParallelism);
+        List<Value> waveItems = remainingSplitData.subList(0, waveSize);
+        List<Value> wave = new ArrayList<>(waveItems);
+        waveItems.clear();
+        nextIndex += waveSize;
+        return wave;
+    }
+
+    public String getParallelLoopResult() {
+        return parallelLoopResult;
+    }
+
+    public void setParallelLoopResult(String parallelLoopResult) {
+        this.parallelLoopResult = parallelLoopResult;
+    }
+
+    /**
+     * @return the context of the publish values joined so far, null before the first branch is joined
+     */
+    public Map<String, Value> getPublishContext() {
+        return publishContext;
+    }
+
+    public void setPublishContext(Map<String, Value> publishContext) {
+        this.publishContext = publishContext;
+    }
+}
@@ -13,9 +13,11 @@ package io.cloudslang.lang.runtime.env;
 import com.hp.oo.sdk.content.plugin.SerializableSessionObject;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.Value;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -28,6 +30,8 @@ import java.util.Set;
  */
 public class RunEnvironment implements Serializable {
 
+    private static final long serialVersionUID = 5724396684955895547L;
+
     // Call arguments for the current step
     private Map<String, Value> callArguments;
 
@@ -66,6 +70,30 @@ public class RunEnvironment implements Serializable {
         this(new HashSet<SystemProperty>());
     }
 
+    private RunEnvironment(RunEnvironment parent) {
+        contextStack = new ContextStack();
+        parentFlowStack = new ParentFlowStack();
+        callArguments = copyValues(parent.callArguments);
+        returnValues = parent.returnValues == null ? null :
+                new ReturnValues(copyValues(parent.returnValues.getOutputs()), parent.returnValues.getResult());
+        nextStepPosition = parent.nextStepPosition;
+        executionPath = new ExecutionPath(parent.executionPath);
+        // session objects are mutable, every branch works on its own copy of them
+        serializableDataMap = parent.serializableDataMap.isEmpty() ?
+                new HashMap<String, SerializableSessionObject>() :
+                SerializationUtils.clone(new HashMap<>(parent.serializableDataMap));
+        // the system properties are the same for the whole run and never changed
+        systemProperties = Collections.unmodifiableSet(parent.systemProperties);
+    }
+
+    private static Map<String, Value> copyValues(Map<String, Value> values) {
+        Map<String, Value> copy = new HashMap<>();
+        for (Map.Entry<String, Value> entry : values.entrySet()) {
+            copy.put(entry.getKey(), Context.copyIfMutable(entry.getValue()));
+        }
+        return copy;
+    }
+
     public ContextStack getStack(){
         return contextStack;
     }
@@ -116,6 +144,15 @@ public class RunEnvironment implements Serializable {
         return serializableDataMap;
     }
 
+    /**
+     * Creates the run environment of a parallel branch, with empty stacks and its own execution path.
+     * Unlike a serialization based clone, the cost does not depend on the size of this environment's contexts.
+     * The values are shared with this environment unless their content can be changed.
+     */
+    public RunEnvironment createBranchEnvironment() {
+        return new RunEnvironment(this);
+    }
+
     public void resetStacks() {
         contextStack = new ContextStack();
         parentFlowStack = new ParentFlowStack();
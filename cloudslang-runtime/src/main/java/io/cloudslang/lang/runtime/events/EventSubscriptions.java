@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.events;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.score.events.EventBus;
+import io.cloudslang.score.events.ScoreEvent;
+import io.cloudslang.score.events.ScoreEventListener;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Event types that have listeners on the event bus of the application context.
+ *
+ * The score event bus can not tell which event types are subscribed, so the event bus bean is decorated
+ * to register here every subscription made on it, whoever makes it, and the runtime checks them before
+ * it builds the data of an event.
+ * Only the subscriptions of the local event bus are seen, while the events of an execution may be
+ * consumed elsewhere, so only the high volume informational events are skipped when not subscribed.
+ * The terminal and error events are always fired.
+ * As long as no subscription was registered, e.g. on a worker that has no listeners, every event type
+ * is considered subscribed.
+ */
+@Component
+public class EventSubscriptions implements BeanPostProcessor {
+
+    // fired once per step, input or branch, they are the only events skipped when not subscribed
+    private static final Set<String> SKIPPABLE_EVENT_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ScoreLangConstants.EVENT_STEP_START,
+            ScoreLangConstants.EVENT_INPUT_START,
+            ScoreLangConstants.EVENT_INPUT_END,
+            ScoreLangConstants.EVENT_ARGUMENT_START,
+            ScoreLangConstants.EVENT_ARGUMENT_END,
+            ScoreLangConstants.EVENT_BRANCH_START
+    )));
+
+    private final Map<ScoreEventListener, Set<String>> subscriptions = new HashMap<>();
+
+    // null as long as no subscription was registered
+    private volatile Set<String> subscribedEventTypes;
+
+    public synchronized void subscribe(ScoreEventListener eventListener, Set<String> eventTypes) {
+        subscriptions.put(eventListener, new HashSet<>(eventTypes));
+        updateSubscribedEventTypes();
+    }
+
+    public synchronized void unsubscribe(ScoreEventListener eventListener) {
+        if (subscriptions.remove(eventListener) != null) {
+            updateSubscribedEventTypes();
+        }
+    }
+
+    public boolean isSubscribed(String eventType) {
+        Set<String> eventTypes = subscribedEventTypes;
+        return eventTypes == null || !SKIPPABLE_EVENT_TYPES.contains(eventType) || eventTypes.contains(eventType);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof EventBus) {
+            return new SubscriptionsEventBus((EventBus) bean);
+        }
+        return bean;
+    }
+
+    private void updateSubscribedEventTypes() {
+        Set<String> eventTypes = new HashSet<>();
+        for (Set<String> listenerEventTypes : subscriptions.values()) {
+            eventTypes.addAll(listenerEventTypes);
+        }
+        subscribedEventTypes = Collections.unmodifiableSet(eventTypes);
+    }
+
+    /**
+     * Event bus that registers the subscriptions before passing them to the score event bus
+     */
+    private class SubscriptionsEventBus implements EventBus {
+
+        private final EventBus eventBus;
+
+        SubscriptionsEventBus(EventBus eventBus) {
+            this.eventBus = eventBus;
+        }
+
+        @Override
+        public void subscribe(ScoreEventListener eventListener, Set<String> eventTypes) {
+            eventBus.subscribe(eventListener, eventTypes);
+            EventSubscriptions.this.subscribe(eventListener, eventTypes);
+        }
+
+        @Override
+        public void unsubscribe(ScoreEventListener eventListener) {
+            eventBus.unsubscribe(eventListener);
+            EventSubscriptions.this.unsubscribe(eventListener);
+        }
+
+        @Override
+        public void dispatch(ScoreEvent... events) throws InterruptedException {
+            eventBus.dispatch(events);
+        }
+    }
+}
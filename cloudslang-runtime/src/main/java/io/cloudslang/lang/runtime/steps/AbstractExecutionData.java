@@ -18,9 +18,11 @@ import io.cloudslang.lang.runtime.env.ContextStack;
 import io.cloudslang.lang.runtime.env.ParentFlowData;
 import io.cloudslang.lang.runtime.env.ParentFlowStack;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
+import io.cloudslang.lang.runtime.events.EventSubscriptions;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -32,12 +34,25 @@ import java.util.Map.Entry;
 
 public abstract class AbstractExecutionData {
 
+    @Autowired(required = false)
+    private EventSubscriptions eventSubscriptions;
+
+    /**
+     * @return false if the event type can be skipped and no listener is subscribed to it, so the event data does not have to be built
+     */
+    protected boolean isSubscribed(String eventType) {
+        return eventSubscriptions == null || eventSubscriptions.isSubscribed(eventType);
+    }
+
     public void sendStartBindingInputsEvent(List<Input> inputs,
                                           RunEnvironment runEnv,
                                           ExecutionRuntimeServices executionRuntimeServices,
                                           String desc,
                                           LanguageEventData.StepType stepType,
                                           String stepName) {
+        if (!isSubscribed(ScoreLangConstants.EVENT_INPUT_START)) {
+            return;
+        }
         ArrayList<String> inputNames = new ArrayList<>();
         for (Input input : inputs) {
             inputNames.add(input.getName());
@@ -53,6 +68,9 @@ public abstract class AbstractExecutionData {
                                           String desc,
                                           LanguageEventData.StepType stepType,
                                           String stepName) {
+        if (!isSubscribed(ScoreLangConstants.EVENT_INPUT_END)) {
+            return;
+        }
         Map<String, Value> inputsForEvent = new LinkedHashMap<>();
         for (Input input : inputs) {
             String inputName = input.getName();
@@ -69,6 +87,9 @@ public abstract class AbstractExecutionData {
             ExecutionRuntimeServices executionRuntimeServices,
             String description,
             String stepName) {
+        if (!isSubscribed(ScoreLangConstants.EVENT_ARGUMENT_START)) {
+            return;
+        }
         ArrayList<String> argumentNames = new ArrayList<>();
         for (Argument argument : arguments) {
             argumentNames.add(argument.getName());
@@ -91,6 +112,9 @@ public abstract class AbstractExecutionData {
             ExecutionRuntimeServices executionRuntimeServices,
             String description,
             String stepName) {
+        if (!isSubscribed(ScoreLangConstants.EVENT_ARGUMENT_END)) {
+            return;
+        }
         Map<String, Value> argumentsForEvent = new LinkedHashMap<>();
         for (Argument argument : arguments) {
             String argumentName = argument.getName();
@@ -107,6 +131,32 @@ public abstract class AbstractExecutionData {
         );
     }
 
+    @SafeVarargs
+    protected final void fireSubscribedEvent(ExecutionRuntimeServices runtimeServices,
+                                             RunEnvironment runEnvironment,
+                                             String type,
+                                             String description,
+                                             LanguageEventData.StepType stepType,
+                                             String stepName,
+                                             Map.Entry<String, ? extends Serializable>... fields) {
+        if (isSubscribed(type)) {
+            fireEvent(runtimeServices, runEnvironment, type, description, stepType, stepName, fields);
+        }
+    }
+
+    @SafeVarargs
+    protected final void fireSubscribedEvent(ExecutionRuntimeServices runtimeServices,
+                                             String type,
+                                             String description,
+                                             String path,
+                                             LanguageEventData.StepType stepType,
+                                             String stepName,
+                                             Map.Entry<String, ? extends Serializable>... fields) {
+        if (isSubscribed(type)) {
+            fireEvent(runtimeServices, type, description, path, stepType, stepName, fields);
+        }
+    }
+
     @SafeVarargs
     public static void fireEvent(ExecutionRuntimeServices runtimeServices,
                                  RunEnvironment runEnvironment,
@@ -72,16 +72,18 @@ public class ActionExecutionData extends AbstractExecutionData {
 
         Map<String, Value> returnValue = new HashMap<>();
         Map<String, Value> callArguments = runEnv.removeCallArguments();
-        Map<String, Value> callArgumentsDeepCopy = new HashMap<>();
 
-        for (Map.Entry<String, Value> entry : callArguments.entrySet()) {
-            callArgumentsDeepCopy.put(entry.getKey(), ValueFactory.create(entry.getValue()));
+        if (isSubscribed(ScoreLangConstants.EVENT_ACTION_START)) {
+            Map<String, Value> callArgumentsDeepCopy = new HashMap<>();
+            for (Map.Entry<String, Value> entry : callArguments.entrySet()) {
+                callArgumentsDeepCopy.put(entry.getKey(), ValueFactory.create(entry.getValue()));
+            }
+            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_START, "Preparing to run action " + actionType,
+                    runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
+                    Pair.of(LanguageEventData.CALL_ARGUMENTS, (Serializable)callArgumentsDeepCopy));
         }
 
         Map<String, SerializableSessionObject> serializableSessionData = runEnv.getSerializableDataMap();
-        fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_START, "Preparing to run action " + actionType,
-                runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
-                Pair.of(LanguageEventData.CALL_ARGUMENTS, (Serializable)callArgumentsDeepCopy));
         try {
             switch (actionType) {
                 case JAVA:
@@ -95,7 +97,7 @@ public class ActionExecutionData extends AbstractExecutionData {
                     break;
             }
         } catch (RuntimeException ex) {
-            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_ERROR, ex.getMessage(),
+            fireSubscribedEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_ERROR, ex.getMessage(),
                     runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
                     Pair.of(LanguageEventData.EXCEPTION, ex.getMessage()));
             logger.error(ex);
@@ -104,7 +106,7 @@ public class ActionExecutionData extends AbstractExecutionData {
 
         ReturnValues returnValues = new ReturnValues(returnValue, null);
         runEnv.putReturnValues(returnValues);
-        fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_END, "Action performed",
+        fireSubscribedEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_END, "Action performed",
                 runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null);
 
         runEnv.putNextStepPosition(nextStepId);
@@ -20,6 +20,7 @@ import io.cloudslang.lang.runtime.RuntimeConstants;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ParallelLoopBinding;
 import io.cloudslang.lang.runtime.env.Context;
+import io.cloudslang.lang.runtime.env.ParallelLoopCondition;
 import io.cloudslang.lang.runtime.env.ReturnValues;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
@@ -27,19 +28,21 @@ import io.cloudslang.score.api.EndBranchDataContainer;
 import io.cloudslang.score.api.execution.ExecutionParametersConsts;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 import io.cloudslang.score.lang.SystemContext;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
-import org.python.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import static io.cloudslang.score.api.execution.ExecutionParametersConsts.EXECUTION_RUNTIME_SERVICES;
@@ -62,6 +65,13 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
     private static final Logger logger = Logger.getLogger(ParallelLoopExecutionData.class);
 
+    private static final Comparator<EndBranchDataContainer> BRANCH_INDEX_ORDER = new Comparator<EndBranchDataContainer>() {
+        @Override
+        public int compare(EndBranchDataContainer branch1, EndBranchDataContainer branch2) {
+            return Integer.compare(getBranchIndex(branch1), getBranchIndex(branch2));
+        }
+    };
+
     public void addBranches(@Param(ScoreLangConstants.PARALLEL_LOOP_STATEMENT_KEY) ParallelLoopStatement parallelLoopStatement,
                             @Param(ScoreLangConstants.RUN_ENV) RunEnvironment runEnv,
                             @Param(EXECUTION_RUNTIME_SERVICES) ExecutionRuntimeServices executionRuntimeServices,
@@ -74,30 +84,46 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         try {
             Context flowContext = runEnv.getStack().popContext();
 
-            List<Value> splitData = parallelLoopBinding.bindParallelLoopList(parallelLoopStatement, flowContext, runEnv.getSystemProperties(), nodeName);
-
-            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_SPLIT_BRANCHES,
-                    "parallel loop expression bound", runEnv.getExecutionPath().getCurrentPath(),
-                    LanguageEventData.StepType.STEP, nodeName,
-                    Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+            // removed before creating the branches so they do not inherit it
+            Value parallelLoopConditionValue = flowContext.removeLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY);
+            ParallelLoopCondition parallelLoopCondition;
+            if (parallelLoopConditionValue == null) {
+                // the split data is bound once, the next waves take their items from the condition
+                List<Value> splitData = parallelLoopBinding.bindParallelLoopList(parallelLoopStatement, flowContext, runEnv.getSystemProperties(), nodeName);
+                fireSubscribedEvent(executionRuntimeServices, ScoreLangConstants.EVENT_SPLIT_BRANCHES,
+                        "parallel loop expression bound", runEnv.getExecutionPath().getCurrentPath(),
+                        LanguageEventData.StepType.STEP, nodeName,
+                        Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+
+                parallelLoopCondition = new ParallelLoopCondition(splitData);
+            } else {
+                parallelLoopCondition = (ParallelLoopCondition) parallelLoopConditionValue.get();
+            }
 
             runEnv.putNextStepPosition(nextStepId);
             runEnv.getExecutionPath().down();
+            // branches of the previous waves keep their paths
+            runEnv.getExecutionPath().forward(parallelLoopCondition.getNextIndex());
 
-            for (Value splitItem : splitData) {
+            List<Value> wave = parallelLoopCondition.nextWave(parallelLoopStatement.getMaxParallelism());
+            // the branches of the wave share the variables of the flow instead of copying them
+            flowContext.shareWithBranches();
+            boolean branchStartSubscribed = isSubscribed(ScoreLangConstants.EVENT_BRANCH_START);
+            for (Value splitItem : wave) {
 
                 // first fire event
-                fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_BRANCH_START,
-                        "parallel loop branch created", runEnv.getExecutionPath().getCurrentPath(),
-                        LanguageEventData.StepType.STEP, nodeName, Pair.of(ScoreLangConstants.REF_ID, refId),
-                        Pair.of(RuntimeConstants.SPLIT_ITEM_KEY, splitItem));
+                if (branchStartSubscribed) {
+                    fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_BRANCH_START,
+                            "parallel loop branch created", runEnv.getExecutionPath().getCurrentPath(),
+                            LanguageEventData.StepType.STEP, nodeName, Pair.of(ScoreLangConstants.REF_ID, refId),
+                            Pair.of(RuntimeConstants.SPLIT_ITEM_KEY, splitItem));
+                }
                 // take path down one level
                 runEnv.getExecutionPath().down();
 
-                RunEnvironment branchRuntimeEnvironment = (RunEnvironment) SerializationUtils.clone(runEnv);
-                branchRuntimeEnvironment.resetStacks();
+                RunEnvironment branchRuntimeEnvironment = runEnv.createBranchEnvironment();
 
-                Context branchContext = (Context) SerializationUtils.clone(flowContext);
+                Context branchContext = flowContext.createBranchContext();
                 branchContext.putVariable(parallelLoopStatement.getVarName(), splitItem);
                 updateCallArgumentsAndPushContextToStack(branchRuntimeEnvironment,
                         branchContext, new HashMap<String, Value>());
@@ -115,6 +141,11 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                 runEnv.getExecutionPath().forward();
             }
 
+            if (parallelLoopConditionValue != null || parallelLoopCondition.hasMore()) {
+                // the loop runs in waves, the join step needs the condition
+                flowContext.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY, ValueFactory.create(parallelLoopCondition));
+            }
+
             updateCallArgumentsAndPushContextToStack(runEnv, flowContext, new HashMap<String, Value>());
         } catch (RuntimeException e) {
             logger.error("There was an error running the add branches execution step of: \'" + nodeName + "\'. Error is: " + e.getMessage());
@@ -126,28 +157,49 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
     public void joinBranches(@Param(ScoreLangConstants.RUN_ENV) RunEnvironment runEnv,
                              @Param(EXECUTION_RUNTIME_SERVICES) ExecutionRuntimeServices executionRuntimeServices,
                              @Param(ScoreLangConstants.STEP_PUBLISH_KEY) List<Output> stepPublishValues,
+                             @Param(ScoreLangConstants.STEP_ACCUMULATE_KEY) List<Output> stepAccumulateValues,
                              @Param(ScoreLangConstants.STEP_NAVIGATION_KEY) Map<String, ResultNavigation> stepNavigationValues,
-                             @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName) {
+                             @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName,
+                             @Param(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY) Long addBranchesStep) {
         try {
             runEnv.getExecutionPath().up();
-            List<Map<String, Serializable>> branchesContext = Lists.newArrayList();
             Context flowContext = runEnv.getStack().popContext();
 
-            collectBranchesData(executionRuntimeServices, nodeName, branchesContext);
+            Value parallelLoopConditionValue = flowContext.removeLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY);
+            ParallelLoopCondition parallelLoopCondition = parallelLoopConditionValue == null ?
+                    new ParallelLoopCondition(Collections.<Value>emptyList()) :
+                    (ParallelLoopCondition) parallelLoopConditionValue.get();
+
+            // the step declares an accumulate section when its branches should be folded one at a time
+            BranchesJoin branchesJoin = CollectionUtils.isEmpty(stepAccumulateValues) ?
+                    new BranchesContextJoin(runEnv, parallelLoopCondition) :
+                    new AccumulatingBranchesJoin(runEnv, parallelLoopCondition, stepAccumulateValues);
 
-            Map<String, Value> publishValues =
-                    bindPublishValues(
-                            runEnv,
-                            executionRuntimeServices,
-                            stepPublishValues,
-                            stepNavigationValues,
-                            nodeName,
-                            branchesContext
-                    );
+            collectBranchesData(executionRuntimeServices, nodeName, branchesJoin);
+
+            if (parallelLoopCondition.hasMore()) {
+                // go back for the next wave of branches, the join is completed after the last one
+                flowContext.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY, ValueFactory.create(parallelLoopCondition));
+                runEnv.putNextStepPosition(addBranchesStep);
+                runEnv.getStack().pushContext(flowContext);
+                return;
+            }
+
+            fireSubscribedEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_JOIN_BRANCHES_START,
+                    "Parallel loop output binding started", LanguageEventData.StepType.STEP, nodeName,
+                    Pair.of(ScoreLangConstants.STEP_PUBLISH_KEY, (Serializable) stepPublishValues),
+                    Pair.of(ScoreLangConstants.STEP_NAVIGATION_KEY, (Serializable) stepNavigationValues));
+
+            Map<String, Value> publishValues = outputsBinding.bindOutputs(
+                    Collections.<String, Value>emptyMap(),
+                    branchesJoin.getPublishContext(),
+                    runEnv.getSystemProperties(),
+                    stepPublishValues
+            );
 
             flowContext.putVariables(publishValues);
 
-            String parallelLoopResult = getParallelLoopResult(branchesContext);
+            String parallelLoopResult = branchesJoin.getParallelLoopResult();
 
             handleNavigationAndReturnValues(runEnv, executionRuntimeServices, stepNavigationValues, nodeName, publishValues, parallelLoopResult);
 
@@ -179,7 +231,7 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         HashMap<String, Value> outputs = new HashMap<>(publishValues);
         ReturnValues returnValues = new ReturnValues(outputs, presetResult != null ? presetResult : parallelLoopResult);
 
-        fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_JOIN_BRANCHES_END,
+        fireSubscribedEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_JOIN_BRANCHES_END,
                 "Parallel loop output binding finished", LanguageEventData.StepType.STEP, nodeName,
                 Pair.of(LanguageEventData.OUTPUTS, (Serializable) publishValues),
                 Pair.of(LanguageEventData.RESULT, returnValues.getResult()),
@@ -189,54 +241,22 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         runEnv.putNextStepPosition(nextStepPosition);
     }
 
-    private String getParallelLoopResult(List<Map<String, Serializable>> branchesContext) {
-        // if one of the branches failed then return with FAILURE, otherwise return with SUCCESS
-        String parallelLoopResult = ScoreLangConstants.SUCCESS_RESULT;
-        for (Map<String, Serializable> branchContext : branchesContext) {
-            String branchResult = (String) branchContext.get(ScoreLangConstants.BRANCH_RESULT_KEY);
-            if (branchResult.equals(ScoreLangConstants.FAILURE_RESULT)) {
-                parallelLoopResult = ScoreLangConstants.FAILURE_RESULT;
-                break;
-            }
-        }
-        return parallelLoopResult;
-    }
-
-    private Map<String, Value> bindPublishValues(
-            RunEnvironment runEnv,
-            ExecutionRuntimeServices executionRuntimeServices,
-            List<Output> stepPublishValues,
-            Map<String, ResultNavigation> stepNavigationValues,
-            String nodeName,
-            List<Map<String, Serializable>> branchesContext) {
-
-        Map<String, Value> publishContext = new HashMap<>();
-        publishContext.put(RuntimeConstants.BRANCHES_CONTEXT_KEY, ValueFactory.create((Serializable) branchesContext));
-
-        fireEvent(
-                executionRuntimeServices,
-                runEnv,
-                ScoreLangConstants.EVENT_JOIN_BRANCHES_START,
-                "Parallel loop output binding started", LanguageEventData.StepType.STEP, nodeName,
-                Pair.of(ScoreLangConstants.STEP_PUBLISH_KEY, (Serializable) stepPublishValues),
-                Pair.of(ScoreLangConstants.STEP_NAVIGATION_KEY, (Serializable) stepNavigationValues));
-
-        return outputsBinding.bindOutputs(
-                Collections.<String, Value>emptyMap(),
-                publishContext,
-                runEnv.getSystemProperties(),
-                stepPublishValues
-        );
-    }
-
     private void collectBranchesData(
             ExecutionRuntimeServices executionRuntimeServices,
             String nodeName,
-            List<Map<String, Serializable>> branchesContext) {
+            BranchesJoin branchesJoin) {
 
+        // the finished branches are handed over by score, each one is released as soon as it is joined
         List<EndBranchDataContainer> branches = executionRuntimeServices.getFinishedChildBranchesData();
         for (EndBranchDataContainer branch : branches) {
             checkExceptionInBranch(branch);
+        }
+        // score hands over the branches of a wave in the order they finished, they are joined in the order of their
+        // split items, and the waves are joined one after the other
+        Collections.sort(branches, BRANCH_INDEX_ORDER);
+        for (ListIterator<EndBranchDataContainer> iterator = branches.listIterator(); iterator.hasNext(); ) {
+            EndBranchDataContainer branch = iterator.next();
+            iterator.set(null);
 
             Map<String, Serializable> branchContext = branch.getContexts();
             RunEnvironment branchRuntimeEnvironment = (RunEnvironment) branchContext.get(ScoreLangConstants.RUN_ENV);
@@ -245,18 +265,23 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
             ReturnValues executableReturnValues = branchRuntimeEnvironment.removeReturnValues();
             String branchResult = executableReturnValues.getResult();
             branchContextMap.put(ScoreLangConstants.BRANCH_RESULT_KEY, branchResult);
-            branchesContext.add(branchContextMap);
+            branchesJoin.addBranch(branchContextMap, branchResult);
 
             // up branch path
             branchRuntimeEnvironment.getExecutionPath().up();
 
-            fireEvent(executionRuntimeServices, branchRuntimeEnvironment, ScoreLangConstants.EVENT_BRANCH_END,
+            fireSubscribedEvent(executionRuntimeServices, branchRuntimeEnvironment, ScoreLangConstants.EVENT_BRANCH_END,
                     "Parallel loop branch ended", LanguageEventData.StepType.STEP, nodeName,
                     Pair.of(RuntimeConstants.BRANCH_RETURN_VALUES_KEY, executableReturnValues)
             );
         }
     }
 
+    private static int getBranchIndex(EndBranchDataContainer branch) {
+        RunEnvironment branchRuntimeEnvironment = (RunEnvironment) branch.getContexts().get(ScoreLangConstants.RUN_ENV);
+        return branchRuntimeEnvironment.getExecutionPath().getParentPosition();
+    }
+
     private void checkExceptionInBranch(EndBranchDataContainer branch) {
         //first we check that no exception was thrown during the execution of the branch
         String branchException = branch.getException();
@@ -288,4 +313,99 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         }
         return result;
     }
+
+    /**
+     * Folds the finished branches into the result of the parallel loop and into the context of its publish values.
+     */
+    private abstract class BranchesJoin {
+
+        protected final RunEnvironment runEnv;
+        // what was joined so far, also from previous waves of branches
+        protected final ParallelLoopCondition parallelLoopCondition;
+
+        BranchesJoin(RunEnvironment runEnv, ParallelLoopCondition parallelLoopCondition) {
+            this.runEnv = runEnv;
+            this.parallelLoopCondition = parallelLoopCondition;
+        }
+
+        void addBranch(Map<String, Serializable> branchContext, String branchResult) {
+            // if one of the branches failed then the parallel loop fails, otherwise it succeeds
+            if (ScoreLangConstants.FAILURE_RESULT.equals(branchResult)) {
+                parallelLoopCondition.setParallelLoopResult(ScoreLangConstants.FAILURE_RESULT);
+            }
+            foldBranch(branchContext);
+        }
+
+        String getParallelLoopResult() {
+            return parallelLoopCondition.getParallelLoopResult();
+        }
+
+        Map<String, Value> getPublishContext() {
+            return parallelLoopCondition.getPublishContext();
+        }
+
+        protected abstract void foldBranch(Map<String, Serializable> branchContext);
+    }
+
+    /**
+     * Keeps the context of every branch, the publish values are bound over the branches_context list.
+     */
+    private class BranchesContextJoin extends BranchesJoin {
+
+        private final List<Map<String, Serializable>> branchesContext;
+
+        @SuppressWarnings("unchecked")
+        BranchesContextJoin(RunEnvironment runEnv, ParallelLoopCondition parallelLoopCondition) {
+            super(runEnv, parallelLoopCondition);
+            Map<String, Value> publishContext = parallelLoopCondition.getPublishContext();
+            if (publishContext == null) {
+                branchesContext = new ArrayList<>();
+                publishContext = new HashMap<>();
+                publishContext.put(RuntimeConstants.BRANCHES_CONTEXT_KEY, ValueFactory.create((Serializable) branchesContext));
+                parallelLoopCondition.setPublishContext(publishContext);
+            } else {
+                branchesContext = (List<Map<String, Serializable>>) publishContext.get(RuntimeConstants.BRANCHES_CONTEXT_KEY).get();
+            }
+        }
+
+        @Override
+        protected void foldBranch(Map<String, Serializable> branchContext) {
+            branchesContext.add(branchContext);
+        }
+    }
+
+    /**
+     * Binds the accumulate values of the step once per branch, in the order of the split items, with the
+     * branch's context as branch_context and the values accumulated so far, which are None before the
+     * first branch. Branch contexts are not kept after being folded.
+     * The publish values are bound over the accumulated values, branches_context is not available.
+     */
+    private class AccumulatingBranchesJoin extends BranchesJoin {
+
+        private final List<Output> stepAccumulateValues;
+
+        AccumulatingBranchesJoin(RunEnvironment runEnv, ParallelLoopCondition parallelLoopCondition, List<Output> stepAccumulateValues) {
+            super(runEnv, parallelLoopCondition);
+            this.stepAccumulateValues = stepAccumulateValues;
+            if (parallelLoopCondition.getPublishContext() == null) {
+                Map<String, Value> initialValues = new HashMap<>();
+                for (Output accumulateValue : stepAccumulateValues) {
+                    initialValues.put(accumulateValue.getName(), ValueFactory.create((Serializable) null));
+                }
+                parallelLoopCondition.setPublishContext(initialValues);
+            }
+        }
+
+        @Override
+        protected void foldBranch(Map<String, Serializable> branchContext) {
+            Map<String, Value> accumulateContext = new HashMap<>();
+            accumulateContext.put(RuntimeConstants.BRANCH_CONTEXT_KEY, ValueFactory.create((Serializable) branchContext));
+            parallelLoopCondition.setPublishContext(outputsBinding.bindOutputs(
+                    parallelLoopCondition.getPublishContext(),
+                    accumulateContext,
+                    runEnv.getSystemProperties(),
+                    stepAccumulateValues
+            ));
+        }
+    }
 }
@@ -69,7 +69,7 @@ public class StepExecutionData extends AbstractExecutionData {
                           @Param(ScoreLangConstants.REF_ID) String refId) {
         try {
 
-            fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_STEP_START,
+            fireSubscribedEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_STEP_START,
                     "beginStep execution step started", LanguageEventData.StepType.STEP, nodeName);
 
             runEnv.removeCallArguments();
@@ -156,7 +156,7 @@ public class StepExecutionData extends AbstractExecutionData {
             Context flowContext = runEnv.getStack().popContext();
 
             ReturnValues executableReturnValues = runEnv.removeReturnValues();
-            fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_OUTPUT_START, "Output binding started",
+            fireSubscribedEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_OUTPUT_START, "Output binding started",
                     LanguageEventData.StepType.STEP, nodeName,
                     Pair.of(ScoreLangConstants.STEP_PUBLISH_KEY, (Serializable) stepPublishValues),
                     Pair.of(ScoreLangConstants.STEP_NAVIGATION_KEY, (Serializable) stepNavigationValues),
@@ -240,7 +240,7 @@ public class StepExecutionData extends AbstractExecutionData {
                                      Map<String, Value> publishValues,
                                      Long nextPosition,
                                      ReturnValues returnValues) {
-        fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_OUTPUT_END, "Output binding finished",
+        fireSubscribedEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_OUTPUT_END, "Output binding finished",
                 LanguageEventData.StepType.STEP, nodeName,
                 Pair.of(LanguageEventData.OUTPUTS, (Serializable)publishValues),
                 Pair.of(LanguageEventData.RESULT, returnValues.getResult()),
@@ -176,6 +176,27 @@ public class OutputsBindingTest {
         Assert.assertEquals("Binding results are not as expected", expectedOutputs, result);
     }
 
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testOutputsSeePreviousOutputs() {
+        Map<String, Value> operationContext = prepareOperationContext();
+        Map<String, Value> actionReturnValues = prepareActionReturnValues();
+        List<Output> outputs = Arrays.asList(
+                createExpressionOutput("url", "${ 'http://' + hostExpr + ':' + str(port) }"),
+                createExpressionOutput("port", "${ str(port + 1) }"),
+                createExpressionOutput("urls", "${ url + ',' + str(port) }"),
+                createExpressionOutput("length", "${ len(urls.split(',')) }"));
+
+        Map<String, Value> result = outputsBinding.bindOutputs(operationContext, actionReturnValues, EMPTY_SET, outputs);
+
+        Map<String, Value> expectedOutputs = new HashMap<>();
+        expectedOutputs.put("url", ValueFactory.create("http://hostExpr:9999"));
+        expectedOutputs.put("port", ValueFactory.create("10000"));
+        expectedOutputs.put("urls", ValueFactory.create("http://hostExpr:9999,10000"));
+        expectedOutputs.put("length", ValueFactory.create(2));
+
+        Assert.assertEquals("Binding results are not as expected", expectedOutputs, result);
+    }
+
     private Map<String, Value> prepareOperationContext() {
         Map<String, Value> operationContext = new HashMap<>();
         operationContext.put("operationContextKey1", ValueFactory.create("opContextValue1"));
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledExpressionCacheTest {
+
+    @Test
+    public void testMissThenHit() {
+        CompiledExpressionCache cache = new CompiledExpressionCache(10);
+        CompiledExpression compiledExpression = new CompiledExpression("x", null);
+
+        Assert.assertNull(cache.get("x"));
+        cache.put("x", compiledExpression);
+        Assert.assertSame(compiledExpression, cache.get("x"));
+
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        CompiledExpressionCache cache = new CompiledExpressionCache(2);
+        cache.put("a", new CompiledExpression("a", null));
+        cache.put("b", new CompiledExpression("b", null));
+        Assert.assertNotNull(cache.get("a"));
+
+        cache.put("c", new CompiledExpression("c", null));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testZeroSizeDisablesCaching() {
+        CompiledExpressionCache cache = new CompiledExpressionCache(0);
+        cache.put("x", new CompiledExpression("x", null));
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("x"));
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+}
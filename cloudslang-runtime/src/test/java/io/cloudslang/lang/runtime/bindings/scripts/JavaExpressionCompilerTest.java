@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.encryption.DummyEncryptor;
+import io.cloudslang.lang.entities.utils.ApplicationContextProvider;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the expressions compiled to Java with the Jython evaluation of the same expressions
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = JavaExpressionCompilerTest.Config.class)
+public class JavaExpressionCompilerTest {
+
+    private static final int GENERATED_EXPRESSIONS = 2000;
+    private static final int MAX_DEPTH = 4;
+    private static final String SENSITIVE_PREFIX = "secret_";
+
+    private static final List<String> LITERALS = Arrays.asList(
+            "''", "'0'", "'a'", "'abc'", "\"b c\"", "0", "1", "-3", "42", "True", "False", "None");
+
+    // evaluates every expression with Jython
+    @Autowired
+    private ScriptEvaluator interpreterEvaluator;
+
+    private final Random random = new Random(20161018L);
+
+    @Test
+    public void testCompiledExpressionsMatchJython() throws Exception {
+        Map<String, Value> context = createContext();
+        List<String> variables = new ArrayList<>(context.keySet());
+        int evaluatedInJava = 0;
+        // results of expressions that use sensitive variables, which are sensitive only if a sensitive value was read
+        int sensitiveResults = 0;
+        int nonSensitiveResults = 0;
+
+        for (int index = 0; index < GENERATED_EXPRESSIONS; index++) {
+            String expression = generateOr(variables, MAX_DEPTH);
+            JavaExpression javaExpression = JavaExpressionCompiler.compile(expression);
+            Assert.assertNotNull("not compiled: " + expression, javaExpression);
+
+            Value javaValue = javaExpression.evaluate(context);
+            Value jythonValue;
+            try {
+                jythonValue = interpreterEvaluator.evalExpr(expression, context, new HashSet<SystemProperty>());
+            } catch (RuntimeException e) {
+                Assert.assertNull("evaluated in java but fails in jython: " + expression, javaValue);
+                continue;
+            }
+            if (javaValue != null) {
+                evaluatedInJava++;
+                Serializable expected = jythonValue.get();
+                Serializable actual = javaValue.get();
+                Assert.assertEquals(expression, expected, actual);
+                Assert.assertEquals(expression, expected == null ? null : expected.getClass(),
+                        actual == null ? null : actual.getClass());
+                Assert.assertEquals(expression, jythonValue.isSensitive(), javaValue.isSensitive());
+                if (javaValue.isSensitive()) {
+                    sensitiveResults++;
+                } else if (expression.contains(SENSITIVE_PREFIX)) {
+                    nonSensitiveResults++;
+                }
+            }
+        }
+        Assert.assertTrue("too few sensitive results: " + sensitiveResults, sensitiveResults > GENERATED_EXPRESSIONS / 20);
+        Assert.assertTrue("too few non sensitive results of expressions with sensitive variables: " + nonSensitiveResults,
+                nonSensitiveResults > GENERATED_EXPRESSIONS / 100);
+        Assert.assertTrue("too few expressions evaluated in java: " + evaluatedInJava,
+                evaluatedInJava > GENERATED_EXPRESSIONS / 2);
+    }
+
+    @Test
+    public void testExpressionsOutsideOfSubset() throws Exception {
+        List<String> expressions = Arrays.asList("x.upper()", "x if y else z", "a == b == c", "get('a')",
+                "'a\\n'", "0777", "1.5", "10000000000", "u'a'", "x[0]", "x - 1", "-(1)", "'a' 'b'", "[x]",
+                "x is None", "__name__", "len", "a <> b", "'''a'''", "x # comment");
+        for (String expression : expressions) {
+            Assert.assertNull(expression, JavaExpressionCompiler.compile(expression));
+        }
+    }
+
+    @Test
+    public void testUnsupportedValuesAreLeftToInterpreter() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("empty", ValueFactory.create(null));
+        context.put("list", ValueFactory.create(new ArrayList<>(Arrays.asList(1, 2))));
+        context.put("big", ValueFactory.create(Integer.MAX_VALUE));
+        context.put("len", ValueFactory.create("shadowed"));
+
+        for (String expression : Arrays.asList("missing == 'a'", "empty == None", "list", "big + 1",
+                "len('abc')", "'a' + 1", "'a' < 1", "1 in 'a'")) {
+            JavaExpression javaExpression = JavaExpressionCompiler.compile(expression);
+            Assert.assertNotNull(expression, javaExpression);
+            Assert.assertNull(expression, javaExpression.evaluate(context));
+        }
+    }
+
+    @Test
+    public void testShortCircuitDoesNotEvaluateRight() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("code", ValueFactory.create("1"));
+
+        Assert.assertEquals(false, JavaExpressionCompiler.compile("code == '0' and missing == ''").evaluate(context).get());
+        Assert.assertEquals("1", JavaExpressionCompiler.compile("code or missing").evaluate(context).get());
+    }
+
+    @Test
+    public void testKeywordIsFoundOutsideOfStrings() throws Exception {
+        for (String expression : Arrays.asList("[x for x in values]", "(x for x in values)", "[x\tfor x in 'for']",
+                "'a' + \"b\" + [x for x in y][0]", "'\\'' if [x for x in y] else 1")) {
+            Assert.assertTrue(expression, JavaExpressionCompiler.containsKeyword(expression, "for"));
+        }
+        for (String expression : Arrays.asList("format", "before + forward", "for_each", "'for'", "\"x for y\"",
+                "'''a\n for b'''", "\"\"\"for\"\"\"", "'it\\'s for'", "x # for", "x.format(y)", "'for")) {
+            Assert.assertFalse(expression, JavaExpressionCompiler.containsKeyword(expression, "for"));
+        }
+    }
+
+    private Map<String, Value> createContext() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("s_empty", ValueFactory.create(""));
+        context.put("s_zero", ValueFactory.create("0"));
+        context.put("s_abc", ValueFactory.create("abc"));
+        context.put("s_space", ValueFactory.create("b c"));
+        context.put("i_zero", ValueFactory.create(0));
+        context.put("i_one", ValueFactory.create(1));
+        context.put("i_negative", ValueFactory.create(-7));
+        context.put("i_max", ValueFactory.create(Integer.MAX_VALUE));
+        context.put("b_true", ValueFactory.create(true));
+        context.put("b_false", ValueFactory.create(false));
+        context.put(SENSITIVE_PREFIX + "s_empty", ValueFactory.create("", true));
+        context.put(SENSITIVE_PREFIX + "s_abc", ValueFactory.create("abc", true));
+        context.put(SENSITIVE_PREFIX + "i_one", ValueFactory.create(1, true));
+        context.put(SENSITIVE_PREFIX + "b_false", ValueFactory.create(false, true));
+        return context;
+    }
+
+    private String generateOr(List<String> variables, int depth) {
+        if (depth == 0) {
+            return generateAtom(variables, 0);
+        }
+        switch (random.nextInt(6)) {
+            case 0:
+                return generateOperand(variables, depth) + " or " + generateOperand(variables, depth);
+            case 1:
+                return generateOperand(variables, depth) + " and " + generateOperand(variables, depth);
+            case 2:
+                return "not " + generateOperand(variables, depth);
+            case 3:
+                String[] operators = {"==", "!=", "<", ">", "<=", ">=", "in", "not in"};
+                return generateSum(variables, depth - 1) + " " + operators[random.nextInt(operators.length)] +
+                        " " + generateSum(variables, depth - 1);
+            default:
+                return generateSum(variables, depth - 1);
+        }
+    }
+
+    // operand of a boolean operator, with or without parentheses
+    private String generateOperand(List<String> variables, int depth) {
+        String operand = generateOr(variables, depth - 1);
+        return random.nextBoolean() ? "(" + operand + ")" : operand;
+    }
+
+    private String generateSum(List<String> variables, int depth) {
+        String sum = generateAtom(variables, depth);
+        while (random.nextInt(3) == 0) {
+            sum += " + " + generateAtom(variables, depth);
+        }
+        return sum;
+    }
+
+    private String generateAtom(List<String> variables, int depth) {
+        int choice = random.nextInt(10);
+        if (depth > 0 && choice == 0) {
+            return "(" + generateOr(variables, depth - 1) + ")";
+        } else if (depth > 0 && choice == 1) {
+            return "len(" + generateSum(variables, depth - 1) + ")";
+        } else if (choice < 6) {
+            return variables.get(random.nextInt(variables.size()));
+        } else {
+            return LITERALS.get(random.nextInt(LITERALS.size()));
+        }
+    }
+
+    @Configuration
+    static class Config {
+
+        @Bean
+        public ScriptEvaluator interpreterEvaluator() {
+            return new ScriptEvaluator(false);
+        }
+
+        @Bean
+        public ApplicationContextProvider applicationContextProvider() {
+            return new ApplicationContextProvider();
+        }
+
+        @Bean
+        public DummyEncryptor dummyEncryptor() {
+            return new DummyEncryptor();
+        }
+
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.python.core.PyObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PythonEvaluationSessionTest {
+
+    private final PythonEvaluationSession session = new PythonEvaluationSession();
+
+    @Test
+    public void testUnchangedValuesKeepTheirProxies() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("unchanged", ValueFactory.create("value"));
+        context.put("changed", ValueFactory.create("value"));
+        session.pushContext(context);
+        PyObject unchanged = session.getNamespace().__finditem__("unchanged");
+        PyObject changed = session.getNamespace().__finditem__("changed");
+
+        context.put("changed", ValueFactory.create("value"));
+        session.pushContext(context);
+
+        Assert.assertSame(unchanged, session.getNamespace().__finditem__("unchanged"));
+        Assert.assertNotSame(changed, session.getNamespace().__finditem__("changed"));
+    }
+
+    @Test
+    public void testRemovedVariablesAreDropped() throws Exception {
+        session.setDefault("flag", Boolean.TRUE);
+        Map<String, Value> context = new HashMap<>();
+        context.put("flag", ValueFactory.create("value"));
+        context.put("input", ValueFactory.create("value"));
+        session.pushContext(context);
+
+        session.pushContext(new HashMap<String, Value>());
+
+        Assert.assertNull(session.getNamespace().__finditem__("input"));
+        Assert.assertEquals(Boolean.TRUE, session.getNamespace().__finditem__("flag").__tojava__(Boolean.class));
+    }
+
+    @Test
+    public void testClearPushesTheWholeContextAgain() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input", ValueFactory.create("value"));
+        session.pushContext(context);
+        session.clear();
+        Assert.assertNull(session.getNamespace().__finditem__("input"));
+
+        session.pushContext(context);
+        Assert.assertNotNull(session.getNamespace().__finditem__("input"));
+    }
+}
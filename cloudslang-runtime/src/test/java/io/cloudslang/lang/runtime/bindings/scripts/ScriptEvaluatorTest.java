@@ -1,67 +1,37 @@
 package io.cloudslang.lang.runtime.bindings.scripts;
 
-import io.cloudslang.dependency.api.services.DependencyService;
-import io.cloudslang.dependency.api.services.MavenConfig;
-import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
-import io.cloudslang.dependency.impl.services.MavenConfigImpl;
 import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.expressions.ClassifiedExpression;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.runtime.api.python.PythonEvaluationResult;
-import io.cloudslang.runtime.api.python.PythonRuntimeService;
-import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
-import io.cloudslang.runtime.impl.python.PythonExecutionEngine;
-import io.cloudslang.runtime.impl.python.PythonExecutor;
-import java.io.Serializable;
-import java.util.Collections;
+import io.cloudslang.lang.entities.encryption.DummyEncryptor;
+import io.cloudslang.lang.entities.utils.ApplicationContextProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import junit.framework.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.python.core.PyDictionary;
 import org.python.google.common.collect.Sets;
-import org.python.util.PythonInterpreter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyMap;
-import static org.mockito.Matchers.isA;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.reset;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
-
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = ScriptEvaluatorTest.Config.class)
 public class ScriptEvaluatorTest {
 
-    private static String LINE_SEPARATOR = System.lineSeparator();
-    private static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
-    private static final String GET_FUNCTION_DEFINITION =
-            "def get(key, default_value=None):" + LINE_SEPARATOR +
-                    "  value = globals().get(key)" + LINE_SEPARATOR +
-                    "  return default_value if value is None else value";
-    private static final String GET_SP_FUNCTION_DEFINITION =
-            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
-                    "  property_value = " + SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
-                    "  return default_value if property_value is None else property_value";
-    private static final String CHECK_EMPTY_FUNCTION_DEFINITION =
-            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
-                    "  return default_value if value_to_check is None else value_to_check";
-
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -69,114 +39,287 @@ public class ScriptEvaluatorTest {
     private ScriptEvaluator scriptEvaluator;
 
     @Autowired
-    private PythonInterpreter pythonInterpreter;
+    private CompiledExpressionCache compiledExpressionCache;
 
-    @Autowired
-    private PythonRuntimeService pythonRuntimeService;
+    @Before
+    public void setUp() {
+        compiledExpressionCache.clear();
+    }
 
     @Test
     public void testEvalExpr() throws Exception {
-        reset(pythonRuntimeService);
-        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
-                .thenReturn(new PythonEvaluationResult("result", new HashMap<String, Serializable>()));
-        scriptEvaluator.evalExpr("", new HashMap<String, Value>(), new HashSet<SystemProperty>());
-        verify(pythonRuntimeService).eval(eq(""), anyString(), anyMap());
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value"));
+        Value result = scriptEvaluator.evalExpr("input1 + '_suffix'", context, new HashSet<SystemProperty>());
+        Assert.assertEquals("value_suffix", result.get());
+        Assert.assertFalse(result.isSensitive());
     }
 
     @Test
     public void testEvalExprError() throws Exception {
-        reset(pythonRuntimeService);
-        when(pythonRuntimeService.eval(anyString(), anyString(), anyMap())).thenThrow(new RuntimeException("error from interpreter"));
         exception.expect(RuntimeException.class);
-        exception.expectMessage("input_expression");
-        exception.expectMessage("error from interpreter");
+        exception.expectMessage("Error in running script expression: 'input_expression'");
+        exception.expectMessage("Exception is: name 'input_expression' is not defined");
         scriptEvaluator.evalExpr("input_expression", new HashMap<String, Value>(), new HashSet<SystemProperty>());
     }
 
     @Test
     public void testEvalFunctions() throws Exception {
-        reset(pythonRuntimeService);
         Set<SystemProperty> props = new HashSet<>();
-        SystemProperty systemProperty = new SystemProperty("a.b", "c.key", "value");
-        props.add(systemProperty);
+        props.add(new SystemProperty("a.b", "c.key", "value"));
         Set<ScriptFunction> functionDependencies = Sets.newHashSet(
                 ScriptFunction.GET,
                 ScriptFunction.GET_SYSTEM_PROPERTY,
                 ScriptFunction.CHECK_EMPTY
         );
-        ArgumentCaptor<String> scriptCaptor = ArgumentCaptor.forClass(String.class);
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("input_value"));
+
+        Value result = scriptEvaluator.evalExpr(
+                "get('input1') + ',' + get('missing', 'default') + ',' + get_sp('a.b.c.key') + ',' + check_empty(None, 'empty')",
+                context, props, functionDependencies);
 
-        Map<String, Serializable> scriptReturnContext = new HashMap<>();
-        scriptReturnContext.put(SYSTEM_PROPERTIES_MAP, new PyDictionary());
+        Assert.assertEquals("input_value,default,value,empty", result.get());
+    }
 
-        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
-                .thenReturn(new PythonEvaluationResult("result", scriptReturnContext));
+    @Test
+    public void testCompiledExpressionIsReused() throws Exception {
+        long hits = compiledExpressionCache.getHitCount();
+        long misses = compiledExpressionCache.getMissCount();
+        Map<String, Value> context = new HashMap<>();
+        context.put("x", ValueFactory.create(1));
+        Assert.assertEquals(2, scriptEvaluator.evalExpr("x + 1", context, new HashSet<SystemProperty>()).get());
 
-        String expr = "";
-        scriptEvaluator.evalExpr(expr, new HashMap<String, Value>(), props, functionDependencies);
+        context.put("x", ValueFactory.create(5));
+        Assert.assertEquals(6, scriptEvaluator.evalExpr("x + 1", context, new HashSet<SystemProperty>()).get());
 
-        Map<String, Serializable> expectedContext = new HashMap<>();
-        Map<String, Value> properties = new HashMap<>();
-        properties.put("a.b.c.key", ValueFactory.createPyObjectValue("value", false));
-        expectedContext.put(SYSTEM_PROPERTIES_MAP, (Serializable) properties);
+        Assert.assertEquals(1, compiledExpressionCache.size());
+        Assert.assertEquals(hits + 1, compiledExpressionCache.getHitCount());
+        Assert.assertEquals(misses + 1, compiledExpressionCache.getMissCount());
+    }
 
-        verify(pythonRuntimeService).eval(scriptCaptor.capture(), eq(expr), eq(expectedContext));
+    @Test
+    public void testFunctionIsDefinedOnlyWhenDeclared() throws Exception {
+        Value result = scriptEvaluator.evalExpr("get('x', 'default')", new HashMap<String, Value>(),
+                new HashSet<SystemProperty>(), Sets.newHashSet(ScriptFunction.GET));
+        Assert.assertEquals("default", result.get());
 
-        String actualScript = scriptCaptor.getValue();
-        String[] actualFunctionsArray = actualScript.split(LINE_SEPARATOR + LINE_SEPARATOR);
-        Set<String> actualFunctions = new HashSet<>();
-        Collections.addAll(actualFunctions, actualFunctionsArray);
-        Set<String> expectedFunctions = Sets.newHashSet(
-                GET_FUNCTION_DEFINITION,
-                GET_SP_FUNCTION_DEFINITION,
-                CHECK_EMPTY_FUNCTION_DEFINITION
-        );
-        Assert.assertEquals(expectedFunctions, actualFunctions);
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("name 'get' is not defined");
+        scriptEvaluator.evalExpr("get('x', 'default')", new HashMap<String, Value>(),
+                new HashSet<SystemProperty>(), new HashSet<ScriptFunction>());
     }
 
-    @Configuration
-    static class Config {
-        @Bean
-        public ScriptExecutor scriptExecutor() {
-            return new ScriptExecutor();
+    @Test
+    public void testVariablesOfPreviousEvaluationAreNotVisible() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value"));
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("input1", context, new HashSet<SystemProperty>()).get());
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("name 'input1' is not defined");
+        scriptEvaluator.evalExpr("input1", new HashMap<String, Value>(), new HashSet<SystemProperty>());
+    }
+
+    @Test
+    public void testChangedVariableIsPushed() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value"));
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("input1", context, new HashSet<SystemProperty>()).get());
+
+        context.put("input1", ValueFactory.create("new_value"));
+        Assert.assertEquals("new_value", scriptEvaluator.evalExpr("input1", context, new HashSet<SystemProperty>()).get());
+    }
+
+    @Test
+    public void testSensitivityOfRepeatedEvaluations() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value", true));
+        context.put("input2", ValueFactory.create("other"));
+        Assert.assertTrue(scriptEvaluator.evalExpr("input1.upper()", context, new HashSet<SystemProperty>()).isSensitive());
+        Assert.assertFalse(scriptEvaluator.evalExpr("input2.upper()", context, new HashSet<SystemProperty>()).isSensitive());
+        Assert.assertTrue(scriptEvaluator.evalExpr("input1.upper()", context, new HashSet<SystemProperty>()).isSensitive());
+    }
+
+    @Test
+    public void testComprehensionVariableDoesNotLeak() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("values", ValueFactory.create("ab"));
+        context.put("x", ValueFactory.create("value"));
+        Value result = scriptEvaluator.evalExpr("[x for x in values]", context, new HashSet<SystemProperty>());
+        Assert.assertEquals(2, ((List) result.get()).size());
+
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("x", context, new HashSet<SystemProperty>()).get());
+        context.remove("x");
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("name 'x' is not defined");
+        scriptEvaluator.evalExpr("x", context, new HashSet<SystemProperty>());
+    }
+
+    @Test
+    public void testFunctionHidesVariable() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("get", ValueFactory.create("value"));
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("get", context, new HashSet<SystemProperty>()).get());
+
+        Value result = scriptEvaluator.evalExpr("get('missing', 'default')", context, new HashSet<SystemProperty>(),
+                Sets.newHashSet(ScriptFunction.GET));
+        Assert.assertEquals("default", result.get());
+
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("get", context, new HashSet<SystemProperty>()).get());
+    }
+
+    @Test
+    public void testBatchContextIsNotVisibleAfterClose() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value", true));
+        context.put("input2", ValueFactory.create("other"));
+        try (ScriptEvaluator.ExpressionBatch batch = scriptEvaluator.openBatch(context, new HashSet<SystemProperty>())) {
+            Value first = batch.evaluate(new Output("output1", ValueFactory.create("${ input1.upper() }")));
+            Assert.assertEquals("VALUE", first.get());
+            Assert.assertTrue(first.isSensitive());
+            Value second = batch.evaluate(new Output("output2", ValueFactory.create("${ input2.upper() }")));
+            Assert.assertEquals("OTHER", second.get());
+            Assert.assertFalse(second.isSensitive());
         }
 
-        @Bean
-        public ScriptEvaluator scriptEvaluator() {
-            return new ScriptEvaluator();
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("name 'input1' is not defined");
+        scriptEvaluator.evalExpr("input1.upper()", new HashMap<String, Value>(), new HashSet<SystemProperty>());
+    }
+
+    @Test
+    public void testBatchComprehensionVariableDoesNotLeak() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("values", ValueFactory.create("ab"));
+        context.put("x", ValueFactory.create("value"));
+        try (ScriptEvaluator.ExpressionBatch batch = scriptEvaluator.openBatch(context, new HashSet<SystemProperty>())) {
+            Value first = batch.evaluate(new Output("output1", ValueFactory.create("${ x.format() + 'for' }")));
+            Assert.assertEquals("valuefor", first.get());
+            Value second = batch.evaluate(new Output("output2", ValueFactory.create("${ [x for x in values] }")));
+            Assert.assertEquals(2, ((List) second.get()).size());
+            Value third = batch.evaluate(new Output("output3", ValueFactory.create("${ x.upper() }")));
+            Assert.assertEquals("VALUE", third.get());
         }
+    }
 
-        @Bean
-        public DependencyService mavenRepositoryService() {
-            return new DependencyServiceImpl();
+    @Test
+    public void testTrueAndFalseCanBeOverridden() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        Assert.assertEquals(true, scriptEvaluator.evalExpr("true", context, new HashSet<SystemProperty>()).get());
+
+        context.put("true", ValueFactory.create("value"));
+        Assert.assertEquals("value", scriptEvaluator.evalExpr("true", context, new HashSet<SystemProperty>()).get());
+
+        context.remove("true");
+        Assert.assertEquals(true, scriptEvaluator.evalExpr("true", context, new HashSet<SystemProperty>()).get());
+    }
+
+    @Test
+    public void testTrivialExpressionsResolveAsTheInterpreter() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("str", ValueFactory.create("value"));
+        context.put("number", ValueFactory.create(7));
+        context.put("flag", ValueFactory.create(false));
+        context.put("secret", ValueFactory.create("hidden", true));
+        context.put("empty", ValueFactory.create(null));
+        List<String> expressions = Arrays.asList("str", "number", "flag", "secret", "empty",
+                "get('str', 'default')", "get(\"missing\", 'default')", "get('missing', -5)",
+                "get('missing', True)", "get('missing')", "get('secret', None)");
+
+        for (String expression : expressions) {
+            ClassifiedExpression classifiedExpression = ClassifiedExpression.classify("${" + expression + "}");
+            Value trivialValue = scriptEvaluator.resolveTrivialExpr(classifiedExpression, context);
+            Assert.assertNotNull("not resolved in java: " + expression, trivialValue);
+            Value value = scriptEvaluator.evalExpr(expression, context, new HashSet<SystemProperty>(),
+                    Sets.newHashSet(ScriptFunction.GET));
+            Assert.assertEquals(expression, value.get(), trivialValue.get());
+            Assert.assertEquals(expression, value.isSensitive(), trivialValue.isSensitive());
+        }
+    }
+
+    @Test
+    public void testTrivialExpressionFallsBackToInterpreter() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("empty", ValueFactory.create(null));
+        context.put("list", ValueFactory.create(new ArrayList<>(Arrays.asList(1, 2))));
+
+        Assert.assertNull(scriptEvaluator.resolveTrivialExpr(ClassifiedExpression.classify("${missing}"), context));
+        Assert.assertNull(scriptEvaluator.resolveTrivialExpr(ClassifiedExpression.classify("${list}"), context));
+        Assert.assertNull(scriptEvaluator.resolveTrivialExpr(ClassifiedExpression.classify("${get('empty', 'a')}"), context));
+        Assert.assertNull(scriptEvaluator.resolveTrivialExpr(ClassifiedExpression.classify("${empty + 'a'}"), context));
+    }
+
+    @Test
+    public void testCodeCompiledWithTheModelIsUsed() throws Exception {
+        ClassifiedExpression expression = ClassifiedExpression.classify("${ input1 + '_suffix' }");
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value"));
+
+        Value result = scriptEvaluator.evalExpr(expression, context, new HashSet<SystemProperty>(), new HashSet<ScriptFunction>());
+
+        Assert.assertEquals("value_suffix", result.get());
+        Assert.assertSame(expression.getCode(), compiledExpressionCache.get("input1 + '_suffix'").getExpressionCode());
+    }
+
+    @Test
+    public void testEvaluatorWithoutCacheBean() throws Exception {
+        ScriptEvaluator evaluator = new ScriptEvaluator();
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create(2));
+        try {
+            Value result = evaluator.evalExpr("input1 * 3", context, new HashSet<SystemProperty>());
+            Assert.assertEquals(6, result.get());
+        } finally {
+            evaluator.destroy();
         }
+    }
 
+    @Test
+    public void testDestroyClearsTheSessionsOfAllThreads() throws Exception {
+        final ScriptEvaluator evaluator = new ScriptEvaluator(false);
+        final Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value"));
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                evaluator.evalExpr("input1", context, new HashSet<SystemProperty>());
+            }
+        });
+        thread.start();
+        thread.join();
+        evaluator.evalExpr("input1", context, new HashSet<SystemProperty>());
+        Set<PythonEvaluationSession> sessions = new HashSet<>(evaluator.getSessions());
+        Assert.assertEquals(2, sessions.size());
+
+        evaluator.destroy();
+
+        Assert.assertTrue(evaluator.getSessions().isEmpty());
+        for (PythonEvaluationSession session : sessions) {
+            Assert.assertNull(session.getNamespace().__finditem__("input1"));
+        }
+    }
+
+    @Configuration
+    static class Config {
         @Bean
-        public MavenConfig mavenConfig() {
-            return new MavenConfigImpl();
+        public ScriptEvaluator scriptEvaluator() {
+            return new ScriptEvaluator();
         }
 
         @Bean
-        public PythonRuntimeService pythonRuntimeService() {
-            return mock(PythonRuntimeService.class);
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
         }
 
         @Bean
-        public PythonInterpreter pythonInterpreter() {
-            return mock(PythonInterpreter.class);
+        public ApplicationContextProvider applicationContextProvider() {
+            return new ApplicationContextProvider();
         }
 
         @Bean
-        public PythonExecutionEngine pythonExecutionEngine(){
-            return new PythonExecutionCachedEngine() {
-                protected PythonExecutor createNewExecutor(Set<String> filePaths) {
-                    return new PythonExecutor(filePaths) {
-                        protected PythonInterpreter initInterpreter(Set<String> dependencies) {
-                            return  pythonInterpreter();
-                        }
-                    };
-                }
-            };
+        public DummyEncryptor dummyEncryptor() {
+            return new DummyEncryptor();
         }
     }
 }
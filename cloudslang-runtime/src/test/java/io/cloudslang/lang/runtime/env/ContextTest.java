@@ -0,0 +1,229 @@
+/*******************************************************************************
+* (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Apache License v2.0 which accompany this distribution.
+*
+* The Apache License is available at
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+*******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContextTest {
+
+    @Test
+    public void testBranchSeesParentVariables() {
+        Context parent = createContext();
+        parent.putLanguageVariable("lang_var", ValueFactory.create("lang_value"));
+
+        Context branch = parent.createBranchContext();
+
+        assertEquals(parent, branch);
+        assertEquals("value1", branch.getVariable("var1").get());
+        assertEquals("lang_value", branch.getLanguageVariable("lang_var").get());
+    }
+
+    @Test
+    public void testBranchChangesAreNotVisibleToParent() {
+        Context parent = createContext();
+        Context branch = parent.createBranchContext();
+
+        branch.putVariable("var1", ValueFactory.create("branch_value"));
+        branch.putVariable("branch_var", ValueFactory.create("branch_value"));
+
+        assertEquals("value1", parent.getVariable("var1").get());
+        assertNull(parent.getVariable("branch_var"));
+        assertEquals(2, parent.getImmutableViewOfVariables().size());
+        assertEquals(3, branch.getImmutableViewOfVariables().size());
+    }
+
+    @Test
+    public void testParentChangesAreNotVisibleToBranch() {
+        Context parent = createContext();
+        Context branch = parent.createBranchContext();
+
+        parent.putVariable("var2", ValueFactory.create("parent_value"));
+        parent.putLanguageVariable("lang_var", ValueFactory.create("lang_value"));
+
+        assertEquals("value2", branch.getVariable("var2").get());
+        assertNull(branch.getLanguageVariable("lang_var"));
+    }
+
+    @Test
+    public void testSiblingBranchesAreIsolated() {
+        Context parent = createContext();
+        Context branch1 = parent.createBranchContext();
+        Context branch2 = parent.createBranchContext();
+
+        branch1.putVariable("item", ValueFactory.create(1));
+        branch2.putVariable("item", ValueFactory.create(2));
+        branch2.putLanguageVariable("lang_var", ValueFactory.create("lang_value"));
+        branch2.removeLanguageVariable("lang_var");
+
+        assertEquals(1, branch1.getVariable("item").get());
+        assertEquals(2, branch2.getVariable("item").get());
+        assertFalse(parent.getImmutableViewOfVariables().containsKey("item"));
+        assertTrue(branch2.getImmutableViewOfLanguageVariables().isEmpty());
+    }
+
+    @Test
+    public void testBranchOfBranch() {
+        Context parent = createContext();
+        Context branch = parent.createBranchContext();
+        branch.putVariable("var1", ValueFactory.create("branch_value"));
+
+        Context nestedBranch = branch.createBranchContext();
+        nestedBranch.putVariable("var2", ValueFactory.create("nested_value"));
+
+        Map<String, Value> expected = new HashMap<>();
+        expected.put("var1", ValueFactory.create("branch_value"));
+        expected.put("var2", ValueFactory.create("nested_value"));
+        assertEquals(expected, nestedBranch.getImmutableViewOfVariables());
+        assertEquals("value2", branch.getVariable("var2").get());
+    }
+
+    @Test
+    public void testBranchIsSerializable() {
+        Context parent = createContext();
+        Context branch = parent.createBranchContext();
+        branch.putVariable("var1", ValueFactory.create("branch_value"));
+
+        Context deserialized = (Context) SerializationUtils.clone(branch);
+
+        assertEquals(branch, deserialized);
+        assertEquals("branch_value", deserialized.getVariable("var1").get());
+    }
+
+    @Test
+    public void testMutableValuesAreNotSharedBetweenBranches() {
+        ArrayList<String> list = new ArrayList<>();
+        list.add("item");
+        Context parent = createContext();
+        parent.putVariable("list", ValueFactory.create(list));
+        Context branch1 = parent.createBranchContext();
+        Context branch2 = parent.createBranchContext();
+
+        @SuppressWarnings("unchecked")
+        ArrayList<String> branchList = (ArrayList<String>) branch1.getVariable("list").get();
+        branchList.add("branch_item");
+
+        assertEquals(1, ((ArrayList) branch2.getVariable("list").get()).size());
+        assertEquals(1, ((ArrayList) parent.getVariable("list").get()).size());
+        assertTrue(branch1.getVariable("var1") == parent.getVariable("var1"));
+    }
+
+    @Test
+    public void testMutableValuesAreCopiedOnRead() {
+        ArrayList<String> list = new ArrayList<>();
+        list.add("item");
+        Context parent = createContext();
+        parent.putVariable("list", ValueFactory.create(list));
+        parent.shareWithBranches();
+        Context branch = parent.createBranchContext();
+
+        Value branchValue = branch.getVariable("list");
+        assertTrue(branchValue != parent.getVariable("list"));
+        assertTrue(branchValue == branch.getVariable("list"));
+        assertTrue(branchValue == branch.getImmutableViewOfVariables().get("list"));
+
+        @SuppressWarnings("unchecked")
+        ArrayList<String> branchList = (ArrayList<String>) branchValue.get();
+        branchList.add("branch_item");
+        Context nestedBranch = branch.createBranchContext();
+        assertEquals(2, ((ArrayList) nestedBranch.getVariable("list").get()).size());
+        assertEquals(1, ((ArrayList) parent.getVariable("list").get()).size());
+    }
+
+    @Test
+    public void testBranchesShareTheVariablesOfTheParent() {
+        Context parent = createContext();
+        parent.shareWithBranches();
+        Context branch = parent.createBranchContext();
+
+        parent.putVariable("var1", ValueFactory.create("parent_value"));
+        Context nextBranch = parent.createBranchContext();
+
+        assertEquals("value1", branch.getVariable("var1").get());
+        assertEquals("parent_value", nextBranch.getVariable("var1").get());
+        assertEquals("parent_value", parent.getVariable("var1").get());
+    }
+
+    @Test
+    public void testCreatingABranchDoesNotChangeTheParent() {
+        Map<String, Value> variables = new HashMap<>();
+        variables.put("var1", ValueFactory.create("value1"));
+        Context parent = new Context(variables);
+
+        parent.createBranchContext();
+        parent.putVariable("var2", ValueFactory.create("value2"));
+
+        assertEquals("value2", variables.get("var2").get());
+    }
+
+    @Test
+    public void testOverlayIteratorRemove() {
+        Map<String, Value> base = createContext().getImmutableViewOfVariables();
+        OverlayMap<String, Value> variables = new OverlayMap<>(base);
+        variables.put("var3", ValueFactory.create("value3"));
+
+        Iterator<Map.Entry<String, Value>> entries = variables.entrySet().iterator();
+        while (entries.hasNext()) {
+            if (!entries.next().getKey().equals("var2")) {
+                entries.remove();
+            }
+        }
+
+        assertEquals(1, variables.size());
+        assertEquals("value2", variables.get("var2").get());
+        assertFalse(variables.containsKey("var1"));
+        assertFalse(variables.containsKey("var3"));
+        assertEquals(2, base.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOverlayIteratorRemoveWithoutNext() {
+        OverlayMap<String, Value> variables = new OverlayMap<>(createContext().getImmutableViewOfVariables());
+
+        variables.entrySet().iterator().remove();
+    }
+
+    @Test
+    public void testOverlayIsSerializedAsPlainMap() {
+        OverlayMap<String, Value> variables = new OverlayMap<>(createContext().getImmutableViewOfVariables());
+        variables.put("var1", ValueFactory.create("branch_value"));
+
+        Object deserialized = SerializationUtils.clone(variables);
+
+        assertEquals(HashMap.class, deserialized.getClass());
+        assertEquals(variables, deserialized);
+    }
+
+    @Test
+    public void testSerialVersionIsKept() {
+        assertEquals(6380536287300200885L, ObjectStreamClass.lookup(Context.class).getSerialVersionUID());
+        assertEquals(5724396684955895547L, ObjectStreamClass.lookup(RunEnvironment.class).getSerialVersionUID());
+    }
+
+    private Context createContext() {
+        Map<String, Value> variables = new HashMap<>();
+        variables.put("var1", ValueFactory.create("value1"));
+        variables.put("var2", ValueFactory.create("value2"));
+        return new Context(variables);
+    }
+}
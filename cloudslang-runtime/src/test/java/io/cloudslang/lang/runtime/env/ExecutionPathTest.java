@@ -9,8 +9,12 @@
 *******************************************************************************/
 package io.cloudslang.lang.runtime.env;
 
+import org.apache.commons.lang.SerializationUtils;
 import org.junit.Test;
+import org.python.apache.xerces.impl.dv.util.Base64;
 
+import java.io.ObjectStreamClass;
+import java.util.Deque;
 import java.util.NoSuchElementException;
 
 import static org.junit.Assert.assertEquals;
@@ -77,6 +81,129 @@ public class ExecutionPathTest {
 		doAssert(expectedPath, executionPath);
 	}
 
+	@Test
+	public void testParentPath() {
+		ExecutionPath executionPath = new ExecutionPath();
+		assertEquals("", executionPath.getParentPath());
+
+		executionPath.forward(); // 1
+		executionPath.down(); // 1/0
+		executionPath.down(); // 1/0/0
+		assertEquals("1.0", executionPath.getParentPath());
+
+		executionPath.up(); // 1/0
+		assertEquals("1", executionPath.getParentPath());
+		executionPath.up(); // 1
+		assertEquals("", executionPath.getParentPath());
+		assertEquals("1", executionPath.getCurrentPath());
+	}
+
+	@Test
+	public void testDeepPath() {
+		ExecutionPath executionPath = new ExecutionPath();
+		StringBuilder expectedPath = new StringBuilder("0");
+		for (int i = 1; i <= 20; i++) {
+			executionPath.down();
+			for (int j = 0; j < i; j++) {
+				executionPath.forward();
+			}
+			expectedPath.append(ExecutionPath.PATH_SEPARATOR).append(i);
+		}
+		doAssert(expectedPath, executionPath);
+
+		for (int i = 0; i < 20; i++) {
+			executionPath.up();
+			deleteLevel(expectedPath);
+			doAssert(expectedPath, executionPath);
+		}
+	}
+
+	@Test
+	public void testForwardSteps() {
+		ExecutionPath executionPath = new ExecutionPath();
+		executionPath.down(); // 0/0
+		assertEquals("0.0", executionPath.getCurrentPath());
+		executionPath.forward(3); // 0/3
+		assertEquals("0.3", executionPath.getCurrentPath());
+		executionPath.forward(0); // 0/3
+		executionPath.forward(); // 0/4
+		assertEquals("0.4", executionPath.getCurrentPath());
+	}
+
+	@Test
+	public void testParentPosition() {
+		ExecutionPath executionPath = new ExecutionPath();
+		executionPath.down(); // 0/0
+		executionPath.forward(2); // 0/2
+		executionPath.down(); // 0/2/0
+		executionPath.forward(); // 0/2/1
+		assertEquals(2, executionPath.getParentPosition());
+		executionPath.up(); // 0/2
+		assertEquals(0, executionPath.getParentPosition());
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		ExecutionPath executionPath = new ExecutionPath();
+		executionPath.down(); // 0/0
+		executionPath.forward(); // 0/1
+
+		ExecutionPath copy = new ExecutionPath(executionPath);
+		copy.down(); // 0/1/0
+		copy.forward(); // 0/1/1
+		executionPath.up(); // 0
+
+		assertEquals("0.1.1", copy.getCurrentPath());
+		assertEquals("0", executionPath.getCurrentPath());
+		copy.up();
+		copy.up();
+		assertEquals("0", copy.getCurrentPath());
+	}
+
+	@Test
+	public void testSerialization() {
+		ExecutionPath executionPath = new ExecutionPath();
+		executionPath.down();
+		executionPath.forward();
+		executionPath.down();
+		executionPath.forward();
+		executionPath.forward();
+
+		ExecutionPath deserialized = (ExecutionPath) SerializationUtils.clone(executionPath);
+
+		assertEquals("0.1.2", deserialized.getCurrentPath());
+		assertEquals("0.1", deserialized.getParentPath());
+		deserialized.up();
+		deserialized.forward();
+		assertEquals("0.2", deserialized.getCurrentPath());
+	}
+
+	@Test
+	public void testOriginalSerializedFormIsReadable() {
+		// path 1.2.3 serialized by the original implementation, with a deque of the parent positions
+		String serialized = "rO0ABXNyACxpby5jbG91ZHNsYW5nLmxhbmcucnVudGltZS5lbnYuRXhlY3V0aW9uUGF0aDyh4BUa6Of/AgACSQAIcG9zaXRpb25M" +
+				"AA9wYXJlbnRQb3NpdGlvbnN0ABFMamF2YS91dGlsL0RlcXVlO3hwAAAAA3NyABRqYXZhLnV0aWwuQXJyYXlEZXF1ZSB82i4kDaCL" +
+				"AwAAeHB3BAAAAAJzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIAAUkABXZhbHVleHIAEGphdmEubGFuZy5OdW1iZXKGrJUd" +
+				"C5TgiwIAAHhwAAAAAnNxAH4ABQAAAAF4";
+
+		ExecutionPath deserialized = (ExecutionPath) SerializationUtils.deserialize(Base64.decode(serialized));
+
+		assertEquals("1.2.3", deserialized.getCurrentPath());
+		assertEquals("1.2", deserialized.getParentPath());
+		deserialized.up();
+		assertEquals("1.2", deserialized.getCurrentPath());
+	}
+
+	@Test
+	public void testSerializedFieldsAreTheOriginalOnes() {
+		ObjectStreamClass streamClass = ObjectStreamClass.lookup(ExecutionPath.class);
+
+		assertEquals(4369019494776498175L, streamClass.getSerialVersionUID());
+		assertEquals(Deque.class, streamClass.getField("parentPositions").getType());
+		assertEquals(int.class, streamClass.getField("position").getType());
+		assertEquals(2, streamClass.getFields().length);
+	}
+
 	private static void doAssert(StringBuilder expectedPath, ExecutionPath executionPath) {
 		assertEquals(expectedPath.toString(), executionPath.getCurrentPath());
 	}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+* (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Apache License v2.0 which accompany this distribution.
+*
+* The Apache License is available at
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+*******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayeredScopeTest {
+
+    @Test
+    public void testLookupOrder() {
+        Map<String, Value> parent = createMap("var1", "parent", "var2", "parent");
+        Map<String, Value> boundValues = createMap("var2", "bound", "var3", "bound");
+        LayeredScope scope = new LayeredScope(parent, boundValues);
+        scope.put("var3", ValueFactory.create("local"));
+
+        assertEquals("parent", scope.get("var1").get());
+        assertEquals("bound", scope.get("var2").get());
+        assertEquals("local", scope.get("var3").get());
+        assertNull(scope.get("var4"));
+        assertFalse(scope.containsKey("var4"));
+    }
+
+    @Test
+    public void testEntriesAreNotDuplicated() {
+        Map<String, Value> parent = createMap("var1", "parent", "var2", "parent");
+        Map<String, Value> boundValues = createMap("var2", "bound", "var3", "bound");
+        LayeredScope scope = new LayeredScope(parent, boundValues);
+        scope.put("var1", ValueFactory.create("local"));
+
+        Map<String, Value> expected = createMap("var1", "local", "var2", "bound");
+        expected.put("var3", ValueFactory.create("bound"));
+        assertEquals(expected, new HashMap<>(scope));
+        assertEquals(3, scope.size());
+    }
+
+    @Test
+    public void testLayersAreNotModified() {
+        Map<String, Value> parent = createMap("var1", "parent", "var2", "parent");
+        Map<String, Value> boundValues = new HashMap<>();
+        LayeredScope scope = new LayeredScope(parent, boundValues);
+
+        scope.put("var1", ValueFactory.create("local"));
+        scope.put("var3", null);
+
+        assertEquals(createMap("var1", "parent", "var2", "parent"), parent);
+        assertTrue(boundValues.isEmpty());
+        assertTrue(scope.containsKey("var3"));
+    }
+
+    @Test
+    public void testBoundValuesAreSeenWhenAdded() {
+        Map<String, Value> boundValues = new HashMap<>();
+        LayeredScope scope = new LayeredScope(createMap("var1", "parent", "var2", "parent"), boundValues);
+
+        boundValues.put("var1", ValueFactory.create("bound"));
+
+        assertEquals("bound", scope.get("var1").get());
+    }
+
+    @Test
+    public void testNullLayers() {
+        LayeredScope scope = new LayeredScope(null, null);
+
+        assertTrue(scope.isEmpty());
+        assertEquals(0, scope.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveIsNotSupported() {
+        LayeredScope scope = new LayeredScope(createMap("var1", "parent", "var2", "parent"));
+
+        scope.remove("var1");
+    }
+
+    private Map<String, Value> createMap(String key1, String value1, String key2, String value2) {
+        Map<String, Value> map = new HashMap<>();
+        map.put(key1, ValueFactory.create(value1));
+        map.put(key2, ValueFactory.create(value2));
+        return map;
+    }
+}
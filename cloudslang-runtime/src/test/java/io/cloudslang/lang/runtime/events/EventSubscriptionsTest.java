@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * (c) Copyright 2014 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.events;
+
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.runtime.env.RunEnvironment;
+import io.cloudslang.lang.runtime.steps.AbstractExecutionData;
+import io.cloudslang.score.events.EventBus;
+import io.cloudslang.score.events.ScoreEvent;
+import io.cloudslang.score.events.ScoreEventListener;
+import io.cloudslang.score.lang.ExecutionRuntimeServices;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = EventSubscriptionsTest.Config.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class EventSubscriptionsTest {
+
+    private final ScoreEventListener listener1 = new EmptyListener();
+    private final ScoreEventListener listener2 = new EmptyListener();
+
+    @Autowired
+    private EventSubscriptions eventSubscriptions;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private TestExecutionData executionData;
+
+    @Before
+    public void setUp() {
+        Mockito.reset(Config.scoreEventBus);
+    }
+
+    @Test
+    public void testAllEventTypesAreSubscribedWithoutSubscriptions() {
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_END));
+    }
+
+    @Test
+    public void testOnlySubscribedEventTypes() {
+        eventSubscriptions.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_STEP_START));
+        eventSubscriptions.subscribe(listener2, Collections.singleton(ScoreLangConstants.EVENT_INPUT_END));
+
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_STEP_START));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_END));
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_START));
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_BRANCH_START));
+    }
+
+    @Test
+    public void testTerminalAndErrorEventsAreAlwaysFired() {
+        eventSubscriptions.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_INPUT_END));
+
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_ACTION_ERROR));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_ACTION_END));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_OUTPUT_END));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_BRANCH_END));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_JOIN_BRANCHES_END));
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        eventSubscriptions.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_STEP_START));
+        eventSubscriptions.subscribe(listener2, Collections.singleton(ScoreLangConstants.EVENT_INPUT_END));
+
+        eventSubscriptions.unsubscribe(listener2);
+
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_END));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_STEP_START));
+    }
+
+    @Test
+    public void testSubscribeAgainReplacesEventTypes() {
+        eventSubscriptions.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_STEP_START));
+        eventSubscriptions.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_INPUT_END));
+
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_STEP_START));
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_END));
+    }
+
+    @Test
+    public void testSubscriptionsOnTheEventBusAreRegistered() throws Exception {
+        Set<String> eventTypes = Collections.singleton(ScoreLangConstants.EVENT_STEP_START);
+        eventBus.subscribe(listener1, eventTypes);
+
+        Mockito.verify(Config.scoreEventBus).subscribe(listener1, eventTypes);
+        assertTrue(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_STEP_START));
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_INPUT_END));
+
+        eventBus.unsubscribe(listener1);
+
+        Mockito.verify(Config.scoreEventBus).unsubscribe(listener1);
+        assertFalse(eventSubscriptions.isSubscribed(ScoreLangConstants.EVENT_STEP_START));
+
+        ScoreEvent event = new ScoreEvent(ScoreLangConstants.EVENT_EXECUTION_FINISHED, new LanguageEventData());
+        eventBus.dispatch(event);
+        Mockito.verify(Config.scoreEventBus).dispatch(event);
+    }
+
+    @Test
+    public void testEventIsNotAddedWithoutListener() {
+        eventBus.subscribe(listener1, Collections.singleton(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+        ExecutionRuntimeServices runtimeServices = new ExecutionRuntimeServices();
+        RunEnvironment runEnv = new RunEnvironment();
+
+        executionData.fireEvents(runtimeServices, runEnv);
+
+        List<ScoreEvent> events = new ArrayList<>(runtimeServices.getEvents());
+        assertEquals(1, events.size());
+        assertEquals(ScoreLangConstants.EVENT_EXECUTION_FINISHED, events.get(0).getEventType());
+    }
+
+    public static class TestExecutionData extends AbstractExecutionData {
+
+        void fireEvents(ExecutionRuntimeServices runtimeServices, RunEnvironment runEnv) {
+            fireSubscribedEvent(runtimeServices, runEnv, ScoreLangConstants.EVENT_INPUT_START, "desc",
+                    LanguageEventData.StepType.STEP, "step", Pair.of(LanguageEventData.INPUTS, new ArrayList<String>()));
+            fireSubscribedEvent(runtimeServices, runEnv, ScoreLangConstants.EVENT_EXECUTION_FINISHED, "desc",
+                    LanguageEventData.StepType.EXECUTABLE, "flow");
+        }
+    }
+
+    private static class EmptyListener implements ScoreEventListener {
+
+        @Override
+        public void onEvent(ScoreEvent event) {
+        }
+    }
+
+    @Configuration
+    static class Config {
+
+        static final EventBus scoreEventBus = Mockito.mock(EventBus.class);
+
+        @Bean
+        public static EventSubscriptions eventSubscriptions() {
+            return new EventSubscriptions();
+        }
+
+        @Bean
+        public EventBus eventBus() {
+            return scoreEventBus;
+        }
+
+        @Bean
+        public TestExecutionData testExecutionData() {
+            return new TestExecutionData();
+        }
+    }
+}
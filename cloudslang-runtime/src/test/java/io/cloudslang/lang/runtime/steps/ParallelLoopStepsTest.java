@@ -52,6 +52,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -189,6 +190,140 @@ public class ParallelLoopStepsTest {
         Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
     }
 
+    @Test
+    public void testBranchesAreCreatedInWaves() throws Exception {
+        // prepare arguments
+        ParallelLoopStatement parallelLoopStatement = new ParallelLoopStatement("varName", "expression", 2);
+
+        RunEnvironment runEnvironment = new RunEnvironment();
+        Map<String, Value> variables = new HashMap<>();
+        Context context = new Context(variables);
+        runEnvironment.getStack().pushContext(context);
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(7L, null));
+
+        String nodeName = "nodeName";
+        String refId = "branch_id";
+        Long branchBeginStepID = 3L;
+        Long addBranchesStepID = 2L;
+
+        // prepare mocks
+        List<Value> expectedSplitData = Lists.newArrayList(ValueFactory.create(1), ValueFactory.create(2), ValueFactory.create(3));
+        when(parallelLoopBinding.bindParallelLoopList(eq(parallelLoopStatement), eq(context), eq(runEnvironment.getSystemProperties()), eq(nodeName))).thenReturn(expectedSplitData);
+
+        // first wave
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepID, refId);
+
+        verify(executionRuntimeServices, times(2)).addBranch(eq(branchBeginStepID), eq(refId), anyMap());
+        Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
+
+        executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), new HashMap<String, Serializable>());
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, new ArrayList<Output>(0),
+                null, stepNavigationValues, nodeName, addBranchesStepID);
+
+        Assert.assertEquals(addBranchesStepID, runEnvironment.removeNextStepPosition());
+        Assert.assertNull(runEnvironment.removeReturnValues());
+
+        // second wave
+        executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepID, refId);
+
+        ArgumentCaptor<Map> branchContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(executionRuntimeServices, times(1)).addBranch(eq(branchBeginStepID), eq(refId), branchContextArgumentCaptor.capture());
+        RunEnvironment branchRunEnvironment = (RunEnvironment) branchContextArgumentCaptor.getValue().get(ScoreLangConstants.RUN_ENV);
+        Assert.assertEquals(ValueFactory.create(3), branchRunEnvironment.getStack().popContext().getVariable("varName"));
+        Assert.assertEquals("0.2.0", branchRunEnvironment.getExecutionPath().getCurrentPath());
+        // the split data is bound once, the remaining items are kept between the waves
+        verify(parallelLoopBinding, times(1)).bindParallelLoopList(any(ParallelLoopStatement.class), any(Context.class), anySet(), anyString());
+        Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
+
+        executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                new HashMap<String, Serializable>(), new HashMap<String, Serializable>(), new HashMap<String, Serializable>());
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, new ArrayList<Output>(0),
+                null, stepNavigationValues, nodeName, addBranchesStepID);
+
+        Assert.assertEquals(7, (long) runEnvironment.removeNextStepPosition());
+        Assert.assertEquals(ScoreLangConstants.SUCCESS_RESULT, runEnvironment.removeReturnValues().getResult());
+        Assert.assertTrue(runEnvironment.getStack().popContext().getImmutableViewOfLanguageVariables().isEmpty());
+
+        // the publish values are bound once, over the branches of both waves
+        ArgumentCaptor<Map> publishContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(anyMap(), publishContextArgumentCaptor.capture(), anySet(), anyList());
+        Value branchesContext = (Value) publishContextArgumentCaptor.getValue().get(RuntimeConstants.BRANCHES_CONTEXT_KEY);
+        Assert.assertEquals(6, ((List) branchesContext.get()).size());
+    }
+
+    @Test
+    public void testAccumulateInWavesFoldsBranchesInSplitOrder() throws Exception {
+        ParallelLoopStatement parallelLoopStatement = new ParallelLoopStatement("varName", "expression", 2);
+
+        RunEnvironment runEnvironment = new RunEnvironment();
+        Context context = new Context(new HashMap<String, Value>());
+        runEnvironment.getStack().pushContext(context);
+
+        List<Output> stepAccumulateValues = Lists.newArrayList(
+                new Output("outputs", ValueFactory.create("${ (outputs or []) + [branch_context['branchOutput']] }")));
+        List<Output> stepPublishValues = Lists.newArrayList(new Output("outputName", ValueFactory.create("${ outputs }")));
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(7L, null));
+        String nodeName = "nodeName";
+        String refId = "branch_id";
+        Long branchBeginStepID = 3L;
+        Long addBranchesStepID = 2L;
+
+        List<Value> splitData = Lists.newArrayList(ValueFactory.create(1), ValueFactory.create(2), ValueFactory.create(3));
+        when(parallelLoopBinding.bindParallelLoopList(eq(parallelLoopStatement), eq(context), eq(runEnvironment.getSystemProperties()), eq(nodeName))).thenReturn(splitData);
+        Map<String, Value> accumulatedValues = new HashMap<>();
+        accumulatedValues.put("outputs", ValueFactory.create((Serializable) Lists.newArrayList(1, 2, 3)));
+        when(outputsBinding.bindOutputs(anyMapOf(String.class, Value.class), anyMapOf(String.class, Value.class),
+                eq(runEnvironment.getSystemProperties()), eq(stepAccumulateValues))).thenReturn(accumulatedValues);
+
+        // first wave, the second branch finishes first
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepID, refId);
+        List<RunEnvironment> firstWave = captureBranchEnvironments(executionRuntimeServices, 2);
+        executionRuntimeServices = createExecutionRuntimeServicesMock(Lists.newArrayList(
+                finishBranch(firstWave.get(1), 2), finishBranch(firstWave.get(0), 1)));
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, stepPublishValues,
+                stepAccumulateValues, stepNavigationValues, nodeName, addBranchesStepID);
+        Assert.assertEquals(addBranchesStepID, runEnvironment.removeNextStepPosition());
+
+        // second wave
+        executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepID, refId);
+        List<RunEnvironment> secondWave = captureBranchEnvironments(executionRuntimeServices, 1);
+        executionRuntimeServices = createExecutionRuntimeServicesMock(Lists.newArrayList(finishBranch(secondWave.get(0), 3)));
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, stepPublishValues,
+                stepAccumulateValues, stepNavigationValues, nodeName, addBranchesStepID);
+        Assert.assertEquals(7, (long) runEnvironment.removeNextStepPosition());
+
+        // the branches are folded in the order of the split items
+        ArgumentCaptor<Map> accumulateContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding, times(3)).bindOutputs(anyMapOf(String.class, Value.class),
+                accumulateContextArgumentCaptor.capture(), eq(runEnvironment.getSystemProperties()), eq(stepAccumulateValues));
+        List<Serializable> foldedOutputs = new ArrayList<>();
+        for (Map accumulateContext : accumulateContextArgumentCaptor.getAllValues()) {
+            Map branchContext = (Map) ((Value) accumulateContext.get(RuntimeConstants.BRANCH_CONTEXT_KEY)).get();
+            foldedOutputs.add((Serializable) branchContext.get("branchOutput"));
+        }
+        Assert.assertEquals(Lists.<Serializable>newArrayList(1, 2, 3), foldedOutputs);
+
+        // the publish values are bound once, over the values accumulated in both waves
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(eq(Collections.<String, Value>emptyMap()), eq(accumulatedValues),
+                eq(runEnvironment.getSystemProperties()), eq(stepPublishValues));
+    }
+
     @Test
     public void testJoinBranchesPublish() throws Exception {
         // prepare arguments
@@ -230,8 +365,10 @@ public class ParallelLoopStepsTest {
                 runEnvironment,
                 executionRuntimeServices,
                 stepPublishValues,
+                null,
                 stepNavigationValues,
-                nodeName
+                nodeName,
+                2L
         );
 
         // verify expected behaviour
@@ -255,6 +392,152 @@ public class ParallelLoopStepsTest {
         Assert.assertEquals(expectedBranchContexts, actualBranchesContexts);
     }
 
+    @Test
+    public void testJoinBranchesAccumulate() throws Exception {
+        // prepare arguments
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        Context context = new Context(new HashMap<String, Value>());
+        runEnvironment.getStack().pushContext(context);
+
+        List<Output> stepAccumulateValues = Lists.newArrayList(
+                new Output("sum", ValueFactory.create("${ (sum or 0) + branch_context['branchOutput'] }")));
+        List<Output> stepPublishValues = Lists.newArrayList(new Output("outputName", ValueFactory.create("${ sum }")));
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT));
+        stepNavigationValues.put(ScoreLangConstants.FAILURE_RESULT, new ResultNavigation(0L, ScoreLangConstants.FAILURE_RESULT));
+
+        // prepare mocks
+        Map<String, Serializable> runtimeContext1 = new HashMap<>();
+        Map<String, Serializable> runtimeContext2 = new HashMap<>();
+        Map<String, Serializable> runtimeContext3 = new HashMap<>();
+        runtimeContext1.put("branchOutput", 1);
+        runtimeContext2.put("branchOutput", 2);
+        runtimeContext3.put("branchOutput", 3);
+
+        ExecutionRuntimeServices executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                runtimeContext1,
+                runtimeContext2,
+                runtimeContext3
+        );
+        Map<String, Value> accumulatedValues = new HashMap<>();
+        accumulatedValues.put("sum", ValueFactory.create(6));
+        when(outputsBinding.bindOutputs(anyMapOf(String.class, Value.class), anyMapOf(String.class, Value.class),
+                eq(runEnvironment.getSystemProperties()), eq(stepAccumulateValues))).thenReturn(accumulatedValues);
+
+        // call method
+        parallelLoopSteps.joinBranches(
+                runEnvironment,
+                executionRuntimeServices,
+                stepPublishValues,
+                stepAccumulateValues,
+                stepNavigationValues,
+                "nodeName",
+                2L
+        );
+
+        // verify expected behaviour
+        ArgumentCaptor<Map> accumulateContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding, times(3)).bindOutputs(
+                anyMapOf(String.class, Value.class),
+                accumulateContextArgumentCaptor.capture(),
+                eq(runEnvironment.getSystemProperties()),
+                eq(stepAccumulateValues)
+        );
+
+        List<Map> accumulateContexts = accumulateContextArgumentCaptor.getAllValues();
+        List<Map<String, Serializable>> expectedBranchContexts = Lists.newArrayList(runtimeContext1, runtimeContext2, runtimeContext3);
+        for (int i = 0; i < accumulateContexts.size(); i++) {
+            Assert.assertFalse(accumulateContexts.get(i).containsKey(RuntimeConstants.BRANCHES_CONTEXT_KEY));
+            Value branchContext = (Value) accumulateContexts.get(i).get(RuntimeConstants.BRANCH_CONTEXT_KEY);
+            @SuppressWarnings("unchecked")
+            Map<String, Serializable> actualBranchContext = (Map<String, Serializable>) branchContext.get();
+            Assert.assertEquals(expectedBranchContexts.get(i).get("branchOutput"), actualBranchContext.get("branchOutput"));
+            Assert.assertEquals(SUCCESS_RESULT, actualBranchContext.get(ScoreLangConstants.BRANCH_RESULT_KEY));
+        }
+
+        // the publish values are bound once, over the accumulated values
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(
+                eq(Collections.<String, Value>emptyMap()),
+                eq(accumulatedValues),
+                eq(runEnvironment.getSystemProperties()),
+                eq(stepPublishValues)
+        );
+    }
+
+    @Test
+    public void testJoinBranchesAccumulateStartsWithNone() throws Exception {
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.getStack().pushContext(new Context(new HashMap<String, Value>()));
+
+        List<Output> stepAccumulateValues = Lists.newArrayList(
+                new Output("sum", ValueFactory.create("${ (sum or 0) + branch_context['branchOutput'] }")));
+        List<Output> stepPublishValues = Lists.newArrayList(new Output("outputName", ValueFactory.create("${ sum }")));
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT));
+
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        when(executionRuntimeServices.getFinishedChildBranchesData()).thenReturn(new ArrayList<EndBranchDataContainer>());
+
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, stepPublishValues,
+                stepAccumulateValues, stepNavigationValues, "nodeName", 2L);
+
+        ArgumentCaptor<Map> publishContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding).bindOutputs(
+                anyMapOf(String.class, Value.class),
+                publishContextArgumentCaptor.capture(),
+                eq(runEnvironment.getSystemProperties()),
+                eq(stepPublishValues)
+        );
+        Map publishContext = publishContextArgumentCaptor.getValue();
+        Assert.assertTrue(publishContext.containsKey("sum"));
+        Assert.assertNull(((Value) publishContext.get("sum")).get());
+    }
+
+    @Test
+    public void testJoinBranchesAccumulateEventsAreFired() throws Exception {
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.getStack().pushContext(new Context(new HashMap<String, Value>()));
+
+        List<Output> stepAccumulateValues = Lists.newArrayList(
+                new Output("sum", ValueFactory.create("${ (sum or 0) + branch_context['branchOutput'] }")));
+        List<Output> stepPublishValues = Lists.newArrayList(new Output("outputName", ValueFactory.create("${ sum }")));
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT));
+
+        Map<String, Serializable> runtimeContext1 = new HashMap<>();
+        Map<String, Serializable> runtimeContext2 = new HashMap<>();
+        Map<String, Serializable> runtimeContext3 = new HashMap<>();
+        runtimeContext1.put("branchOutput", 1);
+        runtimeContext2.put("branchOutput", 2);
+        runtimeContext3.put("branchOutput", 3);
+        ExecutionRuntimeServices executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                runtimeContext1,
+                runtimeContext2,
+                runtimeContext3
+        );
+
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, stepPublishValues,
+                stepAccumulateValues, stepNavigationValues, "nodeName", 2L);
+
+        ArgumentCaptor<String> eventTypeArgumentCaptor = ArgumentCaptor.forClass(String.class);
+        verify(executionRuntimeServices, times(5)).addEvent(eventTypeArgumentCaptor.capture(), any(LanguageEventData.class));
+        List<String> expectedEventTypesInOrder = Lists.newArrayList(
+                ScoreLangConstants.EVENT_BRANCH_END,
+                ScoreLangConstants.EVENT_BRANCH_END,
+                ScoreLangConstants.EVENT_BRANCH_END,
+                ScoreLangConstants.EVENT_JOIN_BRANCHES_START,
+                ScoreLangConstants.EVENT_JOIN_BRANCHES_END
+        );
+        Assert.assertEquals(expectedEventTypesInOrder, eventTypeArgumentCaptor.getAllValues());
+    }
+
     @Test
     public void testJoinBranchesNavigationAllBranchesSucced() throws Exception {
         // prepare arguments
@@ -293,8 +576,10 @@ public class ParallelLoopStepsTest {
                 runEnvironment,
                 executionRuntimeServices,
                 stepPublishValues,
+                null,
                 stepNavigationValues,
-                nodeName
+                nodeName,
+                2L
         );
 
         // verify expected behaviour
@@ -349,8 +634,10 @@ public class ParallelLoopStepsTest {
                 runEnvironment,
                 executionRuntimeServices,
                 stepPublishValues,
+                null,
                 stepNavigationValues,
-                nodeName
+                nodeName,
+                2L
         );
 
         // verify expected behaviour
@@ -399,8 +686,10 @@ public class ParallelLoopStepsTest {
                 runEnvironment,
                 executionRuntimeServices,
                 stepPublishValues,
+                null,
                 stepNavigationValues,
-                nodeName
+                nodeName,
+                2L
         );
 
         // verify expected behaviour
@@ -436,8 +725,10 @@ public class ParallelLoopStepsTest {
                 runEnvironment,
                 executionRuntimeServices,
                 new ArrayList<Output>(0),
+                null,
                 new HashMap<String, ResultNavigation>(),
-                "nodeName"
+                "nodeName",
+                2L
         );
     }
 
@@ -496,6 +787,37 @@ public class ParallelLoopStepsTest {
         return executionRuntimeServices;
     }
 
+    private List<RunEnvironment> captureBranchEnvironments(ExecutionRuntimeServices executionRuntimeServices, int branches) {
+        ArgumentCaptor<Map> branchContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(executionRuntimeServices, times(branches)).addBranch(anyLong(), anyString(), branchContextArgumentCaptor.capture());
+        List<RunEnvironment> branchEnvironments = new ArrayList<>();
+        for (Map branchContext : branchContextArgumentCaptor.getAllValues()) {
+            branchEnvironments.add((RunEnvironment) branchContext.get(ScoreLangConstants.RUN_ENV));
+        }
+        return branchEnvironments;
+    }
+
+    /**
+     * Completes a branch created by addBranches, with branchOutput in the context it returns
+     */
+    private EndBranchDataContainer finishBranch(RunEnvironment branchRuntimeEnvironment, int branchOutput) {
+        branchRuntimeEnvironment.getStack().popContext();
+        Map<String, Serializable> runtimeContext = new HashMap<>();
+        runtimeContext.put("branchOutput", branchOutput);
+        branchRuntimeEnvironment.getStack().pushContext(createContext(runtimeContext));
+        branchRuntimeEnvironment.putReturnValues(new ReturnValues(new HashMap<String, Value>(), ScoreLangConstants.SUCCESS_RESULT));
+        Map<String, Serializable> branchContext = new HashMap<>();
+        branchContext.put(ScoreLangConstants.RUN_ENV, branchRuntimeEnvironment);
+        return new EndBranchDataContainer(branchContext, new HashMap<String, Serializable>(), null);
+    }
+
+    private ExecutionRuntimeServices createExecutionRuntimeServicesMock(List<EndBranchDataContainer> finishedBranches) {
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        when(executionRuntimeServices.getFinishedChildBranchesData()).thenReturn(finishedBranches);
+        return executionRuntimeServices;
+    }
+
     private Context createContext(Map<String, Serializable> runtimeContext) {
         Map<String, Value> context = new HashMap<>(runtimeContext.size());
         for (Map.Entry<String, Serializable> entry : runtimeContext.entrySet()) {
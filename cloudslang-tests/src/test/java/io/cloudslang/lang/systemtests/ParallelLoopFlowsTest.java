@@ -106,6 +106,48 @@ public class ParallelLoopFlowsTest extends SystemsTestsParent {
         verifyPublishValues(runtimeInformation, expectedNameOutputs);
     }
 
+    @Test
+    public void testFlowWithParallelLoopAccumulate() throws Exception {
+        URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_accumulate.sl").toURI();
+        URI operation1 = getClass().getResource("/yaml/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = Sets.newHashSet(SlangSource.fromFile(operation1));
+
+        RuntimeInformation runtimeInformation = triggerWithData(
+                SlangSource.fromFile(resource),
+                path,
+                getSystemProperties()
+        );
+
+        List<StepData> branchesData = extractParallelLoopData(runtimeInformation);
+        Assert.assertEquals("incorrect number of branches", 3, branchesData.size());
+
+        List<String> expectedNameOutputs = verifyBranchPublishValues(branchesData);
+
+        verifyPublishValues(runtimeInformation, expectedNameOutputs);
+        Map<String, Serializable> publishValues = runtimeInformation.getParallelSteps().get(FIRST_STEP_PATH).getOutputs();
+        Assert.assertEquals("publish value not aggregated over the branches", 6, publishValues.get("int_output_sum"));
+    }
+
+    @Test
+    public void testFlowWithParallelLoopMaxParallelism() throws Exception {
+        URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_max_parallelism.sl").toURI();
+        URI operation1 = getClass().getResource("/yaml/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = Sets.newHashSet(SlangSource.fromFile(operation1));
+
+        RuntimeInformation runtimeInformation = triggerWithData(
+                SlangSource.fromFile(resource),
+                path,
+                getSystemProperties()
+        );
+
+        List<StepData> branchesData = extractParallelLoopData(runtimeInformation);
+        Assert.assertEquals("incorrect number of branches", 3, branchesData.size());
+
+        List<String> expectedNameOutputs = verifyBranchPublishValues(branchesData);
+
+        verifyPublishValues(runtimeInformation, expectedNameOutputs);
+    }
+
     @Test
     public void testFlowBranchResults() throws Exception {
         URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_branch_result.sl").toURI();